@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic benchmark inputs. Inputs are pairs of strings of
+ * equal length consisting of words separated by single spaces. The pair is
+ * either equal or consists of two strings that share no characters other than
+ * whitespace.
+ */
+public final class Inputs {
+
+	/**
+	 * Length of the generated strings in characters.
+	 */
+	public enum Length {
+		/**
+		 * Short strings such as names.
+		 */
+		SHORT(12),
+		/**
+		 * Medium length strings such as addresses.
+		 */
+		ADDRESS(100),
+		/**
+		 * Long strings such as documents.
+		 */
+		DOCUMENT(5 * 1024);
+
+		final int chars;
+
+		Length(int chars) {
+			this.chars = chars;
+		}
+	}
+
+	/**
+	 * Characters used in the generated strings.
+	 */
+	public enum Alphabet {
+		/**
+		 * Latin lower case letters.
+		 */
+		ASCII('a'),
+		/**
+		 * Mathematical bold lower case letters. These lie outside the basic
+		 * multilingual plane and are encoded as surrogate pairs.
+		 */
+		NON_BMP(0x1D41A);
+
+		private static final int LETTERS = 26;
+
+		final int first;
+
+		Alphabet(int first) {
+			this.first = first;
+		}
+	}
+
+	/**
+	 * Relation between the strings in a pair.
+	 */
+	public enum Pair {
+		/**
+		 * Strings are equal but not identical.
+		 */
+		EQUAL,
+		/**
+		 * Strings have no characters in common other than whitespace.
+		 */
+		DISJOINT
+	}
+
+	private static final long SEED = 0x5EED;
+
+	private static final int MIN_WORD = 3;
+	private static final int MAX_WORD = 9;
+
+	private Inputs() {
+		// Utility class
+	}
+
+	/**
+	 * Creates a pair of strings.
+	 * 
+	 * @param length
+	 *            length of both strings
+	 * @param alphabet
+	 *            alphabet of both strings
+	 * @param pair
+	 *            relation between the strings
+	 * @return an array containing two strings
+	 */
+	public static String[] create(Length length, Alphabet alphabet, Pair pair) {
+		final int half = Alphabet.LETTERS / 2;
+		final String a = text(length.chars, alphabet.first, half, new Random(SEED));
+
+		switch (pair) {
+		case EQUAL:
+			return new String[] { a, new String(a) };
+		case DISJOINT:
+			return new String[] { a, text(length.chars, alphabet.first + half, half, new Random(SEED + 1)) };
+		default:
+			throw new IllegalArgumentException(pair.toString());
+		}
+	}
+
+	private static String text(int length, int first, int letters, Random random) {
+		final StringBuilder text = new StringBuilder(length);
+
+		int word = 0;
+		while (text.length() < length) {
+			final int codePoint = first + random.nextInt(letters);
+			final boolean endOfWord = word == MAX_WORD || (word >= MIN_WORD && random.nextInt(MAX_WORD - MIN_WORD) == 0);
+
+			if (endOfWord || text.length() + Character.charCount(codePoint) > length) {
+				text.append(' ');
+				word = 0;
+			} else {
+				text.appendCodePoint(codePoint);
+				word++;
+			}
+		}
+
+		return text.toString();
+	}
+
+}
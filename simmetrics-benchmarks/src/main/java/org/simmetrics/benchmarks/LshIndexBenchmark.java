@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.simmetrics.search.LshIndex;
+import org.simmetrics.search.MinHash;
+import org.simmetrics.search.SimilarPair;
+
+/**
+ * Measures the average latency of indexing a collection of strings and finding
+ * all pairs above the threshold. The collection consists of groups of near
+ * duplicates of random address length strings.
+ * <p>
+ * Run with {@code -prof gc} to measure the memory allocated by the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LshIndexBenchmark {
+
+	private static final long SEED = 0x5EED;
+	private static final int GROUP = 5;
+	private static final int LENGTH = 100;
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	@Param({ "0.5", "0.8" })
+	public float threshold;
+
+	@Param({ "128" })
+	public int k;
+
+	private MinHash minHash;
+	private List<String> strings;
+
+	@Setup
+	public void setup() {
+		minHash = MinHash.onePermutation(qGram(3), k);
+		strings = strings(new Random(SEED), size);
+	}
+
+	private static List<String> strings(Random random, int size) {
+		final List<String> strings = new ArrayList<>(size);
+		final StringBuilder base = new StringBuilder(LENGTH);
+		for (int i = 0; i < size; i++) {
+			if (i % GROUP == 0) {
+				base.setLength(0);
+				for (int j = 0; j < LENGTH; j++) {
+					base.append((char) ('a' + random.nextInt(26)));
+				}
+			}
+			final StringBuilder mutated = new StringBuilder(base);
+			for (int j = 0; j < 3; j++) {
+				mutated.setCharAt(random.nextInt(LENGTH), (char) ('a' + random.nextInt(26)));
+			}
+			strings.add(mutated.toString());
+		}
+		return strings;
+	}
+
+	@Benchmark
+	public List<SimilarPair> similarPairs() {
+		final LshIndex index = new LshIndex(minHash, threshold);
+		for (String string : strings) {
+			index.add(string);
+		}
+		return index.similarPairs();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LshIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.simmetrics.benchmarks.Inputs.Alphabet;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.Inputs.Pair;
+import org.simmetrics.search.MinHash;
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Measures the average latency of creating a MinHash signature and the
+ * accuracy of the estimated Jaccard similarity.
+ * <p>
+ * The accuracy is reported as the {@code error} counter, the mean absolute
+ * error of the estimate over pairs of token sets with a known similarity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinHashBenchmark {
+
+	private static final long SEED = 0x5EED;
+	private static final int PAIRS = 100;
+
+	/**
+	 * Factories in {@link MinHash}.
+	 */
+	public enum Scheme {
+		kPermutations {
+			@Override
+			MinHash create(Tokenizer tokenizer, int k) {
+				return MinHash.kPermutations(tokenizer, k);
+			}
+		},
+		onePermutation {
+			@Override
+			MinHash create(Tokenizer tokenizer, int k) {
+				return MinHash.onePermutation(tokenizer, k);
+			}
+		};
+
+		abstract MinHash create(Tokenizer tokenizer, int k);
+	}
+
+	@Param
+	public Scheme scheme;
+
+	@Param({ "64", "128", "256" })
+	public int k;
+
+	@Param
+	public Length length;
+
+	private MinHash minHash;
+	private String input;
+	private double error;
+
+	/**
+	 * Accuracy of the estimate, reported once per iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Accuracy {
+
+		public double error;
+
+		@Setup(Level.Iteration)
+		public void setup(MinHashBenchmark benchmark) {
+			error = benchmark.error;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		minHash = scheme.create(qGram(3), k);
+		input = Inputs.create(length, Alphabet.ASCII, Pair.EQUAL)[0];
+		error = meanAbsoluteError(minHash, new Random(SEED));
+	}
+
+	private static double meanAbsoluteError(MinHash minHash, Random random) {
+		double sum = 0;
+		for (int i = 0; i < PAIRS; i++) {
+			// Two ranges of tokens with a random overlap
+			final int size = 10 + random.nextInt(500);
+			final int offset = random.nextInt(size + 1);
+			final Set<String> a = tokens(0, size);
+			final Set<String> b = tokens(offset, offset + size);
+
+			final double jaccard = (size - offset) / (double) (size + offset);
+			final float estimate = minHash.similarity(minHash.signature(a),
+					minHash.signature(b));
+			sum += Math.abs(estimate - jaccard);
+		}
+		return sum / PAIRS;
+	}
+
+	private static Set<String> tokens(int from, int to) {
+		final Set<String> tokens = new HashSet<>();
+		for (int i = from; i < to; i++) {
+			tokens.add("token" + i);
+		}
+		return tokens;
+	}
+
+	@Benchmark
+	public int[] signature(Accuracy accuracy) {
+		return minHash.signature(input);
+	}
+
+	double error() {
+		return error;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MinHashBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.simmetrics.StringDistance;
+import org.simmetrics.benchmarks.Inputs.Alphabet;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.Inputs.Pair;
+import org.simmetrics.metrics.StringDistances;
+
+/**
+ * Measures the average latency of every string distance metric in
+ * {@link StringDistances}.
+ * <p>
+ * Every combination of {@link Length}, {@link Alphabet} and {@link Pair} is
+ * measured. Some metrics have cubic time complexity, a full run over
+ * {@link Length#DOCUMENT} inputs may take very long. Restrict the parameters
+ * when needed e.g. {@code -p length=SHORT,ADDRESS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringDistancesBenchmark {
+
+	/**
+	 * Factories in {@link StringDistances}.
+	 */
+	public enum Factory {
+		blockDistance {
+			@Override
+			StringDistance create() {
+				return StringDistances.blockDistance();
+			}
+		},
+		cosineSimilarity {
+			@Override
+			StringDistance create() {
+				return StringDistances.cosineSimilarity();
+			}
+		},
+		damerauLevenshtein {
+			@Override
+			StringDistance create() {
+				return StringDistances.damerauLevenshtein();
+			}
+		},
+		dice {
+			@Override
+			StringDistance create() {
+				return StringDistances.dice();
+			}
+		},
+		euclideanDistance {
+			@Override
+			StringDistance create() {
+				return StringDistances.euclideanDistance();
+			}
+		},
+		generalizedJaccard {
+			@Override
+			StringDistance create() {
+				return StringDistances.generalizedJaccard();
+			}
+		},
+		hammingDistance {
+			@Override
+			StringDistance create() {
+				return StringDistances.hammingDistance();
+			}
+		},
+		identity {
+			@Override
+			StringDistance create() {
+				return StringDistances.identity();
+			}
+		},
+		jaccard {
+			@Override
+			StringDistance create() {
+				return StringDistances.jaccard();
+			}
+		},
+		jaro {
+			@Override
+			StringDistance create() {
+				return StringDistances.jaro();
+			}
+		},
+		jaroWinkler {
+			@Override
+			StringDistance create() {
+				return StringDistances.jaroWinkler();
+			}
+		},
+		levenshtein {
+			@Override
+			StringDistance create() {
+				return StringDistances.levenshtein();
+			}
+		},
+		longestCommonSubsequence {
+			@Override
+			StringDistance create() {
+				return StringDistances.longestCommonSubsequence();
+			}
+		},
+		longestCommonSubstring {
+			@Override
+			StringDistance create() {
+				return StringDistances.longestCommonSubstring();
+			}
+		},
+		overlapCoefficient {
+			@Override
+			StringDistance create() {
+				return StringDistances.overlapCoefficient();
+			}
+		},
+		qGramsDistance {
+			@Override
+			StringDistance create() {
+				return StringDistances.qGramsDistance();
+			}
+		},
+		simonWhite {
+			@Override
+			StringDistance create() {
+				return StringDistances.simonWhite();
+			}
+		};
+
+		abstract StringDistance create();
+	}
+
+	@Param
+	public Factory factory;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	@Param
+	public Pair pair;
+
+	private StringDistance metric;
+	private String a;
+	private String b;
+
+	@Setup
+	public void setup() {
+		final String[] strings = Inputs.create(length, alphabet, pair);
+		metric = factory.create();
+		a = strings[0];
+		b = strings[1];
+	}
+
+	@Benchmark
+	public float distance() {
+		return metric.distance(a, b);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(StringDistancesBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.simmetrics.StringMetric;
+import org.simmetrics.benchmarks.Inputs.Alphabet;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.Inputs.Pair;
+import org.simmetrics.metrics.StringMetrics;
+
+/**
+ * Measures the average latency of every string similarity metric in
+ * {@link StringMetrics}.
+ * <p>
+ * Every combination of {@link Length}, {@link Alphabet} and {@link Pair} is
+ * measured. Some metrics have cubic time complexity, a full run over
+ * {@link Length#DOCUMENT} inputs may take very long. Restrict the parameters
+ * when needed e.g. {@code -p length=SHORT,ADDRESS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringMetricsBenchmark {
+
+	/**
+	 * Factories in {@link StringMetrics}.
+	 */
+	@SuppressWarnings("deprecation")
+	public enum Factory {
+		blockDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.blockDistance();
+			}
+		},
+		cosineSimilarity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.cosineSimilarity();
+			}
+		},
+		damerauLevenshtein {
+			@Override
+			StringMetric create() {
+				return StringMetrics.damerauLevenshtein();
+			}
+		},
+		dice {
+			@Override
+			StringMetric create() {
+				return StringMetrics.dice();
+			}
+		},
+		euclideanDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.euclideanDistance();
+			}
+		},
+		generalizedJaccard {
+			@Override
+			StringMetric create() {
+				return StringMetrics.generalizedJaccard();
+			}
+		},
+		identity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.identity();
+			}
+		},
+		jaccard {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaccard();
+			}
+		},
+		jaro {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaro();
+			}
+		},
+		jaroWinkler {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaroWinkler();
+			}
+		},
+		levenshtein {
+			@Override
+			StringMetric create() {
+				return StringMetrics.levenshtein();
+			}
+		},
+		longestCommonSubsequence {
+			@Override
+			StringMetric create() {
+				return StringMetrics.longestCommonSubsequence();
+			}
+		},
+		longestCommonSubstring {
+			@Override
+			StringMetric create() {
+				return StringMetrics.longestCommonSubstring();
+			}
+		},
+		mongeElkan {
+			@Override
+			StringMetric create() {
+				return StringMetrics.mongeElkan();
+			}
+		},
+		needlemanWunch {
+			@Override
+			StringMetric create() {
+				return StringMetrics.needlemanWunch();
+			}
+		},
+		overlapCoefficient {
+			@Override
+			StringMetric create() {
+				return StringMetrics.overlapCoefficient();
+			}
+		},
+		qGramsDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.qGramsDistance();
+			}
+		},
+		simonWhite {
+			@Override
+			StringMetric create() {
+				return StringMetrics.simonWhite();
+			}
+		},
+		smithWaterman {
+			@Override
+			StringMetric create() {
+				return StringMetrics.smithWaterman();
+			}
+		},
+		smithWatermanGotoh {
+			@Override
+			StringMetric create() {
+				return StringMetrics.smithWatermanGotoh();
+			}
+		},
+		soundex {
+			@Override
+			StringMetric create() {
+				return StringMetrics.soundex();
+			}
+		};
+
+		abstract StringMetric create();
+	}
+
+	@Param
+	public Factory factory;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	@Param
+	public Pair pair;
+
+	private StringMetric metric;
+	private String a;
+	private String b;
+
+	@Setup
+	public void setup() {
+		final String[] strings = Inputs.create(length, alphabet, pair);
+		metric = factory.create();
+		a = strings[0];
+		b = strings[1];
+	}
+
+	@Benchmark
+	public float compare() {
+		return metric.compare(a, b);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(StringMetricsBenchmark.class.getSimpleName()).build()).run();
+	}
+}
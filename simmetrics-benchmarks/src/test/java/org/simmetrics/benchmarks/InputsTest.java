@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.Inputs.Alphabet;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.Inputs.Pair;
+
+@SuppressWarnings("javadoc")
+public class InputsTest {
+
+	@Test
+	public void shouldCreateStringsOfRequestedLength() {
+		for (Length length : Length.values()) {
+			for (Alphabet alphabet : Alphabet.values()) {
+				for (Pair pair : Pair.values()) {
+					String[] strings = Inputs.create(length, alphabet, pair);
+					assertEquals(length.chars, strings[0].length());
+					assertEquals(length.chars, strings[1].length());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void shouldCreateEqualStrings() {
+		for (Alphabet alphabet : Alphabet.values()) {
+			String[] strings = Inputs.create(Length.ADDRESS, alphabet, Pair.EQUAL);
+			assertEquals(strings[0], strings[1]);
+			assertNotSame(strings[0], strings[1]);
+		}
+	}
+
+	@Test
+	public void shouldCreateDisjointStrings() {
+		for (Alphabet alphabet : Alphabet.values()) {
+			String[] strings = Inputs.create(Length.ADDRESS, alphabet, Pair.DISJOINT);
+			Set<Integer> a = codePoints(strings[0]);
+			a.retainAll(codePoints(strings[1]));
+			a.remove((int) ' ');
+			assertEquals(new HashSet<Integer>(), a);
+		}
+	}
+
+	@Test
+	public void shouldCreateNonBmpStrings() {
+		String[] strings = Inputs.create(Length.SHORT, Alphabet.NON_BMP, Pair.DISJOINT);
+		for (String string : strings) {
+			assertFalse(codePoints(string).size() == string.length());
+			assertEquals(string.length(), string.codePointCount(0, string.length())
+					+ countSupplementary(string));
+		}
+	}
+
+	private static int countSupplementary(String string) {
+		int count = 0;
+		for (int i = 0; i < string.length(); i = string.offsetByCodePoints(i, 1)) {
+			if (Character.isSupplementaryCodePoint(string.codePointAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static Set<Integer> codePoints(String string) {
+		Set<Integer> codePoints = new HashSet<>();
+		for (int i = 0; i < string.length(); i = string.offsetByCodePoints(i, 1)) {
+			codePoints.add(string.codePointAt(i));
+		}
+		return codePoints;
+	}
+}
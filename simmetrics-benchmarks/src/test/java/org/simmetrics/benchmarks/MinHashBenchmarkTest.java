@@ -0,0 +1,46 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.MinHashBenchmark.Scheme;
+
+@SuppressWarnings("javadoc")
+public class MinHashBenchmarkTest {
+
+	@Test
+	public void smokeTest() {
+		for (Scheme scheme : Scheme.values()) {
+			for (Length length : Length.values()) {
+				MinHashBenchmark test = new MinHashBenchmark();
+				test.scheme = scheme;
+				test.k = 128;
+				test.length = length;
+				test.setup();
+				test.signature(new MinHashBenchmark.Accuracy());
+				assertTrue(test.error() < 0.1);
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.Inputs.Alphabet;
+import org.simmetrics.benchmarks.Inputs.Length;
+import org.simmetrics.benchmarks.Inputs.Pair;
+import org.simmetrics.benchmarks.StringMetricsBenchmark.Factory;
+
+@SuppressWarnings("javadoc")
+public class StringMetricsBenchmarkTest {
+
+	@Test
+	public void smokeTest() {
+		// Documents are skipped, cubic metrics would take too long
+		for (Length length : new Length[] { Length.SHORT, Length.ADDRESS }) {
+			for (Alphabet alphabet : Alphabet.values()) {
+				for (Pair pair : Pair.values()) {
+					for (Factory factory : Factory.values()) {
+						StringMetricsBenchmark test = new StringMetricsBenchmark();
+						test.factory = factory;
+						test.length = length;
+						test.alphabet = alphabet;
+						test.pair = pair;
+						test.setup();
+						test.compare();
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import java.util.List;
+
+/**
+ * A string similarity metric that compares a query against many candidates at
+ * once. Work that only depends on the query, such as simplifying and
+ * tokenizing it, is done once per call rather than once per candidate.
+ * <p>
+ * A batch comparison should be consistent with the metric such that
+ * {@code similarities[i] == compare(query, candidates.get(i))}.
+ */
+public interface BatchStringMetric extends StringMetric {
+
+	/**
+	 * Measures the similarity between the query and each candidate. The
+	 * similarity of {@code candidates.get(i)} is written to
+	 * {@code similarities[i]}.
+	 * 
+	 * @param query
+	 *            the string to compare against the candidates
+	 * @param candidates
+	 *            the strings to compare the query with
+	 * @param similarities
+	 *            array to write the similarities to, at least as long as the
+	 *            list of candidates
+	 * @throws NullPointerException
+	 *             when the query, a candidate or the array is null
+	 * @throws IllegalArgumentException
+	 *             when the array is shorter than the list of candidates
+	 */
+	void compare(String query, List<String> candidates, float[] similarities);
+
+	/**
+	 * Measures the similarity between the query and the candidates from index
+	 * {@code from} (inclusive) to index {@code to} (exclusive). The similarity
+	 * of {@code candidates[from + i]} is written to {@code similarities[i]}.
+	 * 
+	 * @param query
+	 *            the string to compare against the candidates
+	 * @param candidates
+	 *            the strings to compare the query with
+	 * @param from
+	 *            index of the first candidate
+	 * @param to
+	 *            index after the last candidate
+	 * @param similarities
+	 *            array to write the similarities to, at least
+	 *            {@code to - from} long
+	 * @throws NullPointerException
+	 *             when the query, a candidate or either array is null
+	 * @throws IndexOutOfBoundsException
+	 *             when the range is not within the candidates
+	 * @throws IllegalArgumentException
+	 *             when the array is shorter than the range
+	 */
+	void compare(String query, String[] candidates, int from, int to,
+			float[] similarities);
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.asList;
+
+import java.util.List;
+
+/**
+ * Helpers for implementing {@link BatchStringMetric}.
+ * <p>
+ * Batch comparisons come in a few shapes: comparing the query with each
+ * candidate, comparing a query prepared once, and comparing a query
+ * preprocessed once. Each shape is provided here along with the argument
+ * checks shared by all implementations.
+ */
+public final class BatchStringMetrics {
+
+	private BatchStringMetrics() {
+		// Utility class
+	}
+
+	/**
+	 * Checks that the array can hold a similarity for every candidate.
+	 * 
+	 * @param candidates
+	 *            the candidates to compare
+	 * @param similarities
+	 *            the array to write the similarities to
+	 * @throws IllegalArgumentException
+	 *             when the array is shorter than the list of candidates
+	 */
+	public static void checkSimilarities(List<String> candidates,
+			float[] similarities) {
+		checkArgument(similarities.length >= candidates.size(),
+				"similarities must be at least as long as candidates");
+	}
+
+	/**
+	 * Returns a view of the candidates from index {@code from} (inclusive) to
+	 * index {@code to} (exclusive). Used to implement
+	 * {@link BatchStringMetric#compare(String, String[], int, int, float[])}
+	 * in terms of
+	 * {@link BatchStringMetric#compare(String, List, float[])}.
+	 * 
+	 * @param candidates
+	 *            the candidates
+	 * @param from
+	 *            index of the first candidate
+	 * @param to
+	 *            index after the last candidate
+	 * @return a view of the range of candidates
+	 * @throws IndexOutOfBoundsException
+	 *             when the range is not within the candidates
+	 */
+	public static List<String> range(String[] candidates, int from, int to) {
+		return asList(candidates).subList(from, to);
+	}
+
+	/**
+	 * Compares the query with each candidate.
+	 * 
+	 * @param metric
+	 *            the metric to compare with
+	 * @param query
+	 *            the string to compare against the candidates
+	 * @param candidates
+	 *            the strings to compare the query with
+	 * @param similarities
+	 *            array to write the similarities to
+	 */
+	public static void compareEach(StringMetric metric, String query,
+			List<String> candidates, float[] similarities) {
+		checkSimilarities(candidates, similarities);
+		checkNotNull(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			similarities[i++] = metric.compare(query, candidate);
+		}
+	}
+
+	/**
+	 * Prepares the query once and compares it with each candidate.
+	 * 
+	 * @param metric
+	 *            the metric to compare with
+	 * @param query
+	 *            the string to compare against the candidates
+	 * @param candidates
+	 *            the strings to compare the query with
+	 * @param similarities
+	 *            array to write the similarities to
+	 */
+	public static void comparePrepared(PreparableStringMetric metric,
+			String query, List<String> candidates, float[] similarities) {
+		checkSimilarities(candidates, similarities);
+		final PreparedQuery prepared = metric.prepare(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			similarities[i++] = prepared.compare(candidate);
+		}
+	}
+
+	/**
+	 * Preprocesses the query once and compares it with each preprocessed
+	 * candidate.
+	 * 
+	 * @param metric
+	 *            the metric to compare with
+	 * @param query
+	 *            the string to compare against the candidates
+	 * @param candidates
+	 *            the strings to compare the query with
+	 * @param similarities
+	 *            array to write the similarities to
+	 * @param <T>
+	 *            the type of a preprocessed string
+	 */
+	public static <T> void comparePreprocessed(
+			PreprocessingStringMetric<T> metric, String query,
+			List<String> candidates, float[] similarities) {
+		checkSimilarities(candidates, similarities);
+		final T preprocessed = metric.preprocess(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			similarities[i++] = metric.comparePreprocessed(preprocessed,
+					metric.preprocess(candidate));
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * Measures the similarity between two sets of token ids. Sets are represented
+ * as arrays of distinct ids in ascending order, as created by an
+ * {@link org.simmetrics.tokenizers.IdTokenizer}. This allows the intersection
+ * of two sets to be computed by merging the arrays.
+ * <p>
+ * The similarity measure should be consistent with the similarity of the
+ * tokens the ids represent, such that for a set metric implementing both
+ * interfaces {@code compare(ids(a),ids(b)) == compare(a,b)}.
+ * 
+ * @see SetMetric
+ */
+public interface IdSetMetric {
+
+	/**
+	 * Measures the similarity between sets of ids a and b. The measurement
+	 * results in a value between 0 and 1 inclusive. A value of zero indicates
+	 * that the sets are dissimilar, a value of 1 indicates they are similar.
+	 * <p>
+	 * Results are undefined if the arrays are not sorted, contain duplicates or
+	 * contain ids from different tokenizers.
+	 * 
+	 * @param a
+	 *            sorted ids of set a to compare
+	 * @param b
+	 *            sorted ids of set b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compare(long[] a, long[] b);
+
+}
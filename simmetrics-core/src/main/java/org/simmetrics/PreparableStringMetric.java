@@ -0,0 +1,44 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string similarity metric that can prepare a string for repeated
+ * comparison. Useful when one string is compared against many others.
+ * <p>
+ * A prepared query should be consistent with the metric such that
+ * {@code prepare(a).compare(b) == compare(a,b)}.
+ * 
+ * @see PreparedQuery
+ */
+public interface PreparableStringMetric extends StringMetric {
+
+	/**
+	 * Prepares string a for comparison against other strings.
+	 * 
+	 * @param a
+	 *            string a to prepare
+	 * @return a prepared query
+	 * @throws NullPointerException
+	 *             when a is null
+	 */
+	PreparedQuery prepare(String a);
+}
@@ -0,0 +1,42 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string prepared by a {@link PreparableStringMetric}. Compares the prepared
+ * string against other strings.
+ * <p>
+ * Prepared queries are immutable and thread-safe if the metric that prepared
+ * them is.
+ */
+public interface PreparedQuery {
+
+	/**
+	 * Measures the similarity between the prepared string and string b.
+	 * 
+	 * @param b
+	 *            string b to compare
+	 * @return the similarity between the prepared string and b
+	 * @throws NullPointerException
+	 *             when b is null
+	 */
+	float compare(String b);
+}
@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string similarity metric that converts strings into another
+ * representation before comparing them, for example by simplifying and
+ * tokenizing them. Useful when strings are compared many times; each string
+ * can be preprocessed once.
+ * <p>
+ * The metric should be consistent with its preprocessing such that
+ * {@code comparePreprocessed(preprocess(a), preprocess(b)) == compare(a,b)}.
+ * 
+ * @param <T>
+ *            the type of preprocessed strings
+ */
+public interface PreprocessingStringMetric<T> extends StringMetric {
+
+	/**
+	 * Converts string a into the representation compared by this metric.
+	 * 
+	 * @param a
+	 *            string a to preprocess
+	 * @return the preprocessed string
+	 * @throws NullPointerException
+	 *             when a is null
+	 */
+	T preprocess(String a);
+
+	/**
+	 * Measures the similarity between preprocessed strings a and b.
+	 * 
+	 * @param a
+	 *            preprocessed string a to compare
+	 * @param b
+	 *            preprocessed string b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float comparePreprocessed(T a, T b);
+}
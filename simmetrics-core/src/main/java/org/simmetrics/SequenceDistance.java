@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * Measures the unnormalized dissimilarity between two sequences of integers
+ * such as tokenized text or event streams encoded as ids. The measurement
+ * results in a non-negative value. A value of zero indicates that the
+ * sequences are similar.
+ * <p>
+ * Elements are compared by value. Implementations that also measure the
+ * distance between strings give the same result for a sequence as for a
+ * string with the same pattern of equal elements.
+ * 
+ * @see StringDistance
+ * @see ListDistance
+ */
+public interface SequenceDistance {
+
+	/**
+	 * Measures the distance between sequence a and b. The measurement results
+	 * in a non-negative value. A value of {@code 0.0} indicates that {@code a}
+	 * and {@code b} are similar.
+	 * 
+	 * @param a
+	 *            sequence a to compare
+	 * @param b
+	 *            sequence b to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float distance(int[] a, int[] b);
+
+	/**
+	 * Measures the distance between sequence a and b. The measurement results
+	 * in a non-negative value. A value of {@code 0.0} indicates that {@code a}
+	 * and {@code b} are similar.
+	 * 
+	 * @param a
+	 *            sequence a to compare
+	 * @param b
+	 *            sequence b to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float distance(long[] a, long[] b);
+}
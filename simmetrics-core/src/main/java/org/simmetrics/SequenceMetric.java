@@ -0,0 +1,69 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * Measures the similarity between two sequences of integers such as
+ * tokenized text or event streams encoded as ids. The measurement results in
+ * a value between 0 and 1 inclusive. A value of zero indicates that the
+ * sequences are dissimilar, a value of 1 indicates they are similar.
+ * <p>
+ * Elements are compared by value. Implementations that also compare strings
+ * give the same result for a sequence as for a string with the same pattern
+ * of equal elements.
+ * 
+ * @see StringMetric
+ * @see ListMetric
+ */
+public interface SequenceMetric {
+
+	/**
+	 * Measures the similarity between sequence a and b. The measurement
+	 * results in a value between 0 and 1 inclusive. A value of zero indicates
+	 * that the sequences are dissimilar, a value of 1 indicates they are
+	 * similar.
+	 * 
+	 * @param a
+	 *            sequence a to compare
+	 * @param b
+	 *            sequence b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compare(int[] a, int[] b);
+
+	/**
+	 * Measures the similarity between sequence a and b. The measurement
+	 * results in a value between 0 and 1 inclusive. A value of zero indicates
+	 * that the sequences are dissimilar, a value of 1 indicates they are
+	 * similar.
+	 * 
+	 * @param a
+	 *            sequence a to compare
+	 * @param b
+	 *            sequence b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compare(long[] a, long[] b);
+}
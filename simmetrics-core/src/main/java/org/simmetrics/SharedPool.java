@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static java.util.concurrent.ForkJoinTask.inForkJoinPool;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The fork-join pool shared by the parallel algorithms of this library.
+ * <p>
+ * The pool is created on first use with a parallelism equal to the number of
+ * available processors.
+ */
+public final class SharedPool {
+
+	private SharedPool() {
+		// Utility class
+	}
+
+	private static final class Holder {
+		static final ForkJoinPool INSTANCE = new ForkJoinPool();
+	}
+
+	/**
+	 * Runs the task and returns its result. When called from a fork-join
+	 * pool the task runs in that pool, otherwise it runs in the shared pool.
+	 * 
+	 * @param task
+	 *            the task to run
+	 * @param <T>
+	 *            the type of the result
+	 * @return the result of the task
+	 */
+	public static <T> T invoke(ForkJoinTask<T> task) {
+		if (inForkJoinPool()) {
+			return task.invoke();
+		}
+		return Holder.INSTANCE.invoke(task);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string distance that can stop early once the distance between two strings
+ * is known to exceed a maximum. Useful when only distances up to a threshold
+ * are of interest.
+ * <p>
+ * For all {@code maxDistance} the thresholded distance should be consistent
+ * with the unbounded distance such that
+ * {@code distance(a,b) <= maxDistance => distance(a,b,maxDistance) == distance(a,b)}
+ * and
+ * {@code distance(a,b) > maxDistance => distance(a,b,maxDistance) > maxDistance}
+ * .
+ */
+public interface ThresholdedStringDistance extends StringDistance {
+
+	/**
+	 * Measures the distance between string a and b provided it does not exceed
+	 * {@code maxDistance}. When the distance exceeds {@code maxDistance} an
+	 * unspecified value greater than {@code maxDistance} is returned.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param maxDistance
+	 *            the maximum distance of interest
+	 * @return the distance between a and b or a value greater than
+	 *         {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float distance(String a, String b, float maxDistance);
+}
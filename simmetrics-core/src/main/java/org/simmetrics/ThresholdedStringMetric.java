@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string similarity metric that can stop early once the similarity between
+ * two strings is known to be less than a minimum. Useful when only
+ * similarities from a threshold upwards are of interest.
+ * <p>
+ * For all {@code minSimilarity} the thresholded similarity should be
+ * consistent with the unbounded similarity such that
+ * {@code compare(a,b) >= minSimilarity => compareAtLeast(a,b,minSimilarity) == compare(a,b)}
+ * and
+ * {@code compare(a,b) < minSimilarity => compareAtLeast(a,b,minSimilarity) < minSimilarity}
+ * .
+ */
+public interface ThresholdedStringMetric extends StringMetric {
+
+	/**
+	 * Measures the similarity between strings a and b provided it is at least
+	 * {@code minSimilarity}. When the similarity is less than
+	 * {@code minSimilarity} an unspecified value between 0 and
+	 * {@code minSimilarity} (exclusive) is returned.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param minSimilarity
+	 *            the minimum similarity of interest
+	 * @return the similarity between a and b or a value less than
+	 *         {@code minSimilarity}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compareAtLeast(String a, String b, float minSimilarity);
+}
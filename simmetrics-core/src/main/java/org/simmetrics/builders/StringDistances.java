@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.simmetrics.Distance;
+import org.simmetrics.PreprocessingStringDistance;
 import org.simmetrics.StringDistance;
 import org.simmetrics.simplifiers.Simplifier;
 import org.simmetrics.tokenizers.Tokenizer;
@@ -94,7 +95,7 @@ final class StringDistances {
 		return new ForMultiset(distance, tokenizer);
 	}
 	
-	static final class ForList implements StringDistance {
+	static final class ForList implements PreprocessingStringDistance<List<String>> {
 		private final Distance<List<String>> distance;
 		private final Tokenizer tokenizer;
 
@@ -109,7 +110,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToList(a), tokenizer.tokenizeToList(b));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public List<String> preprocess(String a) {
+			return tokenizer.tokenizeToList(a);
+		}
+
+		@Override
+		public float distancePreprocessed(List<String> a, List<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<List<String>> getDistance() {
@@ -126,7 +137,7 @@ final class StringDistances {
 		}
 	}
 
-	static final class ForListWithSimplifier implements StringDistance {
+	static final class ForListWithSimplifier implements PreprocessingStringDistance<List<String>> {
 		private final Distance<List<String>> distance;
 		private final Simplifier simplifier;
 		private final Tokenizer tokenizer;
@@ -144,8 +155,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToList(simplifier.simplify(a)),
-					tokenizer.tokenizeToList(simplifier.simplify(b)));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public List<String> preprocess(String a) {
+			return tokenizer.tokenizeToList(simplifier.simplify(a));
+		}
+
+		@Override
+		public float distancePreprocessed(List<String> a, List<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<List<String>> getDistance() {
@@ -166,7 +186,7 @@ final class StringDistances {
 		}
 	}
 
-	static final class ForSet implements StringDistance {
+	static final class ForSet implements PreprocessingStringDistance<Set<String>> {
 
 		private final Distance<Set<String>> distance;
 		private final Tokenizer tokenizer;
@@ -181,7 +201,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Set<String> preprocess(String a) {
+			return tokenizer.tokenizeToSet(a);
+		}
+
+		@Override
+		public float distancePreprocessed(Set<String> a, Set<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<Set<String>> getDistance() {
@@ -199,7 +229,7 @@ final class StringDistances {
 
 	}
 
-	static final class ForSetWithSimplifier implements StringDistance {
+	static final class ForSetWithSimplifier implements PreprocessingStringDistance<Set<String>> {
 
 		private final Distance<Set<String>> distance;
 		private final Simplifier simplifier;
@@ -217,8 +247,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToSet(simplifier.simplify(a)),
-					tokenizer.tokenizeToSet(simplifier.simplify(b)));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Set<String> preprocess(String a) {
+			return tokenizer.tokenizeToSet(simplifier.simplify(a));
+		}
+
+		@Override
+		public float distancePreprocessed(Set<String> a, Set<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<Set<String>> getDistance() {
@@ -239,7 +278,7 @@ final class StringDistances {
 		}
 
 	}
-	static final class ForMultiset implements StringDistance {
+	static final class ForMultiset implements PreprocessingStringDistance<Multiset<String>> {
 
 		private final Distance<Multiset<String>> distance;
 		private final Tokenizer tokenizer;
@@ -254,7 +293,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToMultiset(a), tokenizer.tokenizeToMultiset(b));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Multiset<String> preprocess(String a) {
+			return tokenizer.tokenizeToMultiset(a);
+		}
+
+		@Override
+		public float distancePreprocessed(Multiset<String> a, Multiset<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<Multiset<String>> getDistance() {
@@ -272,7 +321,7 @@ final class StringDistances {
 
 	}
 
-	static final class ForMultisetWithSimplifier implements StringDistance {
+	static final class ForMultisetWithSimplifier implements PreprocessingStringDistance<Multiset<String>> {
 
 		private final Distance<Multiset<String>> distance;
 		private final Simplifier simplifier;
@@ -290,8 +339,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(tokenizer.tokenizeToMultiset(simplifier.simplify(a)),
-					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Multiset<String> preprocess(String a) {
+			return tokenizer.tokenizeToMultiset(simplifier.simplify(a));
+		}
+
+		@Override
+		public float distancePreprocessed(Multiset<String> a, Multiset<String> b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<Multiset<String>> getDistance() {
@@ -335,7 +393,7 @@ final class StringDistances {
 
 	}
 
-	static final class ForStringWithSimplifier implements StringDistance {
+	static final class ForStringWithSimplifier implements PreprocessingStringDistance<String> {
 
 		private final Distance<String> distance;
 
@@ -351,7 +409,17 @@ final class StringDistances {
 
 		@Override
 		public float distance(String a, String b) {
-			return distance.distance(simplifier.simplify(a), simplifier.simplify(b));
+			return distance.distance(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public String preprocess(String a) {
+			return simplifier.simplify(a);
+		}
+
+		@Override
+		public float distancePreprocessed(String a, String b) {
+			return distance.distance(a, b);
 		}
 
 		Distance<String> getDistance() {
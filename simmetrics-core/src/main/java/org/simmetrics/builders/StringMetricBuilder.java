@@ -21,7 +21,10 @@
 package org.simmetrics.builders;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static org.simmetrics.builders.StringMetrics.create;
+import static org.simmetrics.builders.StringMetrics.createForIdMultisetMetric;
+import static org.simmetrics.builders.StringMetrics.createForIdSetMetric;
 import static org.simmetrics.builders.StringMetrics.createForListMetric;
 import static org.simmetrics.builders.StringMetrics.createForMultisetMetric;
 import static org.simmetrics.builders.StringMetrics.createForSetMetric;
@@ -33,6 +36,8 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
+import org.simmetrics.IdMultisetMetric;
+import org.simmetrics.IdSetMetric;
 import org.simmetrics.ListMetric;
 import org.simmetrics.Metric;
 import org.simmetrics.MultisetMetric;
@@ -40,6 +45,8 @@ import org.simmetrics.SetMetric;
 import org.simmetrics.StringMetric;
 import org.simmetrics.simplifiers.Simplifier;
 import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.IdTokenizer;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
@@ -297,6 +304,43 @@ public final class StringMetricBuilder {
 		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Maps tokens to ids in a dictionary before comparing them. Metrics
+		 * that implement {@link IdSetMetric} or {@link IdMultisetMetric}
+		 * compare sorted arrays of ids rather than sets of strings. Other
+		 * metrics compare tokens as before.
+		 * <p>
+		 * The dictionary grows with every new token and may be shared between
+		 * metrics.
+		 * 
+		 * @param dictionary
+		 *            a dictionary to map tokens to ids
+		 * @return this for fluent chaining
+		 * @throws IllegalStateException
+		 *             when the metric compares lists of tokens
+		 */
+		BuildStep internTokens(TokenDictionary dictionary);
+
+		/**
+		 * Creates ids for q-gram tokens without creating strings. Metrics that
+		 * implement {@link IdSetMetric} or {@link IdMultisetMetric} compare
+		 * sorted arrays of ids rather than sets of strings. Other metrics
+		 * compare tokens as before.
+		 * <p>
+		 * Requires the tokenizers to be a single q-gram tokenizer, optionally
+		 * preceded by a whitespace tokenizer, without filters or transforms.
+		 * Q-grams of up to three code points are compared exactly, longer
+		 * q-grams are compared by their 64 bit hashes.
+		 * 
+		 * @return this for fluent chaining
+		 * @throws IllegalStateException
+		 *             when the metric compares lists of tokens
+		 * @throws IllegalArgumentException
+		 *             when the tokenizers can not be hashed
+		 * @see Tokenizers#hashed(Tokenizer)
+		 */
+		BuildStep hashTokens();
+
 		/**
 		 * Builds a similarity metric that will use the given simplification,
 		 * tokenization and filtering steps.
@@ -363,6 +407,8 @@ public final class StringMetricBuilder {
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 		private final List<Tokenizer> tokenizers = new ArrayList<>();
 
+		private IdTokenizer idTokenizer;
+
 		CompositeCollectionMetricBuilder(Metric<T> metric) {
 			checkNotNull(metric);
 			this.metric = metric;
@@ -373,6 +419,13 @@ public final class StringMetricBuilder {
 
 			Tokenizer tokenizer = chainTokenizers();
 
+			if (idTokenizer != null) {
+				if (simplifiers.isEmpty()) {
+					return build(metric, tokenizer, idTokenizer);
+				}
+				return build(metric, chainSimplifiers(), tokenizer, idTokenizer);
+			}
+
 			if (simplifiers.isEmpty()) {
 				return build(metric, tokenizer);
 			}
@@ -385,6 +438,40 @@ public final class StringMetricBuilder {
 
 		abstract StringMetric build(Metric<T> metric, Tokenizer tokenizer);
 
+		StringMetric build(Metric<T> metric, Simplifier simplifier,
+				Tokenizer tokenizer, IdTokenizer idTokenizer) {
+			return build(metric, simplifier, tokenizer);
+		}
+
+		StringMetric build(Metric<T> metric, Tokenizer tokenizer,
+				IdTokenizer idTokenizer) {
+			return build(metric, tokenizer);
+		}
+
+		// Ids form sets and multisets, they do not keep the order of tokens
+		boolean supportsIds() {
+			return true;
+		}
+
+		@Override
+		public final BuildStep internTokens(TokenDictionary dictionary) {
+			checkNotNull(dictionary);
+			checkState(supportsIds(), "lists of tokens can not be interned");
+			final Tokenizer tokenizer = chainTokenizers();
+			tokenizers.add(tokenizer);
+			this.idTokenizer = dictionary.tokenizer(tokenizer);
+			return this;
+		}
+
+		@Override
+		public final BuildStep hashTokens() {
+			checkState(supportsIds(), "lists of tokens can not be hashed");
+			final Tokenizer tokenizer = chainTokenizers();
+			tokenizers.add(tokenizer);
+			this.idTokenizer = Tokenizers.hashed(tokenizer);
+			return this;
+		}
+
 		@Override
 		public final BuildStep cacheTokens(Cache<String, T> cache) {
 			checkNotNull(cache);
@@ -479,6 +566,11 @@ public final class StringMetricBuilder {
 			return createForListMetric(metric, tokenizer);
 		}
 
+		@Override
+		boolean supportsIds() {
+			return false;
+		}
+
 		@Override
 		protected Tokenizer createCachingTokenizer(
 				Cache<String, List<String>> cache, Tokenizer tokenizer) {
@@ -505,6 +597,25 @@ public final class StringMetricBuilder {
 			return createForSetMetric(metric, tokenizer);
 		}
 
+		@Override
+		StringMetric build(Metric<Set<String>> metric, Simplifier simplifier,
+				Tokenizer tokenizer, IdTokenizer idTokenizer) {
+			if (metric instanceof IdSetMetric) {
+				return createForIdSetMetric((IdSetMetric) metric, simplifier,
+						idTokenizer);
+			}
+			return build(metric, simplifier, tokenizer);
+		}
+
+		@Override
+		StringMetric build(Metric<Set<String>> metric, Tokenizer tokenizer,
+				IdTokenizer idTokenizer) {
+			if (metric instanceof IdSetMetric) {
+				return createForIdSetMetric((IdSetMetric) metric, idTokenizer);
+			}
+			return build(metric, tokenizer);
+		}
+
 		@Override
 		protected Tokenizer createCachingTokenizer(
 				Cache<String, Set<String>> cache, Tokenizer tokenizer) {
@@ -531,6 +642,27 @@ public final class StringMetricBuilder {
 			return createForMultisetMetric(metric, tokenizer);
 		}
 
+		@Override
+		StringMetric build(Metric<Multiset<String>> metric,
+				Simplifier simplifier, Tokenizer tokenizer,
+				IdTokenizer idTokenizer) {
+			if (metric instanceof IdMultisetMetric) {
+				return createForIdMultisetMetric((IdMultisetMetric) metric,
+						simplifier, idTokenizer);
+			}
+			return build(metric, simplifier, tokenizer);
+		}
+
+		@Override
+		StringMetric build(Metric<Multiset<String>> metric,
+				Tokenizer tokenizer, IdTokenizer idTokenizer) {
+			if (metric instanceof IdMultisetMetric) {
+				return createForIdMultisetMetric((IdMultisetMetric) metric,
+						idTokenizer);
+			}
+			return build(metric, tokenizer);
+		}
+
 		@Override
 		protected Tokenizer createCachingTokenizer(
 				Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
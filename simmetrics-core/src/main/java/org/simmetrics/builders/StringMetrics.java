@@ -20,12 +20,22 @@
 
 package org.simmetrics.builders;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.simmetrics.BatchStringMetrics.range;
+
 import java.util.List;
 import java.util.Set;
 
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.BatchStringMetrics;
+import org.simmetrics.IdMultisetMetric;
+import org.simmetrics.IdSetMetric;
 import org.simmetrics.Metric;
+import org.simmetrics.PreprocessingStringMetric;
 import org.simmetrics.StringMetric;
 import org.simmetrics.simplifiers.Simplifier;
+import org.simmetrics.tokenizers.IdMultiset;
+import org.simmetrics.tokenizers.IdTokenizer;
 import org.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.collect.Multiset;
@@ -77,6 +87,265 @@ final class StringMetrics {
 		return org.simmetrics.metrics.StringMetrics.createForMultisetMetric(metric, tokenizer);
 	}
 
+	public static StringMetric createForIdSetMetric(IdSetMetric metric, Simplifier simplifier,
+			IdTokenizer tokenizer) {
+		return new ForIdSetWithSimplifier(metric, simplifier, tokenizer);
+	}
+
+	public static StringMetric createForIdSetMetric(IdSetMetric metric, IdTokenizer tokenizer) {
+		return new ForIdSet(metric, tokenizer);
+	}
+
+	public static StringMetric createForIdMultisetMetric(IdMultisetMetric metric, Simplifier simplifier,
+			IdTokenizer tokenizer) {
+		return new ForIdMultisetWithSimplifier(metric, simplifier, tokenizer);
+	}
+
+	public static StringMetric createForIdMultisetMetric(IdMultisetMetric metric, IdTokenizer tokenizer) {
+		return new ForIdMultiset(metric, tokenizer);
+	}
+
+	static final class ForIdSet implements PreprocessingStringMetric<long[]>,
+			BatchStringMetric {
+
+		private final IdSetMetric metric;
+		private final IdTokenizer tokenizer;
+
+		ForIdSet(IdSetMetric metric, IdTokenizer tokenizer) {
+			checkNotNull(metric);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public long[] preprocess(String a) {
+			return tokenizer.tokenizeToIdSet(a);
+		}
+
+		@Override
+		public float comparePreprocessed(long[] a, long[] b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
+		}
+
+		IdSetMetric getMetric() {
+			return metric;
+		}
+
+		IdTokenizer getTokenizer() {
+			return tokenizer;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " [" + tokenizer + "]";
+		}
+
+	}
+
+	static final class ForIdSetWithSimplifier implements PreprocessingStringMetric<long[]>,
+			BatchStringMetric {
+
+		private final IdSetMetric metric;
+		private final Simplifier simplifier;
+		private final IdTokenizer tokenizer;
+
+		ForIdSetWithSimplifier(IdSetMetric metric, Simplifier simplifier, IdTokenizer tokenizer) {
+			checkNotNull(metric);
+			checkNotNull(simplifier);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.simplifier = simplifier;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public long[] preprocess(String a) {
+			return tokenizer.tokenizeToIdSet(simplifier.simplify(a));
+		}
+
+		@Override
+		public float comparePreprocessed(long[] a, long[] b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
+		}
+
+		IdSetMetric getMetric() {
+			return metric;
+		}
+
+		Simplifier getSimplifier() {
+			return simplifier;
+		}
+
+		IdTokenizer getTokenizer() {
+			return tokenizer;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " [" + simplifier + " -> " + tokenizer + "]";
+		}
+
+	}
+
+	static final class ForIdMultiset implements PreprocessingStringMetric<IdMultiset>,
+			BatchStringMetric {
+
+		private final IdMultisetMetric metric;
+		private final IdTokenizer tokenizer;
+
+		ForIdMultiset(IdMultisetMetric metric, IdTokenizer tokenizer) {
+			checkNotNull(metric);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public IdMultiset preprocess(String a) {
+			return tokenizer.tokenizeToIdMultiset(a);
+		}
+
+		@Override
+		public float comparePreprocessed(IdMultiset a, IdMultiset b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
+		}
+
+		IdMultisetMetric getMetric() {
+			return metric;
+		}
+
+		IdTokenizer getTokenizer() {
+			return tokenizer;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " [" + tokenizer + "]";
+		}
+
+	}
+
+	static final class ForIdMultisetWithSimplifier implements PreprocessingStringMetric<IdMultiset>,
+			BatchStringMetric {
+
+		private final IdMultisetMetric metric;
+		private final Simplifier simplifier;
+		private final IdTokenizer tokenizer;
+
+		ForIdMultisetWithSimplifier(IdMultisetMetric metric, Simplifier simplifier, IdTokenizer tokenizer) {
+			checkNotNull(metric);
+			checkNotNull(simplifier);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.simplifier = simplifier;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public IdMultiset preprocess(String a) {
+			return tokenizer.tokenizeToIdMultiset(simplifier.simplify(a));
+		}
+
+		@Override
+		public float comparePreprocessed(IdMultiset a, IdMultiset b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
+		}
+
+		IdMultisetMetric getMetric() {
+			return metric;
+		}
+
+		Simplifier getSimplifier() {
+			return simplifier;
+		}
+
+		IdTokenizer getTokenizer() {
+			return tokenizer;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " [" + simplifier + " -> " + tokenizer + "]";
+		}
+
+	}
 
 	private StringMetrics() {
 		// Utility class.
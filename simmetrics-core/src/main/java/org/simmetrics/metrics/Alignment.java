@@ -0,0 +1,194 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * An alignment of two strings. An alignment is a sequence of columns. Each
+ * column pairs a character of string a with a character of string b or with a
+ * gap. A global alignment covers both strings entirely, a local alignment
+ * covers a substring of each.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see NeedlemanWunch#align(String, String)
+ * @see SmithWatermanGotoh#align(String, String)
+ */
+public final class Alignment {
+
+	/**
+	 * The operation in a column of an alignment.
+	 */
+	public enum Operation {
+		/**
+		 * Pairs a character in a with an equal character in b.
+		 */
+		MATCH,
+		/**
+		 * Pairs a character in a with an unequal character in b.
+		 */
+		SUBSTITUTION,
+		/**
+		 * Pairs a character in a with a gap.
+		 */
+		DELETION,
+		/**
+		 * Pairs a gap with a character in b.
+		 */
+		INSERTION
+	}
+
+	private static final Operation[] OPERATIONS = Operation.values();
+
+	private final String a;
+	private final String b;
+	private final int aStart;
+	private final int aEnd;
+	private final int bStart;
+	private final int bEnd;
+	private final byte[] operations;
+	private final float score;
+
+	Alignment(String a, int aStart, int aEnd, String b, int bStart, int bEnd,
+			byte[] operations, float score) {
+		this.a = a;
+		this.aStart = aStart;
+		this.aEnd = aEnd;
+		this.b = b;
+		this.bStart = bStart;
+		this.bEnd = bEnd;
+		this.operations = operations;
+		this.score = score;
+	}
+
+	/**
+	 * Returns the score of the alignment. The score is the sum of the
+	 * substitution and gap values of all columns.
+	 * 
+	 * @return the score of the alignment
+	 */
+	public float score() {
+		return score;
+	}
+
+	/**
+	 * Returns the index of the first character of a in the alignment.
+	 * 
+	 * @return the index of the first aligned character of a
+	 */
+	public int aStart() {
+		return aStart;
+	}
+
+	/**
+	 * Returns the index after the last character of a in the alignment.
+	 * 
+	 * @return the index after the last aligned character of a
+	 */
+	public int aEnd() {
+		return aEnd;
+	}
+
+	/**
+	 * Returns the index of the first character of b in the alignment.
+	 * 
+	 * @return the index of the first aligned character of b
+	 */
+	public int bStart() {
+		return bStart;
+	}
+
+	/**
+	 * Returns the index after the last character of b in the alignment.
+	 * 
+	 * @return the index after the last aligned character of b
+	 */
+	public int bEnd() {
+		return bEnd;
+	}
+
+	/**
+	 * Returns the number of columns in the alignment.
+	 * 
+	 * @return the number of columns
+	 */
+	public int length() {
+		return operations.length;
+	}
+
+	/**
+	 * Returns the operation in a column of the alignment.
+	 * 
+	 * @param column
+	 *            index of the column
+	 * @return the operation in the column
+	 * @throws IndexOutOfBoundsException
+	 *             when column is negative or not less than {@link #length()}
+	 */
+	public Operation operation(int column) {
+		checkElementIndex(column, operations.length);
+		return OPERATIONS[operations[column]];
+	}
+
+	/**
+	 * Returns the aligned part of a with the gap character inserted in columns
+	 * that pair a gap with a character of b.
+	 * 
+	 * @param gap
+	 *            the character used for gaps
+	 * @return the aligned part of a
+	 */
+	public String alignedA(char gap) {
+		return aligned(a, aStart, Operation.INSERTION, gap);
+	}
+
+	/**
+	 * Returns the aligned part of b with the gap character inserted in columns
+	 * that pair a character of a with a gap.
+	 * 
+	 * @param gap
+	 *            the character used for gaps
+	 * @return the aligned part of b
+	 */
+	public String alignedB(char gap) {
+		return aligned(b, bStart, Operation.DELETION, gap);
+	}
+
+	private String aligned(String s, int start, Operation gapped, char gap) {
+		final StringBuilder builder = new StringBuilder(operations.length);
+		for (int column = 0, i = start; column < operations.length; column++) {
+			if (operations[column] == gapped.ordinal()) {
+				builder.append(gap);
+			} else {
+				builder.append(s.charAt(i++));
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "Alignment [score=" + score + ", a=" + alignedA('-') + ", b="
+				+ alignedB('-') + "]";
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.abs;
+import static org.simmetrics.metrics.PatternMasks.BLOCK_SIZE;
+
+/**
+ * Bit-parallel computation of the unit cost Levenshtein distance. Uses Myers'
+ * algorithm extended to multiple blocks of 64 bits as described by Hyyrö. The
+ * shorter string is used as the pattern. This takes
+ * <code>O(&lceil;m/64&rceil;n)</code> time.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/316542.316550">Myers, G. (1999). A
+ *      fast bit-vector algorithm for approximate string matching based on
+ *      dynamic programming</a>
+ * @see <a href="http://www.dcc.uchile.cl/~gnavarro/workshop2003/papers/hyyro.ps"
+ *      >Hyyrö, H. (2003). A bit-vector algorithm for computing
+ *      Levenshtein and Damerau edit distances</a>
+ */
+final class BitParallelLevenshtein {
+
+	private BitParallelLevenshtein() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the unit cost Levenshtein distance between a and b.
+	 */
+	static int distance(String a, String b) {
+		return distance(a, b, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the unit cost Levenshtein distance between a and b when it does
+	 * not exceed maxDistance. Otherwise returns a value greater than
+	 * maxDistance.
+	 */
+	static int distance(String a, String b, int maxDistance) {
+		if (a.length() < b.length()) {
+			return distance(new PatternMasks(a), b, maxDistance);
+		}
+		return distance(new PatternMasks(b), a, maxDistance);
+	}
+
+	/**
+	 * Returns the unit cost Levenshtein distance between the pattern and text
+	 * when it does not exceed maxDistance. Otherwise returns a value greater
+	 * than maxDistance.
+	 */
+	static int distance(PatternMasks pattern, String text, int maxDistance) {
+		final int m = pattern.length();
+		final int n = text.length();
+		if (abs(m - n) > maxDistance) {
+			return maxDistance + 1;
+		}
+		if (m == 0) {
+			return n;
+		}
+		if (pattern.blocks() == 1) {
+			return distanceSingleBlock(pattern, text, maxDistance);
+		}
+		return distanceMultiBlock(pattern, text, maxDistance);
+	}
+
+	private static int distanceSingleBlock(PatternMasks pattern, String text,
+			int maxDistance) {
+		final int m = pattern.length();
+		final long last = 1L << (m - 1);
+
+		long pv = -1L;
+		long mv = 0L;
+		int score = m;
+
+		for (int j = 0, n = text.length(); j < n; j++) {
+			final long eq = pattern.mask(text.charAt(j), 0);
+			final long xv = eq | mv;
+			final long xh = (((eq & pv) + pv) ^ pv) | eq;
+
+			long ph = mv | ~(xh | pv);
+			long mh = pv & xh;
+
+			if ((ph & last) != 0) {
+				score++;
+			} else if ((mh & last) != 0) {
+				score--;
+			}
+
+			// The top row is an empty pattern so the horizontal delta is +1
+			ph = (ph << 1) | 1L;
+			mh = mh << 1;
+
+			pv = mh | ~(xv | ph);
+			mv = ph & xv;
+
+			// Each remaining column lowers the score by at most one
+			if (score - (n - j - 1) > maxDistance) {
+				return maxDistance + 1;
+			}
+		}
+
+		return score;
+	}
+
+	private static int distanceMultiBlock(PatternMasks pattern, String text,
+			int maxDistance) {
+		final int m = pattern.length();
+		final int blocks = pattern.blocks();
+		final int lastBlock = blocks - 1;
+		final long last = 1L << ((m - 1) % BLOCK_SIZE);
+
+		final long[] pv = new long[blocks];
+		final long[] mv = new long[blocks];
+		for (int b = 0; b < blocks; b++) {
+			pv[b] = -1L;
+		}
+
+		int score = m;
+
+		for (int j = 0, n = text.length(); j < n; j++) {
+			final int id = pattern.id(text.charAt(j));
+
+			// Horizontal delta entering the top of the block
+			int hin = 1;
+			for (int b = 0; b < blocks; b++) {
+				final long pvb = pv[b];
+				final long mvb = mv[b];
+				long eq = pattern.mask(id, b);
+
+				final long xv = eq | mvb;
+				if (hin < 0) {
+					eq |= 1L;
+				}
+				final long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+
+				long ph = mvb | ~(xh | pvb);
+				long mh = pvb & xh;
+
+				// Horizontal delta leaving the bottom of the block
+				final long high = b == lastBlock ? last : Long.MIN_VALUE;
+				final int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+				ph <<= 1;
+				mh <<= 1;
+				if (hin < 0) {
+					mh |= 1L;
+				} else if (hin > 0) {
+					ph |= 1L;
+				}
+
+				pv[b] = mh | ~(xv | ph);
+				mv[b] = ph & xv;
+				hin = hout;
+			}
+
+			score += hin;
+
+			// Each remaining column lowers the score by at most one
+			if (score - (n - j - 1) > maxDistance) {
+				return maxDistance + 1;
+			}
+		}
+
+		return score;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Long.bitCount;
+import static org.simmetrics.metrics.PatternMasks.BLOCK_SIZE;
+
+/**
+ * Bit-parallel computation of the length of the longest common subsequence.
+ * Uses the algorithm of Allison and Dix with the improvement by Hyyrö, extended
+ * to multiple blocks of 64 bits. The shorter string is used as the pattern.
+ * This takes <code>O(&lceil;m/64&rceil;n)</code> time.
+ * <p>
+ * Each bit of the row vector is cleared when the longest common subsequence
+ * grows at the corresponding position of the pattern. The length of the
+ * longest common subsequence is the number of cleared bits.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1016/0020-0190(86)90091-8">Allison, L.
+ *      and Dix, T. I. (1986). A bit-string longest-common-subsequence
+ *      algorithm</a>
+ * @see <a href="http://www.dcc.uchile.cl/~gnavarro/workshop2003/papers/hyyro.ps"
+ *      >Hyyrö, H. (2004). Bit-parallel LCS-length computation revisited</a>
+ */
+final class BitParallelLongestCommonSubsequence {
+
+	private BitParallelLongestCommonSubsequence() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the length of the longest common subsequence of a and b.
+	 */
+	static int length(String a, String b) {
+		if (a.length() < b.length()) {
+			return length(new PatternMasks(a), b);
+		}
+		return length(new PatternMasks(b), a);
+	}
+
+	/**
+	 * Returns the length of the longest common subsequence of the pattern and
+	 * text.
+	 */
+	static int length(PatternMasks pattern, String text) {
+		if (pattern.length() == 0 || text.isEmpty()) {
+			return 0;
+		}
+		if (pattern.blocks() == 1) {
+			return lengthSingleBlock(pattern, text);
+		}
+		return lengthMultiBlock(pattern, text);
+	}
+
+	private static int lengthSingleBlock(PatternMasks pattern, String text) {
+		long v = -1L;
+		for (int j = 0, n = text.length(); j < n; j++) {
+			final long u = v & pattern.mask(text.charAt(j), 0);
+			v = (v + u) | (v - u);
+		}
+
+		// Carries may clear bits beyond the end of the pattern
+		return bitCount(~v & (-1L >>> (BLOCK_SIZE - pattern.length())));
+	}
+
+	private static int lengthMultiBlock(PatternMasks pattern, String text) {
+		final int blocks = pattern.blocks();
+
+		final long[] v = new long[blocks];
+		for (int b = 0; b < blocks; b++) {
+			v[b] = -1L;
+		}
+
+		for (int j = 0, n = text.length(); j < n; j++) {
+			final int id = pattern.id(text.charAt(j));
+			if (id < 0) {
+				// No matches leave the row unchanged
+				continue;
+			}
+
+			long carry = 0;
+			for (int b = 0; b < blocks; b++) {
+				final long vb = v[b];
+				final long u = vb & pattern.mask(id, b);
+
+				// The sum exceeds 64 bits when it is unsigned less than vb
+				final long sum = vb + u + carry;
+				carry = unsignedLess(sum, vb) || (carry != 0 && sum == vb) ? 1 : 0;
+
+				v[b] = sum | (vb - u);
+			}
+		}
+
+		final int lastBlock = blocks - 1;
+		int length = 0;
+		for (int b = 0; b < lastBlock; b++) {
+			length += bitCount(~v[b]);
+		}
+		final int tail = pattern.length() - lastBlock * BLOCK_SIZE;
+		return length + bitCount(~v[lastBlock] & (-1L >>> (BLOCK_SIZE - tail)));
+	}
+
+	private static boolean unsignedLess(long a, long b) {
+		return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+	}
+
+}
@@ -19,11 +19,13 @@
  */
 package org.simmetrics.metrics;
 
-import static java.lang.Math.abs;
-import static org.simmetrics.metrics.Math.union;
+import static org.simmetrics.metrics.Math.intersectionSize;
 
+import org.simmetrics.IdMultisetDistance;
+import org.simmetrics.IdMultisetMetric;
 import org.simmetrics.MultisetDistance;
 import org.simmetrics.MultisetMetric;
+import org.simmetrics.tokenizers.IdMultiset;
 
 import com.google.common.collect.Multiset;
 
@@ -37,6 +39,10 @@ import com.google.common.collect.Multiset;
  * distance(a,b) = ∣∣a - b∣∣₁
  * </code>
  * <p>
+ * Counts only differ outside the intersection of both multisets. The distance
+ * is computed as {@code ∣a∣ + ∣b∣ - 2∣a ∩ b∣}, visiting only the distinct
+ * tokens of the smaller multiset.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href="http://en.wikipedia.org/wiki/Taxicab_geometry">Wikipedia -
@@ -44,7 +50,8 @@ import com.google.common.collect.Multiset;
  * @param <T>
  *            type of token
  */
-public final class BlockDistance<T> implements MultisetMetric<T>, MultisetDistance<T> {
+public final class BlockDistance<T> implements MultisetMetric<T>, MultisetDistance<T>,
+		IdMultisetMetric, IdMultisetDistance {
 
 	@Override
 	public float compare(Multiset<T> a, Multiset<T> b) {
@@ -62,16 +69,26 @@ public final class BlockDistance<T> implements MultisetMetric<T>, MultisetDistan
 
 	@Override
 	public float distance(Multiset<T> a, Multiset<T> b) {
+		return a.size() + b.size() - 2 * intersectionSize(a, b);
+	}
 
-		float distance = 0;
+	@Override
+	public float compare(IdMultiset a, IdMultiset b) {
 
-		for (T token : union(a, b).elementSet()) {
-			float frequencyInA = a.count(token);
-			float frequencyInB = b.count(token);
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
 
-			distance += abs(frequencyInA - frequencyInB);
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
 		}
-		return distance;
+
+		return 1.0f - distance(a, b) / (a.size() + b.size());
+	}
+
+	@Override
+	public float distance(IdMultiset a, IdMultiset b) {
+		return a.size() + b.size() - 2 * intersectionSize(a, b);
 	}
 
 	@Override
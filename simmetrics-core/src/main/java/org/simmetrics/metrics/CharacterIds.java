@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+/**
+ * Assigns dense ids to the distinct characters of a string. Ids are assigned in
+ * order of first occurrence, starting at zero.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class CharacterIds {
+
+	// Open addressing table of character + 1 to dense id. Zero marks an empty
+	// slot.
+	private int[] keys;
+	private int[] ids;
+	private int size;
+
+	CharacterIds(String s) {
+		this.keys = new int[16];
+		this.ids = new int[16];
+
+		for (int i = 0, length = s.length(); i < length; i++) {
+			add(s.charAt(i));
+		}
+	}
+
+	/**
+	 * Returns the number of distinct characters.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the id of a character or -1 when the character does not occur in
+	 * the string.
+	 */
+	int id(char c) {
+		final int key = c + 1;
+		final int mask = keys.length - 1;
+		for (int slot = hash(c) & mask;; slot = (slot + 1) & mask) {
+			final int k = keys[slot];
+			if (k == key) {
+				return ids[slot];
+			}
+			if (k == 0) {
+				return -1;
+			}
+		}
+	}
+
+	private void add(char c) {
+		final int key = c + 1;
+		final int mask = keys.length - 1;
+		int slot = hash(c) & mask;
+		for (int k; (k = keys[slot]) != 0; slot = (slot + 1) & mask) {
+			if (k == key) {
+				return;
+			}
+		}
+
+		keys[slot] = key;
+		ids[slot] = size++;
+
+		// Keep load factor below a half
+		if (size * 2 > keys.length) {
+			rehash();
+		}
+	}
+
+	private void rehash() {
+		final int[] oldKeys = keys;
+		final int[] oldIds = ids;
+		keys = new int[oldKeys.length * 2];
+		ids = new int[oldKeys.length * 2];
+
+		final int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			final int key = oldKeys[i];
+			if (key == 0) {
+				continue;
+			}
+			int slot = hash((char) (key - 1)) & mask;
+			while (keys[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			ids[slot] = oldIds[i];
+		}
+	}
+
+	private static int hash(char c) {
+		final int h = c * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
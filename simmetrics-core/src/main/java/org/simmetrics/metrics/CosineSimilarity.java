@@ -19,11 +19,16 @@
  */
 
 package org.simmetrics.metrics;
-import static org.simmetrics.metrics.Math.union;
+
 import static java.lang.Math.sqrt;
+import static org.simmetrics.metrics.Math.dotProduct;
+import static org.simmetrics.metrics.Math.sumOfSquares;
 
+import org.simmetrics.IdMultisetDistance;
+import org.simmetrics.IdMultisetMetric;
 import org.simmetrics.MultisetDistance;
 import org.simmetrics.MultisetMetric;
+import org.simmetrics.tokenizers.IdMultiset;
 
 import com.google.common.collect.Multiset;
 
@@ -45,6 +50,9 @@ import com.google.common.collect.Multiset;
  * identical when compared with Tanimoto but are dissimilar when the cosine
  * similarity is used.
  * <p>
+ * Multisets of token ids cache their magnitudes. Comparing them only requires
+ * the dot product.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see TanimotoCoefficient
@@ -54,7 +62,8 @@ import com.google.common.collect.Multiset;
  * @param <T>
  *            type of the token
  */
-public final class CosineSimilarity<T> implements MultisetMetric<T>, MultisetDistance<T> {
+public final class CosineSimilarity<T> implements MultisetMetric<T>, MultisetDistance<T>,
+		IdMultisetMetric, IdMultisetDistance {
 
 	@Override
 	public float compare(Multiset<T> a, Multiset<T> b) {
@@ -67,32 +76,38 @@ public final class CosineSimilarity<T> implements MultisetMetric<T>, MultisetDis
 			return 0.0f;
 		}
 
-		float dotProduct = 0;
-		float magnitudeA = 0;
-		float magnitudeB = 0;
+		//  a·b / (||a|| * ||b||)
+		return (float) (dotProduct(a, b) / (sqrt(sumOfSquares(a)) * sqrt(sumOfSquares(b))));
+	}
 
-		for (T entry : union(a, b).elementSet()) {
-			float aCount = a.count(entry);
-			float bCount = b.count(entry);
+	@Override
+	public float distance(Multiset<T> a, Multiset<T> b) {
+		return 1.0f - compare(a, b);
+	}
 
-			dotProduct += aCount * bCount;
-			magnitudeA += aCount * aCount;
-			magnitudeB += bCount * bCount;
+	@Override
+	public float compare(IdMultiset a, IdMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
 		}
 
 		//  a·b / (||a|| * ||b||)
-		return (float) (dotProduct / (sqrt(magnitudeA) * sqrt(magnitudeB)));
+		return (float) (dotProduct(a, b) / (a.magnitude() * b.magnitude()));
 	}
+
 	@Override
-	public float distance(Multiset<T> a, Multiset<T> b) {
+	public float distance(IdMultiset a, IdMultiset b) {
 		return 1.0f - compare(a, b);
 	}
-	
+
 	@Override
 	public String toString() {
 		return "CosineSimilarity";
 	}
 
-
-
 }
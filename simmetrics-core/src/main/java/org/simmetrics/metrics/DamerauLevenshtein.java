@@ -21,12 +21,22 @@
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.checkSimilarities;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.metrics.Math.max;
 import static org.simmetrics.metrics.Math.min;
 
-import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.ThresholdedStringMetric;
 
 /**
  * Calculates the Damerau-Levenshtein similarity and distance measure between
@@ -36,6 +46,14 @@ import org.simmetrics.StringMetric;
  * cost for substitution and/or transposition are zero Damerau-Levenshtein does
  * not satisfy the coincidence property.
  * <p>
+ * Thresholded distances and similarities are computed over a diagonal band of
+ * width <code>2k + 1</code> where <code>k</code> is the maximum number of
+ * insert/delete operations within the threshold. Computation stops as soon as
+ * every cell in the band of two consecutive rows exceeds the threshold.
+ * <p>
+ * Batch comparisons reuse the rows of the dynamic programming algorithm
+ * between candidates.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
@@ -44,7 +62,9 @@ import org.simmetrics.StringMetric;
  * @see Levenshtein
  * 
  */
-public final class DamerauLevenshtein implements StringMetric, StringDistance {
+public final class DamerauLevenshtein implements ThresholdedStringMetric,
+		BatchStringMetric, ThresholdedStringDistance, SequenceMetric,
+		SequenceDistance {
 
 	private final float maxCost;
 	private final float insertDelete;
@@ -91,6 +111,69 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 		return 1.0f - (distance(a, b) / (maxCost * max(a.length(), b.length())));
 	}
 
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		checkSimilarities(candidates, similarities);
+		checkNotNull(query);
+
+		// Rows are shared between candidates
+		float[] v0 = new float[0];
+		float[] v1 = new float[0];
+		float[] v2 = new float[0];
+
+		int i = 0;
+		for (String candidate : candidates) {
+			if (query.isEmpty() && candidate.isEmpty()) {
+				similarities[i++] = 1.0f;
+				continue;
+			}
+
+			final float distance;
+			if (query.isEmpty()) {
+				distance = candidate.length() * insertDelete;
+			} else if (candidate.isEmpty()) {
+				distance = query.length() * insertDelete;
+			} else if (query.equals(candidate)) {
+				distance = 0;
+			} else {
+				if (v0.length <= candidate.length()) {
+					v0 = new float[candidate.length() + 1];
+					v1 = new float[candidate.length() + 1];
+					v2 = new float[candidate.length() + 1];
+				}
+				distance = distance(query, candidate, v0, v1, v2);
+			}
+
+			similarities[i++] = 1.0f - (distance / (maxCost * max(
+					query.length(), candidate.length())));
+		}
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public float compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		final float maxDistance = maxCost * max(a.length(), b.length());
+		final float threshold = Math.threshold(minSimilarity, maxDistance);
+		final float distance = distance(a, b, threshold);
+
+		if (distance > threshold) {
+			return 0.0f;
+		}
+
+		return 1.0f - (distance / maxDistance);
+	}
+
 	@Override
 	public float distance(final String s, final String t) {
 
@@ -101,18 +184,26 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 		if (s.equals(t))
 			return 0;
 
+		final int length = t.length() + 1;
+		return distance(s, t, new float[length], new float[length],
+				new float[length]);
+	}
+
+	/*
+	 * Distance between non-empty strings using rows of at least
+	 * t.length() + 1 elements.
+	 */
+	private float distance(final String s, final String t, float[] v0,
+			float[] v1, float[] v2) {
 		final int tLength = t.length();
 		final int sLength = s.length();
 
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
-		float[] v2 = new float[tLength + 1];
 
 		// initialize v1 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v1.length; i++) {
+		for (int i = 0; i <= tLength; i++) {
 			v1[i] = i * insertDelete;
 		}
 
@@ -146,6 +237,127 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 		return v1[tLength];
 	}
 
+	@Override
+	public float distance(final String s, final String t,
+			final float maxDistance) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		// Distance can not exceed the cost of substituting the shorter string
+		// and inserting the remainder.
+		if (sLength == 0 || tLength == 0
+				|| maxDistance >= maxCost * max(sLength, tLength)) {
+			final float distance = distance(s, t);
+			return distance > maxDistance ? Float.POSITIVE_INFINITY : distance;
+		}
+
+		if (abs(sLength - tLength) * insertDelete > maxDistance) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		if (s.equals(t)) {
+			return 0;
+		}
+
+		// Maximum number of insert/delete operations within the threshold
+		final int k = (int) min(maxDistance / insertDelete, max(sLength, tLength));
+
+		float[] swap;
+		float[] v0 = new float[tLength + 1];
+		float[] v1 = new float[tLength + 1];
+		float[] v2 = new float[tLength + 1];
+
+		// initialize v1 (the previous row of distances) within the band
+		for (int i = 0; i < v1.length; i++) {
+			v1[i] = i <= k ? i * insertDelete : Float.POSITIVE_INFINITY;
+		}
+
+		float previousRowMin = 0;
+		for (int i = 0; i < sLength; i++) {
+
+			// cells A[i+1][j] are only computed for |i + 1 - j| <= k, cells
+			// outside the band exceed the threshold
+			final int from = max(1, i + 1 - k);
+			final int to = min(tLength, i + 1 + k);
+
+			v2[from - 1] = i + 1 <= k ? (i + 1) * insertDelete
+					: Float.POSITIVE_INFINITY;
+			float rowMin = v2[from - 1];
+
+			for (int j = from - 1; j < to; j++) {
+				if (j > 0 && i > 0 && s.charAt(i - 1) == t.charAt(j)
+						&& s.charAt(i) == t.charAt(j - 1)) {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0.0f : substitute),
+							v0[j - 1] + transpose);
+				} else {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0.0f : substitute));
+				}
+				rowMin = min(rowMin, v2[j + 1]);
+			}
+
+			if (to < tLength) {
+				v2[to + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			// A transposition can skip a single row but not two
+			if (rowMin > maxDistance && previousRowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+			previousRowMin = rowMin;
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		// latest results was in v2 which was swapped to v1
+		return v1[tLength] > maxDistance ? Float.POSITIVE_INFINITY
+				: v1[tLength];
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(int[] a, int[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(long[] a, long[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	float compare(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return compare(encoded.a, encoded.b);
+		}
+		final int[] s = encoded.aCodes;
+		final int[] t = encoded.bCodes;
+		return 1.0f - (Sequences.editDistance(s, t, insertDelete, substitute,
+				transpose) / (maxCost * max(s.length, t.length)));
+	}
+
+	float distance(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return distance(encoded.a, encoded.b);
+		}
+		return Sequences.editDistance(encoded.aCodes, encoded.bCodes,
+				insertDelete, substitute, transpose);
+	}
+
 	@Override
 	public String toString() {
 		return "DamerauLevenshtein [insertDelete=" + insertDelete
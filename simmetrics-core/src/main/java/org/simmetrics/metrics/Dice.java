@@ -21,9 +21,11 @@
 package org.simmetrics.metrics;
 
 import static org.simmetrics.metrics.Math.intersection;
+import static org.simmetrics.metrics.Math.intersectionSize;
 
 import java.util.Set;
 
+import org.simmetrics.IdSetMetric;
 import org.simmetrics.SetDistance;
 import org.simmetrics.SetMetric;
 
@@ -63,7 +65,8 @@ import org.simmetrics.SetMetric;
  * @param <T>
  *            type of the token
  */
-public final class Dice<T> implements SetMetric<T>, SetDistance<T> {
+public final class Dice<T> implements SetMetric<T>, SetDistance<T>,
+		IdSetMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -85,6 +88,21 @@ public final class Dice<T> implements SetMetric<T>, SetDistance<T> {
 		return 1.0f - compare(a, b);
 	}
 
+	@Override
+	public float compare(long[] a, long[] b) {
+
+		if (a.length == 0 && b.length == 0) {
+			return 1.0f;
+		}
+
+		if (a.length == 0 || b.length == 0) {
+			return 0.0f;
+		}
+
+		// 2 * ∣a ∩ b∣ / (∣a∣ + ∣b∣)
+		return (2.0f * intersectionSize(a, b)) / (a.length + b.length);
+	}
+
 	@Override
 	public String toString() {
 		return "Dice";
@@ -20,11 +20,15 @@
 
 package org.simmetrics.metrics;
 
-import static org.simmetrics.metrics.Math.union;
 import static java.lang.Math.sqrt;
+import static org.simmetrics.metrics.Math.dotProduct;
+import static org.simmetrics.metrics.Math.sumOfSquares;
 
+import org.simmetrics.IdMultisetDistance;
+import org.simmetrics.IdMultisetMetric;
 import org.simmetrics.MultisetDistance;
 import org.simmetrics.MultisetMetric;
+import org.simmetrics.tokenizers.IdMultiset;
 
 import com.google.common.collect.Multiset;
 
@@ -37,6 +41,10 @@ import com.google.common.collect.Multiset;
  * distance(a,b) = ∣∣a - b∣∣  
  * </code>
  * <p>
+ * The squared distance is computed as {@code ∣∣a∣∣² + ∣∣b∣∣² - 2a·b}, visiting
+ * only the distinct tokens of the smaller multiset for the dot product.
+ * Multisets of token ids cache their squared magnitudes.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href="https://en.wikipedia.org/wiki/Euclidean_distance">Wikipedia - Euclidean Distance</a>
@@ -44,7 +52,8 @@ import com.google.common.collect.Multiset;
  *            type of the token
  * 
  */
-public final class EuclideanDistance<T> implements MultisetMetric<T>, MultisetDistance<T> {
+public final class EuclideanDistance<T> implements MultisetMetric<T>, MultisetDistance<T>,
+		IdMultisetMetric, IdMultisetDistance {
 
 	@Override
 	public float compare(Multiset<T> a, Multiset<T> b) {
@@ -59,17 +68,23 @@ public final class EuclideanDistance<T> implements MultisetMetric<T>, MultisetDi
 
 	@Override
 	public float distance(Multiset<T> a, Multiset<T> b) {
+		return (float) sqrt(sumOfSquares(a) + sumOfSquares(b) - 2 * dotProduct(a, b));
+	}
 
-		float distance = 0.0f;
-
-		for (T token : union(a, b).elementSet()) {
-			float frequencyInA = a.count(token);
-			float frequencyInB = b.count(token);
+	@Override
+	public float compare(IdMultiset a, IdMultiset b) {
 
-			distance += ((frequencyInA - frequencyInB) * (frequencyInA - frequencyInB));
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
 		}
 
-		return (float) sqrt(distance);
+		float maxDistance = (float) sqrt((a.size() * a.size()) + (b.size() * b.size()));
+		return 1.0f - distance(a, b) / maxDistance;
+	}
+
+	@Override
+	public float distance(IdMultiset a, IdMultiset b) {
+		return (float) sqrt(a.sumOfSquares() + b.sumOfSquares() - 2 * dotProduct(a, b));
 	}
 
 	@Override
@@ -27,12 +27,14 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.simmetrics.ListDistance;
+import org.simmetrics.SequenceDistance;
 import org.simmetrics.StringDistance;
 
 import com.google.common.base.Objects;
 
 /**
- * Calculates the Hamming distance distance between lists and strings.
+ * Calculates the Hamming distance distance between lists, strings and
+ * sequences of integers.
  * <p>
  * This class is immutable and thread-safe.
  * 
@@ -152,13 +154,88 @@ public final class HammingDistance {
 			}
 			return distance;
 		}
-		
+
 		@Override
 		public String toString() {
 			return "HammingStringDistance";
 		}
 	}
 
+	/**
+	 * Hamming Distance algorithm to calculate distance between sequences of
+	 * equal length.
+	 *
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 * 
+	 */
+	private static final class HammingSequenceDistance implements
+			SequenceDistance {
+
+		HammingSequenceDistance() {
+			// avoid synthetics
+		}
+
+		/**
+		 * Measures the distance between sequences {@code a} and {@code b} of
+		 * equal length.
+		 * 
+		 * @param a
+		 *            sequence a to compare
+		 * @param b
+		 *            sequence b to compare
+		 * @return a non-negative value
+		 * @throws NullPointerException
+		 *             when either a or b is null
+		 * @throws IllegalArgumentException
+		 *             when a and b differ in length
+		 */
+		@Override
+		public float distance(int[] a, int[] b) {
+			checkArgument(a.length == b.length);
+
+			int distance = 0;
+			for (int i = 0; i < a.length; i++) {
+				if (a[i] != b[i]) {
+					distance++;
+				}
+			}
+			return distance;
+		}
+
+		/**
+		 * Measures the distance between sequences {@code a} and {@code b} of
+		 * equal length.
+		 * 
+		 * @param a
+		 *            sequence a to compare
+		 * @param b
+		 *            sequence b to compare
+		 * @return a non-negative value
+		 * @throws NullPointerException
+		 *             when either a or b is null
+		 * @throws IllegalArgumentException
+		 *             when a and b differ in length
+		 */
+		@Override
+		public float distance(long[] a, long[] b) {
+			checkArgument(a.length == b.length);
+
+			int distance = 0;
+			for (int i = 0; i < a.length; i++) {
+				if (a[i] != b[i]) {
+					distance++;
+				}
+			}
+			return distance;
+		}
+		
+		@Override
+		public String toString() {
+			return "HammingSequenceDistance";
+		}
+	}
+
 	/**
 	 * Returns a Hamming distance to compare lists.
 	 * 
@@ -176,4 +253,13 @@ public final class HammingDistance {
 	public static StringDistance forString() {
 		return new HammingStringDistance();
 	}
+
+	/**
+	 * Returns a Hamming distance to compare sequences of integers.
+	 * 
+	 * @return a new Hamming distance to compare sequences
+	 */
+	public static SequenceDistance forSequence() {
+		return new HammingSequenceDistance();
+	}
 }
@@ -0,0 +1,431 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.util.Arrays.fill;
+import static org.simmetrics.metrics.Math.max;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.simmetrics.SharedPool;
+import org.simmetrics.metrics.Alignment.Operation;
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Computes optimal alignments with linear gap values in linear space using
+ * Hirschberg's divide-and-conquer algorithm. To align a region the scores of
+ * its top half are computed forwards and those of its bottom half backwards.
+ * The column where their sum is largest splits the region into two smaller
+ * regions that are aligned independently. Small regions are aligned by a
+ * traceback through their full score matrix.
+ * <p>
+ * Large regions are split in parallel on a fork-join pool.
+ * <p>
+ * Gaps along the first row and column of the strings are scored by an edge gap
+ * value. This allows {@link NeedlemanWunch} to score leading gaps differently.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/Hirschberg%27s_algorithm">
+ *      Wikipedia - Hirschberg's algorithm</a>
+ */
+final class Hirschberg {
+
+	/*
+	 * Regions with at most this many cells are aligned using their full score
+	 * matrix.
+	 */
+	private static final int MATRIX_CELLS = 1 << 12;
+
+	/*
+	 * Regions with at least this many cells are split in parallel.
+	 */
+	private static final long PARALLEL_CELLS = 1L << 20;
+
+	private static final byte EMPTY = -1;
+
+	private final String a;
+	private final String b;
+	private final int aStart;
+	private final int bStart;
+	private final Substitution substitution;
+	private final float gapValue;
+	private final float edgeGapValue;
+
+	/*
+	 * Operations are stored by the position (i - aStart) + (j - bStart) of
+	 * the cell they start from. Along an alignment this position strictly
+	 * increases, so every region writes to its own range and the operations
+	 * are ordered.
+	 */
+	private final byte[] operations;
+
+	private Hirschberg(String a, int aStart, int aEnd, String b, int bStart,
+			int bEnd, Substitution substitution, float gapValue,
+			float edgeGapValue) {
+		this.a = a;
+		this.b = b;
+		this.aStart = aStart;
+		this.bStart = bStart;
+		this.substitution = substitution;
+		this.gapValue = gapValue;
+		this.edgeGapValue = edgeGapValue;
+		this.operations = new byte[(aEnd - aStart) + (bEnd - bStart)];
+	}
+
+	/**
+	 * Returns an optimal global alignment of a and b. Gaps in the first row or
+	 * column are scored with the edge gap value.
+	 */
+	static Alignment global(String a, String b, Substitution substitution,
+			float gapValue, float edgeGapValue) {
+		return align(a, 0, a.length(), b, 0, b.length(), substitution,
+				gapValue, edgeGapValue);
+	}
+
+	/**
+	 * Returns an optimal local alignment of a and b. The end of the alignment
+	 * is the first cell with the highest Smith-Waterman score. Its start is
+	 * found by aligning the prefixes before the end backwards. An empty
+	 * alignment is returned when no local alignment has a positive score.
+	 */
+	static Alignment local(String a, String b, Substitution substitution,
+			float gapValue) {
+		final int n = a.length();
+		final int m = b.length();
+
+		// Smith-Waterman, remembering where the maximum was found
+		final float[] row = new float[m + 1];
+		float max = 0;
+		int aEnd = 0;
+		int bEnd = 0;
+		for (int i = 1; i <= n; i++) {
+			float diagonal = 0;
+			for (int j = 1; j <= m; j++) {
+				final float up = row[j];
+				row[j] = max(0, row[j - 1] + gapValue, up + gapValue,
+						diagonal + substitution.compare(a, i - 1, b, j - 1));
+				diagonal = up;
+				if (row[j] > max) {
+					max = row[j];
+					aEnd = i;
+					bEnd = j;
+				}
+			}
+		}
+
+		if (max <= 0) {
+			return new Alignment(a, 0, 0, b, 0, 0, new byte[0], 0);
+		}
+
+		// Scores of the suffixes of the prefixes that end in (aEnd, bEnd)
+		fill(row, 0, bEnd + 1, 0);
+		for (int j = bEnd - 1; j >= 0; j--) {
+			row[j] = row[j + 1] + gapValue;
+		}
+		float best = Float.NEGATIVE_INFINITY;
+		int aStart = aEnd;
+		int bStart = bEnd;
+		for (int i = aEnd - 1; i >= 0; i--) {
+			float diagonal = row[bEnd];
+			row[bEnd] += gapValue;
+			for (int j = bEnd - 1; j >= 0; j--) {
+				final float down = row[j];
+				row[j] = max(row[j + 1] + gapValue, down + gapValue, diagonal
+						+ substitution.compare(a, i, b, j));
+				diagonal = down;
+				if (row[j] > best) {
+					best = row[j];
+					aStart = i;
+					bStart = j;
+				}
+			}
+		}
+
+		return align(a, aStart, aEnd, b, bStart, bEnd, substitution, gapValue,
+				gapValue);
+	}
+
+	private static Alignment align(String a, int aStart, int aEnd, String b,
+			int bStart, int bEnd, Substitution substitution, float gapValue,
+			float edgeGapValue) {
+		final Hirschberg hirschberg = new Hirschberg(a, aStart, aEnd, b,
+				bStart, bEnd, substitution, gapValue, edgeGapValue);
+		fill(hirschberg.operations, EMPTY);
+
+		final long cells = (long) (aEnd - aStart) * (bEnd - bStart);
+		if (cells < PARALLEL_CELLS) {
+			hirschberg.align(aStart, aEnd, bStart, bEnd, false);
+		} else {
+			SharedPool.invoke(hirschberg.new Split(aStart, aEnd, bStart, bEnd));
+		}
+
+		return hirschberg.toAlignment(aEnd, bEnd);
+	}
+
+	private Alignment toAlignment(int aEnd, int bEnd) {
+		int length = 0;
+		for (byte operation : operations) {
+			if (operation != EMPTY) {
+				length++;
+			}
+		}
+
+		// Sum the values in the order of the alignment. This reproduces the
+		// score of the forward recurrence.
+		final byte[] compacted = new byte[length];
+		float score = 0;
+		for (int k = 0, column = 0, i = aStart, j = bStart; column < length; k++) {
+			final byte operation = operations[k];
+			if (operation == EMPTY) {
+				continue;
+			}
+			compacted[column++] = operation;
+			if (operation == Operation.DELETION.ordinal()) {
+				score += deletion(j);
+				i++;
+			} else if (operation == Operation.INSERTION.ordinal()) {
+				score += insertion(i);
+				j++;
+			} else {
+				score += substitution.compare(a, i++, b, j++);
+			}
+		}
+
+		return new Alignment(a, aStart, aEnd, b, bStart, bEnd, compacted, score);
+	}
+
+	/*
+	 * Value of a gap in b that moves from row i to row i + 1 in column j.
+	 */
+	private float deletion(int j) {
+		return j == 0 ? edgeGapValue : gapValue;
+	}
+
+	/*
+	 * Value of a gap in a that moves from column j to column j + 1 in row i.
+	 */
+	private float insertion(int i) {
+		return i == 0 ? edgeGapValue : gapValue;
+	}
+
+	private void align(int i0, int i1, int j0, int j1, boolean parallel) {
+		final int n = i1 - i0;
+		final int m = j1 - j0;
+
+		if (n == 0) {
+			for (int j = j0; j < j1; j++) {
+				set(i0, j, Operation.INSERTION);
+			}
+			return;
+		}
+		if (m == 0) {
+			for (int i = i0; i < i1; i++) {
+				set(i, j0, Operation.DELETION);
+			}
+			return;
+		}
+		if (n == 1 || m == 1 || (n + 1L) * (m + 1L) <= MATRIX_CELLS) {
+			traceback(i0, i1, j0, j1);
+			return;
+		}
+
+		final int middle = i0 + n / 2;
+		final boolean fork = parallel && (long) n * m >= PARALLEL_CELLS;
+
+		final float[] forward;
+		final float[] backward;
+		if (fork) {
+			final Backward task = new Backward(middle, i1, j0, j1);
+			task.fork();
+			forward = forward(i0, middle, j0, j1);
+			backward = task.join();
+		} else {
+			forward = forward(i0, middle, j0, j1);
+			backward = backward(middle, i1, j0, j1);
+		}
+
+		int split = 0;
+		for (int k = 1; k <= m; k++) {
+			if (forward[k] + backward[k] > forward[split] + backward[split]) {
+				split = k;
+			}
+		}
+
+		if (fork) {
+			RecursiveAction.invokeAll(new Split(i0, middle, j0, j0 + split),
+					new Split(middle, i1, j0 + split, j1));
+		} else {
+			align(i0, middle, j0, j0 + split, false);
+			align(middle, i1, j0 + split, j1, false);
+		}
+	}
+
+	/*
+	 * Returns the scores of aligning a[i0, i1) with b[j0, j0 + k) for all k.
+	 */
+	private float[] forward(int i0, int i1, int j0, int j1) {
+		final int m = j1 - j0;
+		final float[] row = new float[m + 1];
+
+		final float rowGap = insertion(i0);
+		for (int k = 1; k <= m; k++) {
+			row[k] = row[k - 1] + rowGap;
+		}
+
+		final float columnGap = deletion(j0);
+		for (int i = i0; i < i1; i++) {
+			float diagonal = row[0];
+			row[0] += columnGap;
+			for (int k = 1; k <= m; k++) {
+				final float up = row[k];
+				row[k] = max(row[k - 1] + gapValue, up + gapValue, diagonal
+						+ substitution.compare(a, i, b, j0 + k - 1));
+				diagonal = up;
+			}
+		}
+		return row;
+	}
+
+	/*
+	 * Returns the scores of aligning a[i0, i1) with b[j0 + k, j1) for all k.
+	 */
+	private float[] backward(int i0, int i1, int j0, int j1) {
+		final int m = j1 - j0;
+		final float[] row = new float[m + 1];
+
+		final float rowGap = insertion(i1);
+		for (int k = m - 1; k >= 0; k--) {
+			row[k] = row[k + 1] + rowGap;
+		}
+
+		final float columnGap = deletion(j0);
+		for (int i = i1 - 1; i >= i0; i--) {
+			float diagonal = row[m];
+			row[m] += gapValue;
+			for (int k = m - 1; k > 0; k--) {
+				final float down = row[k];
+				row[k] = max(row[k + 1] + gapValue, down + gapValue, diagonal
+						+ substitution.compare(a, i, b, j0 + k));
+				diagonal = down;
+			}
+			row[0] = max(row[1] + gapValue, row[0] + columnGap, diagonal
+					+ substitution.compare(a, i, b, j0));
+		}
+		return row;
+	}
+
+	/*
+	 * Aligns a small region by a traceback through its full score matrix.
+	 */
+	private void traceback(int i0, int i1, int j0, int j1) {
+		final int n = i1 - i0;
+		final int m = j1 - j0;
+		final int width = m + 1;
+		final float[] matrix = new float[(n + 1) * width];
+
+		final float rowGap = insertion(i0);
+		for (int k = 1; k <= m; k++) {
+			matrix[k] = matrix[k - 1] + rowGap;
+		}
+		final float columnGap = deletion(j0);
+		for (int l = 1; l <= n; l++) {
+			matrix[l * width] = matrix[(l - 1) * width] + columnGap;
+			for (int k = 1; k <= m; k++) {
+				final int cell = l * width + k;
+				matrix[cell] = max(matrix[cell - 1] + gapValue,
+						matrix[cell - width] + gapValue,
+						matrix[cell - width - 1]
+								+ substitution.compare(a, i0 + l - 1, b, j0 + k - 1));
+			}
+		}
+
+		int l = n;
+		int k = m;
+		while (l > 0 || k > 0) {
+			final int cell = l * width + k;
+			final int i = i0 + l - 1;
+			final int j = j0 + k - 1;
+			if (l > 0 && k > 0 && matrix[cell] == matrix[cell - width - 1]
+							+ substitution.compare(a, i, b, j)) {
+				set(i, j, a.charAt(i) == b.charAt(j) ? Operation.MATCH
+						: Operation.SUBSTITUTION);
+				l--;
+				k--;
+			} else if (l > 0 && matrix[cell] == matrix[cell - width]
+					+ (k == 0 ? columnGap : gapValue)) {
+				set(i, j0 + k, Operation.DELETION);
+				l--;
+			} else {
+				set(i0 + l, j, Operation.INSERTION);
+				k--;
+			}
+		}
+	}
+
+	private void set(int i, int j, Operation operation) {
+		operations[(i - aStart) + (j - bStart)] = (byte) operation.ordinal();
+	}
+
+	private final class Split extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int i0;
+		private final int i1;
+		private final int j0;
+		private final int j1;
+
+		Split(int i0, int i1, int j0, int j1) {
+			this.i0 = i0;
+			this.i1 = i1;
+			this.j0 = j0;
+			this.j1 = j1;
+		}
+
+		@Override
+		protected void compute() {
+			align(i0, i1, j0, j1, true);
+		}
+	}
+
+	private final class Backward extends RecursiveTask<float[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int i0;
+		private final int i1;
+		private final int j0;
+		private final int j1;
+
+		Backward(int i0, int i1, int j0, int j1) {
+			this.i0 = i0;
+			this.i1 = i1;
+			this.j0 = j0;
+			this.j1 = j1;
+		}
+
+		@Override
+		protected float[] compute() {
+			return backward(i0, i1, j0, j1);
+		}
+	}
+
+}
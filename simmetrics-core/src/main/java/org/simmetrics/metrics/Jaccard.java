@@ -21,9 +21,11 @@
 package org.simmetrics.metrics;
 
 import static org.simmetrics.metrics.Math.intersection;
+import static org.simmetrics.metrics.Math.intersectionSize;
 
 import java.util.Set;
 
+import org.simmetrics.IdSetMetric;
 import org.simmetrics.SetDistance;
 import org.simmetrics.SetMetric;
 
@@ -65,7 +67,8 @@ import org.simmetrics.SetMetric;
  *            type of the token
  * 
  */
-public final class Jaccard<T> implements SetMetric<T>, SetDistance<T> {
+public final class Jaccard<T> implements SetMetric<T>, SetDistance<T>,
+		IdSetMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -91,6 +94,21 @@ public final class Jaccard<T> implements SetMetric<T>, SetDistance<T> {
 		return 1.0f - compare(a, b);
 	}
 
+	@Override
+	public float compare(long[] a, long[] b) {
+
+		if (a.length == 0 && b.length == 0) {
+			return 1.0f;
+		}
+
+		if (a.length == 0 || b.length == 0) {
+			return 0.0f;
+		}
+
+		final int intersection = intersectionSize(a, b);
+		return intersection / (float) (a.length + b.length - intersection);
+	}
+
 	@Override
 	public String toString() {
 		return "Jaccard";
@@ -20,11 +20,18 @@
 
 package org.simmetrics.metrics;
 
+import static java.lang.Long.numberOfTrailingZeros;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+import static org.simmetrics.BatchStringMetrics.compareEach;
+import static org.simmetrics.BatchStringMetrics.range;
 
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
 import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
+import org.simmetrics.ThresholdedStringMetric;
 
 /**
  * Calculates the Jaro distance (similarity) over two strings.
@@ -35,6 +42,15 @@ import org.simmetrics.StringMetric;
  * distance(a,b) = 1 - similarity(a,b)
  * </code>
  * <p>
+ * Thresholded similarities first check two cheap upper bounds on the
+ * similarity. The first assumes all characters of the shorter string are
+ * matched, the second limits the number of matches to characters whose
+ * character class occurs in both strings.
+ * <p>
+ * Similarities are computed without allocating. Matched positions in strings
+ * of up to 64 characters are tracked in a bit mask, longer strings use a
+ * thread-confined scratch buffer.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
@@ -45,7 +61,8 @@ import org.simmetrics.StringMetric;
  *
  *
  */
-public final class Jaro implements StringMetric, StringDistance {
+public final class Jaro implements ThresholdedStringMetric,
+		BatchStringMetric, StringDistance {
 	
 	@Override
 	public float distance(String a, String b) {
@@ -63,89 +80,241 @@ public final class Jaro implements StringMetric, StringDistance {
 			return 0.0f;
 		}
 
+		if (a.length() <= Long.SIZE && b.length() <= Long.SIZE) {
+			return compareShort(a, b);
+		}
+
+		return compareLong(a, b);
+	}
+
+	/*
+	 * Both strings fit in a 64 bit word. Matched positions are tracked in a
+	 * bit mask for each string.
+	 */
+	private static float compareShort(final String a, final String b) {
+		final int aLength = a.length();
+		final int bLength = b.length();
+
 		// Intentional integer division to round down.
-		final int halfLength = max(0, max(a.length(), b.length()) / 2 - 1);
-
-		final char[] charsA = a.toCharArray();
-		final char[] charsB = b.toCharArray();
-		final int[] commonA = getCommonCharacters(charsA, charsB, halfLength);
-		final int[] commonB = getCommonCharacters(charsB, charsA, halfLength);
-
-		// commonA and commonB will always contain the same multi-set of
-		// characters. Because getCommonCharacters has been optimized, commonA
-		// and commonB are -1-padded. So in this loop we count transposition
-		// and use commonCharacters to determine the length of the multi-set.
-		float transpositions = 0;
+		final int separation = max(0, max(aLength, bLength) / 2 - 1);
+
+		long matchedA = 0;
+		long matchedB = 0;
 		int commonCharacters = 0;
-		for (int length = commonA.length; commonCharacters < length
-				&& commonA[commonCharacters] > -1; commonCharacters++) {
-			if (commonA[commonCharacters] != commonB[commonCharacters]) {
+		for (int i = 0; i < aLength; i++) {
+			final char character = a.charAt(i);
+			for (int j = max(0, i - separation), to = min(bLength, i
+					+ separation + 1); j < to; j++) {
+				if ((matchedB & (1L << j)) == 0 && b.charAt(j) == character) {
+					matchedA |= 1L << i;
+					matchedB |= 1L << j;
+					commonCharacters++;
+					break;
+				}
+			}
+		}
+
+		if (commonCharacters == 0) {
+			return 0.0f;
+		}
+
+		// The k-th matched character in a is paired with the k-th matched
+		// character in b. Unequal pairs are transpositions.
+		int transpositions = 0;
+		while (matchedA != 0) {
+			if (a.charAt(numberOfTrailingZeros(matchedA)) != b
+					.charAt(numberOfTrailingZeros(matchedB))) {
 				transpositions++;
 			}
+			matchedA &= matchedA - 1;
+			matchedB &= matchedB - 1;
+		}
+
+		return similarity(aLength, bLength, commonCharacters, transpositions);
+	}
+
+	/*
+	 * Either string is longer than 64 characters. Matched positions are
+	 * tracked in a thread-confined scratch buffer.
+	 */
+	private static float compareLong(final String a, final String b) {
+		final int aLength = a.length();
+		final int bLength = b.length();
+
+		// Intentional integer division to round down.
+		final int separation = max(0, max(aLength, bLength) / 2 - 1);
+
+		final Scratch scratch = SCRATCH.get();
+		final boolean[] matchedA = scratch.matchedA(aLength);
+		final boolean[] matchedB = scratch.matchedB(bLength);
+
+		int commonCharacters = 0;
+		for (int i = 0; i < aLength; i++) {
+			final char character = a.charAt(i);
+			for (int j = max(0, i - separation), to = min(bLength, i
+					+ separation + 1); j < to; j++) {
+				if (!matchedB[j] && b.charAt(j) == character) {
+					matchedA[i] = true;
+					matchedB[j] = true;
+					commonCharacters++;
+					break;
+				}
+			}
 		}
 
 		if (commonCharacters == 0) {
 			return 0.0f;
 		}
 
-		float aCommonRatio = commonCharacters / (float) a.length();
-		float bCommonRatio = commonCharacters / (float) b.length();
+		// The k-th matched character in a is paired with the k-th matched
+		// character in b. Unequal pairs are transpositions.
+		int transpositions = 0;
+		for (int i = 0, j = 0; i < aLength; i++) {
+			if (matchedA[i]) {
+				while (!matchedB[j]) {
+					j++;
+				}
+				if (a.charAt(i) != b.charAt(j)) {
+					transpositions++;
+				}
+				j++;
+			}
+		}
+
+		return similarity(aLength, bLength, commonCharacters, transpositions);
+	}
+
+	private static float similarity(int aLength, int bLength,
+			int commonCharacters, int transpositions) {
+		float aCommonRatio = commonCharacters / (float) aLength;
+		float bCommonRatio = commonCharacters / (float) bLength;
 		float transpositionRatio = (commonCharacters - transpositions / 2.0f)
 				/ commonCharacters;
 
 		return (aCommonRatio + bCommonRatio + transpositionRatio) / 3.0f;
 	}
 
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		compareEach(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public float compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		if (upperBound(a, b, minSimilarity) < minSimilarity) {
+			return 0.0f;
+		}
+
+		return compare(a, b);
+	}
+
 	/*
-	 * Returns an array of characters from a within b. A character in b is
-	 * counted as common when it is within separation distance from the position
-	 * in a.
+	 * Returns an upper bound for the similarity of two non-empty strings. The
+	 * bound is only refined while it is at least minSimilarity.
 	 */
-	private static int[] getCommonCharacters(final char[] charsA,
-			final char[] charsB, final int separation) {
-		final int[] common = new int[min(charsA.length, charsB.length)];
-		final boolean[] matched = new boolean[charsB.length];
-
-		// Iterate of string a and find all characters that occur in b within
-		// the separation distance. Mark any matches found to avoid
-		// duplicate matchings.
-		int commonIndex = 0;
-		for (int i = 0, length = charsA.length; i < length; i++) {
-			final char character = charsA[i];
-			final int index = indexOf(character, charsB, i - separation, i
-					+ separation + 1, matched);
-			if (index > -1) {
-				common[commonIndex++] = character;
-				matched[index] = true;
-			}
+	static float upperBound(final String a, final String b,
+			final float minSimilarity) {
+		// At best all characters in the shorter string are matched without
+		// transpositions.
+		final float lengthBound = upperBound(a, b,
+				min(a.length(), b.length()));
+		if (lengthBound < minSimilarity) {
+			return lengthBound;
 		}
 
-		if (commonIndex < common.length) {
-			common[commonIndex] = -1;
+		// A character can only be matched when its class occurs in both
+		// strings.
+		final long classesA = characterClasses(a);
+		final long classesB = characterClasses(b);
+		if (classesA == classesB) {
+			return lengthBound;
 		}
 
-		// Both invocations will yield the same multi-set terminated by -1, so
-		// they can be compared for transposition without making a copy.
-		return common;
+		final int common = min(countInClasses(a, classesB),
+				countInClasses(b, classesA));
+		return upperBound(a, b, common);
+	}
+
+	private static float upperBound(String a, String b, int common) {
+		if (common == 0) {
+			return 0.0f;
+		}
+		float aCommonRatio = common / (float) a.length();
+		float bCommonRatio = common / (float) b.length();
+		return (aCommonRatio + bCommonRatio + 1.0f) / 3.0f;
 	}
 
 	/*
-	 * Search for character in buffer starting at fromIndex to toIndex - 1.
-	 * 
-	 * Returns -1 when not found.
+	 * Returns a 64 bit set of the character classes in the string. The class
+	 * of a character are its lowest 6 bits.
 	 */
-	private static int indexOf(char character, char[] buffer, int fromIndex,
-			int toIndex, boolean[] matched) {
-
-		// compare char with range of characters to either side
-		for (int j = max(0, fromIndex), length = min(toIndex, buffer.length); j < length; j++) {
-			// check if found
-			if (buffer[j] == character && !matched[j]) {
-				return j;
+	private static long characterClasses(String s) {
+		long classes = 0;
+		for (int i = 0, length = s.length(); i < length; i++) {
+			classes |= 1L << s.charAt(i);
+		}
+		return classes;
+	}
+
+	private static int countInClasses(String s, long classes) {
+		int count = 0;
+		for (int i = 0, length = s.length(); i < length; i++) {
+			if ((classes & (1L << s.charAt(i))) != 0) {
+				count++;
 			}
 		}
+		return count;
+	}
+
+	private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			return new Scratch();
+		}
+	};
 
-		return -1;
+	/*
+	 * Reusable buffers for the matched positions in both strings. Buffers grow
+	 * to fit the longest string seen by a thread and are cleared before use.
+	 */
+	private static final class Scratch {
+		private boolean[] matchedA = new boolean[0];
+		private boolean[] matchedB = new boolean[0];
+
+		boolean[] matchedA(int length) {
+			matchedA = clear(matchedA, length);
+			return matchedA;
+		}
+
+		boolean[] matchedB(int length) {
+			matchedB = clear(matchedB, length);
+			return matchedB;
+		}
+
+		private static boolean[] clear(boolean[] buffer, int length) {
+			if (buffer.length < length) {
+				return new boolean[length];
+			}
+			fill(buffer, 0, length, false);
+			return buffer;
+		}
 	}
 
 	@Override
@@ -21,11 +21,17 @@
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Strings.commonPrefix;
+import static java.lang.Character.isHighSurrogate;
+import static java.lang.Character.isLowSurrogate;
 import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.compareEach;
+import static org.simmetrics.BatchStringMetrics.range;
 
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
 import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
+import org.simmetrics.ThresholdedStringMetric;
 
 /**
  * Calculates the Jaro-Winkler distance (similarity) over two strings.
@@ -39,6 +45,10 @@ import org.simmetrics.StringMetric;
  * Can be configured with a prefix adjustment scale, max prefix length and boost
  * threshold.
  * <p>
+ * Thresholded similarities are computed by deriving a minimum Jaro similarity
+ * from the threshold and the common prefix. This allows the cheap upper bounds
+ * of {@link Jaro#compareAtLeast(String, String, float)} to be used.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
@@ -49,7 +59,8 @@ import org.simmetrics.StringMetric;
  * 
  * 
  */
-public final class JaroWinkler implements StringMetric, StringDistance {
+public final class JaroWinkler implements ThresholdedStringMetric,
+		BatchStringMetric, StringDistance {
 
 	private final Jaro jaro = new Jaro();
 
@@ -116,11 +127,79 @@ public final class JaroWinkler implements StringMetric, StringDistance {
 			return jaroScore;
 		}
 
-		int prefixLength = min(commonPrefix(a, b).length(), maxPrefixLength);
+		return boost(jaroScore, commonPrefixLength(a, b));
+	}
+
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		compareEach(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public float compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+		final int prefixLength = commonPrefixLength(a, b);
+		final float boost = prefixLength * prefixScale;
+
+		// The boosted score j + boost * (1 - j) is an upper bound that
+		// increases with the Jaro score j when the boost is less than 1. So a
+		// lower bound for j can be derived. The margin absorbs rounding errors.
+		if (boost >= 1.0f) {
+			return compare(a, b);
+		}
+		final float minJaroScore = (minSimilarity - boost) / (1.0f - boost)
+				- 0.00001f;
+
+		final float jaroScore = jaro.compareAtLeast(a, b, minJaroScore);
+		if (jaroScore < minJaroScore) {
+			return 0.0f;
+		}
 
+		if (jaroScore < boostThreshold) {
+			return jaroScore;
+		}
+
+		return boost(jaroScore, prefixLength);
+	}
+
+	private float boost(float jaroScore, int prefixLength) {
 		return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
 	}
 
+	/*
+	 * Returns the length of the common prefix of a and b up to the maximum
+	 * prefix length. Like Strings.commonPrefix a prefix will not end in the
+	 * middle of a surrogate pair.
+	 */
+	private int commonPrefixLength(final String a, final String b) {
+		// Scan one past the maximum so the surrogate pair check can not
+		// shorten a prefix that exceeds the maximum.
+		final int length = (int) min(min(a.length(), b.length()),
+				maxPrefixLength + 1L);
+		int prefix = 0;
+		while (prefix < length && a.charAt(prefix) == b.charAt(prefix)) {
+			prefix++;
+		}
+		if (validSurrogatePairAt(a, prefix - 1)
+				|| validSurrogatePairAt(b, prefix - 1)) {
+			prefix--;
+		}
+		return min(prefix, maxPrefixLength);
+	}
+
+	private static boolean validSurrogatePairAt(String s, int index) {
+		return index >= 0 && index <= (s.length() - 2)
+				&& isHighSurrogate(s.charAt(index))
+				&& isLowSurrogate(s.charAt(index + 1));
+	}
+
 	@Override
 	public String toString() {
 		return "JaroWinkler [boostThreshold=" + boostThreshold
@@ -21,11 +21,22 @@
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.checkSimilarities;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.metrics.Math.min;
+import static org.simmetrics.metrics.PatternMasks.BLOCK_SIZE;
 
-import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.ThresholdedStringMetric;
 
 /**
  * Calculates the Levenshtein distance and similarity over two strings.
@@ -33,6 +44,19 @@ import org.simmetrics.StringMetric;
  * Insert/delete and substitute operations can be weighted. When the cost for
  * substitution is zero Levenshtein does not satisfy the coincidence property.
  * <p>
+ * When the insert/delete and substitute costs are equal the distance is
+ * computed with a bit-parallel algorithm in
+ * <code>O(&lceil;m/64&rceil;n)</code> time. Otherwise a dynamic programming
+ * algorithm is used that takes <code>O(mn)</code> time.
+ * <p>
+ * Thresholded distances and similarities are computed over a diagonal band of
+ * width <code>2k + 1</code> where <code>k</code> is the maximum number of
+ * insert/delete operations within the threshold. Computation stops as soon as
+ * every cell in the band exceeds the threshold.
+ * <p>
+ * Batch comparisons compute the bit-parallel pattern of the query once and
+ * reuse the rows of the dynamic programming algorithm between candidates.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href=" http://en.wikipedia.org/wiki/Levenshtein_distance">Wikipedia -
@@ -40,7 +64,9 @@ import org.simmetrics.StringMetric;
  * @see DamerauLevenshtein
  * 
  */
-public final class Levenshtein implements StringMetric, StringDistance {
+public final class Levenshtein implements ThresholdedStringMetric,
+		BatchStringMetric, ThresholdedStringDistance, SequenceMetric,
+		SequenceDistance {
 
 	private final float maxCost;
 	private final float insertDelete;
@@ -80,6 +106,73 @@ public final class Levenshtein implements StringMetric, StringDistance {
 		return 1.0f - (distance(a, b) / (maxCost * max(a.length(), b.length())));
 	}
 
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		checkSimilarities(candidates, similarities);
+		checkNotNull(query);
+
+		// Unit costs use the bit-parallel algorithm with the query as pattern,
+		// otherwise the rows are shared between candidates
+		final boolean unitCost = insertDelete == substitute;
+		final PatternMasks pattern = unitCost ? new PatternMasks(query) : null;
+		float[] v0 = new float[0];
+		float[] v1 = new float[0];
+
+		int i = 0;
+		for (String candidate : candidates) {
+			if (query.isEmpty() && candidate.isEmpty()) {
+				similarities[i++] = 1.0f;
+				continue;
+			}
+
+			final float distance;
+			if (query.isEmpty()) {
+				distance = candidate.length();
+			} else if (candidate.isEmpty()) {
+				distance = query.length();
+			} else if (query.equals(candidate)) {
+				distance = 0;
+			} else if (unitCost) {
+				distance = insertDelete * BitParallelLevenshtein.distance(
+						pattern, candidate, Integer.MAX_VALUE);
+			} else {
+				if (v0.length <= candidate.length()) {
+					v0 = new float[candidate.length() + 1];
+					v1 = new float[candidate.length() + 1];
+				}
+				distance = distance(query, candidate, v0, v1);
+			}
+
+			similarities[i++] = 1.0f - (distance / (maxCost * max(
+					query.length(), candidate.length())));
+		}
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public float compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		final float maxDistance = maxCost * max(a.length(), b.length());
+		final float threshold = Math.threshold(minSimilarity, maxDistance);
+		final float distance = distance(a, b, threshold);
+
+		if (distance > threshold) {
+			return 0.0f;
+		}
+
+		return 1.0f - (distance / maxDistance);
+	}
+
 	@Override
 	public float distance(final String s, final String t) {
 
@@ -90,17 +183,29 @@ public final class Levenshtein implements StringMetric, StringDistance {
 		if (s.equals(t))
 			return 0;
 
+		if (insertDelete == substitute) {
+			return insertDelete * BitParallelLevenshtein.distance(s, t);
+		}
+
+		return distance(s, t, new float[t.length() + 1],
+				new float[t.length() + 1]);
+	}
+
+	/*
+	 * Weighted distance between non-empty strings using rows of at least
+	 * t.length() + 1 elements.
+	 */
+	private float distance(final String s, final String t, float[] v0,
+			float[] v1) {
 		final int tLength = t.length();
 		final int sLength = s.length();
 
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
 
 		// initialize v0 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v0.length; i++) {
+		for (int i = 0; i <= tLength; i++) {
 			v0[i] = i * insertDelete;
 		}
 
@@ -127,6 +232,133 @@ public final class Levenshtein implements StringMetric, StringDistance {
 		return v0[tLength];
 	}
 
+	@Override
+	public float distance(final String s, final String t,
+			final float maxDistance) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		// Distance can not exceed the cost of substituting the shorter string
+		// and inserting the remainder.
+		if (sLength == 0 || tLength == 0
+				|| maxDistance >= maxCost * max(sLength, tLength)) {
+			final float distance = distance(s, t);
+			return distance > maxDistance ? Float.POSITIVE_INFINITY : distance;
+		}
+
+		if (abs(sLength - tLength) * insertDelete > maxDistance) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		if (s.equals(t)) {
+			return 0;
+		}
+
+		// Maximum number of insert/delete operations within the threshold
+		final int k = (int) min(maxDistance / insertDelete, max(sLength, tLength));
+
+		// The bit-parallel algorithm processes 64 cells of a column at once
+		// while the band contains 2k + 1 cells.
+		final int blocks = (min(sLength, tLength) + BLOCK_SIZE - 1)
+				/ BLOCK_SIZE;
+		if (insertDelete == substitute && blocks <= 2 * k + 1) {
+			final int distance = BitParallelLevenshtein.distance(s, t, k);
+			return distance > k ? Float.POSITIVE_INFINITY : insertDelete * distance;
+		}
+
+		return distance(s, t, maxDistance, k);
+	}
+
+	private float distance(final String s, final String t,
+			final float maxDistance, final int k) {
+		final int tLength = t.length();
+		final int sLength = s.length();
+
+		float[] swap;
+		float[] v0 = new float[tLength + 1];
+		float[] v1 = new float[tLength + 1];
+
+		// initialize v0 (the previous row of distances) within the band
+		for (int j = 0; j < v0.length; j++) {
+			v0[j] = j <= k ? j * insertDelete : Float.POSITIVE_INFINITY;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+
+			// cells A[i+1][j] are only computed for |i + 1 - j| <= k, cells
+			// outside the band exceed the threshold
+			final int from = max(1, i + 1 - k);
+			final int to = min(tLength, i + 1 + k);
+
+			v1[from - 1] = i + 1 <= k ? (i + 1) * insertDelete
+					: Float.POSITIVE_INFINITY;
+			float rowMin = v1[from - 1];
+
+			for (int j = from; j <= to; j++) {
+				v1[j] = min(v1[j - 1] + insertDelete,
+						v0[j] + insertDelete,
+						v0[j - 1]
+								+ (s.charAt(i) == t.charAt(j - 1) ? 0.0f
+										: substitute));
+				rowMin = min(rowMin, v1[j]);
+			}
+
+			if (to < tLength) {
+				v1[to + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			if (rowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		// latest results was in v1 which was swapped with v0
+		return v0[tLength] > maxDistance ? Float.POSITIVE_INFINITY
+				: v0[tLength];
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(int[] a, int[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(long[] a, long[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	float compare(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return compare(encoded.a, encoded.b);
+		}
+		final int[] s = encoded.aCodes;
+		final int[] t = encoded.bCodes;
+		return 1.0f - (Sequences.editDistance(s, t, insertDelete, substitute,
+				Float.POSITIVE_INFINITY) / (maxCost * max(s.length, t.length)));
+	}
+
+	float distance(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return distance(encoded.a, encoded.b);
+		}
+		return Sequences.editDistance(encoded.aCodes, encoded.bCodes,
+				insertDelete, substitute, Float.POSITIVE_INFINITY);
+	}
+
 	@Override
 	public String toString() {
 		return "Levenshtein [insertDelete=" + insertDelete + ", substitute="
@@ -20,8 +20,17 @@
 package org.simmetrics.metrics;
 
 import static java.lang.Math.max;
+import static org.simmetrics.BatchStringMetrics.comparePrepared;
+import static org.simmetrics.BatchStringMetrics.range;
+
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
 import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
 
 /**
  * Applies the longest common subsequence algorithm to calculate the similarity
@@ -33,14 +42,19 @@ import org.simmetrics.StringMetric;
  * distance(a,b) = ∣a∣ + ∣b∣ - 2 * ∣lcs(a,b)∣  
  * </code>
  * <p>
+ * The length of the longest common subsequence is computed 64 characters at a
+ * time using a bit-parallel algorithm. A prepared query stores the match masks
+ * of the prepared string.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
  *      href="https://en.wikipedia.org/wiki/Longest_common_subsequence_problem">Wikipedia
  *      - Longest common subsequence problem</a>
  */
-public final class LongestCommonSubsequence implements StringMetric,
-		StringDistance {
+public final class LongestCommonSubsequence implements
+		PreparableStringMetric, BatchStringMetric, StringDistance,
+		SequenceMetric, SequenceDistance {
 
 	@Override
 	public float compare(String a, String b) {
@@ -71,30 +85,90 @@ public final class LongestCommonSubsequence implements StringMetric,
 		return a.length() + b.length() - 2 * lcs(a, b);
 	}
 
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		comparePrepared(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public PreparedQuery prepare(String a) {
+		return new Prepared(new PatternMasks(a));
+	}
+
 	private static int lcs(String a, String b) {
+		return BitParallelLongestCommonSubsequence.length(a, b);
+	}
+
+	private static final class Prepared implements PreparedQuery {
+
+		private final PatternMasks pattern;
+
+		Prepared(PatternMasks pattern) {
+			this.pattern = pattern;
+		}
+
+		@Override
+		public float compare(String b) {
+			final int aLength = pattern.length();
+			if (aLength == 0 && b.isEmpty()) {
+				return 1.0f;
+			}
 
-		final int n = a.length();
-		final int m = b.length();
-
-		// We're only interested in the actual longest common subsequence This
-		// means we don't have to backtrack through the n-by-m matrix and can
-		// safe some space by reusing v0 for row i-1.
-		int[] v0 = new int[m + 1];
-		int[] v1 = new int[m + 1];
-
-		for (int i = 1; i <= n; i++) {
-			for (int j = 1; j <= m; j++) {
-				if (a.charAt(i - 1) == b.charAt(j - 1)) {
-					v1[j] = v0[j - 1] + 1;
-				} else {
-					v1[j] = max(v1[j - 1], v0[j]);
-				}
+			if (aLength == 0 || b.isEmpty()) {
+				return 0.0f;
 			}
-			int[] swap = v0; v0 = v1; v1 = swap; 
+
+			return BitParallelLongestCommonSubsequence.length(pattern, b)
+					/ (float) max(aLength, b.length());
 		}
 
-		// Because we swapped the results are in v0.
-		return v0[m];
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(int[] a, int[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(long[] a, long[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	float compare(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return compare(encoded.a, encoded.b);
+		}
+		final int[] a = encoded.aCodes;
+		final int[] b = encoded.bCodes;
+		return Sequences.longestCommonSubsequence(a, b)
+				/ (float) max(a.length, b.length);
+	}
+
+	float distance(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return distance(encoded.a, encoded.b);
+		}
+		final int[] a = encoded.aCodes;
+		final int[] b = encoded.bCodes;
+		return a.length + b.length - 2
+				* Sequences.longestCommonSubsequence(a, b);
 	}
 
 	@Override
@@ -20,9 +20,18 @@
 package org.simmetrics.metrics;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.comparePrepared;
+import static org.simmetrics.BatchStringMetrics.range;
 
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
 import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
 
 /**
  * Applies the longest common substring algorithm to calculate the similarity
@@ -34,14 +43,26 @@ import org.simmetrics.StringMetric;
  * distance(a,b) = ∣a∣ + ∣b∣ - 2 * ∣lcs(a,b)∣  
  * </code>
  * <p>
+ * Short strings are compared by dynamic programming in quadratic time. When
+ * both strings are longer a suffix automaton is built over the shorter string
+ * and the longer string is streamed through it in linear time. A prepared query
+ * stores the suffix automaton of the prepared string.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
  *      href="https://en.wikipedia.org/wiki/Longest_common_substring_problem">Wikipedia
  *      - Longest common substring problem</a>
  */
-public final class LongestCommonSubstring implements StringMetric,
-		StringDistance {
+public final class LongestCommonSubstring implements
+		PreparableStringMetric, BatchStringMetric, StringDistance,
+		SequenceMetric, SequenceDistance {
+
+	/*
+	 * When both strings are at least this long the suffix automaton is faster
+	 * than dynamic programming.
+	 */
+	static final int AUTOMATON_CUTOFF = 32;
 
 	@Override
 	public float compare(String a, String b) {
@@ -72,7 +93,34 @@ public final class LongestCommonSubstring implements StringMetric,
 		return a.length() + b.length() - 2 * lcs(a, b);
 	}
 
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		comparePrepared(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public PreparedQuery prepare(String a) {
+		return new Prepared(new SuffixAutomaton(a));
+	}
+
 	private static int lcs(String a, String b) {
+		if (min(a.length(), b.length()) < AUTOMATON_CUTOFF) {
+			return dynamic(a, b);
+		}
+		if (a.length() < b.length()) {
+			return new SuffixAutomaton(a).longestCommonSubstring(b);
+		}
+		return new SuffixAutomaton(b).longestCommonSubstring(a);
+	}
+
+	private static int dynamic(String a, String b) {
 
 		final int m = a.length();
 		final int n = b.length();
@@ -101,6 +149,71 @@ public final class LongestCommonSubstring implements StringMetric,
 		return z;
 	}
 
+	private static final class Prepared implements PreparedQuery {
+
+		private final SuffixAutomaton automaton;
+
+		Prepared(SuffixAutomaton automaton) {
+			this.automaton = automaton;
+		}
+
+		@Override
+		public float compare(String b) {
+			final int aLength = automaton.length();
+			if (aLength == 0 && b.isEmpty()) {
+				return 1.0f;
+			}
+
+			if (aLength == 0 || b.isEmpty()) {
+				return 0.0f;
+			}
+
+			return automaton.longestCommonSubstring(b)
+					/ (float) max(aLength, b.length());
+		}
+
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(int[] a, int[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float distance(long[] a, long[] b) {
+		return distance(Sequences.encode(a, b));
+	}
+
+	float compare(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return compare(encoded.a, encoded.b);
+		}
+		final int[] a = encoded.aCodes;
+		final int[] b = encoded.bCodes;
+		return Sequences.longestCommonSubstring(a, b)
+				/ (float) max(a.length, b.length);
+	}
+
+	float distance(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return distance(encoded.a, encoded.b);
+		}
+		final int[] a = encoded.aCodes;
+		final int[] b = encoded.bCodes;
+		return a.length + b.length - 2
+				* Sequences.longestCommonSubstring(a, b);
+	}
+
 	@Override
 	public String toString() {
 		return "LongestCommonSubstring";
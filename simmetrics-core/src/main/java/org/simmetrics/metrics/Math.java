@@ -23,6 +23,8 @@ package org.simmetrics.metrics;
 
 import java.util.Set;
 
+import org.simmetrics.tokenizers.IdMultiset;
+
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Multisets;
 import com.google.common.collect.Sets;
@@ -70,6 +72,15 @@ final class Math {
 				java.lang.Math.min(java.lang.Math.min(a, b), c), d);
 	}
 
+	/**
+	 * Returns the largest distance for which a normalized similarity of
+	 * {@code 1 - distance / maxDistance} is at least {@code minSimilarity}. A
+	 * small margin is added to absorb rounding errors.
+	 */
+	static float threshold(float minSimilarity, float maxDistance) {
+		return (1.0f - minSimilarity) * maxDistance * 1.00001f;
+	}
+
 	static <T> Multiset<T> union(Multiset<T> a, Multiset<T> b) {
 		// Lager set first for performance improvement.
 		// See: MathCaliper
@@ -99,4 +110,106 @@ final class Math {
 
 		return Sets.intersection(b, a);
 	}
+
+	/**
+	 * Returns the size of the intersection of two multisets. Equivalent to
+	 * {@code intersection(a, b).size()} without creating a view.
+	 */
+	static <T> int intersectionSize(Multiset<T> a, Multiset<T> b) {
+		// Smaller set first for performance improvement.
+		if (a.elementSet().size() > b.elementSet().size()) {
+			return intersectionSize(b, a);
+		}
+
+		int size = 0;
+		for (Multiset.Entry<T> entry : a.entrySet()) {
+			size += java.lang.Math.min(entry.getCount(), b.count(entry.getElement()));
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the dot product of two multisets as frequency vectors.
+	 */
+	static <T> long dotProduct(Multiset<T> a, Multiset<T> b) {
+		// Smaller set first for performance improvement.
+		if (a.elementSet().size() > b.elementSet().size()) {
+			return dotProduct(b, a);
+		}
+
+		long dotProduct = 0;
+		for (Multiset.Entry<T> entry : a.entrySet()) {
+			dotProduct += (long) entry.getCount() * b.count(entry.getElement());
+		}
+		return dotProduct;
+	}
+
+	/**
+	 * Returns the sum of the squared counts of a multiset.
+	 */
+	static <T> long sumOfSquares(Multiset<T> a) {
+		long sumOfSquares = 0;
+		for (Multiset.Entry<T> entry : a.entrySet()) {
+			sumOfSquares += (long) entry.getCount() * entry.getCount();
+		}
+		return sumOfSquares;
+	}
+
+	/**
+	 * Returns the size of the intersection of two sorted arrays of distinct
+	 * ids.
+	 */
+	static int intersectionSize(long[] a, long[] b) {
+		int size = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				size++;
+				i++;
+				j++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the size of the intersection of two multisets of ids.
+	 */
+	static int intersectionSize(IdMultiset a, IdMultiset b) {
+		int size = 0;
+		for (int i = 0, j = 0, n = a.distinct(), m = b.distinct(); i < n && j < m;) {
+			final long aId = a.id(i);
+			final long bId = b.id(j);
+			if (aId < bId) {
+				i++;
+			} else if (aId > bId) {
+				j++;
+			} else {
+				size += java.lang.Math.min(a.count(i++), b.count(j++));
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the dot product of two multisets of ids as frequency vectors.
+	 */
+	static long dotProduct(IdMultiset a, IdMultiset b) {
+		long dotProduct = 0;
+		for (int i = 0, j = 0, n = a.distinct(), m = b.distinct(); i < n && j < m;) {
+			final long aId = a.id(i);
+			final long bId = b.id(j);
+			if (aId < bId) {
+				i++;
+			} else if (aId > bId) {
+				j++;
+			} else {
+				dotProduct += (long) a.count(i++) * b.count(j++);
+			}
+		}
+		return dotProduct;
+	}
 }
@@ -24,11 +24,17 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.comparePrepared;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.metrics.Math.min;
 
+import java.util.List;
 import java.util.Objects;
 
-import org.simmetrics.StringMetric;
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
+import org.simmetrics.SequenceMetric;
 import org.simmetrics.metrics.functions.MatchMismatch;
 import org.simmetrics.metrics.functions.Substitution;
 
@@ -36,6 +42,17 @@ import org.simmetrics.metrics.functions.Substitution;
  * Applies the Needleman-Wunsch algorithm to calculate the similarity
  * between two strings. This implementation uses linear space.
  * <p>
+ * An optimal alignment of two strings can be computed in linear space too.
+ * <p>
+ * A prepared query stores the substitution scores for each distinct character
+ * in the prepared string. This avoids calling the substitution function for
+ * every cell when one string is compared against many.
+ * <p>
+ * Sequences of integers are aligned with the same algorithm. Because the
+ * substitution function rates characters, elements of a sequence are scored
+ * by equality instead: equal elements score the maximum value of the
+ * substitution function, unequal elements the minimum.
+ * <p>
  * This class is immutable and thread-safe if its substitution function is.
  * 
  * @see SmithWatermanGotoh
@@ -44,13 +61,17 @@ import org.simmetrics.metrics.functions.Substitution;
  *      href="https://en.wikipedia.org/wiki/Needleman%E2%80%93Wunsch_algorithm">Wikipedia
  *      - Needleman-Wunsch algorithm</a>
  */
-public final class NeedlemanWunch implements StringMetric {
+public final class NeedlemanWunch implements PreparableStringMetric,
+		BatchStringMetric, SequenceMetric {
 
 	private static final Substitution MATCH_0_MISMATCH_1 = new MatchMismatch(
 			0.0f, -1.0f);
 
 	private final Substitution substitution;
 
+	// Scores elements of sequences by equality
+	private final Substitution sequenceSubstitution;
+
 	private final float gapValue;
 
 	/**
@@ -76,12 +97,56 @@ public final class NeedlemanWunch implements StringMetric {
 		checkNotNull(substitution);
 		this.gapValue = gapValue;
 		this.substitution = substitution;
+		this.sequenceSubstitution = substitution.max() > substitution.min() ? new MatchMismatch(
+				substitution.max(), substitution.min()) : substitution;
 	}
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(SubstitutionProfile.direct(a, substitution), b);
+	}
+
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		comparePrepared(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
 
-		if (a.isEmpty() && b.isEmpty()) {
+	@Override
+	public PreparedQuery prepare(String a) {
+		return new Prepared(SubstitutionProfile.prepare(a, substitution));
+	}
+
+	/**
+	 * Returns an optimal global alignment of a and b. The alignment is computed
+	 * in linear space using Hirschberg's algorithm. Its score is the negated
+	 * penalty used to compute the similarity of a and b.
+	 * 
+	 * @param a
+	 *            string a to align
+	 * @param b
+	 *            string b to align
+	 * @return an optimal alignment of a and b
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	public Alignment align(String a, String b) {
+		checkNotNull(a);
+		checkNotNull(b);
+		// Leading gaps are penalized by 1 rather than the gap value, in line
+		// with the first row and column of needlemanWunch.
+		return Hirschberg.global(a, b, substitution, gapValue, -1.0f);
+	}
+
+	private float compare(SubstitutionProfile a, String b) {
+
+		if (a.length() == 0 && b.isEmpty()) {
 			return 1.0f;
 		}
 
@@ -95,7 +160,8 @@ public final class NeedlemanWunch implements StringMetric {
 
 	}
 
-	private float needlemanWunch(final String s, final String t) {
+	private float needlemanWunch(final SubstitutionProfile profile, final String t) {
+		final String s = profile.query();
 
 		if (Objects.equals(s, t)) {
 			return 0;
@@ -114,22 +180,25 @@ public final class NeedlemanWunch implements StringMetric {
 		// We're only interested in the alignment penalty between s and t
 		// and not their actual alignment. This means we don't have to backtrack
 		// through the n-by-m matrix and can safe some space by reusing v0 for
-		// row i-1.
-		float[] v0 = new float[m + 1];
-		float[] v1 = new float[m + 1];
+		// column j-1. Columns iterate over s so substitution scores can be
+		// read from the profile.
+		float[] v0 = new float[n + 1];
+		float[] v1 = new float[n + 1];
+		final float[] scratch = new float[n];
 
-		for (int j = 0; j <= m; j++) {
-			v0[j] = j;
+		for (int i = 0; i <= n; i++) {
+			v0[i] = i;
 		}
 
-		for (int i = 1; i <= n; i++) {
-			v1[0] = i;
+		for (int j = 1; j <= m; j++) {
+			v1[0] = j;
 
-			for (int j = 1; j <= m; j++) {
-				v1[j] = min(
-						v0[j]     - gapValue, 
-						v1[j - 1] - gapValue, 
-						v0[j - 1] - substitution.compare(s, i - 1, t, j - 1));
+			final float[] scores = profile.scores(t, j - 1, scratch);
+			for (int i = 1; i <= n; i++) {
+				v1[i] = min(
+						v1[i - 1] - gapValue, 
+						v0[i]     - gapValue, 
+						v0[i - 1] - scores[i - 1]);
 			}
 			
 			final float[] swap = v0; v0 = v1; v1 = swap;
@@ -137,7 +206,50 @@ public final class NeedlemanWunch implements StringMetric {
 		}
 		
 		// Because we swapped the results are in v0.
-		return v0[m];
+		return v0[n];
+	}
+
+	private final class Prepared implements PreparedQuery {
+
+		private final SubstitutionProfile profile;
+
+		Prepared(SubstitutionProfile profile) {
+			this.profile = profile;
+		}
+
+		@Override
+		public float compare(String b) {
+			return NeedlemanWunch.this.compare(profile, b);
+		}
+
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return compare(Sequences.encode(a, b));
+	}
+
+	float compare(Sequences.Encoded encoded) {
+		if (encoded.isString()) {
+			return compare(SubstitutionProfile.direct(encoded.a,
+					sequenceSubstitution), encoded.b);
+		}
+
+		final int[] s = encoded.aCodes;
+		final int[] t = encoded.bCodes;
+		float maxDistance = max(s.length, t.length)
+				* max(substitution.max(), gapValue);
+		float minDistance = max(s.length, t.length)
+				* min(substitution.min(), gapValue);
+
+		return (-Sequences.alignmentPenalty(s, t, substitution.max(),
+				substitution.min(), gapValue) - minDistance)
+				/ (maxDistance - minDistance);
 	}
 
 	@Override
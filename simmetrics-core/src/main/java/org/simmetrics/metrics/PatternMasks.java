@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+/**
+ * Match masks of a pattern for use in bit-parallel algorithms. For every
+ * distinct character in the pattern the positions at which it occurs are stored
+ * as bits, in blocks of 64 positions.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class PatternMasks {
+
+	static final int BLOCK_SIZE = 64;
+
+	private final int length;
+	private final int blocks;
+
+	private final CharacterIds ids;
+
+	private final long[] masks;
+
+	PatternMasks(String pattern) {
+		this.length = pattern.length();
+		this.blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		this.ids = new CharacterIds(pattern);
+
+		this.masks = new long[ids.size() * blocks];
+		for (int i = 0; i < length; i++) {
+			masks[id(pattern.charAt(i)) * blocks + i / BLOCK_SIZE] |= 1L << (i % BLOCK_SIZE);
+		}
+	}
+
+	/**
+	 * Returns the length of the pattern.
+	 */
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of 64 bit blocks used for each mask.
+	 */
+	int blocks() {
+		return blocks;
+	}
+
+	/**
+	 * Returns the id of a character or -1 when the character does not occur in
+	 * the pattern.
+	 */
+	int id(char c) {
+		return ids.id(c);
+	}
+
+	/**
+	 * Returns the positions of the character with the given id within a block
+	 * of the pattern. An id of -1 yields an empty mask.
+	 */
+	long mask(int id, int block) {
+		return id < 0 ? 0L : masks[id * blocks + block];
+	}
+
+	/**
+	 * Returns the positions of a character within a block of the pattern.
+	 */
+	long mask(char c, int block) {
+		return mask(id(c), block);
+	}
+
+}
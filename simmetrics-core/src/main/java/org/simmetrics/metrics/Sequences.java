@@ -0,0 +1,378 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+import static org.simmetrics.metrics.Math.min;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.simmetrics.ListDistance;
+import org.simmetrics.ListMetric;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
+
+/**
+ * Utilities for metrics on sequences of integers.
+ * <p>
+ * Sequence metrics compare lists by replacing their elements with ids. Each
+ * distinct element is hashed once per comparison, rather than compared with
+ * {@link Object#equals(Object)} for every pair of elements.
+ * 
+ * @see SequenceMetric
+ * @see SequenceDistance
+ */
+public final class Sequences {
+
+	private Sequences() {
+		// Utility class
+	}
+
+	/*
+	 * Sequences are encoded as strings so they can be compared by the
+	 * character based algorithms. Only elements of a that occur in b, and vice
+	 * versa, have to keep their identity. Others are never equal to an element
+	 * of the other sequence and share a character for either sequence. When
+	 * the common elements do not fit in a character the sequences are encoded
+	 * as codes instead, to be compared by the algorithms directly.
+	 */
+	private static final char ONLY_IN_A = 0;
+	private static final char ONLY_IN_B = 1;
+	private static final int FIRST_COMMON = 2;
+	private static final int MAX_COMMON = Character.MAX_VALUE + 1 - FIRST_COMMON;
+
+	static final class Encoded {
+		// Null when the sequences are encoded as codes
+		final String a;
+		final String b;
+		// Null when the sequences are encoded as strings
+		final int[] aCodes;
+		final int[] bCodes;
+
+		Encoded(String a, String b) {
+			this.a = a;
+			this.b = b;
+			this.aCodes = null;
+			this.bCodes = null;
+		}
+
+		Encoded(int[] aCodes, int[] bCodes) {
+			this.a = null;
+			this.b = null;
+			this.aCodes = aCodes;
+			this.bCodes = bCodes;
+		}
+
+		boolean isString() {
+			return a != null;
+		}
+	}
+
+	/**
+	 * Widens and encodes sequences a and b, see
+	 * {@link #encode(long[], long[])}.
+	 */
+	static Encoded encode(int[] a, int[] b) {
+		return encode(widen(a), widen(b));
+	}
+
+	/**
+	 * Encodes sequences a and b as strings such that {@code a[i] == b[j]} if
+	 * and only if {@code encoded.a.charAt(i) == encoded.b.charAt(j)}. Elements
+	 * within a sequence may not keep their identity. When the sequences have
+	 * too many elements in common they are encoded as codes such that
+	 * {@code a[i] == b[j]} if and only if
+	 * {@code encoded.aCodes[i] == encoded.bCodes[j]}. Sequences encoded as
+	 * codes have at least one element in common.
+	 */
+	static Encoded encode(long[] a, long[] b) {
+		return encode(a, b, MAX_COMMON);
+	}
+
+	static Encoded encode(long[] a, long[] b, int maxCommon) {
+		checkNotNull(a);
+		checkNotNull(b);
+		final long[] common = intersection(distinct(a), distinct(b));
+		if (common.length > maxCommon) {
+			return new Encoded(codes(a, common, ONLY_IN_A), codes(b, common,
+					ONLY_IN_B));
+		}
+		return new Encoded(encode(a, common, ONLY_IN_A), encode(b, common,
+				ONLY_IN_B));
+	}
+
+	private static int[] codes(long[] sequence, long[] common, int unique) {
+		final int[] codes = new int[sequence.length];
+		for (int i = 0; i < sequence.length; i++) {
+			final int index = binarySearch(common, sequence[i]);
+			codes[i] = index < 0 ? unique : FIRST_COMMON + index;
+		}
+		return codes;
+	}
+
+	private static String encode(long[] sequence, long[] common, char unique) {
+		final char[] chars = new char[sequence.length];
+		for (int i = 0; i < sequence.length; i++) {
+			final int index = binarySearch(common, sequence[i]);
+			chars[i] = index < 0 ? unique : (char) (FIRST_COMMON + index);
+		}
+		return new String(chars);
+	}
+
+	private static long[] distinct(long[] sequence) {
+		final long[] sorted = sequence.clone();
+		sort(sorted);
+		int size = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+		return copyOf(sorted, size);
+	}
+
+	private static long[] intersection(long[] a, long[] b) {
+		final long[] intersection = new long[java.lang.Math.min(a.length, b.length)];
+		int size = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				intersection[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return copyOf(intersection, size);
+	}
+
+	static long[] widen(int[] sequence) {
+		final long[] widened = new long[sequence.length];
+		for (int i = 0; i < sequence.length; i++) {
+			widened[i] = sequence[i];
+		}
+		return widened;
+	}
+
+	/*
+	 * The kernels below compare sequences of codes directly. They are used by
+	 * the sequence metrics when the sequences could not be encoded as strings.
+	 */
+
+	/**
+	 * Returns the weighted edit distance between two sequences of codes. A
+	 * transposition of two adjacent codes is only considered when its cost is
+	 * finite.
+	 */
+	static float editDistance(int[] s, int[] t, float insertDelete,
+			float substitute, float transpose) {
+		float[] v0 = new float[t.length + 1];
+		float[] v1 = new float[t.length + 1];
+		float[] v2 = new float[t.length + 1];
+		float[] swap;
+
+		for (int j = 0; j <= t.length; j++) {
+			v1[j] = j * insertDelete;
+		}
+
+		for (int i = 0; i < s.length; i++) {
+			v2[0] = (i + 1) * insertDelete;
+			for (int j = 0; j < t.length; j++) {
+				v2[j + 1] = min(v2[j] + insertDelete,
+						v1[j + 1] + insertDelete,
+						v1[j] + (s[i] == t[j] ? 0.0f : substitute));
+				if (j > 0 && i > 0 && s[i - 1] == t[j] && s[i] == t[j - 1]) {
+					v2[j + 1] = java.lang.Math.min(v2[j + 1], v0[j - 1] + transpose);
+				}
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		return v1[t.length];
+	}
+
+	/**
+	 * Returns the length of the longest common subsequence of two sequences
+	 * of codes.
+	 */
+	static int longestCommonSubsequence(int[] a, int[] b) {
+		int[] v0 = new int[b.length + 1];
+		int[] v1 = new int[b.length + 1];
+		for (int i = 0; i < a.length; i++) {
+			for (int j = 0; j < b.length; j++) {
+				v1[j + 1] = a[i] == b[j] ? v0[j] + 1 : max(v1[j], v0[j + 1]);
+			}
+			final int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return v0[b.length];
+	}
+
+	/**
+	 * Returns the length of the longest common substring of two sequences of
+	 * codes.
+	 */
+	static int longestCommonSubstring(int[] a, int[] b) {
+		int[] v0 = new int[b.length + 1];
+		int[] v1 = new int[b.length + 1];
+		int z = 0;
+		for (int i = 0; i < a.length; i++) {
+			for (int j = 0; j < b.length; j++) {
+				v1[j + 1] = a[i] == b[j] ? v0[j] + 1 : 0;
+				z = max(z, v1[j + 1]);
+			}
+			final int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return z;
+	}
+
+	/**
+	 * Returns the global alignment penalty of two sequences of codes. Equal
+	 * codes score {@code match}, others score {@code mismatch}.
+	 */
+	static float alignmentPenalty(int[] s, int[] t, float match,
+			float mismatch, float gap) {
+		final int n = s.length;
+		final int m = t.length;
+
+		float[] v0 = new float[n + 1];
+		float[] v1 = new float[n + 1];
+
+		for (int i = 0; i <= n; i++) {
+			v0[i] = i;
+		}
+
+		for (int j = 1; j <= m; j++) {
+			v1[0] = j;
+			for (int i = 1; i <= n; i++) {
+				final float score = s[i - 1] == t[j - 1] ? match : mismatch;
+				v1[i] = min(
+						v1[i - 1] - gap,
+						v0[i]     - gap,
+						v0[i - 1] - score);
+			}
+
+			final float[] swap = v0; v0 = v1; v1 = swap;
+		}
+
+		return v0[n];
+	}
+
+	/**
+	 * Returns a metric that compares lists by mapping their elements to ids
+	 * and comparing the sequences of ids. Elements are mapped once per
+	 * comparison. Elements may be null.
+	 * 
+	 * @param metric
+	 *            the metric to compare the sequences of ids with
+	 * @param <T>
+	 *            type of the elements in the lists
+	 * @return a metric that compares lists
+	 */
+	public static <T> ListMetric<T> asListMetric(SequenceMetric metric) {
+		return new SequenceListMetric<>(checkNotNull(metric));
+	}
+
+	/**
+	 * Returns a distance that compares lists by mapping their elements to ids
+	 * and comparing the sequences of ids. Elements are mapped once per
+	 * comparison. Elements may be null.
+	 * 
+	 * @param distance
+	 *            the distance to compare the sequences of ids with
+	 * @param <T>
+	 *            type of the elements in the lists
+	 * @return a distance that compares lists
+	 */
+	public static <T> ListDistance<T> asListDistance(SequenceDistance distance) {
+		return new SequenceListDistance<>(checkNotNull(distance));
+	}
+
+	private static <T> int[] ids(List<T> list, Map<T, Integer> ids) {
+		final int[] sequence = new int[list.size()];
+		int i = 0;
+		for (T element : list) {
+			Integer id = ids.get(element);
+			if (id == null) {
+				id = ids.size();
+				ids.put(element, id);
+			}
+			sequence[i++] = id;
+		}
+		return sequence;
+	}
+
+	private static final class SequenceListMetric<T> implements ListMetric<T> {
+
+		private final SequenceMetric metric;
+
+		SequenceListMetric(SequenceMetric metric) {
+			this.metric = metric;
+		}
+
+		@Override
+		public float compare(List<T> a, List<T> b) {
+			final Map<T, Integer> ids = new HashMap<>();
+			return metric.compare(ids(a, ids), ids(b, ids));
+		}
+
+		@Override
+		public String toString() {
+			return "SequenceListMetric [" + metric + "]";
+		}
+	}
+
+	private static final class SequenceListDistance<T> implements
+			ListDistance<T> {
+
+		private final SequenceDistance distance;
+
+		SequenceListDistance(SequenceDistance distance) {
+			this.distance = distance;
+		}
+
+		@Override
+		public float distance(List<T> a, List<T> b) {
+			final Map<T, Integer> ids = new HashMap<>();
+			return distance.distance(ids(a, ids), ids(b, ids));
+		}
+
+		@Override
+		public String toString() {
+			return "SequenceListDistance [" + distance + "]";
+		}
+	}
+}
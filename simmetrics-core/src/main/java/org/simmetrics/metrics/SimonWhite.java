@@ -21,10 +21,14 @@
 package org.simmetrics.metrics;
 
 import static org.simmetrics.metrics.Math.intersection;
+import static org.simmetrics.metrics.Math.intersectionSize;
 
+import org.simmetrics.IdMultisetMetric;
 import org.simmetrics.MultisetDistance;
 import org.simmetrics.MultisetMetric;
 
+import org.simmetrics.tokenizers.IdMultiset;
+
 import com.google.common.collect.Multiset;
 
 /**
@@ -73,7 +77,8 @@ import com.google.common.collect.Multiset;
  *            type of the token
  * 
  */
-public final class SimonWhite<T> implements MultisetMetric<T>, MultisetDistance<T> {
+public final class SimonWhite<T> implements MultisetMetric<T>, MultisetDistance<T>,
+		IdMultisetMetric {
 
 	@Override
 	public float compare(Multiset<T> a, Multiset<T> b) {
@@ -95,6 +100,21 @@ public final class SimonWhite<T> implements MultisetMetric<T>, MultisetDistance<
 	public float distance(Multiset<T> a, Multiset<T> b) {
 		return 1.0f - compare(a, b);
 	}
+	@Override
+	public float compare(IdMultiset a, IdMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		// 2 * ∣a ∩ b∣ / (∣a∣ + ∣b∣)
+		return (2.0f * intersectionSize(a, b)) / (a.size() + b.size());
+	}
+
 	@Override
 	public String toString() {
 		return "SimonWhite";
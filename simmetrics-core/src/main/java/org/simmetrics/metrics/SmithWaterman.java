@@ -22,13 +22,23 @@ package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Float.NEGATIVE_INFINITY;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+import static org.simmetrics.BatchStringMetrics.comparePrepared;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.metrics.Math.max;
 
-import org.simmetrics.StringMetric;
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
 import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
 import org.simmetrics.metrics.functions.MatchMismatch;
 import org.simmetrics.metrics.functions.Substitution;
 
@@ -37,6 +47,14 @@ import org.simmetrics.metrics.functions.Substitution;
  * strings. Implementation uses the implementation as described by Smith and
  * Waterman. This implementation uses quadratic space and cubic time.
  * <p>
+ * When the gap function is an {@link AffineGap}, {@link LinearGap} or
+ * {@link ConstantGap} and the window covers both strings, the score of a gap
+ * grows linearly with its length. In this case the optimizations described by
+ * Gotoh are used instead, taking linear space and quadratic time.
+ * <p>
+ * Prepared queries store the substitution scores for each distinct character
+ * in the prepared string and use these with Gotoh's optimizations.
+ * <p>
  * This class is immutable and thread-safe if its substitution and gap functions
  * are.
  * 
@@ -45,7 +63,8 @@ import org.simmetrics.metrics.functions.Substitution;
  * @see <a href="https://en.wikipedia.org/wiki/Smith%E2%80%93Waterman_algorithm"
  *      >Wikipedia - Smith-Waterman algorithm</a>
  */
-public final class SmithWaterman implements StringMetric {
+public final class SmithWaterman implements PreparableStringMetric,
+		BatchStringMetric {
 
 	private final Gap gap;
 	private final Substitution substitution;
@@ -83,19 +102,115 @@ public final class SmithWaterman implements StringMetric {
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(SubstitutionProfile.direct(a, substitution), b);
+	}
+
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		comparePrepared(this, query, candidates, similarities);
+	}
 
-		if (a.isEmpty() && b.isEmpty()) {
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public PreparedQuery prepare(String a) {
+		// Only Gotoh's algorithm reads scores from the profile
+		if (isAffine(gap)) {
+			return new Prepared(SubstitutionProfile.prepare(a, substitution));
+		}
+		return new Prepared(SubstitutionProfile.direct(a, substitution));
+	}
+
+	private float compare(SubstitutionProfile a, String b) {
+
+		if (a.length() == 0 && b.isEmpty()) {
 			return 1.0f;
 		}
-		if (a.isEmpty() || b.isEmpty()) {
+		if (a.length() == 0 || b.isEmpty()) {
 			return 0.0f;
 		}
 		float maxDistance = min(a.length(), b.length())
 				* max(substitution.max(), gap.min());
-		return smithWaterman(a, b) / maxDistance;
+		if (isAffine(gap) && windowSize >= max(a.length(), b.length())) {
+			return smithWatermanGotoh(a, b) / maxDistance;
+		}
+		return smithWaterman(a.query(), b) / maxDistance;
 
 	}
 
+	private static boolean isAffine(Gap gap) {
+		return gap instanceof AffineGap || gap instanceof LinearGap
+				|| gap instanceof ConstantGap;
+	}
+
+	/*
+	 * Computes the same scores as smithWaterman for affine gaps. A gap of
+	 * length one is scored as gapStart, each additional position adds
+	 * gapExtend. Only the previous column is kept, along with the best
+	 * insertion ending in each row. Columns iterate over a so substitution
+	 * scores can be read from the profile.
+	 */
+	private float smithWatermanGotoh(SubstitutionProfile profile, String b) {
+		final int n = profile.length();
+		final int m = b.length();
+
+		final float gapStart = gap.value(0, 1);
+		final float gapExtend = gap.value(0, 2) - gapStart;
+
+		float[] v0 = new float[n];
+		float[] v1 = new float[n];
+		final float[] scratch = new float[n];
+
+		// Best insertion ending in each row of the current column. Gaps never
+		// start in the first row or column.
+		final float[] insertion = new float[n];
+		fill(insertion, NEGATIVE_INFINITY);
+
+		float[] scores = profile.scores(b, 0, scratch);
+		float max = v0[0] = max(0, scores[0]);
+
+		float deletion = NEGATIVE_INFINITY;
+		for (int i = 1; i < n; i++) {
+			if (i > 1) {
+				deletion = max(deletion + gapExtend, v0[i - 1] + gapStart);
+			}
+			v0[i] = max(0, deletion, scores[i]);
+			max = max(max, v0[i]);
+		}
+
+		for (int j = 1; j < m; j++) {
+			scores = profile.scores(b, j, scratch);
+			if (j > 1) {
+				insertion[0] = max(insertion[0] + gapExtend, v0[0] + gapStart);
+			}
+			v1[0] = max(0, insertion[0], scores[0]);
+			max = max(max, v1[0]);
+
+			deletion = NEGATIVE_INFINITY;
+			for (int i = 1; i < n; i++) {
+				if (j > 1) {
+					insertion[i] = max(insertion[i] + gapExtend, v0[i] + gapStart);
+				}
+				if (i > 1) {
+					deletion = max(deletion + gapExtend, v1[i - 1] + gapStart);
+				}
+				v1[i] = max(0, deletion, insertion[i], v0[i - 1] + scores[i]);
+				max = max(max, v1[i]);
+			}
+
+			final float[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		return max;
+	}
+
 	private float smithWaterman(String a, String b) {
 		final int n = a.length();
 		final int m = b.length();
@@ -205,6 +320,21 @@ public final class SmithWaterman implements StringMetric {
 		return max;
 	}
 
+	private final class Prepared implements PreparedQuery {
+
+		private final SubstitutionProfile profile;
+
+		Prepared(SubstitutionProfile profile) {
+			this.profile = profile;
+		}
+
+		@Override
+		public float compare(String b) {
+			return SmithWaterman.this.compare(profile, b);
+		}
+
+	}
+
 	@Override
 	public String toString() {
 		return "SmithWaterman [gap=" + gap + ", substitution=" + substitution
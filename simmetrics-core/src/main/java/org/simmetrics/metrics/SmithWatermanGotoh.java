@@ -25,9 +25,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static org.simmetrics.BatchStringMetrics.comparePrepared;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.metrics.Math.max;
 
-import org.simmetrics.StringMetric;
+import java.util.List;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 import org.simmetrics.metrics.functions.MatchMismatch;
 import org.simmetrics.metrics.functions.Substitution;
 
@@ -38,6 +44,11 @@ import org.simmetrics.metrics.functions.Substitution;
  * molecular biology 162: 705" and uses constant space and quadratic time.
  * 
  * <p>
+ * A prepared query stores the substitution scores for each distinct character
+ * in the prepared string.
+ * <p>
+ * An optimal local alignment of two strings can be computed in linear space.
+ * <p>
  * This class is immutable and thread-safe if its substitution functions are.
  * 
  * @see NeedlemanWunch
@@ -47,7 +58,8 @@ import org.simmetrics.metrics.functions.Substitution;
  *      - Smith-Waterman algorithm</a>
  *
  */
-public final class SmithWatermanGotoh implements StringMetric {
+public final class SmithWatermanGotoh implements
+		PreparableStringMetric, BatchStringMetric {
 
 	private static final Substitution MATCH_1_MISMATCH_MINUS_2 = new MatchMismatch(
 			1.0f, -2.0f);
@@ -82,12 +94,53 @@ public final class SmithWatermanGotoh implements StringMetric {
 
 	@Override
 	public float compare(final String a, final String b) {
+		return compare(SubstitutionProfile.direct(a, substitution), b);
+	}
 
-		if (a.isEmpty() && b.isEmpty()) {
+	@Override
+	public void compare(String query, List<String> candidates,
+			float[] similarities) {
+		comparePrepared(this, query, candidates, similarities);
+	}
+
+	@Override
+	public void compare(String query, String[] candidates, int from, int to,
+			float[] similarities) {
+		compare(query, range(candidates, from, to), similarities);
+	}
+
+	@Override
+	public PreparedQuery prepare(String a) {
+		return new Prepared(SubstitutionProfile.prepare(a, substitution));
+	}
+
+	/**
+	 * Returns an optimal local alignment of a and b. The alignment is computed
+	 * in linear space using Hirschberg's algorithm. Its score is the score
+	 * used to compute the similarity of a and b. When no local alignment has
+	 * a positive score the alignment is empty.
+	 * 
+	 * @param a
+	 *            string a to align
+	 * @param b
+	 *            string b to align
+	 * @return an optimal local alignment of a and b
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	public Alignment align(String a, String b) {
+		checkNotNull(a);
+		checkNotNull(b);
+		return Hirschberg.local(a, b, substitution, gapValue);
+	}
+
+	private float compare(final SubstitutionProfile a, final String b) {
+
+		if (a.length() == 0 && b.isEmpty()) {
 			return 1.0f;
 		}
 
-		if (a.isEmpty() || b.isEmpty()) {
+		if (a.length() == 0 || b.isEmpty()) {
 			return 0.0f;
 		}
 
@@ -96,41 +149,62 @@ public final class SmithWatermanGotoh implements StringMetric {
 		return smithWatermanGotoh(a, b) / maxDistance;
 	}
 
-	private float smithWatermanGotoh(final String s, final String t) {
-		
-		float[] v0 = new float[t.length()];
-		float[] v1 = new float[t.length()];
+	private float smithWatermanGotoh(final SubstitutionProfile profile,
+			final String t) {
 
-		float max = v0[0] = max(0, gapValue, substitution.compare(s, 0, t, 0));
+		// Columns iterate over s so substitution scores can be read from the
+		// profile.
+		final int n = profile.length();
+		float[] v0 = new float[n];
+		float[] v1 = new float[n];
+		final float[] scratch = new float[n];
 
-		for (int j = 1; j < v0.length; j++) {
-			v0[j] = max(0, v0[j - 1] + gapValue,
-					substitution.compare(s, 0, t, j));
+		float[] scores = profile.scores(t, 0, scratch);
+		float max = v0[0] = max(0, gapValue, scores[0]);
 
-			max = max(max, v0[j]);
+		for (int i = 1; i < n; i++) {
+			v0[i] = max(0, v0[i - 1] + gapValue, scores[i]);
+
+			max = max(max, v0[i]);
 		}
 
 		// Find max
-		for (int i = 1; i < s.length(); i++) {
-			v1[0] = max(0, v0[0] + gapValue, substitution.compare(s, i, t, 0));
+		for (int j = 1; j < t.length(); j++) {
+			scores = profile.scores(t, j, scratch);
+			v1[0] = max(0, v0[0] + gapValue, scores[0]);
 
 			max = max(max, v1[0]);
 
-			for (int j = 1; j < v0.length; j++) {
-				v1[j] = max(0, v0[j] + gapValue, v1[j - 1] + gapValue,
-						v0[j - 1] + substitution.compare(s, i, t, j));
+			for (int i = 1; i < n; i++) {
+				v1[i] = max(0, v1[i - 1] + gapValue, v0[i] + gapValue,
+						v0[i - 1] + scores[i]);
 
-				max = max(max, v1[j]);
+				max = max(max, v1[i]);
 			}
 
-			for (int j = 0; j < v0.length; j++) {
-				v0[j] = v1[j];
-			}
+			final float[] swap = v0;
+			v0 = v1;
+			v1 = swap;
 		}
 
 		return max;
 	}
 
+	private final class Prepared implements PreparedQuery {
+
+		private final SubstitutionProfile profile;
+
+		Prepared(SubstitutionProfile profile) {
+			this.profile = profile;
+		}
+
+		@Override
+		public float compare(String b) {
+			return SmithWatermanGotoh.this.compare(profile, b);
+		}
+
+	}
+
 	@Override
 	public String toString() {
 		return "SmithWatermanGotoh [substitution=" + substitution + ", gapValue="
@@ -17,185 +17,300 @@
  * limitations under the License.
  * #L%
  */
+
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
-import static org.simmetrics.metrics.Math.max;
 
-import org.simmetrics.StringMetric;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.simmetrics.ListMetric;
+import org.simmetrics.SequenceMetric;
 import org.simmetrics.metrics.functions.AffineGap;
-import org.simmetrics.metrics.functions.Gap;
 import org.simmetrics.metrics.functions.MatchMismatchList;
-import org.simmetrics.metrics.functions.Substitution;
 
-import org.simmetrics.SetMetric;
-import java.util.*;
+/**
+ * Applies the Smith-Waterman algorithm to calculate the similarity between two
+ * lists or sequences of integers. Elements are compared by equality.
+ * <p>
+ * Gaps are penalized by an affine gap function and computed using the
+ * optimizations described in Osamu Gotoh (1982). "An improved algorithm for
+ * matching biological sequences". Journal of molecular biology 162: 705. Only
+ * two rows of the score matrix are kept so the alignment takes quadratic time
+ * and linear space.
+ * <p>
+ * Besides the similarity the metric can return a {@link Result} holding the
+ * score of the best local alignment and where it ends in either sequence.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see SmithWatermanGotoh
+ * @see <a
+ *      href="https://en.wikipedia.org/wiki/Smith%E2%80%93Waterman_algorithm">Wikipedia
+ *      - Smith-Waterman algorithm</a>
+ * 
+ * @param <T>
+ *            type of the elements in the list
+ */
+public final class SmithWatermanSetMetric<T> implements ListMetric<T>,
+		SequenceMetric {
+
+	/**
+	 * The score of an optimal local alignment of two sequences.
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 */
+	public static final class Result {
+
+		private final float score;
+		private final float similarity;
+		private final int aEnd;
+		private final int bEnd;
+
+		Result(float score, float similarity, int aEnd, int bEnd) {
+			this.score = score;
+			this.similarity = similarity;
+			this.aEnd = aEnd;
+			this.bEnd = bEnd;
+		}
 
+		/**
+		 * Returns the score of the alignment.
+		 * 
+		 * @return the score of the alignment
+		 */
+		public float score() {
+			return score;
+		}
 
-public final class SmithWatermanSetMetric<T>{
-	private final Gap gap;
-	private final MatchMismatchList substitution;
-	private final int windowSize;
-	private int a_local_index, b_local_index;
+		/**
+		 * Returns the similarity of the sequences. The score normalized by
+		 * the best possible score of the shorter sequence.
+		 * 
+		 * @return a value between 0 and 1 inclusive indicating similarity
+		 */
+		public float similarity() {
+			return similarity;
+		}
 
-	public SmithWatermanSetMetric() {
-		this(new AffineGap(-5.0f, -1.0f), new MatchMismatchList<T>(5.0f, 0.0f),
-				Integer.MAX_VALUE);
-	}
+		/**
+		 * Returns the index after the last element of a in the alignment. When
+		 * no alignment has a positive score this is 0.
+		 * 
+		 * @return the index after the last aligned element of a
+		 */
+		public int aEnd() {
+			return aEnd;
+		}
 
+		/**
+		 * Returns the index after the last element of b in the alignment. When
+		 * no alignment has a positive score this is 0.
+		 * 
+		 * @return the index after the last aligned element of b
+		 */
+		public int bEnd() {
+			return bEnd;
+		}
 
-	public SmithWatermanSetMetric(Gap gap, MatchMismatchList<T> substitution, int windowSize) {
-		checkNotNull(gap);
-		checkNotNull(substitution);
-		checkArgument(windowSize >= 0);
-		this.gap = gap;
-		this.substitution = substitution;
-		this.windowSize = windowSize;
-	}
-	
-	public float compare(List<T> a, List<T> b) {
-		//return 0.0f;
-		if (a.isEmpty() && b.isEmpty()) {
-			return 1.0f;
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Result)) {
+				return false;
+			}
+			final Result other = (Result) obj;
+			return Float.floatToIntBits(score) == Float.floatToIntBits(other.score)
+					&& Float.floatToIntBits(similarity) == Float.floatToIntBits(other.similarity)
+					&& aEnd == other.aEnd && bEnd == other.bEnd;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Float.floatToIntBits(score);
+			result = 31 * result + Float.floatToIntBits(similarity);
+			result = 31 * result + aEnd;
+			return 31 * result + bEnd;
 		}
-		if (a.isEmpty() || b.isEmpty()) {
-			return 0.0f;
+
+		@Override
+		public String toString() {
+			return "Result [score=" + score + ", similarity=" + similarity
+					+ ", aEnd=" + aEnd + ", bEnd=" + bEnd + "]";
 		}
-		float maxDistance = min(a.size(), b.size())
-				* max(substitution.max(), gap.min());
-		return smithWaterman(a, b) / maxDistance;
 	}
 
+	private final float gapOpen;
+	private final float gapExtend;
+	private final MatchMismatchList<T> substitution;
 
-	private float smithWaterman(List<T> a, List<T> b) {
-		//System.out.println(a + " " + b);
-		
-		final int n = a.size();
-		final int m = b.size();
-
-		final float[][] d = new float[n][m];
+	/**
+	 * Constructs a new Smith Waterman metric. Opening a gap has a penalty of
+	 * -5.0, extending it -1.0. Matching elements score 5.0 and mismatches 0.0.
+	 */
+	public SmithWatermanSetMetric() {
+		this(new AffineGap(-5.0f, -1.0f), new MatchMismatchList<T>(5.0f, 0.0f));
+	}
 
-		//my code
-			int max_i = 0;
-			int max_j = 0;
-			float old_max = 0;
-		//end of my code
+	/**
+	 * Constructs a new Smith Waterman metric.
+	 * 
+	 * @param gap
+	 *            an affine gap function
+	 * @param substitution
+	 *            a match mismatch function with a positive match value
+	 */
+	public SmithWatermanSetMetric(AffineGap gap,
+			MatchMismatchList<T> substitution) {
+		checkNotNull(gap);
+		checkNotNull(substitution);
+		checkArgument(substitution.max() > 0.0f,
+				"match value must be positive");
+		this.gapOpen = gap.value(0, 1);
+		this.gapExtend = gap.value(0, 2) - gapOpen;
+		this.substitution = substitution;
+	}
 
-		// Initialize corner
-		float max = d[0][0] = max(0, substitution.compare(a, 0, b, 0));
+	@Override
+	public float compare(List<T> a, List<T> b) {
+		return score(a, b).similarity();
+	}
 
-		//my code
-					if (max > old_max){
-						old_max = max;
-						max_i = 0;
-						max_j = 0;
-					}
+	@Override
+	public float compare(int[] a, int[] b) {
+		return score(a, b).similarity();
+	}
 
-				//end of my code
+	@Override
+	public float compare(long[] a, long[] b) {
+		return score(a, b).similarity();
+	}
 
-		// Initialize edge
-		for (int i = 0; i < n; i++) {
+	/**
+	 * Returns the score and end of an optimal local alignment of lists a and
+	 * b.
+	 * 
+	 * @param a
+	 *            list a to align
+	 * @param b
+	 *            list b to align
+	 * @return the score of an optimal local alignment
+	 */
+	public Result score(List<T> a, List<T> b) {
+		// Replace elements by ids so they are hashed once rather than
+		// compared with every element of the other list
+		final Map<T, Long> ids = new HashMap<>();
+		return score(ids(a, ids), ids(b, ids));
+	}
 
-			// Find most optimal deletion
-			float maxGapCost = 0;
-			for (int k = max(1, i - windowSize); k < i; k++) {
-				maxGapCost = max(maxGapCost, d[i - k][0] + gap.value(i - k, i));
+	private static <T> long[] ids(List<T> list, Map<T, Long> ids) {
+		final long[] sequence = new long[list.size()];
+		int i = 0;
+		for (T element : list) {
+			Long id = ids.get(element);
+			if (id == null) {
+				id = (long) ids.size();
+				ids.put(element, id);
 			}
-
-			d[i][0] = max(0, maxGapCost, substitution.compare(a, i, b, 0));
-
-			max = max(max, d[i][0]);
-
-			//my code
-					if (max > old_max){
-						old_max = max;
-						max_i = i;
-						max_j = 0;
-					}
-
-				//end of my code
-
+			sequence[i++] = id;
 		}
+		return sequence;
+	}
 
-		// Initialize edge
-		for (int j = 1; j < m; j++) {
-
-			// Find most optimal insertion
-			float maxGapCost = 0;
-			for (int k = max(1, j - windowSize); k < j; k++) {
-				maxGapCost = max(maxGapCost, d[0][j - k] + gap.value(j - k, j));
-			}
-
-			d[0][j] = max(0, maxGapCost, substitution.compare(a, 0, b, j));
-
-			max = max(max, d[0][j]);
-
-			//my code
-					if (max > old_max){
-						old_max = max;
-						max_i = 0;
-						max_j = j;
-					}
-
-				//end of my code
+	/**
+	 * Returns the score and end of an optimal local alignment of sequences a
+	 * and b.
+	 * 
+	 * @param a
+	 *            sequence a to align
+	 * @param b
+	 *            sequence b to align
+	 * @return the score of an optimal local alignment
+	 */
+	public Result score(int[] a, int[] b) {
+		return score(Sequences.widen(a), Sequences.widen(b));
+	}
 
+	/**
+	 * Returns the score and end of an optimal local alignment of sequences a
+	 * and b.
+	 * 
+	 * @param a
+	 *            sequence a to align
+	 * @param b
+	 *            sequence b to align
+	 * @return the score of an optimal local alignment
+	 */
+	public Result score(long[] a, long[] b) {
+		checkNotNull(a);
+		checkNotNull(b);
+
+		if (a.length == 0 && b.length == 0) {
+			return new Result(0.0f, 1.0f, 0, 0);
+		}
+		if (a.length == 0 || b.length == 0) {
+			return new Result(0.0f, 0.0f, 0, 0);
 		}
 
-		// Build matrix
-		for (int i = 1; i < n; i++) {
-
-			for (int j = 1; j < m; j++) {
+		final int n = a.length;
+		final int m = b.length;
+		final float match = substitution.max();
+		final float mismatch = substitution.min();
+
+		// h[j] holds the best score of an alignment ending at a[i - 1] and
+		// b[j - 1]. f[j] that of one ending in a gap in b. Both are updated
+		// in place from row i - 1 to row i.
+		final float[] h = new float[m + 1];
+		final float[] f = new float[m + 1];
+		for (int j = 0; j <= m; j++) {
+			f[j] = Float.NEGATIVE_INFINITY;
+		}
 
-				float maxGapCost = 0;
-				// Find most optimal deletion
-				for (int k = max(1, i - windowSize); k < i; k++) {
-					maxGapCost = max(maxGapCost,
-							d[i - k][j] + gap.value(i - k, i));
-				}
-				// Find most optimal insertion
-				for (int k = max(1, j - windowSize); k < j; k++) {
-					maxGapCost = max(maxGapCost,
-							d[i][j - k] + gap.value(j - k, j));
+		float max = 0.0f;
+		int aEnd = 0;
+		int bEnd = 0;
+
+		for (int i = 1; i <= n; i++) {
+			final long ai = a[i - 1];
+			float diagonal = 0.0f;
+			float left = 0.0f;
+			float e = Float.NEGATIVE_INFINITY;
+
+			for (int j = 1; j <= m; j++) {
+				final float up = h[j];
+				f[j] = max(up + gapOpen, f[j] + gapExtend);
+				e = max(left + gapOpen, e + gapExtend);
+
+				final float score = max(
+						max(0.0f, diagonal + (ai == b[j - 1] ? match : mismatch)),
+						max(e, f[j]));
+
+				if (score > max) {
+					max = score;
+					aEnd = i;
+					bEnd = j;
 				}
 
-				// Find most optimal of insertion, deletion and substitution
-				d[i][j] = max(0, maxGapCost,
-						d[i - 1][j - 1] + substitution.compare(a, i, b, j));
-
-				max = max(max, d[i][j]);
-				//my code
-					if (max > old_max){
-						old_max = max;
-						max_i = i;
-						max_j = j;
-					}
-
-				//end of my code
+				diagonal = up;
+				left = h[j] = score;
 			}
-
 		}
-		//System.out.println(max_i + " " + max_j);
-		a_local_index = max_i;
-		b_local_index = max_j;
-		//System.out.println("Max: " + max);
-		return max;
-
-	}
-
-	public int getFirstLocalIndex(){
-		return a_local_index;
-	}
 
-	public int getSecondLocalIndex(){
-		return b_local_index;
+		final float maxScore = min(n, m) * match;
+		return new Result(max, max / maxScore, aEnd, bEnd);
 	}
 
 	@Override
 	public String toString() {
-		return "SmithWatermanSetMetric";
+		return "SmithWatermanSetMetric [gapOpen=" + gapOpen + ", gapExtend="
+				+ gapExtend + ", substitution=" + substitution + "]";
 	}
 
 }
@@ -21,6 +21,9 @@
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.simmetrics.BatchStringMetrics.checkSimilarities;
+import static org.simmetrics.BatchStringMetrics.compareEach;
+import static org.simmetrics.BatchStringMetrics.range;
 import static org.simmetrics.builders.StringMetricBuilder.with;
 import static org.simmetrics.simplifiers.Simplifiers.chain;
 import static org.simmetrics.tokenizers.Tokenizers.qGram;
@@ -30,7 +33,10 @@ import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 import java.util.List;
 import java.util.Set;
 
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.BatchStringMetrics;
 import org.simmetrics.Metric;
+import org.simmetrics.PreprocessingStringMetric;
 import org.simmetrics.StringMetric;
 import org.simmetrics.builders.StringMetricBuilder;
 import org.simmetrics.simplifiers.Simplifier;
@@ -136,20 +142,7 @@ public final class StringMetrics {
 	 * @see Identity
 	 */
 	public static StringMetric identity() {
-		return new StringMetric() {
-
-			private final Identity<String> metric = new Identity<>();
-
-			@Override
-			public float compare(String a, String b) {
-				return metric.compare(a, b);
-			}
-
-			@Override
-			public String toString() {
-				return metric.toString();
-			}
-		};
+		return new ForString(new Identity<String>());
 	}
 
 	/**
@@ -246,7 +239,7 @@ public final class StringMetrics {
 	 */
 	public static StringMetric qGramsDistance() {
 		return with(new BlockDistance<String>()).tokenize(qGramWithPadding(3))
-				.build();
+				.hashTokens().build();
 	}
 
 	/**
@@ -265,7 +258,7 @@ public final class StringMetrics {
 	 */
 	public static StringMetric simonWhite() {
 		return with(new SimonWhite<String>()).tokenize(whitespace())
-				.tokenize(qGram(2)).build();
+				.tokenize(qGram(2)).hashTokens().build();
 	}
 
 	/**
@@ -550,7 +543,9 @@ public final class StringMetrics {
 		return new ForMultiset(metric, tokenizer);
 	}
 
-	static final class ForList implements StringMetric {
+	static final class ForList implements
+			PreprocessingStringMetric<List<String>>,
+			BatchStringMetric {
 		private final Metric<List<String>> metric;
 		private final Tokenizer tokenizer;
 
@@ -565,8 +560,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(tokenizer.tokenizeToList(a),
-					tokenizer.tokenizeToList(b));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public List<String> preprocess(String a) {
+			return tokenizer.tokenizeToList(a);
+		}
+
+		@Override
+		public float comparePreprocessed(List<String> a, List<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<List<String>> getMetric() {
@@ -583,7 +600,9 @@ public final class StringMetrics {
 		}
 	}
 
-	static final class ForListWithSimplifier implements StringMetric {
+	static final class ForListWithSimplifier implements
+			PreprocessingStringMetric<List<String>>,
+			BatchStringMetric {
 		private final Metric<List<String>> metric;
 		private final Simplifier simplifier;
 		private final Tokenizer tokenizer;
@@ -602,9 +621,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(
-					tokenizer.tokenizeToList(simplifier.simplify(a)),
-					tokenizer.tokenizeToList(simplifier.simplify(b)));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public List<String> preprocess(String a) {
+			return tokenizer.tokenizeToList(simplifier.simplify(a));
+		}
+
+		@Override
+		public float comparePreprocessed(List<String> a, List<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<List<String>> getMetric() {
@@ -625,7 +665,9 @@ public final class StringMetrics {
 		}
 	}
 
-	static final class ForSet implements StringMetric {
+	static final class ForSet implements
+			PreprocessingStringMetric<Set<String>>,
+			BatchStringMetric {
 
 		private final Metric<Set<String>> metric;
 		private final Tokenizer tokenizer;
@@ -640,8 +682,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(tokenizer.tokenizeToSet(a),
-					tokenizer.tokenizeToSet(b));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Set<String> preprocess(String a) {
+			return tokenizer.tokenizeToSet(a);
+		}
+
+		@Override
+		public float comparePreprocessed(Set<String> a, Set<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<Set<String>> getMetric() {
@@ -659,7 +723,9 @@ public final class StringMetrics {
 
 	}
 
-	static final class ForSetWithSimplifier implements StringMetric {
+	static final class ForSetWithSimplifier implements
+			PreprocessingStringMetric<Set<String>>,
+			BatchStringMetric {
 
 		private final Metric<Set<String>> metric;
 		private final Simplifier simplifier;
@@ -678,9 +744,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(
-					tokenizer.tokenizeToSet(simplifier.simplify(a)),
-					tokenizer.tokenizeToSet(simplifier.simplify(b)));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Set<String> preprocess(String a) {
+			return tokenizer.tokenizeToSet(simplifier.simplify(a));
+		}
+
+		@Override
+		public float comparePreprocessed(Set<String> a, Set<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<Set<String>> getMetric() {
@@ -702,7 +789,9 @@ public final class StringMetrics {
 
 	}
 
-	static final class ForMultiset implements StringMetric {
+	static final class ForMultiset implements
+			PreprocessingStringMetric<Multiset<String>>,
+			BatchStringMetric {
 
 		private final Metric<Multiset<String>> metric;
 		private final Tokenizer tokenizer;
@@ -717,8 +806,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(tokenizer.tokenizeToMultiset(a),
-					tokenizer.tokenizeToMultiset(b));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Multiset<String> preprocess(String a) {
+			return tokenizer.tokenizeToMultiset(a);
+		}
+
+		@Override
+		public float comparePreprocessed(Multiset<String> a, Multiset<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<Multiset<String>> getMetric() {
@@ -736,7 +847,9 @@ public final class StringMetrics {
 
 	}
 
-	static final class ForMultisetWithSimplifier implements StringMetric {
+	static final class ForMultisetWithSimplifier implements
+			PreprocessingStringMetric<Multiset<String>>,
+			BatchStringMetric {
 
 		private final Metric<Multiset<String>> metric;
 		private final Simplifier simplifier;
@@ -755,9 +868,30 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(
-					tokenizer.tokenizeToMultiset(simplifier.simplify(a)),
-					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public Multiset<String> preprocess(String a) {
+			return tokenizer.tokenizeToMultiset(simplifier.simplify(a));
+		}
+
+		@Override
+		public float comparePreprocessed(Multiset<String> a, Multiset<String> b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			BatchStringMetrics.comparePreprocessed(this, query, candidates,
+					similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<Multiset<String>> getMetric() {
@@ -779,7 +913,7 @@ public final class StringMetrics {
 
 	}
 
-	static final class ForString implements StringMetric {
+	static final class ForString implements BatchStringMetric {
 		private final Metric<String> metric;
 
 		ForString(Metric<String> metric) {
@@ -791,6 +925,18 @@ public final class StringMetrics {
 			return metric.compare(a, b);
 		}
 
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			compareEach(this, query, candidates, similarities);
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
+		}
+
 		@Override
 		public String toString() {
 			return metric.toString();
@@ -802,7 +948,8 @@ public final class StringMetrics {
 
 	}
 
-	static final class ForStringWithSimplifier implements StringMetric {
+	static final class ForStringWithSimplifier implements
+			PreprocessingStringMetric<String>, BatchStringMetric {
 
 		private final Metric<String> metric;
 
@@ -818,8 +965,47 @@ public final class StringMetrics {
 
 		@Override
 		public float compare(String a, String b) {
-			return metric.compare(simplifier.simplify(a),
-					simplifier.simplify(b));
+			return metric.compare(preprocess(a), preprocess(b));
+		}
+
+		@Override
+		public String preprocess(String a) {
+			return simplifier.simplify(a);
+		}
+
+		@Override
+		public float comparePreprocessed(String a, String b) {
+			return metric.compare(a, b);
+		}
+
+		@Override
+		public void compare(String query, List<String> candidates,
+				float[] similarities) {
+			checkSimilarities(candidates, similarities);
+			final String simplified = simplifier.simplify(query);
+			if (metric instanceof BatchStringMetric) {
+				// Let the metric share work on the query as well
+				final String[] simplifiedCandidates = new String[candidates.size()];
+				int i = 0;
+				for (String candidate : candidates) {
+					simplifiedCandidates[i++] = simplifier.simplify(candidate);
+				}
+				((BatchStringMetric) metric).compare(simplified,
+						simplifiedCandidates, 0, i, similarities);
+				return;
+			}
+
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(simplified,
+						simplifier.simplify(candidate));
+			}
+		}
+
+		@Override
+		public void compare(String query, String[] candidates, int from,
+				int to, float[] similarities) {
+			compare(query, range(candidates, from, to), similarities);
 		}
 
 		Metric<String> getMetric() {
@@ -0,0 +1,112 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Scores of substituting a character for each character of a query. Allows
+ * alignment algorithms to iterate over the query in their inner loop without
+ * calling the substitution function for every cell.
+ * <p>
+ * A prepared profile stores a row of scores for every distinct character in the
+ * query. Substitution functions rate characters, so these rows apply to any
+ * occurrence of the character in a target. Scores for characters that do not
+ * occur in the query are computed on demand. A direct profile computes all
+ * scores on demand.
+ * <p>
+ * This class is immutable and thread-safe if its substitution function is.
+ */
+final class SubstitutionProfile {
+
+	private final String query;
+	private final Substitution substitution;
+	private final CharacterIds ids;
+	private final float[][] rows;
+
+	private SubstitutionProfile(String query, Substitution substitution,
+			CharacterIds ids, float[][] rows) {
+		this.query = query;
+		this.substitution = substitution;
+		this.ids = ids;
+		this.rows = rows;
+	}
+
+	/**
+	 * Creates a profile that computes all scores on demand. Used for one-off
+	 * comparisons.
+	 */
+	static SubstitutionProfile direct(String query, Substitution substitution) {
+		return new SubstitutionProfile(checkNotNull(query), substitution, null,
+				null);
+	}
+
+	/**
+	 * Creates a profile that stores the scores of the characters in the query.
+	 * Used when the query is compared against many targets.
+	 */
+	static SubstitutionProfile prepare(String query, Substitution substitution) {
+		final CharacterIds ids = new CharacterIds(query);
+		final float[][] rows = new float[ids.size()][];
+		for (int j = 0, length = query.length(); j < length; j++) {
+			final int id = ids.id(query.charAt(j));
+			if (rows[id] == null) {
+				final float[] row = new float[length];
+				for (int i = 0; i < length; i++) {
+					row[i] = substitution.compare(query, i, query, j);
+				}
+				rows[id] = row;
+			}
+		}
+		return new SubstitutionProfile(query, substitution, ids, rows);
+	}
+
+	String query() {
+		return query;
+	}
+
+	int length() {
+		return query.length();
+	}
+
+	/**
+	 * Returns the scores of substituting the character at
+	 * {@code target.charAt(j)} for each character in the query. The returned
+	 * array is either a row of the profile or the scratch array and may not be
+	 * modified.
+	 */
+	float[] scores(String target, int j, float[] scratch) {
+		if (ids != null) {
+			final int id = ids.id(target.charAt(j));
+			if (id >= 0) {
+				return rows[id];
+			}
+		}
+
+		for (int i = 0, length = query.length(); i < length; i++) {
+			scratch[i] = substitution.compare(query, i, target, j);
+		}
+		return scratch;
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
+
+/**
+ * Suffix automaton of a text. The automaton is the smallest deterministic
+ * automaton that accepts all suffixes of the text. It has at most
+ * <code>2n</code> states and <code>3n</code> transitions and is built in
+ * <code>O(n)</code> time.
+ * <p>
+ * Streaming another string through the automaton finds the longest common
+ * substring with the text in <code>O(m)</code> time. For every position of
+ * the other string the automaton tracks the longest substring ending there that
+ * occurs in the text. On a mismatch it follows suffix links to shorter
+ * substrings until the next character can be read.
+ * <p>
+ * Transitions are stored in an open addressing table keyed by state and
+ * character. The transitions of each state are also kept in a linked list so
+ * they can be copied when a state is cloned.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/Suffix_automaton">Wikipedia -
+ *      Suffix automaton</a>
+ */
+final class SuffixAutomaton {
+
+	private static final long EMPTY = -1L;
+
+	private final int textLength;
+
+	// Length of the longest substring in each state
+	private final int[] lengths;
+	private final int[] links;
+
+	// Linked list of the transitions of each state
+	private final int[] firstTransition;
+	private final int[] nextTransition;
+	private final char[] characters;
+	private int transitions;
+
+	// Transition table from state and character to state
+	private final long[] keys;
+	private final int[] targets;
+	private final int mask;
+
+	SuffixAutomaton(String text) {
+		final int n = text.length();
+		this.textLength = n;
+
+		final int maxStates = 2 * n + 1;
+		this.lengths = new int[maxStates];
+		this.links = new int[maxStates];
+		this.firstTransition = new int[maxStates];
+		fill(firstTransition, -1);
+
+		final int maxTransitions = 3 * n + 1;
+		this.nextTransition = new int[maxTransitions];
+		this.characters = new char[maxTransitions];
+
+		// At most half full
+		final int capacity = highestOneBit(max(maxTransitions, 4)) * 4;
+		this.keys = new long[capacity];
+		this.targets = new int[capacity];
+		this.mask = capacity - 1;
+		fill(keys, EMPTY);
+
+		links[0] = -1;
+		int states = 1;
+		int last = 0;
+		for (int i = 0; i < n; i++) {
+			final char c = text.charAt(i);
+			final int current = states++;
+			lengths[current] = lengths[last] + 1;
+
+			int p = last;
+			while (p != -1 && target(p, c) < 0) {
+				add(p, c, current);
+				p = links[p];
+			}
+
+			if (p == -1) {
+				links[current] = 0;
+			} else {
+				final int q = target(p, c);
+				if (lengths[p] + 1 == lengths[q]) {
+					links[current] = q;
+				} else {
+					final int clone = states++;
+					lengths[clone] = lengths[p] + 1;
+					links[clone] = links[q];
+					for (int t = firstTransition[q]; t != -1; t = nextTransition[t]) {
+						add(clone, characters[t], target(q, characters[t]));
+					}
+					while (p != -1 && target(p, c) == q) {
+						targets[slot(p, c)] = clone;
+						p = links[p];
+					}
+					links[q] = clone;
+					links[current] = clone;
+				}
+			}
+			last = current;
+		}
+	}
+
+	/**
+	 * Returns the length of the text.
+	 */
+	int length() {
+		return textLength;
+	}
+
+	/**
+	 * Returns the length of the longest common substring of the text and s.
+	 */
+	int longestCommonSubstring(String s) {
+		int state = 0;
+		int length = 0;
+		int longest = 0;
+		for (int j = 0, m = s.length(); j < m; j++) {
+			final char c = s.charAt(j);
+			int next = target(state, c);
+			while (next < 0 && state != 0) {
+				state = links[state];
+				length = lengths[state];
+				next = target(state, c);
+			}
+			if (next < 0) {
+				length = 0;
+			} else {
+				state = next;
+				length++;
+				if (length > longest) {
+					longest = length;
+				}
+			}
+		}
+		return longest;
+	}
+
+	private void add(int state, char c, int target) {
+		final int slot = slot(state, c);
+		keys[slot] = key(state, c);
+		targets[slot] = target;
+
+		final int t = transitions++;
+		characters[t] = c;
+		nextTransition[t] = firstTransition[state];
+		firstTransition[state] = t;
+	}
+
+	/*
+	 * Returns the target of the transition or -1 when there is none.
+	 */
+	private int target(int state, char c) {
+		final int slot = slot(state, c);
+		return keys[slot] == EMPTY ? -1 : targets[slot];
+	}
+
+	/*
+	 * Returns the slot of the transition or the empty slot where it should be
+	 * inserted.
+	 */
+	private int slot(int state, char c) {
+		final long key = key(state, c);
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static long key(int state, char c) {
+		return ((long) state << Character.SIZE) | c;
+	}
+
+}
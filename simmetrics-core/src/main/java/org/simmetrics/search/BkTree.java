@@ -0,0 +1,365 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.simmetrics.StringDistance;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.HammingDistance;
+import org.simmetrics.metrics.Levenshtein;
+
+/**
+ * A Burkhard-Keller tree over a set of strings. Finds all strings within a
+ * maximum distance of a query, or the k strings nearest to it, without
+ * comparing the query against every string.
+ * <p>
+ * Every child of a node is labeled with its distance to the node. When the
+ * query is at distance {@code d} of a node only children labeled in
+ * {@code [d - r, d + r]} can contain strings within distance {@code r} of the
+ * query. This requires the distance to be a metric i.e. to satisfy the
+ * triangle inequality. Suitable distances include:
+ * <ul>
+ * <li>{@link Levenshtein}</li>
+ * <li>{@link HammingDistance#forString()}, provided all strings and queries
+ * have the same length</li>
+ * <li>{@link DamerauLevenshtein} with caution, it computes the restricted
+ * edit distance which violates the triangle inequality for strings in which a
+ * transposed pair is edited again. E.g. {@code d(ca, ac) = 1} and
+ * {@code d(ac, abc) = 1} but {@code d(ca, abc) = 3}. Searches may miss such
+ * strings.</li>
+ * </ul>
+ * <p>
+ * When the distance is a {@link ThresholdedStringDistance} the query is
+ * compared to a node with the search radius plus the largest label of its
+ * children as threshold. A node whose distance exceeds this threshold can not
+ * have any children in range, so the subtree is pruned without computing the
+ * exact distance.
+ * <p>
+ * This class is not thread-safe. Concurrent searches are safe when no strings
+ * are added.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/BK-tree">Wikipedia - BK-tree</a>
+ */
+public final class BkTree {
+
+	private final StringDistance distance;
+	private final ThresholdedStringDistance thresholded;
+
+	private Node root;
+	private int size;
+
+	/**
+	 * Creates an empty tree.
+	 * 
+	 * @param distance
+	 *            a distance that satisfies the triangle inequality
+	 */
+	public BkTree(StringDistance distance) {
+		this.distance = checkNotNull(distance);
+		this.thresholded = distance instanceof ThresholdedStringDistance ? (ThresholdedStringDistance) distance
+				: null;
+	}
+
+	/**
+	 * Creates a tree containing the given strings.
+	 * 
+	 * @param distance
+	 *            a distance that satisfies the triangle inequality
+	 * @param items
+	 *            strings to add to the tree
+	 * @return a new tree
+	 */
+	public static BkTree build(StringDistance distance, Iterable<String> items) {
+		final BkTree tree = new BkTree(distance);
+		tree.addAll(items);
+		return tree;
+	}
+
+	/**
+	 * Returns the number of distinct strings in the tree.
+	 * 
+	 * @return the number of strings in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a string to the tree.
+	 * 
+	 * @param item
+	 *            the string to add
+	 * @return true if the tree did not already contain the string
+	 */
+	public boolean add(String item) {
+		checkNotNull(item);
+		if (root == null) {
+			root = new Node(item);
+			size++;
+			return true;
+		}
+
+		Node node = root;
+		while (!node.item.equals(item)) {
+			final float label = distance.distance(item, node.item);
+			final Node child = node.child(label);
+			if (child == null) {
+				node.addChild(label, new Node(item));
+				size++;
+				return true;
+			}
+			node = child;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds strings to the tree.
+	 * 
+	 * @param items
+	 *            the strings to add
+	 */
+	public void addAll(Iterable<String> items) {
+		for (String item : items) {
+			add(item);
+		}
+	}
+
+	/**
+	 * Returns all strings within {@code maxDistance} of the query ordered by
+	 * distance.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param maxDistance
+	 *            the maximum distance, non-negative
+	 * @return all strings within {@code maxDistance} of the query
+	 */
+	public List<Neighbor> search(String query, float maxDistance) {
+		checkNotNull(query);
+		checkArgument(maxDistance >= 0, "maxDistance must be non-negative");
+
+		final List<Neighbor> neighbors = new ArrayList<>();
+		if (root == null) {
+			return neighbors;
+		}
+
+		final Deque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			final Node node = stack.pop();
+			final float d = distance(query, node, maxDistance);
+			if (d <= maxDistance) {
+				neighbors.add(new Neighbor(node.item, d));
+			}
+			for (int i = node.from(d - maxDistance); i < node.children
+					&& node.labels[i] <= d + maxDistance; i++) {
+				stack.push(node.nodes[i]);
+			}
+		}
+
+		Collections.sort(neighbors, BY_DISTANCE);
+		return neighbors;
+	}
+
+	/**
+	 * Returns the {@code k} strings nearest to the query ordered by distance.
+	 * Ties at the k-th distance are broken arbitrarily.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param k
+	 *            the number of strings to find, positive
+	 * @return the k strings nearest to the query, fewer when the tree contains
+	 *         fewer strings
+	 */
+	public List<Neighbor> nearest(String query, int k) {
+		checkNotNull(query);
+		checkArgument(k > 0, "k must be greater then 0");
+
+		// Farthest neighbor at the head
+		final PriorityQueue<Neighbor> nearest = new PriorityQueue<>(k + 1,
+				Collections.reverseOrder(BY_DISTANCE));
+		if (root != null) {
+			final Deque<Candidate> stack = new ArrayDeque<>();
+			stack.push(new Candidate(root, 0));
+			float radius = Float.POSITIVE_INFINITY;
+			while (!stack.isEmpty()) {
+				final Candidate candidate = stack.pop();
+				// The radius may have shrunk since the candidate was pushed
+				if (candidate.bound > radius) {
+					continue;
+				}
+
+				final Node node = candidate.node;
+				final float d = distance(query, node, radius);
+				if (d <= radius) {
+					nearest.add(new Neighbor(node.item, d));
+					if (nearest.size() > k) {
+						nearest.poll();
+					}
+					if (nearest.size() == k) {
+						radius = nearest.peek().distance();
+					}
+				}
+
+				// Push the nearest children last so they are visited first
+				final int from = node.from(d - radius);
+				int to = from;
+				while (to < node.children && node.labels[to] <= d + radius) {
+					to++;
+				}
+				pushByBound(stack, node, from, to, d);
+			}
+		}
+
+		final List<Neighbor> neighbors = new ArrayList<>(nearest);
+		Collections.sort(neighbors, BY_DISTANCE);
+		return neighbors;
+	}
+
+	/*
+	 * Children in [from, to) are sorted by label. Their bound |d - label|
+	 * decreases towards d and increases after it, so push both ends inwards.
+	 */
+	private static void pushByBound(Deque<Candidate> stack, Node node,
+			int from, int to, float d) {
+		int low = from;
+		int high = to - 1;
+		while (low <= high) {
+			final float lowBound = abs(d - node.labels[low]);
+			final float highBound = abs(d - node.labels[high]);
+			if (lowBound >= highBound) {
+				stack.push(new Candidate(node.nodes[low], lowBound));
+				low++;
+			} else {
+				stack.push(new Candidate(node.nodes[high], highBound));
+				high--;
+			}
+		}
+	}
+
+	/*
+	 * Returns the exact distance between the query and the node when it is at
+	 * most the search radius plus the largest label of the children.
+	 * Otherwise no child can be within the radius and a larger value is
+	 * returned.
+	 */
+	private float distance(String query, Node node, float radius) {
+		final float maxDistance = node.children == 0 ? radius : radius
+				+ node.labels[node.children - 1];
+		if (thresholded == null || maxDistance == Float.POSITIVE_INFINITY) {
+			return distance.distance(query, node.item);
+		}
+		return thresholded.distance(query, node.item, maxDistance);
+	}
+
+	private static final Comparator<Neighbor> BY_DISTANCE = new Comparator<Neighbor>() {
+		@Override
+		public int compare(Neighbor o1, Neighbor o2) {
+			final int c = Float.compare(o1.distance(), o2.distance());
+			return c != 0 ? c : o1.item().compareTo(o2.item());
+		}
+	};
+
+	private static final class Candidate {
+		final Node node;
+		final float bound;
+
+		Candidate(Node node, float bound) {
+			this.node = node;
+			this.bound = bound;
+		}
+	}
+
+	/*
+	 * A string and its children sorted by label.
+	 */
+	private static final class Node {
+		private static final float[] NO_LABELS = new float[0];
+		private static final Node[] NO_NODES = new Node[0];
+
+		final String item;
+		float[] labels = NO_LABELS;
+		Node[] nodes = NO_NODES;
+		int children;
+
+		Node(String item) {
+			this.item = item;
+		}
+
+		Node child(float label) {
+			final int i = binarySearch(labels, 0, children, label);
+			return i >= 0 ? nodes[i] : null;
+		}
+
+		/*
+		 * Index of the first child labeled at least label.
+		 */
+		int from(float label) {
+			int low = 0;
+			int high = children;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (labels[mid] < label) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		void addChild(float label, Node node) {
+			if (children == labels.length) {
+				final int capacity = Math.max(2, children * 2);
+				labels = copyOf(labels, capacity);
+				nodes = copyOf(nodes, capacity);
+			}
+			final int i = from(label);
+			System.arraycopy(labels, i, labels, i + 1, children - i);
+			System.arraycopy(nodes, i, nodes, i + 1, children - i);
+			labels[i] = label;
+			nodes[i] = node;
+			children++;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BkTree [" + distance + ", size=" + size + "]";
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.Levenshtein;
+
+/**
+ * A sorted dictionary that finds all terms within a small edit distance of a
+ * query.
+ * <p>
+ * The terms are traversed in order as if they were a trie. The state of a
+ * {@link LevenshteinAutomaton} is kept for every character of the current
+ * term, so a term only costs the characters after the prefix it shares with
+ * the previous term. When no word with the current prefix can be accepted the
+ * dictionary is searched for the next prefix the automaton can continue with.
+ * The time per query depends on the number of prefixes within distance
+ * {@code k} rather then the number of terms.
+ * <p>
+ * Terms are stored back to back in a single character array. This keeps
+ * neighboring terms close in memory and avoids the overhead of a string
+ * object per term.
+ * <p>
+ * Queries longer than {@link LevenshteinAutomaton#MAX_LENGTH} are compared to
+ * every term of suitable length using a thresholded distance.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see LevenshteinAutomaton
+ */
+public final class FuzzyDictionary {
+
+	// Characters of term i are chars[offsets[i]] to chars[offsets[i + 1]]
+	private final char[] chars;
+	private final int[] offsets;
+	private final int size;
+
+	private final boolean transpositions;
+	private final ThresholdedStringDistance distance;
+
+	private FuzzyDictionary(Iterable<String> terms, boolean transpositions) {
+		final TreeSet<String> sorted = new TreeSet<>();
+		long length = 0;
+		for (String term : terms) {
+			if (sorted.add(checkNotNull(term))) {
+				length += term.length();
+			}
+		}
+		checkArgument(length <= Integer.MAX_VALUE, "terms are too long");
+
+		this.size = sorted.size();
+		this.chars = new char[(int) length];
+		this.offsets = new int[size + 1];
+		int i = 0;
+		for (String term : sorted) {
+			final int offset = offsets[i];
+			term.getChars(0, term.length(), chars, offset);
+			offsets[++i] = offset + term.length();
+		}
+
+		this.transpositions = transpositions;
+		this.distance = transpositions ? new DamerauLevenshtein()
+				: new Levenshtein();
+	}
+
+	/**
+	 * Creates a dictionary that finds terms by their Levenshtein distance.
+	 * Duplicate terms are ignored.
+	 * 
+	 * @param terms
+	 *            the terms in the dictionary
+	 * @return a new dictionary
+	 */
+	public static FuzzyDictionary levenshtein(Iterable<String> terms) {
+		return new FuzzyDictionary(terms, false);
+	}
+
+	/**
+	 * Creates a dictionary that finds terms by their Damerau-Levenshtein
+	 * distance. Duplicate terms are ignored.
+	 * 
+	 * @param terms
+	 *            the terms in the dictionary
+	 * @return a new dictionary
+	 */
+	public static FuzzyDictionary damerauLevenshtein(Iterable<String> terms) {
+		return new FuzzyDictionary(terms, true);
+	}
+
+	/**
+	 * Returns the number of distinct terms in the dictionary.
+	 * 
+	 * @return the number of terms
+	 */
+	public int size() {
+		return size;
+	}
+
+	private int length(int term) {
+		return offsets[term + 1] - offsets[term];
+	}
+
+	private char charAt(int term, int index) {
+		return chars[offsets[term] + index];
+	}
+
+	private String term(int term) {
+		return new String(chars, offsets[term], length(term));
+	}
+
+	/**
+	 * Returns all terms within {@code maxDistance} of the query ordered by
+	 * distance and then by term.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param maxDistance
+	 *            the maximum edit distance, non-negative
+	 * @return all terms within {@code maxDistance} of the query
+	 */
+	public List<Neighbor> search(String query, int maxDistance) {
+		checkNotNull(query);
+		checkArgument(maxDistance >= 0, "maxDistance must be non-negative");
+
+		final List<Neighbor> neighbors = query.length() > LevenshteinAutomaton.MAX_LENGTH ? scan(
+				query, maxDistance) : traverse(query, maxDistance);
+
+		// Stable, terms are already in order
+		Collections.sort(neighbors, BY_DISTANCE);
+		return neighbors;
+	}
+
+	private List<Neighbor> traverse(String query, int maxDistance) {
+		final LevenshteinAutomaton automaton = transpositions ? LevenshteinAutomaton
+				.damerauLevenshtein(query, maxDistance) : LevenshteinAutomaton
+				.levenshtein(query, maxDistance);
+
+		// State after the first d characters of the current term at d * width
+		final int width = automaton.width();
+		final long[] vectors = new long[(automaton.maxDepth() + 2) * width];
+		final long[] pending = new long[vectors.length];
+		automaton.start(vectors);
+
+		final List<Neighbor> neighbors = new ArrayList<>();
+		int previous = -1;
+		// Number of characters of the previous term with a valid state
+		int valid = 0;
+
+		for (int i = 0; i < size;) {
+			final int length = length(i);
+
+			int depth = previous < 0 ? 0 : min(valid, commonPrefix(previous, i));
+			boolean alive = true;
+			while (alive && depth < length) {
+				alive = automaton.step(vectors, pending, depth * width,
+						(depth + 1) * width, charAt(i, depth));
+				depth++;
+			}
+
+			previous = i;
+			if (alive) {
+				valid = length;
+				final int d = automaton.distance(vectors, length * width);
+				if (d >= 0) {
+					neighbors.add(new Neighbor(term(i), d));
+				}
+				i++;
+				continue;
+			}
+
+			// No term starting with the first depth characters matches. Seek
+			// to the next sibling that keeps the parent state alive.
+			final int parent = depth - 1;
+			valid = parent;
+			final int next = automaton.next(vectors, pending, parent * width,
+					charAt(i, parent));
+			if (next >= 0) {
+				i = seek(i + 1, i, parent, (char) next);
+			} else if (parent > 0) {
+				i = skip(i + 1, i, parent);
+			} else {
+				break;
+			}
+		}
+		return neighbors;
+	}
+
+	private int commonPrefix(int a, int b) {
+		final int length = min(length(a), length(b));
+		final int aOffset = offsets[a];
+		final int bOffset = offsets[b];
+		int i = 0;
+		while (i < length && chars[aOffset + i] == chars[bOffset + i]) {
+			i++;
+		}
+		return i;
+	}
+
+	/*
+	 * Returns the index of the first term at or after from that is not
+	 * smaller then the first length characters of prefix followed by next.
+	 */
+	private int seek(int from, int prefix, int length, char next) {
+		// Gallop to bound the range, then binary search
+		int low = from;
+		int high = from;
+		int step = 1;
+		while (high < size && compare(high, prefix, length, next) < 0) {
+			low = high + 1;
+			high += step;
+			step <<= 1;
+		}
+		high = min(high, size);
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (compare(mid, prefix, length, next) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int compare(int term, int prefix, int length, char next) {
+		final int termLength = length(term);
+		final int common = commonPrefix(term, prefix);
+		if (common < length) {
+			if (common == termLength) {
+				return -1;
+			}
+			return charAt(term, common) - charAt(prefix, common);
+		}
+		if (termLength == length) {
+			return -1;
+		}
+		return charAt(term, length) - next;
+	}
+
+	/*
+	 * Returns the index of the first term at or after from that does not
+	 * start with the first length characters of prefix.
+	 */
+	private int skip(int from, int prefix, int length) {
+		int low = from;
+		int high = from;
+		int step = 1;
+		while (high < size && commonPrefix(high, prefix) >= length) {
+			low = high + 1;
+			high += step;
+			step <<= 1;
+		}
+		high = min(high, size);
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (commonPrefix(mid, prefix) >= length) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private List<Neighbor> scan(String query, int maxDistance) {
+		final List<Neighbor> neighbors = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			if (abs(length(i) - query.length()) > maxDistance) {
+				continue;
+			}
+			final String term = term(i);
+			final float d = distance.distance(query, term, maxDistance);
+			if (d <= maxDistance) {
+				neighbors.add(new Neighbor(term, d));
+			}
+		}
+		return neighbors;
+	}
+
+	private static final Comparator<Neighbor> BY_DISTANCE = new Comparator<Neighbor>() {
+		@Override
+		public int compare(Neighbor o1, Neighbor o2) {
+			return Float.compare(o1.distance(), o2.distance());
+		}
+	};
+
+	@Override
+	public String toString() {
+		return "FuzzyDictionary [" + distance + ", size=" + size + "]";
+	}
+
+}
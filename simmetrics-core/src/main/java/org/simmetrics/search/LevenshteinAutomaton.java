@@ -0,0 +1,295 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.copyOf;
+
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.Levenshtein;
+
+/**
+ * Accepts all words within edit distance {@code k} of a query. Equivalent to
+ * {@code new Levenshtein().distance(query, word) <= k} or, with
+ * transpositions, to {@code new DamerauLevenshtein().distance(query, word) <= k}.
+ * <p>
+ * The non-deterministic automaton of Schulz and Mihov is simulated with one
+ * bit vector per number of errors. Bit {@code i} of vector {@code e} is set
+ * when the first {@code i} characters of the query can be transformed into the
+ * characters read so far with {@code e} edits. Reading a character updates all
+ * vectors in {@code O(k)} word operations regardless of the length of the
+ * query. The state after a prefix can be reused for every word that starts
+ * with it, which allows the automaton to be intersected with a sorted
+ * dictionary.
+ * <p>
+ * Queries are limited to {@value #MAX_LENGTH} characters.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Levenshtein
+ * @see DamerauLevenshtein
+ * @see <a href="https://doi.org/10.1007/s10032-002-0082-8">Schulz, Mihov -
+ *      Fast string correction with Levenshtein automata</a>
+ * @see <a href="https://doi.org/10.1016/S0304-3975(02)00313-5">Hyyrö - A
+ *      bit-vector algorithm for computing Levenshtein and Damerau edit
+ *      distances</a>
+ */
+public final class LevenshteinAutomaton {
+
+	/**
+	 * Maximum length of a query.
+	 */
+	public static final int MAX_LENGTH = Long.SIZE - 1;
+
+	private final String query;
+	private final int k;
+	private final boolean transpositions;
+
+	// Distinct characters in the query and their positions
+	private final char[] characters;
+	private final long[] masks;
+
+	private final long accept;
+	private final long all;
+
+	/**
+	 * Creates an automaton that accepts words within Levenshtein distance
+	 * {@code k} of the query.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            the maximum distance, non-negative
+	 * @return a new automaton
+	 */
+	public static LevenshteinAutomaton levenshtein(String query, int k) {
+		return new LevenshteinAutomaton(query, k, false);
+	}
+
+	/**
+	 * Creates an automaton that accepts words within Damerau-Levenshtein
+	 * distance {@code k} of the query. Like {@link DamerauLevenshtein} this is
+	 * the restricted edit distance where transposed characters are not edited
+	 * again.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            the maximum distance, non-negative
+	 * @return a new automaton
+	 */
+	public static LevenshteinAutomaton damerauLevenshtein(String query, int k) {
+		return new LevenshteinAutomaton(query, k, true);
+	}
+
+	private LevenshteinAutomaton(String query, int k, boolean transpositions) {
+		checkNotNull(query);
+		checkArgument(query.length() <= MAX_LENGTH,
+				"query must not be longer then %s", MAX_LENGTH);
+		checkArgument(k >= 0, "k must be non-negative");
+		this.query = query;
+		this.k = k;
+		this.transpositions = transpositions;
+
+		final int length = query.length();
+		final char[] characters = new char[length];
+		final long[] masks = new long[length];
+		int distinct = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = query.charAt(i);
+			int id = indexOf(characters, distinct, c);
+			if (id < 0) {
+				id = distinct++;
+				characters[id] = c;
+			}
+			masks[id] |= 1L << i;
+		}
+		this.characters = copyOf(characters, distinct);
+		this.masks = copyOf(masks, distinct);
+
+		this.accept = 1L << length;
+		this.all = (accept << 1) - 1;
+	}
+
+	private static int indexOf(char[] characters, int length, char c) {
+		for (int i = 0; i < length; i++) {
+			if (characters[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the maximum distance.
+	 * 
+	 * @return the maximum distance
+	 */
+	public int k() {
+		return k;
+	}
+
+	/**
+	 * Returns the edit distance between the query and the word provided it
+	 * does not exceed {@code k}. Otherwise {@code k + 1} is returned.
+	 * 
+	 * @param word
+	 *            the word to compare
+	 * @return the distance or {@code k + 1}
+	 */
+	public int distance(String word) {
+		final int width = width();
+		final long[] vectors = new long[2 * width];
+		final long[] pending = new long[2 * width];
+		start(vectors);
+
+		int from = 0;
+		for (int i = 0, length = word.length(); i < length; i++) {
+			final int to = width - from;
+			if (!step(vectors, pending, from, to, word.charAt(i))) {
+				return k + 1;
+			}
+			from = to;
+		}
+		final int distance = distance(vectors, from);
+		return distance < 0 ? k + 1 : distance;
+	}
+
+	/**
+	 * Returns true if the word is within distance {@code k} of the query.
+	 * 
+	 * @param word
+	 *            the word to test
+	 * @return true if the word is within distance {@code k}
+	 */
+	public boolean matches(String word) {
+		return distance(word) <= k;
+	}
+
+	/**
+	 * Returns the number of vectors in a state.
+	 */
+	int width() {
+		return k + 1;
+	}
+
+	/**
+	 * Returns the length of the longest prefix for which a state can be alive.
+	 */
+	int maxDepth() {
+		return query.length() + k;
+	}
+
+	/**
+	 * Writes the initial state at offset 0. With {@code e} errors the first
+	 * {@code e} characters of the query can be deleted.
+	 */
+	void start(long[] vectors) {
+		for (int e = 0; e <= k; e++) {
+			vectors[e] = e >= MAX_LENGTH ? all : ((2L << e) - 1) & all;
+		}
+	}
+
+	/**
+	 * Reads a character in the state at offset {@code from} and writes the
+	 * next state at offset {@code to}. Pending transpositions are stored at
+	 * the same offsets.
+	 * 
+	 * @return false if no word can be accepted from the next state
+	 */
+	boolean step(long[] vectors, long[] pending, int from, int to, char c) {
+		final int id = indexOf(characters, characters.length, c);
+		final long mask = id < 0 ? 0L : masks[id];
+
+		long previousOld = 0;
+		long previousNew = 0;
+		for (int e = 0; e <= k; e++) {
+			final long old = vectors[from + e];
+			// Match
+			long next = (old & mask) << 1;
+			if (e > 0) {
+				// Insertion, substitution and deletion
+				next |= previousOld | previousOld << 1 | previousNew << 1;
+				if (transpositions) {
+					// Second half of a transposition started by the previous
+					// character and the first half of the next.
+					next |= (pending[from + e] & mask) << 2;
+					pending[to + e] = previousOld & mask >>> 1;
+				}
+			}
+			next &= all;
+			vectors[to + e] = next;
+			previousOld = old;
+			previousNew = next;
+		}
+		if (transpositions) {
+			pending[to] = 0;
+		}
+
+		// Vectors with fewer errors are subsets of the last
+		return previousNew != 0;
+	}
+
+	/**
+	 * Returns the smallest character after {@code after} that keeps the state
+	 * at offset alive, or -1 if there is none. When an error can still be
+	 * spent every character keeps the state alive, otherwise only characters
+	 * of the query at the active positions do.
+	 */
+	int next(long[] vectors, long[] pending, int offset, char after) {
+		if (k > 0 && vectors[offset + k - 1] != 0) {
+			return after < Character.MAX_VALUE ? after + 1 : -1;
+		}
+
+		final long positions = vectors[offset + k]
+				| (transpositions ? pending[offset + k] : 0);
+		int next = -1;
+		for (int id = 0; id < characters.length; id++) {
+			final char c = characters[id];
+			if (c > after && (next < 0 || c < next)
+					&& (masks[id] & positions) != 0) {
+				next = c;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Returns the fewest errors with which the state at offset accepts, or -1
+	 * if it does not accept.
+	 */
+	int distance(long[] vectors, int offset) {
+		for (int e = 0; e <= k; e++) {
+			if ((vectors[offset + e] & accept) != 0) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return "LevenshteinAutomaton [" + query + ", k=" + k
+				+ (transpositions ? ", transpositions" : "") + "]";
+	}
+
+}
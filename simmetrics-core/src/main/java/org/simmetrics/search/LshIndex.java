@@ -0,0 +1,420 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+import static org.simmetrics.builders.StringMetricBuilder.with;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.Jaccard;
+
+/**
+ * Finds candidate pairs of strings with a high Jaccard similarity using
+ * locality sensitive hashing. The MinHash signature of every string is split
+ * into {@code b} bands of {@code r} rows. Two strings are a candidate pair
+ * when all rows of at least one band agree. For strings with similarity
+ * {@code s} this happens with probability {@code 1 - (1 - s^r)^b}, an S-curve
+ * that rises steeply around {@code (1/b)^(1/r)}.
+ * <p>
+ * When not provided the number of bands and rows are chosen to minimize the
+ * area of false positives below and false negatives above the threshold. The
+ * candidates are exact; {@link #similarPairs()} verifies each candidate with
+ * the Jaccard similarity of the token sets. Pairs above the threshold are
+ * missed only when they do not collide in any band.
+ * <p>
+ * Items are identified by the index at which they were added. The index of
+ * each band is sorted lazily on the first query after an addition.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @see MinHash
+ * @see <a href="http://www.mmds.org/">Leskovec, Rajaraman, Ullman - Mining of
+ *      Massive Datasets, chapter 3</a>
+ */
+public final class LshIndex {
+
+	private static final int INTEGRATION_STEPS = 100;
+
+	private final MinHash minHash;
+	private final int bands;
+	private final int rows;
+	private final float threshold;
+	private final StringMetric jaccard;
+
+	private final List<String> items = new ArrayList<>();
+	private final List<int[]> signatures = new ArrayList<>();
+
+	// Key of each band for each item, by band
+	private final int[][] keys;
+	// Band keys and item indexes packed as key << 32 | index, sorted.
+	private long[][] index;
+
+	/**
+	 * Creates an index that finds pairs with a Jaccard similarity of at least
+	 * {@code threshold}. The number of bands and rows are chosen based on the
+	 * size of the MinHash signature.
+	 * 
+	 * @param minHash
+	 *            creates signatures for the items
+	 * @param threshold
+	 *            the minimum similarity of a pair, in range [0,1]
+	 */
+	public LshIndex(MinHash minHash, float threshold) {
+		this(minHash, optimalBands(minHash.size(), threshold), threshold);
+	}
+
+	private LshIndex(MinHash minHash, int[] bandsAndRows, float threshold) {
+		this(minHash, bandsAndRows[0], bandsAndRows[1], threshold);
+	}
+
+	/**
+	 * Creates an index that finds pairs with a Jaccard similarity of at least
+	 * {@code threshold} using the given number of bands and rows.
+	 * 
+	 * @param minHash
+	 *            creates signatures for the items
+	 * @param bands
+	 *            number of bands
+	 * @param rows
+	 *            number of rows in each band
+	 * @param threshold
+	 *            the minimum similarity of a pair, in range [0,1]
+	 * 
+	 * @throws IllegalArgumentException
+	 *             when {@code bands * rows} is larger then the MinHash
+	 *             signature
+	 */
+	public LshIndex(MinHash minHash, int bands, int rows, float threshold) {
+		checkNotNull(minHash);
+		checkArgument(bands > 0, "bands must be greater then 0");
+		checkArgument(rows > 0, "rows must be greater then 0");
+		checkArgument((long) bands * rows <= minHash.size(),
+				"bands * rows must not be larger then %s", minHash.size());
+		checkArgument(0 <= threshold && threshold <= 1,
+				"threshold must be in range [0,1]");
+		this.minHash = minHash;
+		this.bands = bands;
+		this.rows = rows;
+		this.threshold = threshold;
+		this.jaccard = with(new Jaccard<String>())
+				.tokenize(minHash.getTokenizer())
+				.build();
+		this.keys = new int[bands][16];
+	}
+
+	/**
+	 * Returns the number of bands and rows that minimize the sum of the
+	 * probabilities of false positives and false negatives for signatures of
+	 * size {@code k}.
+	 */
+	static int[] optimalBands(int k, float threshold) {
+		checkArgument(0 <= threshold && threshold <= 1,
+				"threshold must be in range [0,1]");
+		double minError = Double.MAX_VALUE;
+		int[] optimal = { 1, 1 };
+		for (int b = 1; b <= k; b++) {
+			for (int r = 1; b * r <= k; r++) {
+				final double error = falsePositives(threshold, b, r)
+						+ falseNegatives(threshold, b, r);
+				if (error < minError) {
+					minError = error;
+					optimal = new int[] { b, r };
+				}
+			}
+		}
+		return optimal;
+	}
+
+	private static double collision(double s, int b, int r) {
+		return 1.0 - Math.pow(1.0 - Math.pow(s, r), b);
+	}
+
+	/*
+	 * Area under the S-curve below the threshold.
+	 */
+	private static double falsePositives(double threshold, int b, int r) {
+		return integrate(0, threshold, b, r, false);
+	}
+
+	/*
+	 * Area above the S-curve above the threshold.
+	 */
+	private static double falseNegatives(double threshold, int b, int r) {
+		return integrate(threshold, 1, b, r, true);
+	}
+
+	private static double integrate(double from, double to, int b, int r,
+			boolean complement) {
+		final double step = (to - from) / INTEGRATION_STEPS;
+		double area = 0;
+		for (int i = 0; i < INTEGRATION_STEPS; i++) {
+			// Midpoint rule
+			final double p = collision(from + (i + 0.5) * step, b, r);
+			area += (complement ? 1.0 - p : p) * step;
+		}
+		return area;
+	}
+
+	/**
+	 * Returns the number of bands.
+	 * 
+	 * @return the number of bands
+	 */
+	public int bands() {
+		return bands;
+	}
+
+	/**
+	 * Returns the number of rows in each band.
+	 * 
+	 * @return the number of rows in each band
+	 */
+	public int rows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the similarity threshold.
+	 * 
+	 * @return the similarity threshold
+	 */
+	public float threshold() {
+		return threshold;
+	}
+
+	/**
+	 * Returns the number of items in the index.
+	 * 
+	 * @return the number of items in the index
+	 */
+	public int size() {
+		return items.size();
+	}
+
+	/**
+	 * Returns the item at the given index.
+	 * 
+	 * @param index
+	 *            the index of the item
+	 * @return the item
+	 */
+	public String get(int index) {
+		return items.get(index);
+	}
+
+	/**
+	 * Adds an item to the index.
+	 * 
+	 * @param item
+	 *            the item to add
+	 * @return the index of the item
+	 */
+	public int add(String item) {
+		checkNotNull(item);
+		final int id = items.size();
+		final int[] signature = minHash.signature(item);
+
+		if (id == keys[0].length) {
+			for (int band = 0; band < bands; band++) {
+				keys[band] = copyOf(keys[band], id * 2);
+			}
+		}
+		for (int band = 0; band < bands; band++) {
+			keys[band][id] = bandKey(signature, band);
+		}
+
+		items.add(item);
+		signatures.add(signature);
+		index = null;
+		return id;
+	}
+
+	private int bandKey(int[] signature, int band) {
+		long hash = band;
+		for (int i = band * rows, to = i + rows; i < to; i++) {
+			hash = MinHash.mix(hash * 31 + signature[i]);
+		}
+		return (int) hash;
+	}
+
+	private long[][] index() {
+		if (index == null) {
+			final int size = items.size();
+			index = new long[bands][size];
+			for (int band = 0; band < bands; band++) {
+				final long[] entries = index[band];
+				for (int id = 0; id < size; id++) {
+					entries[id] = pack(keys[band][id], id);
+				}
+				sort(entries);
+			}
+		}
+		return index;
+	}
+
+	private static long pack(int key, int id) {
+		return (long) key << 32 | id;
+	}
+
+	private static int key(long entry) {
+		return (int) (entry >> 32);
+	}
+
+	private static int id(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Returns the indexes of the items that collide with the query in at least
+	 * one band, in ascending order.
+	 * 
+	 * @param query
+	 *            string to find candidates for
+	 * @return the indexes of the candidates
+	 */
+	public int[] candidates(String query) {
+		final int[] signature = minHash.signature(query);
+		final long[][] index = index();
+		final boolean[] seen = new boolean[items.size()];
+
+		int count = 0;
+		for (int band = 0; band < bands; band++) {
+			final long[] entries = index[band];
+			final int key = bandKey(signature, band);
+			int i = binarySearch(entries, pack(key, 0));
+			if (i < 0) {
+				i = -i - 1;
+			}
+			for (; i < entries.length && key(entries[i]) == key; i++) {
+				final int id = id(entries[i]);
+				if (!seen[id]) {
+					seen[id] = true;
+					count++;
+				}
+			}
+		}
+
+		final int[] candidates = new int[count];
+		for (int id = 0, i = 0; i < count; id++) {
+			if (seen[id]) {
+				candidates[i++] = id;
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns all pairs of items that collide in at least one band together
+	 * with their estimated similarity. Pairs are ordered by their first and
+	 * second index.
+	 * 
+	 * @return the candidate pairs
+	 */
+	public List<SimilarPair> candidatePairs() {
+		final long[][] index = index();
+		final List<SimilarPair> pairs = new ArrayList<>();
+
+		for (int band = 0; band < bands; band++) {
+			final long[] entries = index[band];
+			for (int from = 0, to; from < entries.length; from = to) {
+				final int key = key(entries[from]);
+				for (to = from + 1; to < entries.length && key(entries[to]) == key; to++) {
+					// Find the end of the bucket
+				}
+				for (int i = from; i < to; i++) {
+					for (int j = i + 1; j < to; j++) {
+						final int a = id(entries[i]);
+						final int b = id(entries[j]);
+						if (!collidedBefore(a, b, band)) {
+							pairs.add(new SimilarPair(a, b, estimate(a, b)));
+						}
+					}
+				}
+			}
+		}
+
+		Collections.sort(pairs, SimilarPair.BY_INDEX);
+		return pairs;
+	}
+
+	/*
+	 * Each pair is only reported for the first band it collides in.
+	 */
+	private boolean collidedBefore(int a, int b, int band) {
+		for (int i = 0; i < band; i++) {
+			if (keys[i][a] == keys[i][b]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns all candidate pairs with a Jaccard similarity of at least the
+	 * threshold together with their similarity. Pairs are ordered by their
+	 * first and second index.
+	 * 
+	 * @return the similar pairs
+	 */
+	public List<SimilarPair> similarPairs() {
+		final List<SimilarPair> pairs = new ArrayList<>();
+		for (SimilarPair candidate : candidatePairs()) {
+			final float similarity = jaccard.compare(
+					items.get(candidate.first()), items.get(candidate.second()));
+			if (similarity >= threshold) {
+				pairs.add(new SimilarPair(candidate.first(), candidate
+						.second(), similarity));
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Returns the estimated Jaccard similarity of two items.
+	 * 
+	 * @param a
+	 *            index of item a
+	 * @param b
+	 *            index of item b
+	 * @return the estimated similarity of the items
+	 */
+	public float estimate(int a, int b) {
+		checkElementIndex(a, items.size());
+		checkElementIndex(b, items.size());
+		return minHash.similarity(signatures.get(a), signatures.get(b));
+	}
+
+	@Override
+	public String toString() {
+		return "LshIndex [" + minHash + ", bands=" + bands + ", rows=" + rows
+				+ ", threshold=" + threshold + "]";
+	}
+
+}
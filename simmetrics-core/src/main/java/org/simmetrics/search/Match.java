@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import java.util.Comparator;
+
+/**
+ * A record found by a search together with its similarity to the query.
+ * Records are identified by the index at which they were indexed.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Match {
+
+	/**
+	 * Orders matches by descending similarity and then by index.
+	 */
+	static final Comparator<Match> BY_SIMILARITY = new Comparator<Match>() {
+		@Override
+		public int compare(Match o1, Match o2) {
+			final int c = Float.compare(o2.similarity, o1.similarity);
+			return c != 0 ? c : o1.index < o2.index ? -1
+					: o1.index == o2.index ? 0 : 1;
+		}
+	};
+
+	private final int index;
+	private final String item;
+	private final float similarity;
+
+	Match(int index, String item, float similarity) {
+		this.index = index;
+		this.item = item;
+		this.similarity = similarity;
+	}
+
+	/**
+	 * Returns the index of the record.
+	 * 
+	 * @return the index of the record
+	 */
+	public int index() {
+		return index;
+	}
+
+	/**
+	 * Returns the record.
+	 * 
+	 * @return the record
+	 */
+	public String item() {
+		return item;
+	}
+
+	/**
+	 * Returns the similarity between the record and the query.
+	 * 
+	 * @return the similarity between the record and the query
+	 */
+	public float similarity() {
+		return similarity;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Match)) {
+			return false;
+		}
+		final Match other = (Match) obj;
+		return index == other.index
+				&& item.equals(other.item)
+				&& Float.floatToIntBits(similarity) == Float
+						.floatToIntBits(other.similarity);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 31 + index;
+		result = 31 * result + item.hashCode();
+		return 31 * result + Float.floatToIntBits(similarity);
+	}
+
+	@Override
+	public String toString() {
+		return "Match [" + index + ", " + item + ", " + similarity + "]";
+	}
+
+}
@@ -0,0 +1,302 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.fill;
+
+import java.util.Collection;
+
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Creates MinHash signatures of the token sets of strings. The fraction of
+ * positions at which two signatures agree is an unbiased estimate of the
+ * Jaccard similarity of the token sets. The standard error of the estimate
+ * is about {@code 1 / sqrt(k)} for a signature of size {@code k}.
+ * <p>
+ * Two schemes are supported:
+ * <ul>
+ * <li>{@link #kPermutations(Tokenizer, int)} hashes every token {@code k}
+ * times and keeps the minimum of each hash function. Costs {@code O(k * n)}
+ * for {@code n} tokens.</li>
+ * <li>{@link #onePermutation(Tokenizer, int)} hashes every token once and
+ * keeps the minimum of each of {@code k} bins. Empty bins are filled by
+ * optimal densification. Costs {@code O(n + k)} for {@code n} tokens.</li>
+ * </ul>
+ * <p>
+ * Signatures are only comparable when created by MinHash instances with the
+ * same scheme, size and seed.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer is
+ * immutable and thread-safe.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/MinHash">Wikipedia - MinHash</a>
+ * @see <a href="http://proceedings.mlr.press/v70/shrivastava17a.html">
+ *      Shrivastava - Optimal Densification for Fast and Accurate Minwise
+ *      Hashing</a>
+ */
+public final class MinHash {
+
+	/**
+	 * Value of every position in the signature of an empty token set.
+	 */
+	static final int EMPTY = Integer.MAX_VALUE;
+
+	private static final long DEFAULT_SEED = 0x5EED;
+
+	private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final Tokenizer tokenizer;
+	private final int k;
+	private final long seed;
+	private final boolean onePermutation;
+
+	private MinHash(Tokenizer tokenizer, int k, long seed,
+			boolean onePermutation) {
+		checkNotNull(tokenizer);
+		checkArgument(k > 0, "k must be greater then 0");
+		this.tokenizer = tokenizer;
+		this.k = k;
+		this.seed = seed;
+		this.onePermutation = onePermutation;
+	}
+
+	/**
+	 * Creates a MinHash that uses {@code k} independent hash functions.
+	 * 
+	 * @param tokenizer
+	 *            tokenizer to create the token sets
+	 * @param k
+	 *            size of the signature
+	 * @return a new MinHash
+	 */
+	public static MinHash kPermutations(Tokenizer tokenizer, int k) {
+		return kPermutations(tokenizer, k, DEFAULT_SEED);
+	}
+
+	/**
+	 * Creates a MinHash that uses {@code k} independent hash functions.
+	 * 
+	 * @param tokenizer
+	 *            tokenizer to create the token sets
+	 * @param k
+	 *            size of the signature
+	 * @param seed
+	 *            seed of the hash functions
+	 * @return a new MinHash
+	 */
+	public static MinHash kPermutations(Tokenizer tokenizer, int k, long seed) {
+		return new MinHash(tokenizer, k, seed, false);
+	}
+
+	/**
+	 * Creates a MinHash that uses a single hash function split into
+	 * {@code k} bins.
+	 * 
+	 * @param tokenizer
+	 *            tokenizer to create the token sets
+	 * @param k
+	 *            size of the signature
+	 * @return a new MinHash
+	 */
+	public static MinHash onePermutation(Tokenizer tokenizer, int k) {
+		return onePermutation(tokenizer, k, DEFAULT_SEED);
+	}
+
+	/**
+	 * Creates a MinHash that uses a single hash function split into
+	 * {@code k} bins.
+	 * 
+	 * @param tokenizer
+	 *            tokenizer to create the token sets
+	 * @param k
+	 *            size of the signature
+	 * @param seed
+	 *            seed of the hash function
+	 * @return a new MinHash
+	 */
+	public static MinHash onePermutation(Tokenizer tokenizer, int k, long seed) {
+		return new MinHash(tokenizer, k, seed, true);
+	}
+
+	/**
+	 * Returns the size of the signatures.
+	 * 
+	 * @return the size of the signatures
+	 */
+	public int size() {
+		return k;
+	}
+
+	Tokenizer getTokenizer() {
+		return tokenizer;
+	}
+
+	/**
+	 * Returns the signature of the token set of the input.
+	 * 
+	 * @param input
+	 *            string to create a signature for
+	 * @return the signature of the input
+	 */
+	public int[] signature(String input) {
+		return signature(tokenizer.tokenizeToSet(input));
+	}
+
+	/**
+	 * Returns the signature of a collection of tokens. Duplicate tokens do not
+	 * affect the signature.
+	 * 
+	 * @param tokens
+	 *            tokens to create a signature for
+	 * @return the signature of the tokens
+	 */
+	public int[] signature(Collection<String> tokens) {
+		final int[] signature = new int[k];
+		fill(signature, EMPTY);
+
+		if (onePermutation) {
+			for (String token : tokens) {
+				final long hash = mix(hash(token) ^ seed);
+				// The high bits select the bin, the low bits are the value
+				final int bin = (int) (((hash >>> 32) * k) >>> 32);
+				signature[bin] = Math.min(signature[bin], value(hash));
+			}
+			if (!tokens.isEmpty()) {
+				densify(signature);
+			}
+		} else {
+			for (String token : tokens) {
+				final long hash = hash(token);
+				for (int i = 0; i < k; i++) {
+					signature[i] = Math.min(signature[i],
+							value(mix(hash ^ salt(i))));
+				}
+			}
+		}
+
+		return signature;
+	}
+
+	/**
+	 * Fills every empty bin with the value of a non-empty bin. The bin is
+	 * chosen by a sequence of hashes that only depends on the index of the
+	 * empty bin, so equal token sets receive equal values.
+	 */
+	private void densify(int[] signature) {
+		final boolean[] empty = new boolean[k];
+		for (int i = 0; i < k; i++) {
+			empty[i] = signature[i] == EMPTY;
+		}
+
+		for (int i = 0; i < k; i++) {
+			if (!empty[i]) {
+				continue;
+			}
+			for (long attempt = 1;; attempt++) {
+				final long hash = mix(salt(i) ^ mix(attempt ^ seed));
+				final int bin = (int) (((hash >>> 32) * k) >>> 32);
+				if (!empty[bin]) {
+					signature[i] = signature[bin];
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of the token sets of two signatures.
+	 * Two signatures of empty sets are similar, a signature of an empty set
+	 * is dissimilar to any other.
+	 * 
+	 * @param a
+	 *            signature a to compare
+	 * @param b
+	 *            signature b to compare
+	 * @return the fraction of positions at which the signatures agree
+	 * @throws IllegalArgumentException
+	 *             when the signatures are not of the size of this MinHash
+	 */
+	public float similarity(int[] a, int[] b) {
+		checkArgument(a.length == k && b.length == k,
+				"signatures must have size %s", k);
+
+		final boolean aEmpty = a[0] == EMPTY;
+		final boolean bEmpty = b[0] == EMPTY;
+		if (aEmpty && bEmpty) {
+			return 1.0f;
+		}
+		if (aEmpty || bEmpty) {
+			return 0.0f;
+		}
+
+		int agree = 0;
+		for (int i = 0; i < k; i++) {
+			if (a[i] == b[i]) {
+				agree++;
+			}
+		}
+		return agree / (float) k;
+	}
+
+	/*
+	 * 64 bit FNV-1a hash of the characters in a token.
+	 */
+	private static long hash(String token) {
+		long hash = FNV_OFFSET;
+		for (int i = 0, length = token.length(); i < length; i++) {
+			hash = (hash ^ token.charAt(i)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	private long salt(int i) {
+		return seed + (i + 1) * GOLDEN_GAMMA;
+	}
+
+	/*
+	 * Finalizer of MurmurHash3. Spreads every input bit over the output.
+	 */
+	static long mix(long hash) {
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	/*
+	 * Lower 32 bits of a hash. EMPTY is reserved for empty bins.
+	 */
+	private static int value(long hash) {
+		final int value = (int) hash;
+		return value == EMPTY ? EMPTY - 1 : value;
+	}
+
+	@Override
+	public String toString() {
+		return "MinHash [" + (onePermutation ? "onePermutation" : "kPermutations")
+				+ ", k=" + k + ", " + tokenizer + "]";
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+/**
+ * An item found by a search together with its distance to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Neighbor {
+
+	private final String item;
+	private final float distance;
+
+	Neighbor(String item, float distance) {
+		this.item = item;
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns the item.
+	 * 
+	 * @return the item
+	 */
+	public String item() {
+		return item;
+	}
+
+	/**
+	 * Returns the distance between the item and the query.
+	 * 
+	 * @return the distance between the item and the query
+	 */
+	public float distance() {
+		return distance;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Neighbor)) {
+			return false;
+		}
+		final Neighbor other = (Neighbor) obj;
+		return item.equals(other.item)
+				&& Float.floatToIntBits(distance) == Float
+						.floatToIntBits(other.distance);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * item.hashCode() + Float.floatToIntBits(distance);
+	}
+
+	@Override
+	public String toString() {
+		return "Neighbor [" + item + ", " + distance + "]";
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
+/**
+ * Bounds on the size and overlap of token sets with a similarity of at least
+ * a threshold. Used by the length, prefix and count filters of the indexes
+ * and joins in this package.
+ */
+enum OverlapBounds {
+	JACCARD {
+		@Override
+		double minSize(double q, double t) {
+			return t * q;
+		}
+
+		@Override
+		double maxSize(double q, double t) {
+			return q / t;
+		}
+
+		@Override
+		double minOverlap(double q, double r, double t) {
+			return t / (1 + t) * (q + r);
+		}
+	},
+	DICE {
+		@Override
+		double minSize(double q, double t) {
+			return t * q / (2 - t);
+		}
+
+		@Override
+		double maxSize(double q, double t) {
+			return (2 - t) * q / t;
+		}
+
+		@Override
+		double minOverlap(double q, double r, double t) {
+			return t * (q + r) / 2;
+		}
+	},
+	TANIMOTO {
+		@Override
+		double minSize(double q, double t) {
+			return t * t * q;
+		}
+
+		@Override
+		double maxSize(double q, double t) {
+			return q / (t * t);
+		}
+
+		@Override
+		double minOverlap(double q, double r, double t) {
+			return t * sqrt(q * r);
+		}
+	},
+	OVERLAP_COEFFICIENT {
+		@Override
+		double minSize(double q, double t) {
+			return 1;
+		}
+
+		@Override
+		double maxSize(double q, double t) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		double minOverlap(double q, double r, double t) {
+			return t * min(q, r);
+		}
+	};
+
+	/**
+	 * Filters use a slightly lower threshold so rounding in the metric can not
+	 * cause false negatives.
+	 */
+	static final float MARGIN = 1e-5f;
+
+	/**
+	 * Smallest size of a set with a similarity of at least t to a set of size
+	 * q.
+	 */
+	abstract double minSize(double q, double t);
+
+	/**
+	 * Largest size of a set with a similarity of at least t to a set of size
+	 * q.
+	 */
+	abstract double maxSize(double q, double t);
+
+	/**
+	 * Smallest overlap between sets of size q and r with a similarity of at
+	 * least t. Non-decreasing in r.
+	 */
+	abstract double minOverlap(double q, double r, double t);
+
+}
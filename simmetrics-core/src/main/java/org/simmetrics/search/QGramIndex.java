@@ -0,0 +1,563 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+import static org.simmetrics.builders.StringMetricBuilder.with;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.Dice;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.tokenizers.Tokenizer;
+import org.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * An inverted index from tokens to the records that contain them. Finds all
+ * records with a similarity of at least a threshold to a query without
+ * comparing the query to every record. Typically used with the q-gram
+ * tokenizers in {@link Tokenizers}.
+ * <p>
+ * A search applies three filters before verifying the remaining candidates
+ * with the metric of the {@link Measure}:
+ * <ul>
+ * <li>Length filtering: The threshold limits the size of a matching record
+ * relative to the query. Records are ordered by size so each posting list is
+ * only scanned within this range.</li>
+ * <li>Prefix filtering: The query tokens are ordered from rare to common. A
+ * matching record must share at least one of the rarest tokens, such that the
+ * remaining common tokens alone can not reach the threshold. Only the posting
+ * lists of these tokens are scanned.</li>
+ * <li>Count filtering: The overlap between the query and each candidate is
+ * counted and compared to the minimum overlap required for its size.</li>
+ * </ul>
+ * <p>
+ * For CosineSimilarity, which compares multisets, the size of a record is not
+ * bounded. The prefix is chosen such that the common tokens account for less
+ * then {@code threshold^2} of the squared magnitude of the query and
+ * candidates are filtered on their dot product.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer is
+ * immutable and thread-safe.
+ * 
+ * @see <a href="https://doi.org/10.1145/1135777.1135883">Bayardo, Ma,
+ *      Srikant - Scaling up all pairs similarity search</a>
+ * @see <a href="https://doi.org/10.1145/1367497.1367516">Xiao, Wang, Lin, Yu
+ *      - Efficient similarity joins for near duplicate detection</a>
+ */
+public final class QGramIndex {
+
+	/**
+	 * Similarity measures supported by the index.
+	 */
+	public enum Measure {
+		/**
+		 * {@link Jaccard} similarity of the token sets.
+		 */
+		JACCARD(false, OverlapBounds.JACCARD) {
+			@Override
+			StringMetric metric(Tokenizer tokenizer) {
+				return with(new Jaccard<String>()).tokenize(tokenizer).build();
+			}
+		},
+		/**
+		 * {@link Dice} similarity of the token sets.
+		 */
+		DICE(false, OverlapBounds.DICE) {
+			@Override
+			StringMetric metric(Tokenizer tokenizer) {
+				return with(new Dice<String>()).tokenize(tokenizer).build();
+			}
+		},
+		/**
+		 * {@link OverlapCoefficient} of the token sets. Does not bound the
+		 * size of a record.
+		 */
+		OVERLAP_COEFFICIENT(false, OverlapBounds.OVERLAP_COEFFICIENT) {
+			@Override
+			StringMetric metric(Tokenizer tokenizer) {
+				return with(new OverlapCoefficient<String>()).tokenize(tokenizer).build();
+			}
+		},
+		/**
+		 * {@link CosineSimilarity} of the token multisets.
+		 */
+		COSINE(true, null) {
+			@Override
+			StringMetric metric(Tokenizer tokenizer) {
+				return with(new CosineSimilarity<String>()).tokenize(tokenizer).build();
+			}
+
+			@Override
+			double minSize(double q, double t) {
+				return 1;
+			}
+
+			@Override
+			double maxSize(double q, double t) {
+				return Double.POSITIVE_INFINITY;
+			}
+
+			@Override
+			double prefixBound(double q, long sumOfSquares, double minSize,
+					double t) {
+				return t * t * sumOfSquares;
+			}
+
+			@Override
+			double prefixWeight(int count) {
+				return (double) count * count;
+			}
+
+			@Override
+			boolean passes(QGramIndex index, long[] known, int id, double q,
+					long sumOfSquares, double t) {
+				return index.dotProduct(known, id) >= t
+						* sqrt((double) sumOfSquares * index.sumOfSquares[id]);
+			}
+		},
+		/**
+		 * {@link BlockDistance} similarity of the token multisets. Equal to
+		 * the Dice similarity of the multisets.
+		 */
+		BLOCK_DISTANCE(true, OverlapBounds.DICE) {
+			@Override
+			StringMetric metric(Tokenizer tokenizer) {
+				return with(new BlockDistance<String>()).tokenize(tokenizer).build();
+			}
+		};
+
+		final boolean multiset;
+
+		// Null when the measure does not filter on overlap
+		private final OverlapBounds bounds;
+
+		Measure(boolean multiset, OverlapBounds bounds) {
+			this.multiset = multiset;
+			this.bounds = bounds;
+		}
+
+		abstract StringMetric metric(Tokenizer tokenizer);
+
+		/**
+		 * Smallest size of a record with a similarity of at least t to a query
+		 * of size q.
+		 */
+		double minSize(double q, double t) {
+			return bounds.minSize(q, t);
+		}
+
+		/**
+		 * Largest size of a record with a similarity of at least t to a query
+		 * of size q.
+		 */
+		double maxSize(double q, double t) {
+			return bounds.maxSize(q, t);
+		}
+
+		/**
+		 * Smallest weight of the tokens a record of at least minSize must
+		 * share with a query of size q to reach t. The common tokens beyond
+		 * the prefix of the query weigh less than this in total.
+		 */
+		double prefixBound(double q, long sumOfSquares, double minSize, double t) {
+			return bounds.minOverlap(q, minSize, t);
+		}
+
+		/**
+		 * Weight of a query token that occurs count times.
+		 */
+		double prefixWeight(int count) {
+			return count;
+		}
+
+		/**
+		 * Whether a candidate may have a similarity of at least t to a query
+		 * of size q with the given sum of squared counts.
+		 */
+		boolean passes(QGramIndex index, long[] known, int id, double q,
+				long sumOfSquares, double t) {
+			return index.overlap(known, id) >= bounds.minOverlap(q,
+					index.sizes[id], t);
+		}
+	}
+
+	private final Measure measure;
+	private final Tokenizer tokenizer;
+	private final StringMetric metric;
+
+	private final String[] records;
+
+	// Token ids ordered from rare to common
+	private final Map<String, Integer> dictionary;
+	// Record ids ordered by size, for each token
+	private final int[][] postings;
+
+	// By record id, records are ordered by size
+	private final int[] order;
+	private final int[] sizes;
+	private final int[][] tokens;
+	private final int[][] counts;
+	private final long[] sumOfSquares;
+	private final int empty;
+
+	private QGramIndex(Measure measure, Tokenizer tokenizer, List<String> records) {
+		this.measure = checkNotNull(measure);
+		this.tokenizer = checkNotNull(tokenizer);
+		this.metric = measure.metric(tokenizer);
+		this.records = records.toArray(new String[records.size()]);
+
+		final int n = this.records.length;
+		final List<Map<String, Integer>> tokenized = new ArrayList<>(n);
+		final Map<String, Integer> frequencies = new HashMap<>();
+		for (String record : this.records) {
+			final Map<String, Integer> counted = tokenize(checkNotNull(record));
+			TokenOrder.count(counted.keySet(), frequencies);
+			tokenized.add(counted);
+		}
+
+		this.dictionary = TokenOrder.byFrequency(frequencies);
+		this.order = new int[n];
+		this.sizes = new int[n];
+		this.tokens = new int[n][];
+		this.counts = measure.multiset ? new int[n][] : null;
+		this.sumOfSquares = new long[n];
+
+		// Order records by size, then by index
+		final long[] bySize = new long[n];
+		for (int i = 0; i < n; i++) {
+			int size = 0;
+			for (int count : tokenized.get(i).values()) {
+				size += count;
+			}
+			bySize[i] = (long) size << 32 | i;
+		}
+		sort(bySize);
+
+		final int[] frequency = new int[dictionary.size()];
+		int empty = 0;
+		for (int id = 0; id < n; id++) {
+			final int index = (int) bySize[id];
+			order[id] = index;
+			sizes[id] = (int) (bySize[id] >>> 32);
+			if (sizes[id] == 0) {
+				empty++;
+			}
+
+			final Map<String, Integer> counted = tokenized.get(index);
+			final long[] entries = new long[counted.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> entry : counted.entrySet()) {
+				entries[i++] = (long) dictionary.get(entry.getKey()) << 32
+						| entry.getValue();
+			}
+			sort(entries);
+
+			tokens[id] = new int[entries.length];
+			if (counts != null) {
+				counts[id] = new int[entries.length];
+			}
+			for (i = 0; i < entries.length; i++) {
+				final int token = (int) (entries[i] >>> 32);
+				final int count = (int) entries[i];
+				tokens[id][i] = token;
+				if (counts != null) {
+					counts[id][i] = count;
+				}
+				sumOfSquares[id] += (long) count * count;
+				frequency[token]++;
+			}
+		}
+		this.empty = empty;
+
+		this.postings = new int[frequency.length][];
+		for (int token = 0; token < frequency.length; token++) {
+			postings[token] = new int[frequency[token]];
+		}
+		final int[] filled = new int[frequency.length];
+		for (int id = 0; id < n; id++) {
+			for (int token : tokens[id]) {
+				postings[token][filled[token]++] = id;
+			}
+		}
+	}
+
+	/**
+	 * Creates an index over the records.
+	 * 
+	 * @param measure
+	 *            the similarity measure
+	 * @param tokenizer
+	 *            tokenizer to split records and queries into tokens
+	 * @param records
+	 *            the records to index
+	 * @return a new index
+	 */
+	public static QGramIndex build(Measure measure, Tokenizer tokenizer,
+			List<String> records) {
+		return new QGramIndex(measure, tokenizer, records);
+	}
+
+	private Map<String, Integer> tokenize(String input) {
+		final Map<String, Integer> counted = new HashMap<>();
+		if (measure.multiset) {
+			final Multiset<String> multiset = tokenizer.tokenizeToMultiset(input);
+			for (Multiset.Entry<String> entry : multiset.entrySet()) {
+				counted.put(entry.getElement(), entry.getCount());
+			}
+		} else {
+			final Set<String> set = tokenizer.tokenizeToSet(input);
+			for (String token : set) {
+				counted.put(token, 1);
+			}
+		}
+		return counted;
+	}
+
+	/**
+	 * Returns the measure used by this index.
+	 * 
+	 * @return the measure used by this index
+	 */
+	public Measure measure() {
+		return measure;
+	}
+
+	/**
+	 * Returns the number of records in the index.
+	 * 
+	 * @return the number of records
+	 */
+	public int size() {
+		return records.length;
+	}
+
+	/**
+	 * Returns the record at the given index.
+	 * 
+	 * @param index
+	 *            the index of the record
+	 * @return the record
+	 */
+	public String get(int index) {
+		return records[index];
+	}
+
+	/**
+	 * Returns all records with a similarity of at least {@code threshold} to
+	 * the query, ordered from most to least similar and then by index.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param threshold
+	 *            the minimum similarity, in range [0,1]
+	 * @return all records with a similarity of at least {@code threshold}
+	 */
+	public List<Match> search(String query, float threshold) {
+		checkNotNull(query);
+		checkArgument(0 <= threshold && threshold <= 1,
+				"threshold must be in range [0,1]");
+
+		final List<Match> matches = new ArrayList<>();
+		if (threshold == 0) {
+			// Every record matches
+			for (int index = 0; index < records.length; index++) {
+				matches.add(new Match(index, records[index], metric.compare(
+						query, records[index])));
+			}
+			Collections.sort(matches, Match.BY_SIMILARITY);
+			return matches;
+		}
+
+		final Map<String, Integer> counted = tokenize(query);
+		if (counted.isEmpty()) {
+			// Only records without tokens are similar to an empty query
+			for (int id = 0; id < empty; id++) {
+				verify(query, id, threshold, matches);
+			}
+			Collections.sort(matches, Match.BY_SIMILARITY);
+			return matches;
+		}
+
+		// Tokens of the query that occur in the index, from rare to common
+		int size = 0;
+		long querySumOfSquares = 0;
+		long[] known = new long[counted.size()];
+		int length = 0;
+		for (Map.Entry<String, Integer> entry : counted.entrySet()) {
+			final int count = entry.getValue();
+			size += count;
+			querySumOfSquares += (long) count * count;
+			final Integer token = dictionary.get(entry.getKey());
+			if (token != null) {
+				known[length++] = (long) token << 32 | count;
+			}
+		}
+		known = copyOf(known, length);
+		sort(known);
+
+		final double t = max(0, threshold - OverlapBounds.MARGIN);
+		final double minSize = max(1, measure.minSize(size, t));
+		final double maxSize = measure.maxSize(size, t);
+
+		// Tokens beyond the prefix can not reach the threshold on their own
+		final double bound = measure.prefixBound(size, querySumOfSquares,
+				minSize, t);
+		int prefix = length;
+		double suffix = 0;
+		while (prefix > 0) {
+			final double weight = measure.prefixWeight((int) known[prefix - 1]);
+			if (suffix + weight >= bound) {
+				break;
+			}
+			suffix += weight;
+			prefix--;
+		}
+
+		final int[] candidates = candidates(known, prefix, minSize, maxSize);
+		for (int id : candidates) {
+			if (measure.passes(this, known, id, size, querySumOfSquares, t)) {
+				verify(query, id, threshold, matches);
+			}
+		}
+
+		Collections.sort(matches, Match.BY_SIMILARITY);
+		return matches;
+	}
+
+	/*
+	 * Returns the distinct ids of records within the size range that contain
+	 * a token in the prefix.
+	 */
+	private int[] candidates(long[] known, int prefix, double minSize,
+			double maxSize) {
+		int[] candidates = new int[16];
+		int length = 0;
+		for (int i = 0; i < prefix; i++) {
+			final int[] posting = postings[(int) (known[i] >>> 32)];
+			for (int j = lowerBound(posting, minSize); j < posting.length
+					&& sizes[posting[j]] <= maxSize; j++) {
+				if (length == candidates.length) {
+					candidates = copyOf(candidates, length * 2);
+				}
+				candidates[length++] = posting[j];
+			}
+		}
+
+		sort(candidates, 0, length);
+		int distinct = 0;
+		for (int i = 0; i < length; i++) {
+			if (distinct == 0 || candidates[distinct - 1] != candidates[i]) {
+				candidates[distinct++] = candidates[i];
+			}
+		}
+		return copyOf(candidates, distinct);
+	}
+
+	/*
+	 * Index of the first record in the posting list of at least minSize.
+	 */
+	private int lowerBound(int[] posting, double minSize) {
+		int low = 0;
+		int high = posting.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (sizes[posting[mid]] < minSize) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int overlap(long[] known, int id) {
+		final int[] recordTokens = tokens[id];
+		final int[] recordCounts = counts == null ? null : counts[id];
+		int overlap = 0;
+		for (int i = 0, j = 0; i < known.length && j < recordTokens.length;) {
+			final int token = (int) (known[i] >>> 32);
+			if (token < recordTokens[j]) {
+				i++;
+			} else if (token > recordTokens[j]) {
+				j++;
+			} else {
+				overlap += recordCounts == null ? 1 : min((int) known[i],
+						recordCounts[j]);
+				i++;
+				j++;
+			}
+		}
+		return overlap;
+	}
+
+	private long dotProduct(long[] known, int id) {
+		final int[] recordTokens = tokens[id];
+		final int[] recordCounts = counts[id];
+		long dotProduct = 0;
+		for (int i = 0, j = 0; i < known.length && j < recordTokens.length;) {
+			final int token = (int) (known[i] >>> 32);
+			if (token < recordTokens[j]) {
+				i++;
+			} else if (token > recordTokens[j]) {
+				j++;
+			} else {
+				dotProduct += (long) (int) known[i] * recordCounts[j];
+				i++;
+				j++;
+			}
+		}
+		return dotProduct;
+	}
+
+	private void verify(String query, int id, float threshold,
+			List<Match> matches) {
+		final int index = order[id];
+		final float similarity = metric.compare(query, records[index]);
+		if (similarity >= threshold) {
+			matches.add(new Match(index, records[index], similarity));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "QGramIndex [" + measure + ", " + tokenizer + ", size="
+				+ records.length + "]";
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import java.util.Comparator;
+
+/**
+ * A pair of similar items identified by their index together with their
+ * similarity. The first index is always smaller then the second.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SimilarPair {
+
+	/**
+	 * Orders pairs by their first and then second index.
+	 */
+	static final Comparator<SimilarPair> BY_INDEX = new Comparator<SimilarPair>() {
+		@Override
+		public int compare(SimilarPair o1, SimilarPair o2) {
+			if (o1.first != o2.first) {
+				return o1.first < o2.first ? -1 : 1;
+			}
+			return o1.second < o2.second ? -1 : o1.second == o2.second ? 0 : 1;
+		}
+	};
+
+	private final int first;
+	private final int second;
+	private final float similarity;
+
+	SimilarPair(int first, int second, float similarity) {
+		this.first = Math.min(first, second);
+		this.second = Math.max(first, second);
+		this.similarity = similarity;
+	}
+
+	/**
+	 * Returns the index of the first item.
+	 * 
+	 * @return the index of the first item
+	 */
+	public int first() {
+		return first;
+	}
+
+	/**
+	 * Returns the index of the second item.
+	 * 
+	 * @return the index of the second item
+	 */
+	public int second() {
+		return second;
+	}
+
+	/**
+	 * Returns the similarity of the items.
+	 * 
+	 * @return the similarity of the items
+	 */
+	public float similarity() {
+		return similarity;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SimilarPair)) {
+			return false;
+		}
+		final SimilarPair other = (SimilarPair) obj;
+		return first == other.first && second == other.second
+				&& Float.floatToIntBits(similarity) == Float
+						.floatToIntBits(other.similarity);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 31 + first;
+		result = 31 * result + second;
+		return 31 * result + Float.floatToIntBits(similarity);
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarPair [" + first + ", " + second + ", " + similarity + "]";
+	}
+
+}
@@ -0,0 +1,596 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.abs;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+
+import org.simmetrics.SharedPool;
+import org.simmetrics.metrics.Dice;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.metrics.TanimotoCoefficient;
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Finds all pairs of records in a collection with a similarity of at least a
+ * threshold using the PPJoin+ algorithm.
+ * <p>
+ * Records are tokenized into sets and tokens are ordered from rare to common.
+ * Records are processed from small to large and every record is probed
+ * against the smaller records before it. A candidate pair is only generated
+ * when the rarest tokens of both records, their prefixes, share a token. On
+ * the first shared token the positional filter bounds the overlap using the
+ * positions of the token in both records, and the suffix filter bounds the
+ * Hamming distance of the remaining tokens by recursive partitioning. The
+ * surviving candidates are verified by computing the exact overlap.
+ * <p>
+ * The probe phase runs in parallel on a fork-join pool. Pairs are reported to
+ * a {@link Listener} as soon as they are verified.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer is
+ * immutable and thread-safe.
+ * 
+ * @see <a href="https://doi.org/10.1145/1367497.1367516">Xiao, Wang, Lin, Yu
+ *      - Efficient similarity joins for near duplicate detection</a>
+ */
+public final class SimilarityJoin {
+
+	/**
+	 * Similarity measures over token sets supported by the join.
+	 */
+	public enum Measure {
+		/**
+		 * {@link Jaccard} similarity.
+		 */
+		JACCARD(OverlapBounds.JACCARD) {
+			@Override
+			float similarity(int q, int r, int overlap) {
+				return overlap / (float) (q + r - overlap);
+			}
+		},
+		/**
+		 * {@link Dice} similarity.
+		 */
+		DICE(OverlapBounds.DICE) {
+			@Override
+			float similarity(int q, int r, int overlap) {
+				return (2.0f * overlap) / (q + r);
+			}
+		},
+		/**
+		 * {@link TanimotoCoefficient}, the cosine similarity of sets.
+		 */
+		TANIMOTO(OverlapBounds.TANIMOTO) {
+			@Override
+			float similarity(int q, int r, int overlap) {
+				return (float) (overlap / (sqrt(q) * sqrt(r)));
+			}
+		},
+		/**
+		 * {@link OverlapCoefficient}. Does not bound the size of a record.
+		 */
+		OVERLAP_COEFFICIENT(OverlapBounds.OVERLAP_COEFFICIENT) {
+			@Override
+			float similarity(int q, int r, int overlap) {
+				return overlap / (float) min(q, r);
+			}
+		};
+
+		final OverlapBounds bounds;
+
+		Measure(OverlapBounds bounds) {
+			this.bounds = bounds;
+		}
+
+		/**
+		 * Similarity of two non-empty records. Computed as the metric does.
+		 */
+		abstract float similarity(int q, int r, int overlap);
+	}
+
+	/**
+	 * Receives the pairs found by a join. Called concurrently from the
+	 * threads of the probe phase.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called for every pair with a similarity of at least the threshold.
+		 * 
+		 * @param pair
+		 *            the pair
+		 */
+		void found(SimilarPair pair);
+	}
+
+	/*
+	 * Depth of the recursion in the suffix filter.
+	 */
+	private static final int MAX_DEPTH = 2;
+
+	/*
+	 * Ranges with at least this many records are probed in parallel.
+	 */
+	private static final int PARALLEL_RECORDS = 1 << 10;
+
+	private static final int PRUNED = Integer.MIN_VALUE;
+
+	private final Measure measure;
+	private final Tokenizer tokenizer;
+	private final float threshold;
+
+	/**
+	 * Creates a join that finds pairs with a similarity of at least
+	 * {@code threshold}.
+	 * 
+	 * @param measure
+	 *            the similarity measure
+	 * @param tokenizer
+	 *            tokenizer to split records into token sets
+	 * @param threshold
+	 *            the minimum similarity, in range (0,1]
+	 */
+	public SimilarityJoin(Measure measure, Tokenizer tokenizer, float threshold) {
+		checkArgument(0 < threshold && threshold <= 1,
+				"threshold must be in range (0,1]");
+		this.measure = checkNotNull(measure);
+		this.tokenizer = checkNotNull(tokenizer);
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns all pairs of records with a similarity of at least the
+	 * threshold. Pairs are ordered by their first and second index.
+	 * 
+	 * @param records
+	 *            the records to join
+	 * @return the similar pairs
+	 */
+	public List<SimilarPair> join(List<String> records) {
+		final List<SimilarPair> pairs = new ArrayList<>();
+		join(records, new Listener() {
+			@Override
+			public void found(SimilarPair pair) {
+				synchronized (pairs) {
+					pairs.add(pair);
+				}
+			}
+		});
+		Collections.sort(pairs, SimilarPair.BY_INDEX);
+		return pairs;
+	}
+
+	/**
+	 * Reports all pairs of records with a similarity of at least the
+	 * threshold to the listener. Returns once all pairs have been reported.
+	 * 
+	 * @param records
+	 *            the records to join
+	 * @param listener
+	 *            receives the similar pairs, must be thread-safe
+	 */
+	public void join(List<String> records, Listener listener) {
+		checkNotNull(listener);
+		final Probe probe = new Probe(records, listener);
+
+		final int size = probe.sets.length;
+		if (size < PARALLEL_RECORDS) {
+			probe.probe(0, size);
+		} else {
+			SharedPool.invoke(probe.new Range(0, size));
+		}
+	}
+
+	/*
+	 * Required overlap with margin for the filters.
+	 */
+	private int minOverlap(double q, double r) {
+		return (int) ceil(measure.bounds.minOverlap(q, r,
+				threshold - OverlapBounds.MARGIN));
+	}
+
+	/*
+	 * The tokenized records and the index of their prefixes.
+	 */
+	private final class Probe {
+
+		private final Listener listener;
+
+		// Token sets ordered by size, tokens ordered from rare to common
+		private final int[][] sets;
+		// Index of each set in the records
+		private final int[] order;
+		// Record ids and positions of the tokens in the index prefix, by token
+		private final long[][] postings;
+
+		Probe(List<String> records, Listener listener) {
+			this.listener = listener;
+
+			final int n = records.size();
+			final List<Set<String>> tokenized = new ArrayList<>(n);
+			final Map<String, Integer> frequencies = new HashMap<>();
+			for (String record : records) {
+				final Set<String> tokens = tokenizer.tokenizeToSet(checkNotNull(record));
+				TokenOrder.count(tokens, frequencies);
+				tokenized.add(tokens);
+			}
+			final Map<String, Integer> ids = TokenOrder.byFrequency(frequencies);
+
+			// Order records by size, then by index
+			final long[] bySize = new long[n];
+			for (int i = 0; i < n; i++) {
+				bySize[i] = (long) tokenized.get(i).size() << 32 | i;
+			}
+			sort(bySize);
+
+			this.sets = new int[n][];
+			this.order = new int[n];
+			final int[] lengths = new int[ids.size()];
+			for (int id = 0; id < n; id++) {
+				final int index = (int) bySize[id];
+				order[id] = index;
+
+				final int[] set = new int[tokenized.get(index).size()];
+				int i = 0;
+				for (String token : tokenized.get(index)) {
+					set[i++] = ids.get(token);
+				}
+				sort(set);
+				sets[id] = set;
+				tokenized.set(index, null);
+
+				for (i = 0; i < indexPrefix(set.length); i++) {
+					lengths[set[i]]++;
+				}
+			}
+
+			this.postings = new long[lengths.length][];
+			for (int token = 0; token < lengths.length; token++) {
+				postings[token] = new long[lengths[token]];
+			}
+			fill(lengths, 0);
+			for (int id = 0; id < n; id++) {
+				final int[] set = sets[id];
+				for (int i = 0; i < indexPrefix(set.length); i++) {
+					postings[set[i]][lengths[set[i]]++] = (long) id << 32 | i;
+				}
+			}
+		}
+
+		/*
+		 * Length of the prefix of a set that is indexed. Only larger sets
+		 * are probed against the index.
+		 */
+		private int indexPrefix(int size) {
+			return size == 0 ? 0 : max(0, size - minOverlap(size, size) + 1);
+		}
+
+		/*
+		 * Length of the prefix of a set that is probed.
+		 */
+		private int probePrefix(int size, double minSize) {
+			return size == 0 ? 0 : max(0, size - minOverlap(size, minSize) + 1);
+		}
+
+		void probe(int from, int to) {
+			final Accumulator accumulator = new Accumulator();
+			for (int x = from; x < to; x++) {
+				probe(x, accumulator);
+			}
+		}
+
+		private void probe(final int x, final Accumulator accumulator) {
+			final int[] xSet = sets[x];
+			final int xSize = xSet.length;
+
+			if (xSize == 0) {
+				// Empty records are only similar to each other, they come
+				// first
+				for (int y = 0; y < x; y++) {
+					report(x, y, 1.0f);
+				}
+				return;
+			}
+
+			final double minSize = max(1, measure.bounds.minSize(xSize,
+					threshold - OverlapBounds.MARGIN));
+			final int prefix = probePrefix(xSize, minSize);
+
+			accumulator.clear();
+			for (int i = 0; i < prefix; i++) {
+				final long[] posting = postings[xSet[i]];
+				for (int k = lowerBound(posting, minSize); k < posting.length; k++) {
+					final int y = (int) (posting[k] >>> 32);
+					if (y >= x) {
+						break;
+					}
+					final int j = (int) posting[k];
+
+					final int overlap = accumulator.get(y);
+					if (overlap == PRUNED) {
+						continue;
+					}
+
+					final int ySize = sets[y].length;
+					final int alpha = minOverlap(xSize, ySize);
+
+					// Positional filter
+					final int upperBound = overlap + 1
+							+ min(xSize - i - 1, ySize - j - 1);
+					if (upperBound < alpha) {
+						accumulator.put(y, PRUNED);
+						continue;
+					}
+
+					// Suffix filter on the first shared token
+					if (overlap == 0) {
+						final int maxHamming = xSize + ySize - 2 * alpha - i - j;
+						if (suffixFilter(xSet, i + 1, xSize, sets[y], j + 1,
+								ySize, maxHamming, 1) > maxHamming) {
+							accumulator.put(y, PRUNED);
+							continue;
+						}
+					}
+
+					accumulator.put(y, overlap + 1);
+				}
+			}
+
+			for (int k = 0; k < accumulator.size(); k++) {
+				if (accumulator.value(k) != PRUNED) {
+					verify(x, accumulator.key(k));
+				}
+			}
+		}
+
+		/*
+		 * Index of the first posting of a record of at least minSize.
+		 */
+		private int lowerBound(long[] posting, double minSize) {
+			int low = 0;
+			int high = posting.length;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (sets[(int) (posting[mid] >>> 32)].length < minSize) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private void verify(int x, int y) {
+			final int[] xSet = sets[x];
+			final int[] ySet = sets[y];
+			int overlap = 0;
+			for (int i = 0, j = 0; i < xSet.length && j < ySet.length;) {
+				if (xSet[i] < ySet[j]) {
+					i++;
+				} else if (xSet[i] > ySet[j]) {
+					j++;
+				} else {
+					overlap++;
+					i++;
+					j++;
+				}
+			}
+
+			final float similarity = measure.similarity(xSet.length,
+					ySet.length, overlap);
+			if (similarity >= threshold) {
+				report(x, y, similarity);
+			}
+		}
+
+		private void report(int x, int y, float similarity) {
+			listener.found(new SimilarPair(order[x], order[y], similarity));
+		}
+
+		private final class Range extends RecursiveAction {
+
+			private static final long serialVersionUID = 1L;
+
+			private final int from;
+			private final int to;
+
+			Range(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			protected void compute() {
+				if (to - from < PARALLEL_RECORDS) {
+					probe(from, to);
+					return;
+				}
+				final int middle = (from + to) >>> 1;
+				invokeAll(new Range(from, middle), new Range(middle, to));
+			}
+		}
+	}
+
+	/*
+	 * Returns a lower bound for the Hamming distance between two sorted sets,
+	 * or a value above maxHamming. Both sets are split around the middle
+	 * token of y. Tokens smaller then it can only be shared with tokens
+	 * smaller then it, so the distances of both halves add up.
+	 */
+	static int suffixFilter(int[] x, int xFrom, int xTo, int[] y, int yFrom,
+			int yTo, int maxHamming, int depth) {
+		final int xLength = xTo - xFrom;
+		final int yLength = yTo - yFrom;
+		if (depth > MAX_DEPTH || xLength == 0 || yLength == 0) {
+			return abs(xLength - yLength);
+		}
+
+		final int middle = yFrom + yLength / 2;
+		final int token = y[middle];
+
+		final int split = lowerBound(x, xFrom, xTo, token);
+		final int difference = split < xTo && x[split] == token ? 0 : 1;
+		final int xRight = split + 1 - difference;
+
+		final int leftLength = abs((split - xFrom) - (middle - yFrom));
+		final int rightLength = abs((xTo - xRight) - (yTo - middle - 1));
+
+		final int hamming = leftLength + rightLength + difference;
+		if (hamming > maxHamming) {
+			return hamming;
+		}
+
+		final int left = suffixFilter(x, xFrom, split, y, yFrom, middle,
+				maxHamming - rightLength - difference, depth + 1);
+		if (left + rightLength + difference > maxHamming) {
+			return left + rightLength + difference;
+		}
+
+		final int right = suffixFilter(x, xRight, xTo, y, middle + 1, yTo,
+				maxHamming - left - difference, depth + 1);
+		return left + right + difference;
+	}
+
+	private static int lowerBound(int[] a, int from, int to, int key) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (a[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Open addressing map from record ids to overlaps. Remembers the order of
+	 * insertion and clears in time proportional to its size.
+	 */
+	private static final class Accumulator {
+
+		private static final int EMPTY = -1;
+
+		private int[] keys = new int[16];
+		private int[] values = new int[16];
+		private int[] slots = new int[8];
+		private int size;
+		// Takes the high bits of the hash, as many as index the keys
+		private int shift = 32 - numberOfTrailingZeros(keys.length);
+
+		Accumulator() {
+			fill(keys, EMPTY);
+		}
+
+		int size() {
+			return size;
+		}
+
+		int key(int index) {
+			return keys[slots[index]];
+		}
+
+		int value(int index) {
+			return values[slots[index]];
+		}
+
+		int get(int key) {
+			final int slot = slot(key);
+			return keys[slot] == EMPTY ? 0 : values[slot];
+		}
+
+		void put(int key, int value) {
+			final int slot = slot(key);
+			values[slot] = value;
+			if (keys[slot] != EMPTY) {
+				return;
+			}
+			keys[slot] = key;
+			if (size == slots.length) {
+				slots = copyOf(slots, size * 2);
+			}
+			slots[size++] = slot;
+			if (size * 2 > keys.length) {
+				grow();
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				keys[slots[i]] = EMPTY;
+			}
+			size = 0;
+		}
+
+		private int slot(int key) {
+			final int mask = keys.length - 1;
+			int slot = (key * 0x9E3779B9) >>> shift;
+			while (keys[slot] != EMPTY && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void grow() {
+			final int[] oldKeys = keys;
+			final int[] oldValues = values;
+			final int[] oldSlots = slots;
+			keys = new int[oldKeys.length * 2];
+			values = new int[oldKeys.length * 2];
+			shift--;
+			fill(keys, EMPTY);
+			for (int i = 0; i < size; i++) {
+				final int key = oldKeys[oldSlots[i]];
+				final int slot = slot(key);
+				keys[slot] = key;
+				values[slot] = oldValues[oldSlots[i]];
+				slots[i] = slot;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityJoin [" + measure + ", " + tokenizer
+				+ ", threshold=" + threshold + "]";
+	}
+
+}
@@ -0,0 +1,676 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.simmetrics.BatchStringMetric;
+import org.simmetrics.PreprocessingStringDistance;
+import org.simmetrics.PreprocessingStringMetric;
+import org.simmetrics.SharedPool;
+import org.simmetrics.StringDistance;
+import org.simmetrics.StringMetric;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.ThresholdedStringMetric;
+
+/**
+ * Computes the similarity or distance between every row string and every
+ * column string.
+ * <p>
+ * The matrix is divided into tiles of a few rows by a few hundred columns.
+ * Tiles are computed in parallel on a fork-join pool and the column strings of
+ * a tile are compared against every row of the tile while they are in cache.
+ * Work is saved where the metric allows it:
+ * <ul>
+ * <li>A {@link PreprocessingStringMetric} or
+ * {@link PreprocessingStringDistance}, such as those created by the builders,
+ * simplifies and tokenizes each row and column string once.</li>
+ * <li>A {@link BatchStringMetric} prepares each row once per tile.</li>
+ * <li>When only cells within a threshold are wanted a
+ * {@link ThresholdedStringMetric} or {@link ThresholdedStringDistance} stops
+ * comparing two strings once they are known to be outside the threshold.</li>
+ * </ul>
+ * <p>
+ * A self-matrix of a list of strings against itself assumes the metric is
+ * symmetric and only computes the upper triangle.
+ * <p>
+ * Dense results are written in row-major order to a {@code float[]} or a
+ * {@link FloatBuffer}. A buffer may be a view of a memory-mapped file. Sparse
+ * results are reported to a {@link Listener}.
+ * <p>
+ * This class is immutable and thread-safe provided the metric is immutable and
+ * thread-safe.
+ */
+public final class SimilarityMatrix {
+
+	/**
+	 * Receives the cells of a sparse matrix. Called concurrently from the
+	 * threads of the pool.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called for every cell within the threshold.
+		 * 
+		 * @param row
+		 *            the index of the row string
+		 * @param column
+		 *            the index of the column string
+		 * @param value
+		 *            the similarity or distance
+		 */
+		void found(int row, int column, float value);
+	}
+
+	/*
+	 * Size of a tile. Each tile compares a few rows against a range of
+	 * columns that fits in cache.
+	 */
+	private static final int TILE_ROWS = 32;
+	private static final int TILE_COLUMNS = 512;
+
+	private final StringMetric metric;
+	private final StringDistance distance;
+	private final ForkJoinPool pool;
+
+	private SimilarityMatrix(StringMetric metric, StringDistance distance,
+			ForkJoinPool pool) {
+		this.metric = metric;
+		this.distance = distance;
+		this.pool = pool;
+	}
+
+	/**
+	 * Creates a matrix of similarities computed on a shared pool.
+	 * 
+	 * @param metric
+	 *            the metric to compare strings with
+	 * @return a new similarity matrix
+	 */
+	public static SimilarityMatrix forMetric(StringMetric metric) {
+		return new SimilarityMatrix(checkNotNull(metric), null, null);
+	}
+
+	/**
+	 * Creates a matrix of similarities computed on the given pool.
+	 * 
+	 * @param metric
+	 *            the metric to compare strings with
+	 * @param pool
+	 *            the pool to compute the tiles on
+	 * @return a new similarity matrix
+	 */
+	public static SimilarityMatrix forMetric(StringMetric metric,
+			ForkJoinPool pool) {
+		return new SimilarityMatrix(checkNotNull(metric), null,
+				checkNotNull(pool));
+	}
+
+	/**
+	 * Creates a matrix of distances computed on a shared pool.
+	 * 
+	 * @param distance
+	 *            the distance to compare strings with
+	 * @return a new distance matrix
+	 */
+	public static SimilarityMatrix forDistance(StringDistance distance) {
+		return new SimilarityMatrix(null, checkNotNull(distance), null);
+	}
+
+	/**
+	 * Creates a matrix of distances computed on the given pool.
+	 * 
+	 * @param distance
+	 *            the distance to compare strings with
+	 * @param pool
+	 *            the pool to compute the tiles on
+	 * @return a new distance matrix
+	 */
+	public static SimilarityMatrix forDistance(StringDistance distance,
+			ForkJoinPool pool) {
+		return new SimilarityMatrix(null, checkNotNull(distance),
+				checkNotNull(pool));
+	}
+
+	/**
+	 * Computes the value of every row against every column. The value of row
+	 * {@code i} and column {@code j} is written to
+	 * {@code matrix[i * columns.size() + j]}.
+	 * 
+	 * @param rows
+	 *            the row strings
+	 * @param columns
+	 *            the column strings
+	 * @param matrix
+	 *            array to write the values to
+	 */
+	public void compute(List<String> rows, List<String> columns, float[] matrix) {
+		checkArgument(matrix.length >= (long) rows.size() * columns.size(),
+				"matrix is too small");
+		compute(toArray(rows), toArray(columns), new ArraySink(matrix,
+				columns.size(), false));
+	}
+
+	/**
+	 * Computes the value of every row against every column. The value of row
+	 * {@code i} and column {@code j} is written to absolute index
+	 * {@code i * columns.size() + j} of the buffer.
+	 * 
+	 * @param rows
+	 *            the row strings
+	 * @param columns
+	 *            the column strings
+	 * @param matrix
+	 *            buffer to write the values to
+	 */
+	public void compute(List<String> rows, List<String> columns,
+			FloatBuffer matrix) {
+		checkArgument(matrix.limit() >= (long) rows.size() * columns.size(),
+				"matrix is too small");
+		compute(toArray(rows), toArray(columns), new BufferSink(matrix,
+				columns.size(), false));
+	}
+
+	/**
+	 * Reports every cell of row against column with a value within the
+	 * threshold. For similarities these are the cells with a similarity of
+	 * at least {@code threshold}, for distances those with a distance of at
+	 * most {@code threshold}.
+	 * 
+	 * @param rows
+	 *            the row strings
+	 * @param columns
+	 *            the column strings
+	 * @param threshold
+	 *            the minimum similarity or maximum distance
+	 * @param listener
+	 *            receives the cells, must be thread-safe
+	 */
+	public void compute(List<String> rows, List<String> columns,
+			float threshold, Listener listener) {
+		checkThreshold(threshold);
+		compute(toArray(rows), toArray(columns), threshold, new ListenerSink(
+				checkNotNull(listener), threshold, false));
+	}
+
+	/**
+	 * Computes the value of every string against every other string. Only
+	 * the upper triangle and diagonal are computed, the lower triangle is
+	 * mirrored. The value of string {@code i} and string {@code j} is written
+	 * to {@code matrix[i * items.size() + j]}.
+	 * 
+	 * @param items
+	 *            the strings
+	 * @param matrix
+	 *            array to write the values to
+	 */
+	public void computeSymmetric(List<String> items, float[] matrix) {
+		checkArgument(matrix.length >= (long) items.size() * items.size(),
+				"matrix is too small");
+		final String[] array = toArray(items);
+		compute(array, array, new ArraySink(matrix, items.size(), true));
+	}
+
+	/**
+	 * Computes the value of every string against every other string. Only
+	 * the upper triangle and diagonal are computed, the lower triangle is
+	 * mirrored. The value of string {@code i} and string {@code j} is written
+	 * to absolute index {@code i * items.size() + j} of the buffer.
+	 * 
+	 * @param items
+	 *            the strings
+	 * @param matrix
+	 *            buffer to write the values to
+	 */
+	public void computeSymmetric(List<String> items, FloatBuffer matrix) {
+		checkArgument(matrix.limit() >= (long) items.size() * items.size(),
+				"matrix is too small");
+		final String[] array = toArray(items);
+		compute(array, array, new BufferSink(matrix, items.size(), true));
+	}
+
+	/**
+	 * Reports every pair of strings {@code i < j} with a value within the
+	 * threshold. For similarities these are the pairs with a similarity of at
+	 * least {@code threshold}, for distances those with a distance of at most
+	 * {@code threshold}.
+	 * 
+	 * @param items
+	 *            the strings
+	 * @param threshold
+	 *            the minimum similarity or maximum distance
+	 * @param listener
+	 *            receives the cells, must be thread-safe
+	 */
+	public void computeSymmetric(List<String> items, float threshold,
+			Listener listener) {
+		checkThreshold(threshold);
+		final String[] array = toArray(items);
+		compute(array, array, threshold, new ListenerSink(
+				checkNotNull(listener), threshold, true));
+	}
+
+	private void checkThreshold(float threshold) {
+		if (metric != null) {
+			checkArgument(0 <= threshold && threshold <= 1,
+					"threshold must be in range [0,1]");
+		} else {
+			checkArgument(threshold >= 0, "threshold must be non-negative");
+		}
+	}
+
+	private static String[] toArray(List<String> strings) {
+		final String[] array = strings.toArray(new String[strings.size()]);
+		for (String string : array) {
+			checkNotNull(string);
+		}
+		return array;
+	}
+
+	private void compute(String[] rows, String[] columns, Sink sink) {
+		compute(rows, columns, kernel(rows, columns, Float.NaN), sink);
+	}
+
+	private void compute(String[] rows, String[] columns, float threshold,
+			Sink sink) {
+		compute(rows, columns, kernel(rows, columns, threshold), sink);
+	}
+
+	private void compute(String[] rows, String[] columns, Kernel kernel,
+			Sink sink) {
+		// Self-matrices only compute the tiles on or above the diagonal
+		final boolean symmetric = rows == columns;
+		final List<Tile> tiles = new ArrayList<>();
+		for (int row = 0; row < rows.length; row += TILE_ROWS) {
+			final int from = symmetric ? row - row % TILE_COLUMNS : 0;
+			for (int column = from; column < columns.length; column += TILE_COLUMNS) {
+				tiles.add(new Tile(row, min(row + TILE_ROWS, rows.length),
+						column, min(column + TILE_COLUMNS, columns.length)));
+			}
+		}
+
+		final Tiles task = new Tiles(kernel, sink, symmetric, tiles, 0,
+				tiles.size());
+		if (pool != null) {
+			pool.invoke(task);
+		} else {
+			SharedPool.invoke(task);
+		}
+	}
+
+	private static final class Tile {
+		final int fromRow;
+		final int toRow;
+		final int fromColumn;
+		final int toColumn;
+
+		Tile(int fromRow, int toRow, int fromColumn, int toColumn) {
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+			this.fromColumn = fromColumn;
+			this.toColumn = toColumn;
+		}
+	}
+
+	private static final class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Kernel kernel;
+		private final Sink sink;
+		private final boolean symmetric;
+		private final List<Tile> tiles;
+		private final int from;
+		private final int to;
+
+		Tiles(Kernel kernel, Sink sink, boolean symmetric, List<Tile> tiles,
+				int from, int to) {
+			this.kernel = kernel;
+			this.sink = sink;
+			this.symmetric = symmetric;
+			this.tiles = tiles;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new Tiles(kernel, sink, symmetric, tiles, from,
+						middle), new Tiles(kernel, sink, symmetric, tiles,
+						middle, to));
+				return;
+			}
+			if (to == from) {
+				return;
+			}
+
+			final Tile tile = tiles.get(from);
+			final float[] values = new float[TILE_COLUMNS];
+			for (int row = tile.fromRow; row < tile.toRow; row++) {
+				final int fromColumn = symmetric ? max(tile.fromColumn, row)
+						: tile.fromColumn;
+				if (fromColumn >= tile.toColumn) {
+					continue;
+				}
+				kernel.compute(row, fromColumn, tile.toColumn, values);
+				for (int column = fromColumn; column < tile.toColumn; column++) {
+					sink.put(row, column, values[column - fromColumn]);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Receives the values of the cells on or above the diagonal of a
+	 * self-matrix, or all cells otherwise.
+	 */
+	private interface Sink {
+		void put(int row, int column, float value);
+	}
+
+	private static final class ArraySink implements Sink {
+
+		private final float[] matrix;
+		private final int columns;
+		private final boolean symmetric;
+
+		ArraySink(float[] matrix, int columns, boolean symmetric) {
+			this.matrix = matrix;
+			this.columns = columns;
+			this.symmetric = symmetric;
+		}
+
+		@Override
+		public void put(int row, int column, float value) {
+			matrix[row * columns + column] = value;
+			if (symmetric) {
+				matrix[column * columns + row] = value;
+			}
+		}
+	}
+
+	private static final class BufferSink implements Sink {
+
+		private final FloatBuffer matrix;
+		private final int columns;
+		private final boolean symmetric;
+
+		BufferSink(FloatBuffer matrix, int columns, boolean symmetric) {
+			this.matrix = matrix;
+			this.columns = columns;
+			this.symmetric = symmetric;
+		}
+
+		@Override
+		public void put(int row, int column, float value) {
+			// Absolute puts do not modify the state of the buffer
+			matrix.put(row * columns + column, value);
+			if (symmetric) {
+				matrix.put(column * columns + row, value);
+			}
+		}
+	}
+
+	private final class ListenerSink implements Sink {
+
+		private final Listener listener;
+		private final float threshold;
+		private final boolean symmetric;
+
+		ListenerSink(Listener listener, float threshold, boolean symmetric) {
+			this.listener = listener;
+			this.threshold = threshold;
+			this.symmetric = symmetric;
+		}
+
+		@Override
+		public void put(int row, int column, float value) {
+			if (symmetric && row == column) {
+				return;
+			}
+			if (metric != null ? value >= threshold : value <= threshold) {
+				listener.found(row, column, value);
+			}
+		}
+	}
+
+	/*
+	 * Computes the values of a row against a range of columns. Values outside
+	 * the threshold, if any, may be inexact.
+	 */
+	private static abstract class Kernel {
+		abstract void compute(int row, int from, int to, float[] values);
+	}
+
+	private Kernel kernel(String[] rows, String[] columns, float threshold) {
+		final boolean sparse = !Float.isNaN(threshold);
+		if (metric != null) {
+			if (metric instanceof PreprocessingStringMetric) {
+				return preprocessed((PreprocessingStringMetric<?>) metric,
+						rows, columns);
+			}
+			if (sparse && metric instanceof ThresholdedStringMetric) {
+				return new ThresholdedMetricKernel(
+						(ThresholdedStringMetric) metric, rows, columns,
+						threshold);
+			}
+			if (metric instanceof BatchStringMetric) {
+				return new BatchKernel((BatchStringMetric) metric, rows,
+						columns);
+			}
+			return new MetricKernel(metric, rows, columns);
+		}
+
+		if (distance instanceof PreprocessingStringDistance) {
+			return preprocessed((PreprocessingStringDistance<?>) distance,
+					rows, columns);
+		}
+		if (sparse && distance instanceof ThresholdedStringDistance) {
+			return new ThresholdedDistanceKernel(
+					(ThresholdedStringDistance) distance, rows, columns,
+					threshold);
+		}
+		return new DistanceKernel(distance, rows, columns);
+	}
+
+	private static <T> Kernel preprocessed(
+			final PreprocessingStringMetric<T> metric,
+			String[] rows, String[] columns) {
+		final List<T> preprocessedRows = preprocess(metric, rows);
+		final List<T> preprocessedColumns = rows == columns ? preprocessedRows
+				: preprocess(metric, columns);
+		return new Kernel() {
+			@Override
+			void compute(int row, int from, int to, float[] values) {
+				final T a = preprocessedRows.get(row);
+				for (int column = from; column < to; column++) {
+					values[column - from] = metric.comparePreprocessed(a,
+							preprocessedColumns.get(column));
+				}
+			}
+		};
+	}
+
+	private static <T> List<T> preprocess(PreprocessingStringMetric<T> metric,
+			String[] strings) {
+		final List<T> preprocessed = new ArrayList<>(strings.length);
+		for (String string : strings) {
+			preprocessed.add(metric.preprocess(string));
+		}
+		return preprocessed;
+	}
+
+	private static <T> Kernel preprocessed(
+			final PreprocessingStringDistance<T> distance, String[] rows,
+			String[] columns) {
+		final List<T> preprocessedRows = preprocess(distance, rows);
+		final List<T> preprocessedColumns = rows == columns ? preprocessedRows
+				: preprocess(distance, columns);
+		return new Kernel() {
+			@Override
+			void compute(int row, int from, int to, float[] values) {
+				final T a = preprocessedRows.get(row);
+				for (int column = from; column < to; column++) {
+					values[column - from] = distance.distancePreprocessed(a,
+							preprocessedColumns.get(column));
+				}
+			}
+		};
+	}
+
+	private static <T> List<T> preprocess(
+			PreprocessingStringDistance<T> distance, String[] strings) {
+		final List<T> preprocessed = new ArrayList<>(strings.length);
+		for (String string : strings) {
+			preprocessed.add(distance.preprocess(string));
+		}
+		return preprocessed;
+	}
+
+	private static final class BatchKernel extends Kernel {
+
+		private final BatchStringMetric metric;
+		private final String[] rows;
+		private final String[] columns;
+
+		BatchKernel(BatchStringMetric metric, String[] rows, String[] columns) {
+			this.metric = metric;
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		@Override
+		void compute(int row, int from, int to, float[] values) {
+			metric.compare(rows[row], columns, from, to, values);
+		}
+	}
+
+	private static final class ThresholdedMetricKernel extends Kernel {
+
+		private final ThresholdedStringMetric metric;
+		private final String[] rows;
+		private final String[] columns;
+		private final float threshold;
+
+		ThresholdedMetricKernel(ThresholdedStringMetric metric,
+				String[] rows, String[] columns, float threshold) {
+			this.metric = metric;
+			this.rows = rows;
+			this.columns = columns;
+			this.threshold = threshold;
+		}
+
+		@Override
+		void compute(int row, int from, int to, float[] values) {
+			final String a = rows[row];
+			for (int column = from; column < to; column++) {
+				values[column - from] = metric.compareAtLeast(a,
+						columns[column], threshold);
+			}
+		}
+	}
+
+	private static final class MetricKernel extends Kernel {
+
+		private final StringMetric metric;
+		private final String[] rows;
+		private final String[] columns;
+
+		MetricKernel(StringMetric metric, String[] rows, String[] columns) {
+			this.metric = metric;
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		@Override
+		void compute(int row, int from, int to, float[] values) {
+			final String a = rows[row];
+			for (int column = from; column < to; column++) {
+				values[column - from] = metric.compare(a, columns[column]);
+			}
+		}
+	}
+
+	private static final class ThresholdedDistanceKernel extends Kernel {
+
+		private final ThresholdedStringDistance distance;
+		private final String[] rows;
+		private final String[] columns;
+		private final float threshold;
+
+		ThresholdedDistanceKernel(ThresholdedStringDistance distance,
+				String[] rows, String[] columns, float threshold) {
+			this.distance = distance;
+			this.rows = rows;
+			this.columns = columns;
+			this.threshold = threshold;
+		}
+
+		@Override
+		void compute(int row, int from, int to, float[] values) {
+			final String a = rows[row];
+			for (int column = from; column < to; column++) {
+				values[column - from] = distance.distance(a, columns[column],
+						threshold);
+			}
+		}
+	}
+
+	private static final class DistanceKernel extends Kernel {
+
+		private final StringDistance distance;
+		private final String[] rows;
+		private final String[] columns;
+
+		DistanceKernel(StringDistance distance, String[] rows,
+				String[] columns) {
+			this.distance = distance;
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		@Override
+		void compute(int row, int from, int to, float[] values) {
+			final String a = rows[row];
+			for (int column = from; column < to; column++) {
+				values[column - from] = distance.distance(a, columns[column]);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityMatrix [" + (metric != null ? metric : distance)
+				+ "]";
+	}
+
+}
@@ -0,0 +1,488 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
+import org.simmetrics.PreprocessingStringMetric;
+import org.simmetrics.SharedPool;
+import org.simmetrics.StringMetric;
+import org.simmetrics.ThresholdedStringMetric;
+
+/**
+ * Finds the items in a collection most similar to a query using any
+ * {@link StringMetric}.
+ * <p>
+ * Every query is compared against every item, so the time per query is linear
+ * in the size of the collection. The collection is scanned in parallel on a
+ * fork-join pool. Work is saved where the metric allows it:
+ * <ul>
+ * <li>A {@link PreprocessingStringMetric}, such as the metrics created by the
+ * {@link org.simmetrics.builders.StringMetricBuilder StringMetricBuilder},
+ * simplifies and tokenizes every item once when the searcher is built and the
+ * query once per search.</li>
+ * <li>A {@link ThresholdedStringMetric} stops comparing an item once it can no
+ * longer be among the results. When searching for the nearest items the
+ * similarity of the k-th best item found so far is used as the threshold.</li>
+ * <li>A {@link PreparableStringMetric} prepares the query once per search.</li>
+ * </ul>
+ * <p>
+ * This class is immutable and thread-safe provided the metric is immutable and
+ * thread-safe.
+ */
+public final class SimilaritySearcher {
+
+	/*
+	 * Collections with at least this many items are scanned in parallel.
+	 */
+	private static final int PARALLEL_ITEMS = 1 << 10;
+
+	private final StringMetric metric;
+	private final String[] items;
+	private final Corpus corpus;
+
+	private SimilaritySearcher(StringMetric metric, String[] items) {
+		this.metric = metric;
+		this.items = items;
+		this.corpus = corpus(metric, items);
+	}
+
+	/**
+	 * Creates a searcher for a collection. Items are identified by their index
+	 * in the collection.
+	 * 
+	 * @param metric
+	 *            the metric to compare the query and items with
+	 * @param items
+	 *            the items to search
+	 * @return a new searcher
+	 */
+	public static SimilaritySearcher build(StringMetric metric,
+			List<String> items) {
+		checkNotNull(metric);
+		final String[] copy = items.toArray(new String[items.size()]);
+		for (String item : copy) {
+			checkNotNull(item);
+		}
+		return new SimilaritySearcher(metric, copy);
+	}
+
+	/**
+	 * Returns the number of items in the searcher.
+	 * 
+	 * @return the number of items
+	 */
+	public int size() {
+		return items.length;
+	}
+
+	/**
+	 * Returns the item at the given index.
+	 * 
+	 * @param index
+	 *            the index of the item
+	 * @return the item
+	 */
+	public String get(int index) {
+		return items[index];
+	}
+
+	/**
+	 * Returns the {@code k} items most similar to the query ordered by
+	 * descending similarity and then by index. Of items with equal similarity
+	 * those with the lowest index are returned.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param k
+	 *            the number of items to return, greater than 0
+	 * @return the {@code k} most similar items or all items when there are
+	 *         fewer
+	 */
+	public List<Match> nearest(String query, int k) {
+		checkNotNull(query);
+		checkArgument(k > 0, "k must be greater then 0");
+
+		return scan(query, k, Float.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Returns all items with a similarity of at least {@code threshold} to the
+	 * query ordered by descending similarity and then by index.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param threshold
+	 *            the minimum similarity, in range [0,1]
+	 * @return all items with a similarity of at least {@code threshold}
+	 */
+	public List<Match> search(String query, float threshold) {
+		checkNotNull(query);
+		checkArgument(0 <= threshold && threshold <= 1,
+				"threshold must be in range [0,1]");
+
+		return scan(query, Integer.MAX_VALUE, threshold);
+	}
+
+	private List<Match> scan(String query, int k, float threshold) {
+		final Scorer scorer = corpus.scorer(query);
+		final Bound bound = new Bound(threshold);
+
+		final Heap heap;
+		if (items.length < PARALLEL_ITEMS) {
+			heap = scan(scorer, bound, k, 0, items.length);
+		} else {
+			heap = SharedPool.invoke(new Scan(scorer, bound, k, 0,
+					items.length));
+		}
+
+		final List<Match> matches = new ArrayList<>(heap.size);
+		for (int i = 0; i < heap.size; i++) {
+			final int index = heap.indices[i];
+			matches.add(new Match(index, items[index], heap.scores[i]));
+		}
+		Collections.sort(matches, Match.BY_SIMILARITY);
+		return matches;
+	}
+
+	private static Heap scan(Scorer scorer, Bound bound, int k, int from,
+			int to) {
+		final Heap heap = new Heap(k);
+		for (int i = from; i < to; i++) {
+			final float minSimilarity = heap.isFull() ? max(heap.worst(),
+					bound.get()) : bound.get();
+			final float similarity = scorer.compare(i, minSimilarity);
+			if (similarity >= minSimilarity && heap.offer(similarity, i)
+					&& heap.isFull()) {
+				bound.raise(heap.worst());
+			}
+		}
+		return heap;
+	}
+
+	private static final class Scan extends RecursiveTask<Heap> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Scorer scorer;
+		private final Bound bound;
+		private final int k;
+		private final int from;
+		private final int to;
+
+		Scan(Scorer scorer, Bound bound, int k, int from, int to) {
+			this.scorer = scorer;
+			this.bound = bound;
+			this.k = k;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Heap compute() {
+			if (to - from < PARALLEL_ITEMS) {
+				return scan(scorer, bound, k, from, to);
+			}
+			final int middle = (from + to) >>> 1;
+			final Scan left = new Scan(scorer, bound, k, from, middle);
+			left.fork();
+			final Heap heap = new Scan(scorer, bound, k, middle, to).compute();
+			heap.addAll(left.join());
+			return heap;
+		}
+	}
+
+	/*
+	 * Lowest similarity an item can have and still be among the results.
+	 * Shared between the tasks of a scan. Only increases.
+	 */
+	private static final class Bound {
+
+		private final AtomicInteger bits;
+
+		Bound(float initial) {
+			this.bits = new AtomicInteger(floatToIntBits(initial));
+		}
+
+		float get() {
+			return intBitsToFloat(bits.get());
+		}
+
+		void raise(float value) {
+			for (;;) {
+				final int current = bits.get();
+				if (intBitsToFloat(current) >= value
+						|| bits.compareAndSet(current, floatToIntBits(value))) {
+					return;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Bounded heap of item indices and their similarity. The worst item, the
+	 * one with the lowest similarity and then the highest index, is at the
+	 * root.
+	 */
+	private static final class Heap {
+
+		private final int limit;
+
+		private float[] scores;
+		private int[] indices;
+		private int size;
+
+		Heap(int limit) {
+			this.limit = limit;
+			this.scores = new float[min(limit, 16)];
+			this.indices = new int[scores.length];
+		}
+
+		boolean isFull() {
+			return size == limit;
+		}
+
+		float worst() {
+			return scores[0];
+		}
+
+		/*
+		 * Returns true if the item was added.
+		 */
+		boolean offer(float score, int index) {
+			if (size < limit) {
+				if (size == scores.length) {
+					final int capacity = (int) min((long) limit, 2L * size);
+					scores = copyOf(scores, capacity);
+					indices = copyOf(indices, capacity);
+				}
+				siftUp(size++, score, index);
+				return true;
+			}
+			if (worse(scores[0], indices[0], score, index)) {
+				siftDown(0, score, index);
+				return true;
+			}
+			return false;
+		}
+
+		void addAll(Heap heap) {
+			for (int i = 0; i < heap.size; i++) {
+				offer(heap.scores[i], heap.indices[i]);
+			}
+		}
+
+		private void siftUp(int i, float score, int index) {
+			while (i > 0) {
+				final int parent = (i - 1) >>> 1;
+				if (!worse(score, index, scores[parent], indices[parent])) {
+					break;
+				}
+				scores[i] = scores[parent];
+				indices[i] = indices[parent];
+				i = parent;
+			}
+			scores[i] = score;
+			indices[i] = index;
+		}
+
+		private void siftDown(int i, float score, int index) {
+			for (;;) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size
+						&& worse(scores[child + 1], indices[child + 1],
+								scores[child], indices[child])) {
+					child++;
+				}
+				if (!worse(scores[child], indices[child], score, index)) {
+					break;
+				}
+				scores[i] = scores[child];
+				indices[i] = indices[child];
+				i = child;
+			}
+			scores[i] = score;
+			indices[i] = index;
+		}
+
+		private static boolean worse(float score, int index, float otherScore,
+				int otherIndex) {
+			return score < otherScore
+					|| (score == otherScore && index > otherIndex);
+		}
+	}
+
+	/*
+	 * Compares a query against the items.
+	 */
+	private interface Scorer {
+
+		/*
+		 * Returns the similarity between the query and the item at index or a
+		 * value less then minSimilarity when it is less then minSimilarity.
+		 */
+		float compare(int index, float minSimilarity);
+	}
+
+	/*
+	 * The items in the form used by the metric.
+	 */
+	private static abstract class Corpus {
+		abstract Scorer scorer(String query);
+	}
+
+	private static Corpus corpus(StringMetric metric, String[] items) {
+		if (metric instanceof PreprocessingStringMetric) {
+			return preprocessed((PreprocessingStringMetric<?>) metric, items);
+		}
+		if (metric instanceof ThresholdedStringMetric) {
+			return new Thresholded((ThresholdedStringMetric) metric, items);
+		}
+		if (metric instanceof PreparableStringMetric) {
+			return new Prepared((PreparableStringMetric) metric, items);
+		}
+		return new Plain(metric, items);
+	}
+
+	private static <T> Corpus preprocessed(PreprocessingStringMetric<T> metric,
+			String[] items) {
+		final List<T> preprocessed = new ArrayList<>(items.length);
+		for (String item : items) {
+			preprocessed.add(metric.preprocess(item));
+		}
+		return new Preprocessed<>(metric, preprocessed);
+	}
+
+	private static final class Preprocessed<T> extends Corpus {
+
+		private final PreprocessingStringMetric<T> metric;
+		private final List<T> items;
+
+		Preprocessed(PreprocessingStringMetric<T> metric, List<T> items) {
+			this.metric = metric;
+			this.items = items;
+		}
+
+		@Override
+		Scorer scorer(String query) {
+			final T preprocessed = metric.preprocess(query);
+			return new Scorer() {
+				@Override
+				public float compare(int index, float minSimilarity) {
+					return metric.comparePreprocessed(preprocessed,
+							items.get(index));
+				}
+			};
+		}
+	}
+
+	private static final class Thresholded extends Corpus {
+
+		private final ThresholdedStringMetric metric;
+		private final String[] items;
+
+		Thresholded(ThresholdedStringMetric metric, String[] items) {
+			this.metric = metric;
+			this.items = items;
+		}
+
+		@Override
+		Scorer scorer(final String query) {
+			return new Scorer() {
+				@Override
+				public float compare(int index, float minSimilarity) {
+					if (minSimilarity <= 0) {
+						return metric.compare(query, items[index]);
+					}
+					return metric.compareAtLeast(query, items[index],
+							minSimilarity);
+				}
+			};
+		}
+	}
+
+	private static final class Prepared extends Corpus {
+
+		private final PreparableStringMetric metric;
+		private final String[] items;
+
+		Prepared(PreparableStringMetric metric, String[] items) {
+			this.metric = metric;
+			this.items = items;
+		}
+
+		@Override
+		Scorer scorer(String query) {
+			final PreparedQuery prepared = metric.prepare(query);
+			return new Scorer() {
+				@Override
+				public float compare(int index, float minSimilarity) {
+					return prepared.compare(items[index]);
+				}
+			};
+		}
+	}
+
+	private static final class Plain extends Corpus {
+
+		private final StringMetric metric;
+		private final String[] items;
+
+		Plain(StringMetric metric, String[] items) {
+			this.metric = metric;
+			this.items = items;
+		}
+
+		@Override
+		Scorer scorer(final String query) {
+			return new Scorer() {
+				@Override
+				public float compare(int index, float minSimilarity) {
+					return metric.compare(query, items[index]);
+				}
+			};
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SimilaritySearcher [" + metric + ", size=" + items.length
+				+ "]";
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders tokens by their frequency. Filters that look at the first tokens of
+ * a record are most selective when those tokens are rare.
+ */
+final class TokenOrder {
+
+	private TokenOrder() {
+		// Utility class
+	}
+
+	/**
+	 * Assigns ids to tokens, from the least to the most frequent. Tokens of
+	 * equal frequency are ordered lexicographically.
+	 */
+	static Map<String, Integer> byFrequency(
+			final Map<String, Integer> frequencies) {
+		final List<String> tokens = new ArrayList<>(frequencies.keySet());
+		Collections.sort(tokens, new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				final int c = frequencies.get(o1).compareTo(frequencies.get(o2));
+				return c != 0 ? c : o1.compareTo(o2);
+			}
+		});
+
+		final Map<String, Integer> ids = new HashMap<>(tokens.size() * 2);
+		for (int id = 0; id < tokens.size(); id++) {
+			ids.put(tokens.get(id), id);
+		}
+		return ids;
+	}
+
+	/**
+	 * Adds one to the frequency of each token.
+	 */
+	static void count(Iterable<String> tokens, Map<String, Integer> frequencies) {
+		for (String token : tokens) {
+			final Integer frequency = frequencies.get(token);
+			frequencies.put(token, frequency == null ? 1 : frequency + 1);
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.simplifiers;
+
+import static com.google.common.base.Joiner.on;
+import static org.simmetrics.simplifiers.Simplifiers.isAscii;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.simmetrics.simplifiers.Simplifiers.RemoveDiacritics;
+import org.simmetrics.simplifiers.Simplifiers.ReplaceAll;
+import org.simmetrics.simplifiers.Simplifiers.ToLowerCase;
+import org.simmetrics.simplifiers.Simplifiers.ToUpperCase;
+
+/**
+ * Applies a sequence of known simplifiers in a single pass over the input.
+ * <p>
+ * Each simplifier is compiled to a step that maps a character of its input to
+ * zero or more characters of its output. Every character of the input is
+ * passed through all steps and the result is appended to a single buffer. This
+ * avoids creating intermediate strings, regex matchers and normalized copies
+ * of the input.
+ * <p>
+ * The steps are only equivalent to the simplifiers for ASCII input. Other
+ * input is simplified by applying the simplifiers in sequence, unless all
+ * steps replace runs of non-word characters.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class FusedSimplifier implements Simplifier {
+
+	private static final int TO_LOWER_CASE = 0;
+	private static final int TO_UPPER_CASE = 1;
+	private static final int REMOVE_DIACRITICS = 2;
+	private static final int REPLACE_NON_WORD = 3;
+	private static final int REPLACE_NON_WORDS = 4;
+
+	private final List<Simplifier> simplifiers;
+	private final int[] steps;
+	private final String[] replacements;
+	private final boolean asciiOnly;
+
+	private FusedSimplifier(List<Simplifier> simplifiers, int[] steps,
+			String[] replacements) {
+		this.simplifiers = simplifiers;
+		this.steps = steps;
+		this.replacements = replacements;
+
+		// Runs of non-word characters are replaced alike for any input. Other
+		// steps differ from their simplifier for some non-ASCII characters or
+		// for surrogate pairs.
+		boolean asciiOnly = false;
+		for (int step : steps) {
+			if (step != REPLACE_NON_WORDS) {
+				asciiOnly = true;
+			}
+		}
+		this.asciiOnly = asciiOnly;
+	}
+
+	/**
+	 * Replaces runs of two or more consecutive known simplifiers by a fused
+	 * simplifier. Other simplifiers are kept as is.
+	 */
+	static List<Simplifier> compile(List<Simplifier> simplifiers) {
+		final List<Simplifier> compiled = new ArrayList<>(simplifiers.size());
+		int from = 0;
+		for (int i = 0; i <= simplifiers.size(); i++) {
+			if (i < simplifiers.size() && step(simplifiers.get(i)) >= 0) {
+				continue;
+			}
+			if (i - from >= 2) {
+				compiled.add(fuse(simplifiers.subList(from, i)));
+			} else {
+				compiled.addAll(simplifiers.subList(from, i));
+			}
+			if (i < simplifiers.size()) {
+				compiled.add(simplifiers.get(i));
+			}
+			from = i + 1;
+		}
+		return compiled;
+	}
+
+	private static FusedSimplifier fuse(List<Simplifier> simplifiers) {
+		final int[] steps = new int[simplifiers.size()];
+		final String[] replacements = new String[simplifiers.size()];
+		for (int i = 0; i < steps.length; i++) {
+			final Simplifier simplifier = simplifiers.get(i);
+			steps[i] = step(simplifier);
+			if (simplifier instanceof ReplaceAll) {
+				replacements[i] = ((ReplaceAll) simplifier).getReplacement();
+			}
+		}
+		return new FusedSimplifier(new ArrayList<>(simplifiers), steps,
+				replacements);
+	}
+
+	/*
+	 * Returns the step equivalent to the simplifier or -1 when there is none.
+	 */
+	private static int step(Simplifier simplifier) {
+		if (simplifier instanceof ToLowerCase) {
+			return asciiCaseInsensitive(((ToLowerCase) simplifier).getLocale()) ? TO_LOWER_CASE
+					: -1;
+		}
+		if (simplifier instanceof ToUpperCase) {
+			return asciiCaseInsensitive(((ToUpperCase) simplifier).getLocale()) ? TO_UPPER_CASE
+					: -1;
+		}
+		if (simplifier instanceof RemoveDiacritics) {
+			return REMOVE_DIACRITICS;
+		}
+		if (simplifier instanceof ReplaceAll) {
+			final ReplaceAll replaceAll = (ReplaceAll) simplifier;
+			final Pattern pattern = replaceAll.getPattern();
+			if (pattern.flags() != 0
+					|| !isLiteralAscii(replaceAll.getReplacement())) {
+				return -1;
+			}
+			if (pattern.pattern().equals("\\W")) {
+				return REPLACE_NON_WORD;
+			}
+			if (pattern.pattern().equals("\\W+")) {
+				return REPLACE_NON_WORDS;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Turkish and Azeri map the ASCII I to a dotless i, and Lithuanian keeps
+	 * the dot above an i that carries an accent. Other languages map ASCII
+	 * letters like the root locale.
+	 */
+	private static boolean asciiCaseInsensitive(Locale locale) {
+		final String language = locale.getLanguage();
+		return !language.equals("tr") && !language.equals("az")
+				&& !language.equals("lt");
+	}
+
+	/*
+	 * Dollar signs and backslashes have special meaning in regex
+	 * replacements.
+	 */
+	private static boolean isLiteralAscii(String replacement) {
+		for (int i = 0; i < replacement.length(); i++) {
+			final char c = replacement.charAt(i);
+			if (c >= 0x80 || c == '$' || c == '\\') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String simplify(String input) {
+		if (asciiOnly && !isAscii(input)) {
+			String output = input;
+			for (Simplifier simplifier : simplifiers) {
+				output = simplifier.simplify(output);
+			}
+			return output;
+		}
+
+		final StringBuilder output = new StringBuilder(input.length());
+		// Whether the previous character seen by a step was a non-word
+		// character
+		final boolean[] nonWord = new boolean[steps.length];
+		for (int i = 0; i < input.length(); i++) {
+			append(0, input.charAt(i), output, nonWord);
+		}
+		return output.toString();
+	}
+
+	private void append(int from, char c, StringBuilder output,
+			boolean[] nonWord) {
+		for (int i = from; i < steps.length; i++) {
+			switch (steps[i]) {
+			case TO_LOWER_CASE:
+				if ('A' <= c && c <= 'Z') {
+					c += 'a' - 'A';
+				}
+				break;
+			case TO_UPPER_CASE:
+				if ('a' <= c && c <= 'z') {
+					c -= 'a' - 'A';
+				}
+				break;
+			case REMOVE_DIACRITICS:
+				// The only ASCII modifier symbols, ASCII is otherwise
+				// unaffected by decomposition
+				if (c == '^' || c == '`') {
+					return;
+				}
+				break;
+			case REPLACE_NON_WORD:
+				if (!isWord(c)) {
+					append(i + 1, replacements[i], output, nonWord);
+					return;
+				}
+				break;
+			case REPLACE_NON_WORDS:
+				if (!isWord(c)) {
+					if (!nonWord[i]) {
+						nonWord[i] = true;
+						append(i + 1, replacements[i], output, nonWord);
+					}
+					return;
+				}
+				nonWord[i] = false;
+				break;
+			default:
+				throw new IllegalStateException();
+			}
+		}
+		output.append(c);
+	}
+
+	private void append(int from, String replacement, StringBuilder output,
+			boolean[] nonWord) {
+		for (int i = 0; i < replacement.length(); i++) {
+			append(from, replacement.charAt(i), output, nonWord);
+		}
+	}
+
+	/*
+	 * Equivalent to \w without the UNICODE_CHARACTER_CLASS flag.
+	 */
+	private static boolean isWord(char c) {
+		return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z')
+				|| ('0' <= c && c <= '9') || c == '_';
+	}
+
+	@Override
+	public String toString() {
+		return on(" -> ").join(simplifiers);
+	}
+
+}
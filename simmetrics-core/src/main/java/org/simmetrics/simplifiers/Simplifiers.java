@@ -51,9 +51,13 @@ public final class Simplifiers {
 
 		private final List<Simplifier> simplifiers;
 
+		// Simplifiers with runs of known simplifiers fused
+		private final List<Simplifier> stages;
+
 		ChainSimplifier(List<Simplifier> simplifiers) {
 			checkArgument(!simplifiers.contains(null));
 			this.simplifiers = ImmutableList.copyOf(simplifiers);
+			this.stages = FusedSimplifier.compile(this.simplifiers);
 		}
 
 		List<Simplifier> getSimplifiers() {
@@ -64,7 +68,7 @@ public final class Simplifiers {
 		public String simplify(String input) {
 			checkNotNull(input);
 			String output = input;
-			for (Simplifier s : simplifiers) {
+			for (Simplifier s : stages) {
 				output = s.simplify(output);
 			}
 
@@ -118,9 +122,6 @@ public final class Simplifiers {
 	 */
 	static final class RemoveDiacritics implements Simplifier {
 
-		private static final Pattern DIACRITICS_AND_FRIENDS = Pattern
-				.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
-
 		RemoveDiacritics() {
 		}
 
@@ -140,9 +141,29 @@ public final class Simplifiers {
 		 */
 		@Override
 		public String simplify(String input) {
-			return DIACRITICS_AND_FRIENDS.matcher(
-					Normalizer.normalize(input, Normalizer.Form.NFD))
-					.replaceAll("");
+			// ASCII is already in canonical decomposition form
+			final String decomposed = isAscii(input) ? input : Normalizer
+					.normalize(input, Normalizer.Form.NFD);
+
+			final StringBuilder output = new StringBuilder(decomposed.length());
+			for (int i = 0; i < decomposed.length();) {
+				final int c = decomposed.codePointAt(i);
+				if (!isDiacriticOrFriend(c)) {
+					output.appendCodePoint(c);
+				}
+				i += Character.charCount(c);
+			}
+			return output.toString();
+		}
+
+		/*
+		 * Equivalent to [\p{InCombiningDiacriticalMarks}\p{IsLm}\p{IsSk}]
+		 */
+		private static boolean isDiacriticOrFriend(int c) {
+			final int type = Character.getType(c);
+			return type == Character.MODIFIER_LETTER
+					|| type == Character.MODIFIER_SYMBOL
+					|| Character.UnicodeBlock.of(c) == Character.UnicodeBlock.COMBINING_DIACRITICAL_MARKS;
 		}
 
 		@Override
@@ -169,6 +190,14 @@ public final class Simplifiers {
 			return pattern.matcher(input).replaceAll(repplacement);
 		}
 
+		Pattern getPattern() {
+			return pattern;
+		}
+
+		String getReplacement() {
+			return repplacement;
+		}
+
 		@Override
 		public String toString() {
 			return "Replace [" + pattern + " -> '" + repplacement + "' ]";
@@ -188,6 +217,10 @@ public final class Simplifiers {
 			return s.toLowerCase(locale);
 		}
 
+		Locale getLocale() {
+			return locale;
+		}
+
 		@Override
 		public String toString() {
 			return "ToLowerCase [locale=" + locale + "]";
@@ -207,6 +240,10 @@ public final class Simplifiers {
 			return s.toUpperCase(locale);
 		}
 
+		Locale getLocale() {
+			return locale;
+		}
+
 		@Override
 		public String toString() {
 			return "ToUpperCase [locale=" + locale + "]";
@@ -215,6 +252,9 @@ public final class Simplifiers {
 
 	/**
 	 * Constructs a new chain of simplifiers. Applies the simplifiers in order.
+	 * <p>
+	 * Consecutive case conversions, diacritic removal and replacement of
+	 * non-word characters are applied to ASCII input in a single pass.
 	 * 
 	 * @param simplifiers
 	 *            a non-empty list of simplifiers
@@ -469,6 +509,15 @@ public final class Simplifiers {
 		return new ToUpperCase(l);
 	}
 
+	static boolean isAscii(String input) {
+		for (int i = 0; i < input.length(); i++) {
+			if (input.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private Simplifiers() {
 		// Utility class
 	}
@@ -0,0 +1,164 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.lang.Math.sqrt;
+
+import java.util.Arrays;
+
+/**
+ * A multiset of token ids. Stores the distinct ids in ascending order together
+ * with the number of times each occurs. This allows multiset metrics to compare
+ * two multisets in a single merge over both.
+ * <p>
+ * Viewed as a sparse frequency vector the sum of squared counts and the
+ * magnitude are computed once on construction. Comparing the same multiset
+ * against many others only requires the dot product.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see IdTokenizer
+ */
+public final class IdMultiset {
+
+	private final long[] ids;
+	private final int[] counts;
+	private final int size;
+	private final long sumOfSquares;
+	private final double magnitude;
+
+	IdMultiset(long[] ids, int[] counts, int size) {
+		this.ids = ids;
+		this.counts = counts;
+		this.size = size;
+
+		long sumOfSquares = 0;
+		for (int count : counts) {
+			sumOfSquares += (long) count * count;
+		}
+		this.sumOfSquares = sumOfSquares;
+		this.magnitude = sqrt(sumOfSquares);
+	}
+
+	/**
+	 * Returns the total number of ids including duplicates.
+	 * 
+	 * @return the number of ids in the multiset
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of distinct ids.
+	 * 
+	 * @return the number of distinct ids in the multiset
+	 */
+	public int distinct() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns true if the multiset contains no ids.
+	 * 
+	 * @return true if the multiset is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the sum of the squared counts of all distinct ids.
+	 * 
+	 * @return the squared magnitude of the multiset as a frequency vector
+	 */
+	public long sumOfSquares() {
+		return sumOfSquares;
+	}
+
+	/**
+	 * Returns the Euclidean norm of the multiset as a frequency vector.
+	 * 
+	 * @return the magnitude of the multiset
+	 */
+	public double magnitude() {
+		return magnitude;
+	}
+
+	/**
+	 * Returns the distinct id at an index. Ids are in ascending order.
+	 * 
+	 * @param index
+	 *            index of the id, less than {@link #distinct()}
+	 * @return the id at the index
+	 */
+	public long id(int index) {
+		checkElementIndex(index, ids.length);
+		return ids[index];
+	}
+
+	/**
+	 * Returns the number of times the id at an index occurs.
+	 * 
+	 * @param index
+	 *            index of the id, less than {@link #distinct()}
+	 * @return the count of the id at the index
+	 */
+	public int count(int index) {
+		checkElementIndex(index, counts.length);
+		return counts[index];
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IdMultiset)) {
+			return false;
+		}
+		IdMultiset other = (IdMultiset) obj;
+		return Arrays.equals(ids, other.ids)
+				&& Arrays.equals(counts, other.counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(ids) + Arrays.hashCode(counts);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < ids.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(ids[i]);
+			if (counts[i] > 1) {
+				builder.append(" x ").append(counts[i]);
+			}
+		}
+		return builder.append("]").toString();
+	}
+
+}
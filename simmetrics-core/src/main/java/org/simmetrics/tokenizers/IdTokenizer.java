@@ -0,0 +1,58 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+/**
+ * Tokenizes a string into token ids rather than strings. Equal tokens map to
+ * the same id. Sets and multisets of ids can be compared by metrics
+ * implementing {@link org.simmetrics.IdSetMetric} and
+ * {@link org.simmetrics.IdMultisetMetric}.
+ * <p>
+ * Ids are only comparable when they are created by the same tokenizer.
+ * Depending on the implementation distinct tokens either map to distinct ids
+ * or, when ids are hashes, collide with negligible probability.
+ * 
+ * @see TokenDictionary
+ * @see Tokenizers#hashed(Tokenizer)
+ */
+public interface IdTokenizer {
+
+	/**
+	 * Tokenizes the input and returns the ids of the distinct tokens in
+	 * ascending order.
+	 * 
+	 * @param input
+	 *            string to tokenize
+	 * @return a sorted array of distinct ids
+	 */
+	long[] tokenizeToIdSet(String input);
+
+	/**
+	 * Tokenizes the input and returns the ids of the tokens and the number of
+	 * times they occur.
+	 * 
+	 * @param input
+	 *            string to tokenize
+	 * @return a multiset of ids
+	 */
+	IdMultiset tokenizeToIdMultiset(String input);
+
+}
@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+
+/**
+ * Converts buffers of token ids into sets and multisets of ids.
+ */
+final class Ids {
+
+	private Ids() {
+		// Utility class
+	}
+
+	/**
+	 * Sorts the first {@code length} ids in the buffer and returns the
+	 * distinct ids in ascending order. The buffer is modified.
+	 */
+	static long[] toSet(long[] ids, int length) {
+		sort(ids, 0, length);
+		int distinct = 0;
+		for (int i = 0; i < length; i++) {
+			if (i == 0 || ids[i] != ids[i - 1]) {
+				ids[distinct++] = ids[i];
+			}
+		}
+		return copyOf(ids, distinct);
+	}
+
+	/**
+	 * Sorts the first {@code length} ids in the buffer and returns the ids
+	 * with the number of times they occur. The buffer is modified.
+	 */
+	static IdMultiset toMultiset(long[] ids, int length) {
+		sort(ids, 0, length);
+		final int[] counts = new int[length];
+		int distinct = 0;
+		for (int i = 0; i < length; i++) {
+			if (i == 0 || ids[i] != ids[i - 1]) {
+				ids[distinct++] = ids[i];
+			}
+			counts[distinct - 1]++;
+		}
+		return new IdMultiset(copyOf(ids, distinct), copyOf(counts, distinct), length);
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps tokens to dense integer ids. Each distinct token is assigned the next
+ * free id, starting at 0, the first time it is seen. Token ids allow set and
+ * multiset metrics to compare sorted arrays of integers instead of hashing
+ * strings.
+ * <p>
+ * A set of tokens is represented as a sorted array of distinct ids. A multiset
+ * of tokens is represented as an {@link IdMultiset}. Ids are only comparable
+ * when they come from the same dictionary. Distinct tokens always map to
+ * distinct ids.
+ * <p>
+ * The dictionary grows with every new token. Its lifetime should be scoped to
+ * a vocabulary of limited size.
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @see IdTokenizer
+ * @see org.simmetrics.IdSetMetric
+ * @see org.simmetrics.IdMultisetMetric
+ */
+public final class TokenDictionary {
+
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the id of a token. Assigns the next free id when the token is
+	 * new.
+	 * 
+	 * @param token
+	 *            the token to look up
+	 * @return the id of the token
+	 * @throws NullPointerException
+	 *             when the token is null
+	 */
+	public int id(String token) {
+		final Integer id = ids.get(checkNotNull(token));
+		if (id != null) {
+			return id;
+		}
+		return assign(token);
+	}
+
+	private synchronized int assign(String token) {
+		final Integer id = ids.get(token);
+		if (id != null) {
+			return id;
+		}
+		final int next = ids.size();
+		ids.put(token, next);
+		return next;
+	}
+
+	/**
+	 * Returns the number of tokens in the dictionary.
+	 * 
+	 * @return the number of tokens
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Returns the ids of the distinct tokens in ascending order.
+	 * 
+	 * @param tokens
+	 *            the tokens to look up
+	 * @return a sorted array of distinct ids
+	 */
+	public long[] toSet(Collection<String> tokens) {
+		return Ids.toSet(ids(tokens), tokens.size());
+	}
+
+	/**
+	 * Returns the ids of the tokens and the number of times they occur.
+	 * 
+	 * @param tokens
+	 *            the tokens to look up
+	 * @return a multiset of ids
+	 */
+	public IdMultiset toMultiset(Collection<String> tokens) {
+		return Ids.toMultiset(ids(tokens), tokens.size());
+	}
+
+	/**
+	 * Returns a tokenizer that maps the tokens created by {@code tokenizer}
+	 * to ids in this dictionary.
+	 * 
+	 * @param tokenizer
+	 *            the tokenizer to use
+	 * @return a tokenizer that creates ids
+	 */
+	public IdTokenizer tokenizer(Tokenizer tokenizer) {
+		return new DictionaryTokenizer(this, tokenizer);
+	}
+
+	private long[] ids(Collection<String> tokens) {
+		final long[] ids = new long[tokens.size()];
+		int i = 0;
+		for (String token : tokens) {
+			ids[i++] = id(token);
+		}
+		return ids;
+	}
+
+	private static final class DictionaryTokenizer implements IdTokenizer {
+
+		private final TokenDictionary dictionary;
+		private final Tokenizer tokenizer;
+
+		DictionaryTokenizer(TokenDictionary dictionary, Tokenizer tokenizer) {
+			this.dictionary = checkNotNull(dictionary);
+			this.tokenizer = checkNotNull(tokenizer);
+		}
+
+		@Override
+		public long[] tokenizeToIdSet(String input) {
+			return dictionary.toSet(tokenizer.tokenizeToSet(input));
+		}
+
+		@Override
+		public IdMultiset tokenizeToIdMultiset(String input) {
+			return dictionary.toMultiset(tokenizer.tokenizeToMultiset(input));
+		}
+
+		@Override
+		public String toString() {
+			return tokenizer + " -> " + dictionary;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TokenDictionary [size=" + size() + "]";
+	}
+
+}
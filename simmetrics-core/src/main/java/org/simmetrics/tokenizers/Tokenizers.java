@@ -33,6 +33,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -185,6 +186,55 @@ public final class Tokenizers {
 	public static Tokenizer whitespace() {
 		return new Whitespace();
 	}
+
+	/**
+	 * Returns a tokenizer that creates ids for the tokens of a q-gram
+	 * tokenizer without creating any strings. Supported are tokenizers created
+	 * by {@link #qGram(int)}, {@link #qGramWithFilter(int)} and
+	 * {@link #qGramWithPadding(int, String, String)} and the chain of
+	 * {@link #whitespace()} followed by one of these.
+	 * <p>
+	 * Q-grams of up to three code points are packed into a single id, so
+	 * distinct q-grams have distinct ids. Longer q-grams are identified by a
+	 * 64 bit rolling hash. Distinct q-grams may collide with negligible
+	 * probability.
+	 * 
+	 * @param tokenizer
+	 *            a q-gram tokenizer
+	 * @return a tokenizer that creates the ids of the q-grams
+	 * @throws IllegalArgumentException
+	 *             when the tokenizer is not supported
+	 */
+	public static IdTokenizer hashed(Tokenizer tokenizer) {
+		checkNotNull(tokenizer);
+
+		if (tokenizer instanceof Recursive) {
+			final List<Tokenizer> tokenizers = ((Recursive) tokenizer).getTokenizers();
+			if (tokenizers.size() == 2 && tokenizers.get(0) instanceof Whitespace) {
+				return hashed(tokenizers.get(1), true, tokenizer);
+			}
+		}
+
+		return hashed(tokenizer, false, tokenizer);
+	}
+
+	private static IdTokenizer hashed(Tokenizer qGram, boolean words,
+			Tokenizer tokenizer) {
+		if (qGram instanceof QGram) {
+			final QGram q = (QGram) qGram;
+			return new HashedQGram(q.getQ(), q.isFilter(), "", "", words,
+					tokenizer);
+		}
+
+		if (qGram instanceof QGramExtended) {
+			final QGramExtended q = (QGramExtended) qGram;
+			return new HashedQGram(q.getQ(), false, q.getStartPadding(),
+					q.getEndPadding(), words, tokenizer);
+		}
+
+		throw new IllegalArgumentException("Can not hash the tokens of "
+				+ tokenizer);
+	}
 	
 	/**
 	 * Constructs a new transforming tokenizer. After tokenization, all tokens
@@ -869,6 +919,210 @@ public final class Tokenizers {
 
 	}
 
+	/**
+	 * Creates the ids of q-grams without creating strings. Each q-gram is
+	 * represented by the code points it contains.
+	 * <p>
+	 * When {@code q <= 3} the code points are packed into a single id, 21 bits
+	 * each. Code points are offset by one so q-grams of shorter inputs do not
+	 * collide with full q-grams. For larger {@code q} the id is a polynomial
+	 * rolling hash of the code points, updated in constant time as the window
+	 * slides along the input.
+	 * <p>
+	 * Ids are written to a thread-confined buffer that grows to fit the
+	 * longest input seen by a thread.
+	 * <p>
+	 * When {@code words} is set the input is first split into words on
+	 * whitespace, matching {@code chain(whitespace(), qGram(q))}.
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 */
+	static final class HashedQGram implements IdTokenizer {
+
+		private static final int PACKED_BITS = 21;
+		private static final int PACKED_MAX_Q = 3;
+		private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+		private final int q;
+		private final boolean filter;
+		private final int[] startPadding;
+		private final int[] endPadding;
+		private final boolean words;
+		private final Tokenizer tokenizer;
+
+		private final boolean packed;
+		private final long packedMask;
+		private final long power;
+
+		HashedQGram(int q, boolean filter, String startPadding,
+				String endPadding, boolean words, Tokenizer tokenizer) {
+			checkArgument(q > 0, "q must be greater then 0");
+			this.q = q;
+			this.filter = filter;
+			this.startPadding = codePoints(startPadding);
+			this.endPadding = codePoints(endPadding);
+			this.words = words;
+			this.tokenizer = checkNotNull(tokenizer);
+
+			this.packed = q <= PACKED_MAX_Q;
+			this.packedMask = packed ? (1L << (PACKED_BITS * q)) - 1 : 0;
+
+			// Weight of the code point leaving the window
+			long power = 1;
+			for (int i = 1; i < q; i++) {
+				power *= MULTIPLIER;
+			}
+			this.power = power;
+		}
+
+		private static int[] codePoints(String s) {
+			final int[] codePoints = new int[s.codePointCount(0, s.length())];
+			for (int i = 0, j = 0; i < s.length(); j++) {
+				codePoints[j] = s.codePointAt(i);
+				i += Character.charCount(codePoints[j]);
+			}
+			return codePoints;
+		}
+
+		@Override
+		public long[] tokenizeToIdSet(String input) {
+			final Scratch scratch = SCRATCH.get();
+			final int size = tokenize(input, scratch);
+			return Ids.toSet(scratch.ids, size);
+		}
+
+		@Override
+		public IdMultiset tokenizeToIdMultiset(String input) {
+			final Scratch scratch = SCRATCH.get();
+			final int size = tokenize(input, scratch);
+			return Ids.toMultiset(scratch.ids, size);
+		}
+
+		/*
+		 * Writes the ids of the q-grams in the input to the scratch buffer and
+		 * returns their number.
+		 */
+		private int tokenize(String input, Scratch scratch) {
+			scratch.size = 0;
+			if (input.isEmpty()) {
+				return 0;
+			}
+
+			if (!words) {
+				tokenize(input, 0, input.length(), scratch);
+				return scratch.size;
+			}
+
+			for (int i = 0, length = input.length(); i < length;) {
+				while (i < length && isWhitespace(input.charAt(i))) {
+					i++;
+				}
+				final int start = i;
+				while (i < length && !isWhitespace(input.charAt(i))) {
+					i++;
+				}
+				if (start < i) {
+					tokenize(input, start, i, scratch);
+				}
+			}
+			return scratch.size;
+		}
+
+		/*
+		 * Matches the \s character class used by the whitespace tokenizer.
+		 */
+		private static boolean isWhitespace(char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000B'
+					|| c == '\f' || c == '\r';
+		}
+
+		/*
+		 * Tokenizes a non-empty region of the input surrounded by padding.
+		 */
+		private void tokenize(String input, int from, int to, Scratch scratch) {
+			final int codePoints = startPadding.length
+					+ input.codePointCount(from, to) + endPadding.length;
+
+			// When the window doesn't fit the whole input is a single token
+			// unless filtered.
+			final boolean window = codePoints >= q;
+			if (!window && filter) {
+				return;
+			}
+
+			scratch.ensureCapacity(codePoints, q);
+			scratch.id = 0;
+			scratch.fed = 0;
+			for (int codePoint : startPadding) {
+				feed(codePoint, window, scratch);
+			}
+			for (int i = from; i < to;) {
+				final int codePoint = input.codePointAt(i);
+				feed(codePoint, window, scratch);
+				i += Character.charCount(codePoint);
+			}
+			for (int codePoint : endPadding) {
+				feed(codePoint, window, scratch);
+			}
+
+			if (!window) {
+				scratch.ids[scratch.size++] = scratch.id;
+			}
+		}
+
+		private void feed(int codePoint, boolean window, Scratch scratch) {
+			final long c = codePoint + 1;
+			if (packed) {
+				scratch.id = ((scratch.id << PACKED_BITS) | c) & packedMask;
+			} else {
+				final int slot = scratch.fed % q;
+				if (scratch.fed >= q) {
+					scratch.id -= scratch.window[slot] * power;
+				}
+				scratch.id = scratch.id * MULTIPLIER + c;
+				scratch.window[slot] = c;
+			}
+
+			if (++scratch.fed >= q && window) {
+				scratch.ids[scratch.size++] = scratch.id;
+			}
+		}
+
+		private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+			@Override
+			protected Scratch initialValue() {
+				return new Scratch();
+			}
+		};
+
+		/*
+		 * Reusable buffers for the ids of an input and the code points in the
+		 * current window.
+		 */
+		private static final class Scratch {
+			long[] ids = new long[16];
+			long[] window = new long[0];
+			int size;
+
+			long id;
+			int fed;
+
+			void ensureCapacity(int codePoints, int q) {
+				if (ids.length < size + codePoints) {
+					ids = Arrays.copyOf(ids, Math.max(2 * ids.length, size + codePoints));
+				}
+				if (window.length < q) {
+					window = new long[q];
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "HashedQGram [" + tokenizer + "]";
+		}
+	}
+
 	private Tokenizers() {
 		// Utility class
 	}
@@ -19,10 +19,13 @@
  */
 package org.simmetrics;
 
+import static org.junit.Assert.assertEquals;
 import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
 import java.util.List;
 
+import org.junit.Test;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.collect.HashMultiset;
@@ -71,5 +74,21 @@ public abstract class MultisetDistanceTest extends
 		return create;
 	}
 
+	@Test
+	public final void idDistance() {
+		if (!(metric instanceof IdMultisetDistance)) {
+			return;
+		}
+		final IdMultisetDistance idMetric = (IdMultisetDistance) metric;
+		final TokenDictionary dictionary = new TokenDictionary();
+		for (T t : getTests()) {
+			// Tokenizers never produce null tokens
+			if (t.a.contains(null) || t.b.contains(null)) {
+				continue;
+			}
+			assertEquals(metric.distance(t.a, t.b),
+					idMetric.distance(dictionary.toMultiset(t.a), dictionary.toMultiset(t.b)), 0.0f);
+		}
+	}
 
 }
@@ -20,10 +20,13 @@
 
 package org.simmetrics;
 
+import static org.junit.Assert.assertEquals;
 import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
 import java.util.List;
 
+import org.junit.Test;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.collect.HashMultiset;
@@ -66,5 +69,24 @@ public abstract class MultisetMetricTest extends CollectionMetricTest<String,Mul
 		return create;
 	}
 
+	@Test
+	public final void idSimilarity() {
+		if (!(metric instanceof IdMultisetMetric)) {
+			return;
+		}
+		final IdMultisetMetric idMetric = (IdMultisetMetric) metric;
+		final TokenDictionary dictionary = new TokenDictionary();
+		assertEquals(metric.compare(getEmpty(), getEmpty()),
+				idMetric.compare(dictionary.toMultiset(getEmpty()), dictionary.toMultiset(getEmpty())), 0.0f);
+		for (T t : getTests()) {
+			// Tokenizers never produce null tokens
+			if (t.a.contains(null) || t.b.contains(null)) {
+				continue;
+			}
+			assertEquals(metric.compare(t.a, t.b),
+					idMetric.compare(dictionary.toMultiset(t.a), dictionary.toMultiset(t.b)), 0.0f);
+		}
+	}
+
 
 }
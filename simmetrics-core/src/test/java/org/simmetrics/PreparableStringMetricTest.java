@@ -0,0 +1,76 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public abstract class PreparableStringMetricTest extends StringMetricTest {
+
+	@Override
+	protected abstract PreparableStringMetric getMetric();
+
+	@Test
+	public final void preparedSimilarity() {
+		final PreparableStringMetric metric = getMetric();
+		for (StringMetricTest.T t : getTests()) {
+			assertEquals(String.format("Prepared similarity of \"%s\" vs \"%s\"", t.a, t.b),
+					metric.compare(t.a, t.b), metric.prepare(t.a).compare(t.b), 0.0f);
+			assertEquals(String.format("Prepared similarity of \"%s\" vs \"%s\"", t.b, t.a),
+					metric.compare(t.b, t.a), metric.prepare(t.b).compare(t.a), 0.0f);
+		}
+	}
+
+	@Test
+	public final void preparedQueryIsReusable() {
+		final PreparableStringMetric metric = getMetric();
+		for (StringMetricTest.T t : getTests()) {
+			final PreparedQuery query = metric.prepare(t.a);
+			for (StringMetricTest.T u : getTests()) {
+				assertEquals(String.format("Prepared similarity of \"%s\" vs \"%s\"", t.a, u.b),
+						metric.compare(t.a, u.b), query.compare(u.b), 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public final void preparedNullPointerException() {
+		final PreparableStringMetric metric = getMetric();
+		try {
+			metric.prepare(null);
+			fail("Metric should have thrown a null pointer exception for the prepared argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+
+		for (String a : new String[] { "", "test" }) {
+			try {
+				metric.prepare(a).compare(null);
+				fail("Prepared query should have thrown a null pointer exception");
+			} catch (NullPointerException ignored) {
+				// Ignored
+			}
+		}
+	}
+}
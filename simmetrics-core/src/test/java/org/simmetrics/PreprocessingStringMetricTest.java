@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public abstract class PreprocessingStringMetricTest extends StringMetricTest {
+
+	@Override
+	protected abstract PreprocessingStringMetric<?> getMetric();
+
+	@Test
+	public final void preprocessedSimilarity() {
+		assertPreprocessedSimilarity(getMetric());
+	}
+
+	private <T> void assertPreprocessedSimilarity(PreprocessingStringMetric<T> metric) {
+		for (StringMetricTest.T t : getTests()) {
+			assertEquals(String.format("Preprocessed similarity of \"%s\" vs \"%s\"", t.a, t.b),
+					metric.compare(t.a, t.b),
+					metric.comparePreprocessed(metric.preprocess(t.a), metric.preprocess(t.b)), 0.0f);
+			assertEquals(String.format("Preprocessed similarity of \"%s\" vs \"%s\"", t.b, t.a),
+					metric.compare(t.b, t.a),
+					metric.comparePreprocessed(metric.preprocess(t.b), metric.preprocess(t.a)), 0.0f);
+		}
+	}
+
+	@Test
+	public final void preprocessedNullPointerException() {
+		try {
+			getMetric().preprocess(null);
+			fail("Metric should have thrown a null pointer exception for the preprocessed argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import java.util.Random;
+
+@SuppressWarnings("javadoc")
+public final class RandomStrings {
+
+	private static final String[] ALPHABETS = { "ab", "abcd", "abcd!\"#$",
+			"abcdefghijklmnopqrstuvwxyz", "\uD83D\uDE00\uD83D\uDE01ab" };
+
+	private RandomStrings() {
+		// Utility class
+	}
+
+	public static String random(Random random, int length, String alphabet) {
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns two random strings over the same alphabet. Short and long
+	 * strings are equally likely. Half of the time the second string starts
+	 * with a prefix of the first.
+	 */
+	public static String[] randomPair(Random random) {
+		final String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+		final int maxLength = random.nextBoolean() ? 30 : 140;
+		final String a = random(random, random.nextInt(maxLength), alphabet);
+		String b = random(random, random.nextInt(maxLength), alphabet);
+		if (random.nextBoolean()) {
+			b = a.substring(0, random.nextInt(a.length() + 1)) + b;
+		}
+		return new String[] { a, b };
+	}
+
+}
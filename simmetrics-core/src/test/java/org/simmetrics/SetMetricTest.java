@@ -21,11 +21,14 @@
 package org.simmetrics;
 
 import static java.util.Collections.emptySet;
+import static org.junit.Assert.assertEquals;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.junit.Test;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
@@ -67,4 +70,22 @@ public abstract class SetMetricTest extends CollectionMetricTest<String,Set<Stri
 	public Set<String> getCollectionContainNull() {
 		return Sets.newHashSet((String)null);
 	}
+
+	@Test
+	public final void idSimilarity() {
+		if (!(metric instanceof IdSetMetric)) {
+			return;
+		}
+		final IdSetMetric idMetric = (IdSetMetric) metric;
+		final TokenDictionary dictionary = new TokenDictionary();
+		assertEquals(metric.compare(getEmpty(), getEmpty()), idMetric.compare(new long[0], new long[0]), 0.0f);
+		for (T t : getTests()) {
+			// Tokenizers never produce null tokens
+			if (t.a.contains(null) || t.b.contains(null)) {
+				continue;
+			}
+			assertEquals(metric.compare(t.a, t.b), idMetric.compare(dictionary.toSet(t.a), dictionary.toSet(t.b)),
+					0.0f);
+		}
+	}
 }
@@ -19,6 +19,14 @@
  */
 package org.simmetrics;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.simmetrics.metrics.Sequences;
+
 @SuppressWarnings("javadoc")
 public abstract class StringDistanceTest extends DistanceTest<String> {
 	
@@ -35,4 +43,61 @@ public abstract class StringDistanceTest extends DistanceTest<String> {
 	protected final String getEmpty() {
 		return "";
 	}
+
+	@Test
+	public final void preprocessedDistance() {
+		if (metric instanceof PreprocessingStringDistance) {
+			assertPreprocessedDistance((PreprocessingStringDistance<?>) metric);
+		}
+	}
+
+	private <P> void assertPreprocessedDistance(PreprocessingStringDistance<P> distance) {
+		for (T t : getTests()) {
+			assertEquals(String.format("Preprocessed distance of \"%s\" vs \"%s\"", t.a, t.b),
+					distance.distance(t.a, t.b),
+					distance.distancePreprocessed(distance.preprocess(t.a), distance.preprocess(t.b)), 0.0f);
+		}
+	}
+
+	@Test
+	public final void sequenceDistance() {
+		if (!(metric instanceof SequenceDistance)) {
+			return;
+		}
+		final SequenceDistance sequenceDistance = (SequenceDistance) metric;
+		final ListDistance<Character> listDistance = Sequences.asListDistance(sequenceDistance);
+		for (T t : getTests()) {
+			final String message = String.format("Sequence distance of \"%s\" vs \"%s\"", t.a, t.b);
+			final float expected = metric.distance(t.a, t.b);
+			assertEquals(message, expected, sequenceDistance.distance(toInts(t.a), toInts(t.b)), 0.0f);
+			assertEquals(message, expected, sequenceDistance.distance(toLongs(t.a), toLongs(t.b)), 0.0f);
+			assertEquals(message, expected, listDistance.distance(toList(t.a), toList(t.b)), 0.0f);
+		}
+	}
+
+	private static int[] toInts(String string) {
+		final int[] sequence = new int[string.length()];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = string.charAt(i);
+		}
+		return sequence;
+	}
+
+	private static long[] toLongs(String string) {
+		// Spread over the full range of long
+		final long[] sequence = new long[string.length()];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = (long) string.charAt(i) << 48 | string.charAt(i);
+		}
+		return sequence;
+	}
+
+	private static List<Character> toList(String string) {
+		final List<Character> list = new ArrayList<>();
+		for (char c : string.toCharArray()) {
+			list.add(c);
+		}
+		return list;
+	}
+
 }
@@ -20,6 +20,16 @@
 
 package org.simmetrics;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.simmetrics.metrics.Sequences;
+
 @SuppressWarnings("javadoc")
 public abstract class StringMetricTest extends MetricTest<String> {
 
@@ -37,4 +47,95 @@ public abstract class StringMetricTest extends MetricTest<String> {
 		return "";
 	}
 
+	@Test
+	public final void batchSimilarity() {
+		if (!(metric instanceof BatchStringMetric)) {
+			return;
+		}
+		final BatchStringMetric batch = (BatchStringMetric) metric;
+		final List<String> candidates = new ArrayList<>();
+		for (T t : getTests()) {
+			candidates.add(t.a);
+			candidates.add(t.b);
+		}
+		final String[] array = candidates.toArray(new String[candidates.size()]);
+
+		for (String query : candidates) {
+			final float[] similarities = new float[candidates.size()];
+			batch.compare(query, candidates, similarities);
+
+			// Offset range in the middle of the array
+			final int from = array.length / 3;
+			final float[] range = new float[array.length];
+			Arrays.fill(range, -1.0f);
+			batch.compare(query, array, from, array.length - 1, range);
+
+			for (int i = 0; i < candidates.size(); i++) {
+				final String candidate = candidates.get(i);
+				final String message = String.format("Batch similarity of \"%s\" vs \"%s\"", query, candidate);
+				assertEquals(message, metric.compare(query, candidate), similarities[i], 0.0f);
+				if (from <= i && i < array.length - 1) {
+					assertEquals(message, metric.compare(query, candidate), range[i - from], 0.0f);
+				}
+			}
+			for (int i = array.length - 1 - from; i < range.length; i++) {
+				assertEquals(-1.0f, range[i], 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public final void batchSimilaritiesTooShort() {
+		if (!(metric instanceof BatchStringMetric)) {
+			return;
+		}
+		try {
+			((BatchStringMetric) metric).compare("", Arrays.asList("a", "b"), new float[1]);
+			fail("Metric should have thrown an illegal argument exception for a short array");
+		} catch (IllegalArgumentException ignored) {
+			// Ignored
+		}
+	}
+
+	@Test
+	public final void sequenceSimilarity() {
+		if (!(metric instanceof SequenceMetric)) {
+			return;
+		}
+		final SequenceMetric sequenceMetric = (SequenceMetric) metric;
+		final ListMetric<Character> listMetric = Sequences.asListMetric(sequenceMetric);
+		for (T t : getTests()) {
+			final String message = String.format("Sequence similarity of \"%s\" vs \"%s\"", t.a, t.b);
+			final float expected = metric.compare(t.a, t.b);
+			assertEquals(message, expected, sequenceMetric.compare(toInts(t.a), toInts(t.b)), 0.0f);
+			assertEquals(message, expected, sequenceMetric.compare(toLongs(t.a), toLongs(t.b)), 0.0f);
+			assertEquals(message, expected, listMetric.compare(toList(t.a), toList(t.b)), 0.0f);
+		}
+	}
+
+	private static int[] toInts(String string) {
+		final int[] sequence = new int[string.length()];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = string.charAt(i);
+		}
+		return sequence;
+	}
+
+	private static long[] toLongs(String string) {
+		// Spread over the full range of long
+		final long[] sequence = new long[string.length()];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = (long) string.charAt(i) << 48 | string.charAt(i);
+		}
+		return sequence;
+	}
+
+	private static List<Character> toList(String string) {
+		final List<Character> list = new ArrayList<>();
+		for (char c : string.toCharArray()) {
+			list.add(c);
+		}
+		return list;
+	}
+
 }
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public abstract class ThresholdedStringDistanceTest extends StringDistanceTest {
+
+	private static final float[] THRESHOLDS = { -1.0f, 0.0f, 0.5f, 1.0f,
+			2.0f, 3.0f, 5.0f, 10.0f, Float.POSITIVE_INFINITY };
+
+	private static final int RANDOM_PAIRS = 1000;
+
+	private static void testThresholded(ThresholdedStringDistance metric,
+			String a, String b, float maxDistance) {
+		final float distance = metric.distance(a, b);
+		final float thresholded = metric.distance(a, b, maxDistance);
+
+		if (distance <= maxDistance) {
+			assertEquals(String.format(
+					"Distance of \"%s\" vs \"%s\" with threshold %s", a, b,
+					maxDistance), distance, thresholded, 0.0f);
+		} else {
+			assertTrue(String.format(
+					"Distance of \"%s\" vs \"%s\" must exceed %s", a, b,
+					maxDistance), thresholded > maxDistance);
+		}
+	}
+
+	@Override
+	protected abstract ThresholdedStringDistance getMetric();
+
+	@Test
+	public final void thresholdedDistance() {
+		final ThresholdedStringDistance metric = getMetric();
+		for (StringDistanceTest.T t : getTests()) {
+			final float distance = metric.distance(t.a, t.b);
+			final float[] around = { distance,
+					Math.nextAfter(distance, Double.NEGATIVE_INFINITY),
+					Math.nextAfter(distance, Double.POSITIVE_INFINITY) };
+
+			for (float maxDistance : THRESHOLDS) {
+				testThresholded(metric, t.a, t.b, maxDistance);
+				testThresholded(metric, t.b, t.a, maxDistance);
+			}
+			for (float maxDistance : around) {
+				testThresholded(metric, t.a, t.b, maxDistance);
+				testThresholded(metric, t.b, t.a, maxDistance);
+			}
+		}
+	}
+
+	@Test
+	public final void thresholdedDistanceOfRandomPairs() {
+		final ThresholdedStringDistance metric = getMetric();
+		final Random random = new Random(3);
+		for (int i = 0; i < RANDOM_PAIRS; i++) {
+			final String[] pair = RandomStrings.randomPair(random);
+			final float distance = metric.distance(pair[0], pair[1]);
+			testThresholded(metric, pair[0], pair[1],
+					random.nextFloat() * distance * 1.5f);
+		}
+	}
+
+	@Test
+	public final void thresholdedNullPointerException() {
+		final ThresholdedStringDistance metric = getMetric();
+		try {
+			metric.distance(null, "", 1.0f);
+			fail("Distance should have thrown a null pointer exception for the first argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+
+		try {
+			metric.distance("", null, 1.0f);
+			fail("Distance should have thrown a null pointer exception for the second argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public abstract class ThresholdedStringMetricTest extends StringMetricTest {
+
+	private static final float[] THRESHOLDS = { -1.0f, 0.0f, 0.25f, 0.5f,
+			0.75f, 0.85f, 0.95f, 1.0f, 2.0f };
+
+	private static final int RANDOM_PAIRS = 1000;
+
+	private static void testThresholded(ThresholdedStringMetric metric,
+			String a, String b, float minSimilarity) {
+		final float similarity = metric.compare(a, b);
+		final float thresholded = metric.compareAtLeast(a, b, minSimilarity);
+
+		if (similarity >= minSimilarity) {
+			assertEquals(String.format(
+					"Similarity of \"%s\" vs \"%s\" with threshold %s", a, b,
+					minSimilarity), similarity, thresholded, 0.0f);
+		} else {
+			assertTrue(String.format(
+					"Similarity of \"%s\" vs \"%s\" must be less than %s", a,
+					b, minSimilarity), thresholded < minSimilarity);
+		}
+	}
+
+	@Override
+	protected abstract ThresholdedStringMetric getMetric();
+
+	@Test
+	public final void thresholdedSimilarity() {
+		final ThresholdedStringMetric metric = getMetric();
+		for (StringMetricTest.T t : getTests()) {
+			final float similarity = metric.compare(t.a, t.b);
+			final float[] around = { similarity,
+					Math.nextAfter(similarity, Double.NEGATIVE_INFINITY),
+					Math.nextAfter(similarity, Double.POSITIVE_INFINITY) };
+
+			for (float minSimilarity : THRESHOLDS) {
+				testThresholded(metric, t.a, t.b, minSimilarity);
+				testThresholded(metric, t.b, t.a, minSimilarity);
+			}
+			for (float minSimilarity : around) {
+				testThresholded(metric, t.a, t.b, minSimilarity);
+				testThresholded(metric, t.b, t.a, minSimilarity);
+			}
+		}
+	}
+
+	@Test
+	public final void thresholdedSimilarityOfRandomPairs() {
+		final ThresholdedStringMetric metric = getMetric();
+		final Random random = new Random(3);
+		for (int i = 0; i < RANDOM_PAIRS; i++) {
+			final String[] pair = RandomStrings.randomPair(random);
+			testThresholded(metric, pair[0], pair[1], random.nextFloat());
+		}
+	}
+
+	@Test
+	public final void thresholdedNullPointerException() {
+		final ThresholdedStringMetric metric = getMetric();
+		try {
+			metric.compareAtLeast(null, "", 0.5f);
+			fail("Metric should have thrown a null pointer exception for the first argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+
+		try {
+			metric.compareAtLeast("", null, 0.5f);
+			fail("Metric should have thrown a null pointer exception for the second argument");
+		} catch (NullPointerException ignored) {
+			// Ignored
+		}
+	}
+}
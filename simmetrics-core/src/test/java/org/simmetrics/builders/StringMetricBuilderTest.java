@@ -20,8 +20,15 @@
 
 package org.simmetrics.builders;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.simmetrics.builders.StringMetricBuilder.with;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -32,15 +39,25 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.simmetrics.BatchStringMetric;
 import org.simmetrics.ListMetric;
 import org.simmetrics.MultisetMetric;
 import org.simmetrics.SetMetric;
+import org.simmetrics.PreprocessingStringMetric;
 import org.simmetrics.StringMetric;
 import org.simmetrics.builders.StringMetricBuilder.CachingSimplifier;
 import org.simmetrics.builders.StringMetricBuilder.CachingListTokenizer;
 import org.simmetrics.builders.StringMetricBuilder.CachingMultisetTokenizer;
 import org.simmetrics.builders.StringMetricBuilder.CachingSetTokenizer;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.metrics.Sequences;
 import org.simmetrics.simplifiers.Simplifier;
+import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.base.Function;
@@ -484,4 +501,200 @@ public class StringMetricBuilderTest {
 			return new CachingSimplifier(cache, innerSimplifier);
 		}
 	}
+
+	public static class InternTokensTest {
+
+		private static final String[][] PAIRS = {
+				{ "", "" },
+				{ "", "test" },
+				{ "test string1", "test string2" },
+				{ "a b c d", "a a b e" },
+				{ "Sam J Chapman", "Samuel John Chapman" },
+				{ "the quick brown fox", "the lazy dog and the quick fox" } };
+
+		private final TokenDictionary dictionary = new TokenDictionary();
+
+		@Test
+		public void setMetric() {
+			StringMetric plain = with(new Jaccard<String>())
+					.tokenize(whitespace())
+					.build();
+			StringMetric interned = with(new Jaccard<String>())
+					.tokenize(whitespace())
+					.internTokens(dictionary)
+					.build();
+
+			assertTrue(interned instanceof StringMetrics.ForIdSet);
+			assertSameSimilarity(plain, interned);
+		}
+
+		@Test
+		public void setMetricWithSimplifier() {
+			StringMetric plain = with(new Jaccard<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(qGram(2))
+					.build();
+			StringMetric interned = with(new Jaccard<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(qGram(2))
+					.internTokens(dictionary)
+					.build();
+
+			assertTrue(interned instanceof StringMetrics.ForIdSetWithSimplifier);
+			assertSameSimilarity(plain, interned);
+		}
+
+		@Test
+		public void multisetMetric() {
+			StringMetric plain = with(new BlockDistance<String>())
+					.tokenize(whitespace())
+					.build();
+			StringMetric interned = with(new BlockDistance<String>())
+					.tokenize(whitespace())
+					.internTokens(dictionary)
+					.build();
+
+			assertTrue(interned instanceof StringMetrics.ForIdMultiset);
+			assertSameSimilarity(plain, interned);
+		}
+
+		@Test
+		public void multisetMetricWithSimplifier() {
+			StringMetric plain = with(new CosineSimilarity<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(qGram(2))
+					.build();
+			StringMetric interned = with(new CosineSimilarity<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(qGram(2))
+					.internTokens(dictionary)
+					.build();
+
+			assertTrue(interned instanceof StringMetrics.ForIdMultisetWithSimplifier);
+			assertSameSimilarity(plain, interned);
+		}
+
+		@Test
+		public void ignoredWithoutIdMetric() {
+			StringMetric interned = with(new OverlapCoefficient<String>())
+					.tokenize(whitespace())
+					.internTokens(dictionary)
+					.build();
+
+			assertFalse(interned instanceof StringMetrics.ForIdSet);
+			assertEquals(1.0f, interned.compare("a b", "b a"), 0.0f);
+			assertEquals(0, dictionary.size());
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void listMetric() {
+			with(Sequences.<String> asListMetric(new Levenshtein()))
+					.tokenize(whitespace())
+					.internTokens(dictionary);
+		}
+
+		private static void assertSameSimilarity(StringMetric expected, StringMetric actual) {
+			for (String[] pair : PAIRS) {
+				assertEquals(expected.compare(pair[0], pair[1]), actual.compare(pair[0], pair[1]), 0.0f);
+			}
+			assertSamePreprocessedSimilarity(expected, (PreprocessingStringMetric<?>) actual);
+			assertSameBatchSimilarity(expected, (BatchStringMetric) actual);
+		}
+
+		private static void assertSameBatchSimilarity(StringMetric expected, BatchStringMetric actual) {
+			for (String[] pair : PAIRS) {
+				float[] similarities = new float[PAIRS.length];
+				List<String> candidates = new ArrayList<>();
+				for (String[] other : PAIRS) {
+					candidates.add(other[1]);
+				}
+				actual.compare(pair[0], candidates, similarities);
+				for (int i = 0; i < PAIRS.length; i++) {
+					assertEquals(expected.compare(pair[0], PAIRS[i][1]), similarities[i], 0.0f);
+				}
+			}
+		}
+
+		private static <T> void assertSamePreprocessedSimilarity(StringMetric expected,
+				PreprocessingStringMetric<T> actual) {
+			for (String[] pair : PAIRS) {
+				assertEquals(expected.compare(pair[0], pair[1]),
+						actual.comparePreprocessed(actual.preprocess(pair[0]), actual.preprocess(pair[1])), 0.0f);
+			}
+		}
+	}
+
+	public static class HashTokensTest {
+
+		private static final String[][] PAIRS = {
+				{ "", "" },
+				{ "", "test" },
+				{ "test string1", "test string2" },
+				{ "Healed", "Sealed" },
+				{ "Sam J Chapman", "Samuel John Chapman" },
+				{ "the quick brown fox", "the lazy dog and the quick fox" } };
+
+		@Test
+		public void setMetric() {
+			StringMetric plain = with(new Jaccard<String>())
+					.tokenize(qGram(3))
+					.build();
+			StringMetric hashed = with(new Jaccard<String>())
+					.tokenize(qGram(3))
+					.hashTokens()
+					.build();
+
+			assertTrue(hashed instanceof StringMetrics.ForIdSet);
+			assertSameSimilarity(plain, hashed);
+		}
+
+		@Test
+		public void multisetMetricWithSimplifier() {
+			StringMetric plain = with(new CosineSimilarity<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(whitespace())
+					.tokenize(qGramWithPadding(2))
+					.build();
+			StringMetric hashed = with(new CosineSimilarity<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.tokenize(whitespace())
+					.tokenize(qGramWithPadding(2))
+					.hashTokens()
+					.build();
+
+			assertTrue(hashed instanceof StringMetrics.ForIdMultisetWithSimplifier);
+			assertSameSimilarity(plain, hashed);
+		}
+
+		@Test
+		public void ignoredWithoutIdMetric() {
+			StringMetric hashed = with(new OverlapCoefficient<String>())
+					.tokenize(qGram(2))
+					.hashTokens()
+					.build();
+
+			assertFalse(hashed instanceof StringMetrics.ForIdSet);
+			assertEquals(1.0f, hashed.compare("abc", "abc"), 0.0f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void unsupportedTokenizer() {
+			with(new Jaccard<String>())
+					.tokenize(whitespace())
+					.hashTokens();
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void listMetric() {
+			with(Sequences.<String> asListMetric(new Levenshtein()))
+					.tokenize(qGram(3))
+					.hashTokens();
+		}
+
+		private static void assertSameSimilarity(StringMetric expected, StringMetric actual) {
+			for (String[] pair : PAIRS) {
+				assertEquals(expected.compare(pair[0], pair[1]), actual.compare(pair[0], pair[1]), 0.0f);
+			}
+		}
+	}
 }
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+
+@SuppressWarnings("javadoc")
+public final class BitParallelLevenshteinTest {
+
+	private static int reference(String s, String t) {
+		int[] v0 = new int[t.length() + 1];
+		int[] v1 = new int[t.length() + 1];
+		for (int j = 0; j < v0.length; j++) {
+			v0[j] = j;
+		}
+		for (int i = 0; i < s.length(); i++) {
+			v1[0] = i + 1;
+			for (int j = 0; j < t.length(); j++) {
+				int cost = s.charAt(i) == t.charAt(j) ? 0 : 1;
+				v1[j + 1] = Math.min(v1[j] + 1, v0[j + 1] + 1, v0[j] + cost);
+			}
+			int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return v0[t.length()];
+	}
+
+	@Test
+	public void empty() {
+		assertEquals(0, BitParallelLevenshtein.distance("", ""));
+		assertEquals(4, BitParallelLevenshtein.distance("", "test"));
+		assertEquals(4, BitParallelLevenshtein.distance("test", ""));
+	}
+
+	@Test
+	public void singleBlock() {
+		assertEquals(3, BitParallelLevenshtein.distance("kitten", "sitting"));
+		assertEquals(3, BitParallelLevenshtein.distance("sitting", "kitten"));
+		assertEquals(1, BitParallelLevenshtein.distance("Healed", "Sealed"));
+		assertEquals(2, BitParallelLevenshtein.distance("😀", "😁a"));
+	}
+
+	@Test
+	public void blockBoundaries() {
+		Random random = new Random(1);
+		for (int length : new int[] { 63, 64, 65, 127, 128, 129, 200 }) {
+			for (int i = 0; i < 20; i++) {
+				String a = RandomStrings.random(random, length, "abcd");
+				String b = RandomStrings.random(random, length + random.nextInt(10) - 5, "abcd");
+				assertEquals(a + " " + b, reference(a, b), BitParallelLevenshtein.distance(a, b));
+			}
+		}
+	}
+
+	@Test
+	public void randomized() {
+		Random random = new Random(2);
+		String[] alphabets = { "ab", "abcdefgh", "abcdefghijklmnopqrstuvwxyzé中" };
+		for (int i = 0; i < 2000; i++) {
+			String alphabet = alphabets[i % alphabets.length];
+			String a = RandomStrings.random(random, random.nextInt(150), alphabet);
+			String b = RandomStrings.random(random, random.nextInt(150), alphabet);
+			assertEquals(a + " " + b, reference(a, b), BitParallelLevenshtein.distance(a, b));
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+
+@SuppressWarnings("javadoc")
+public final class BitParallelLongestCommonSubsequenceTest {
+
+	private static int reference(String a, String b) {
+		int[] v0 = new int[b.length() + 1];
+		int[] v1 = new int[b.length() + 1];
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				if (a.charAt(i - 1) == b.charAt(j - 1)) {
+					v1[j] = v0[j - 1] + 1;
+				} else {
+					v1[j] = max(v1[j - 1], v0[j]);
+				}
+			}
+			int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return v0[b.length()];
+	}
+
+	@Test
+	public void empty() {
+		assertEquals(0, BitParallelLongestCommonSubsequence.length("", ""));
+		assertEquals(0, BitParallelLongestCommonSubsequence.length("", "test"));
+		assertEquals(0, BitParallelLongestCommonSubsequence.length("test", ""));
+	}
+
+	@Test
+	public void singleBlock() {
+		assertEquals(4, BitParallelLongestCommonSubsequence.length("kitten", "sitting"));
+		assertEquals(3, BitParallelLongestCommonSubsequence.length("uxyw", "uyxw"));
+		assertEquals(5, BitParallelLongestCommonSubsequence.length("Healed", "Sealed"));
+		assertEquals(1, BitParallelLongestCommonSubsequence.length("😀", "😁a"));
+	}
+
+	@Test
+	public void blockBoundaries() {
+		Random random = new Random(1);
+		for (int length : new int[] { 63, 64, 65, 127, 128, 129, 200 }) {
+			for (int i = 0; i < 20; i++) {
+				String a = RandomStrings.random(random, length, "abcd");
+				String b = RandomStrings.random(random, length + random.nextInt(10) - 5, "abcd");
+				assertEquals(a + " " + b, reference(a, b), BitParallelLongestCommonSubsequence.length(a, b));
+			}
+		}
+	}
+
+	@Test
+	public void allMatches() {
+		// Carries ripple through every block
+		String a = RandomStrings.random(new Random(3), 300, "a");
+		assertEquals(300, BitParallelLongestCommonSubsequence.length(a, a));
+		assertEquals(150, BitParallelLongestCommonSubsequence.length(a, a.substring(150)));
+	}
+
+	@Test
+	public void randomized() {
+		Random random = new Random(2);
+		String[] alphabets = { "ab", "abcdefgh", "abcdefghijklmnopqrstuvwxyzé中" };
+		for (int i = 0; i < 2000; i++) {
+			String alphabet = alphabets[i % alphabets.length];
+			String a = RandomStrings.random(random, random.nextInt(300), alphabet);
+			String b = RandomStrings.random(random, random.nextInt(300), alphabet);
+			assertEquals(a + " " + b, reference(a, b), BitParallelLongestCommonSubsequence.length(a, b));
+			assertEquals(a + " " + b, reference(a, b), BitParallelLongestCommonSubsequence.length(new PatternMasks(a), b));
+		}
+	}
+}
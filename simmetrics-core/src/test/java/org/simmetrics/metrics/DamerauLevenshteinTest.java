@@ -23,11 +23,10 @@ package org.simmetrics.metrics;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
-import org.simmetrics.Metric;
-import org.simmetrics.StringDistance;
-import org.simmetrics.StringDistanceTest;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.ThresholdedStringDistanceTest;
+import org.simmetrics.ThresholdedStringMetric;
+import org.simmetrics.ThresholdedStringMetricTest;
 
 @SuppressWarnings({ "javadoc", "static-method" })
 @RunWith(Enclosed.class)
@@ -58,10 +57,10 @@ public class DamerauLevenshteinTest {
 	@RunWith(Enclosed.class)
 	public static final class DistanceString {
 
-		public static final class UnitCost extends StringDistanceTest {
+		public static final class UnitCost extends ThresholdedStringDistanceTest {
 
 			@Override
-			protected StringDistance getMetric() {
+			protected ThresholdedStringDistance getMetric() {
 				return new DamerauLevenshtein();
 			}
 
@@ -140,10 +139,10 @@ public class DamerauLevenshteinTest {
 	@RunWith(Enclosed.class)
 	public static final class MetricStringTest {
 
-		public static final class UnitCost extends StringMetricTest {
+		public static final class UnitCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected StringMetric getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein();
 			}
 
@@ -224,10 +223,10 @@ public class DamerauLevenshteinTest {
 
 		}
 
-		public static final class InsertDeleteCost extends StringMetricTest {
+		public static final class InsertDeleteCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein(0.1f, 1.0f, 1.0f);
 			}
 
@@ -252,9 +251,9 @@ public class DamerauLevenshteinTest {
 			}
 		}
 
-		public static final class NoSubstituteCost extends StringMetricTest {
+		public static final class NoSubstituteCost extends ThresholdedStringMetricTest {
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein(1.0f, 0.0f, 1.0f);
 			}
 
@@ -280,10 +279,10 @@ public class DamerauLevenshteinTest {
 
 		}
 
-		public static final class LowSubstituteCost extends StringMetricTest {
+		public static final class LowSubstituteCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein(1.0f, 0.2f, 1.0f);
 			}
 
@@ -312,10 +311,10 @@ public class DamerauLevenshteinTest {
 			}
 		}
 
-		public static final class NoTransposeCost extends StringMetricTest {
+		public static final class NoTransposeCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein(1.0f, 1.0f, 0.0f);
 			}
 
@@ -340,10 +339,10 @@ public class DamerauLevenshteinTest {
 
 		}
 
-		public static final class LowTransposeCost extends StringMetricTest {
+		public static final class LowTransposeCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new DamerauLevenshtein(1.0f, 1.0f, 0.1f);
 			}
 
@@ -367,4 +366,5 @@ public class DamerauLevenshteinTest {
 			}
 		}
 	}
+
 }
@@ -25,14 +25,14 @@ import java.util.List;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForList;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
 @SuppressWarnings("javadoc")
-public class ForListTest extends StringMetricTest {
+public class ForListTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<List<String>> metric = new Identity<>();
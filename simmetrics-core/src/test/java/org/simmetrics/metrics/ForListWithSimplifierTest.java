@@ -25,7 +25,7 @@ import java.util.List;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForListWithSimplifier;
 import org.simmetrics.simplifiers.Simplifier;
@@ -34,7 +34,7 @@ import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
 @SuppressWarnings("javadoc")
-public class ForListWithSimplifierTest extends StringMetricTest{
+public class ForListWithSimplifierTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<List<String>> metric = new Identity<>();
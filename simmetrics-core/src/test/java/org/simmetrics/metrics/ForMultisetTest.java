@@ -23,7 +23,7 @@ import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForMultiset;
 import org.simmetrics.tokenizers.Tokenizer;
@@ -32,7 +32,7 @@ import org.simmetrics.tokenizers.Tokenizers;
 import com.google.common.collect.Multiset;
 
 @SuppressWarnings("javadoc")
-public class ForMultisetTest extends StringMetricTest {
+public class ForMultisetTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<Multiset<String>> metric = new Identity<>();
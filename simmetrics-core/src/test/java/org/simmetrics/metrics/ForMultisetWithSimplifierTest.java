@@ -23,7 +23,7 @@ import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForMultisetWithSimplifier;
 import org.simmetrics.simplifiers.Simplifier;
@@ -34,7 +34,7 @@ import org.simmetrics.tokenizers.Tokenizers;
 import com.google.common.collect.Multiset;
 
 @SuppressWarnings("javadoc")
-public class ForMultisetWithSimplifierTest extends StringMetricTest{
+public class ForMultisetWithSimplifierTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<Multiset<String>> metric = new Identity<>();
@@ -25,14 +25,14 @@ import java.util.Set;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForSet;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
 @SuppressWarnings("javadoc")
-public class ForSetTest extends StringMetricTest {
+public class ForSetTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<Set<String>> metric = new Identity<>();
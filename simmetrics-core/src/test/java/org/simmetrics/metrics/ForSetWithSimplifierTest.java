@@ -25,7 +25,7 @@ import java.util.Set;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForSetWithSimplifier;
 import org.simmetrics.simplifiers.Simplifier;
@@ -34,7 +34,7 @@ import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
 @SuppressWarnings("javadoc")
-public class ForSetWithSimplifierTest extends StringMetricTest{
+public class ForSetWithSimplifierTest extends PreprocessingStringMetricTest {
 
 	private final Tokenizer tokenizer = Tokenizers.whitespace();
 	private final Metric<Set<String>> metric = new Identity<>();
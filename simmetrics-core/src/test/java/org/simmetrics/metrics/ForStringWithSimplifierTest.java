@@ -23,14 +23,14 @@ import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 import org.simmetrics.Metric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreprocessingStringMetricTest;
 import org.simmetrics.metrics.Identity;
 import org.simmetrics.metrics.StringMetrics.ForStringWithSimplifier;
 import org.simmetrics.simplifiers.Simplifier;
 import org.simmetrics.simplifiers.Simplifiers;
 
 @SuppressWarnings("javadoc")
-public class ForStringWithSimplifierTest extends StringMetricTest{
+public class ForStringWithSimplifierTest extends PreprocessingStringMetricTest {
 
 	private final Metric<String> metric = new Identity<>();
 	private final Simplifier simplifier = Simplifiers.toLowerCase();
@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+import org.simmetrics.metrics.Alignment.Operation;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings("javadoc")
+public final class HirschbergTest {
+
+	private static final Substitution MATCH_2_MISMATCH_MINUS_1 = new MatchMismatch(
+			2.0f, -1.0f);
+
+	@Test
+	public void globalAlignment() {
+		Alignment alignment = Hirschberg.global("GATTACA", "GCATGCT",
+				MATCH_2_MISMATCH_MINUS_1, -2.0f, -2.0f);
+		assertValid("GATTACA", "GCATGCT", alignment, MATCH_2_MISMATCH_MINUS_1,
+				-2.0f, -2.0f);
+		assertEquals(global("GATTACA", "GCATGCT", MATCH_2_MISMATCH_MINUS_1,
+				-2.0f, -2.0f), alignment.score(), 0.0f);
+	}
+
+	@Test
+	public void globalAlignmentOfEmptyStrings() {
+		Alignment alignment = Hirschberg.global("", "abc",
+				MATCH_2_MISMATCH_MINUS_1, -2.0f, -1.0f);
+		assertEquals("---", alignment.alignedA('-'));
+		assertEquals("abc", alignment.alignedB('-'));
+		assertEquals(-3.0f, alignment.score(), 0.0f);
+
+		alignment = Hirschberg.global("", "", MATCH_2_MISMATCH_MINUS_1, -2.0f,
+				-1.0f);
+		assertEquals(0, alignment.length());
+	}
+
+	@Test
+	public void localAlignment() {
+		Alignment alignment = Hirschberg.local("xxxabcdyyy", "zzabxdzz",
+				MATCH_2_MISMATCH_MINUS_1, -2.0f);
+		assertEquals("abcd", alignment.alignedA('-'));
+		assertEquals("abxd", alignment.alignedB('-'));
+		assertEquals(3, alignment.aStart());
+		assertEquals(7, alignment.aEnd());
+		assertEquals(2, alignment.bStart());
+		assertEquals(6, alignment.bEnd());
+		assertEquals(Operation.SUBSTITUTION, alignment.operation(2));
+		assertEquals(5.0f, alignment.score(), 0.0f);
+	}
+
+	@Test
+	public void localAlignmentWithoutMatches() {
+		Alignment alignment = Hirschberg.local("aaa", "bbb",
+				MATCH_2_MISMATCH_MINUS_1, -2.0f);
+		assertEquals(0, alignment.length());
+		assertEquals(0.0f, alignment.score(), 0.0f);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void operationOutOfBounds() {
+		Hirschberg.global("a", "b", MATCH_2_MISMATCH_MINUS_1, -2.0f, -2.0f)
+				.operation(2);
+	}
+
+	@Test
+	public void randomAlignments() {
+		Random random = new Random(9);
+		for (int k = 0; k < 500; k++) {
+			String a = RandomStrings.random(random,
+					random.nextInt(120), "abcd");
+			String b = RandomStrings.random(random,
+					random.nextInt(120), "abcd");
+			float gapValue = -random.nextInt(3);
+			float edgeGapValue = -random.nextInt(3);
+
+			Alignment global = Hirschberg.global(a, b,
+					MATCH_2_MISMATCH_MINUS_1, gapValue, edgeGapValue);
+			assertValid(a, b, global, MATCH_2_MISMATCH_MINUS_1, gapValue,
+					edgeGapValue);
+			assertEquals(global(a, b, MATCH_2_MISMATCH_MINUS_1, gapValue,
+					edgeGapValue), global.score(), 0.0f);
+
+			Alignment local = Hirschberg.local(a, b, MATCH_2_MISMATCH_MINUS_1,
+					gapValue);
+			assertValid(a, b, local, MATCH_2_MISMATCH_MINUS_1, gapValue,
+					gapValue);
+			assertEquals(local(a, b, MATCH_2_MISMATCH_MINUS_1, gapValue),
+					local.score(), 0.0f);
+		}
+	}
+
+	@Test
+	public void parallelAlignment() {
+		Random random = new Random(11);
+		String a = RandomStrings.random(random, 1300, "abcdefgh");
+		String b = RandomStrings.random(random, 1100, "abcdefgh");
+
+		Alignment global = Hirschberg.global(a, b, MATCH_2_MISMATCH_MINUS_1,
+				-1.0f, -1.0f);
+		assertValid(a, b, global, MATCH_2_MISMATCH_MINUS_1, -1.0f, -1.0f);
+		assertEquals(global(a, b, MATCH_2_MISMATCH_MINUS_1, -1.0f, -1.0f),
+				global.score(), 0.0f);
+	}
+
+	/*
+	 * Checks that the alignment consumes its substrings exactly and that its
+	 * score is the sum of its columns.
+	 */
+	private static void assertValid(String a, String b, Alignment alignment,
+			Substitution substitution, float gapValue, float edgeGapValue) {
+		int i = alignment.aStart();
+		int j = alignment.bStart();
+		float score = 0;
+		for (int column = 0; column < alignment.length(); column++) {
+			switch (alignment.operation(column)) {
+			case MATCH:
+				assertEquals(a.charAt(i), b.charAt(j));
+				score += substitution.compare(a, i++, b, j++);
+				break;
+			case SUBSTITUTION:
+				assertTrue(a.charAt(i) != b.charAt(j));
+				score += substitution.compare(a, i++, b, j++);
+				break;
+			case DELETION:
+				score += j == 0 ? edgeGapValue : gapValue;
+				i++;
+				break;
+			case INSERTION:
+				score += i == 0 ? edgeGapValue : gapValue;
+				j++;
+				break;
+			}
+		}
+		assertEquals(alignment.aEnd(), i);
+		assertEquals(alignment.bEnd(), j);
+		assertEquals(score, alignment.score(), 0.0f);
+		assertEquals(alignment.length(), alignment.alignedA('-').length());
+		assertEquals(alignment.length(), alignment.alignedB('-').length());
+	}
+
+	private static float global(String a, String b, Substitution substitution,
+			float gapValue, float edgeGapValue) {
+		float[][] matrix = new float[a.length() + 1][b.length() + 1];
+		for (int i = 1; i <= a.length(); i++) {
+			matrix[i][0] = i * edgeGapValue;
+		}
+		for (int j = 1; j <= b.length(); j++) {
+			matrix[0][j] = j * edgeGapValue;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				matrix[i][j] = max(max(matrix[i - 1][j] + gapValue,
+						matrix[i][j - 1] + gapValue), matrix[i - 1][j - 1]
+						+ substitution.compare(a, i - 1, b, j - 1));
+			}
+		}
+		return matrix[a.length()][b.length()];
+	}
+
+	private static float local(String a, String b, Substitution substitution,
+			float gapValue) {
+		float[][] matrix = new float[a.length() + 1][b.length() + 1];
+		float best = 0;
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				matrix[i][j] = max(0, max(max(matrix[i - 1][j] + gapValue,
+						matrix[i][j - 1] + gapValue), matrix[i - 1][j - 1]
+						+ substitution.compare(a, i - 1, b, j - 1)));
+				best = max(best, matrix[i][j]);
+			}
+		}
+		return best;
+	}
+
+}
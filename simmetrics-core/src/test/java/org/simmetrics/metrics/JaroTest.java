@@ -20,19 +20,26 @@
 
 package org.simmetrics.metrics;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
-import org.simmetrics.Metric;
+import org.simmetrics.RandomStrings;
 import org.simmetrics.StringDistance;
 import org.simmetrics.StringDistanceTest;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.ThresholdedStringMetric;
+import org.simmetrics.ThresholdedStringMetricTest;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
 public final class JaroTest {
 
-	public static final class NullCharacters extends StringMetricTest {
+	public static final class NullCharacters extends ThresholdedStringMetricTest {
 
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -54,7 +61,7 @@ public final class JaroTest {
 		}
 
 		@Override
-		protected Metric<String> getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return new Jaro();
 		}
 
@@ -66,7 +73,7 @@ public final class JaroTest {
 	 * >Wikipedia - Jaro Winkler Distance</a>
 	 */
 
-	public static final class WikipediaExamples extends StringMetricTest {
+	public static final class WikipediaExamples extends ThresholdedStringMetricTest {
 
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -87,14 +94,14 @@ public final class JaroTest {
 		}
 
 		@Override
-		protected Metric<String> getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return new Jaro();
 		}
 
 	}
 
 
-	public static final class Defaults extends StringMetricTest {
+	public static final class Defaults extends ThresholdedStringMetricTest {
 
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -102,7 +109,7 @@ public final class JaroTest {
 		}
 
 		@Override
-		protected StringMetric getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return new Jaro();
 		}
 
@@ -198,4 +205,60 @@ public static final class DistanceTest extends StringDistanceTest {
 					new T(0.2500f, "Healed", "Help"), };
 		}
 	}
+
+	public static final class Kernels {
+
+		@Test
+		public void randomized() {
+			Random random = new Random(7);
+			String[] alphabets = { "ab", "abcd!\"#$", "abcdefghijklmnopqrstuvwxyz" };
+			Jaro jaro = new Jaro();
+			for (int i = 0; i < 5000; i++) {
+				String alphabet = alphabets[random.nextInt(alphabets.length)];
+				// Lengths around 64 alternate between the bit mask and the
+				// scratch buffer.
+				String a = RandomStrings.random(random, 1 + random.nextInt(130), alphabet);
+				String b = RandomStrings.random(random, 1 + random.nextInt(130), alphabet);
+				assertEquals(a + " " + b, reference(a, b), jaro.compare(a, b), 0.0f);
+			}
+		}
+
+		/*
+		 * Matches characters from both sides and compares the common
+		 * characters pairwise.
+		 */
+		private static float reference(String a, String b) {
+			final int separation = max(0, max(a.length(), b.length()) / 2 - 1);
+			final String commonA = common(a, b, separation);
+			final String commonB = common(b, a, separation);
+			if (commonA.isEmpty()) {
+				return 0.0f;
+			}
+			float transpositions = 0;
+			for (int i = 0; i < commonA.length(); i++) {
+				if (commonA.charAt(i) != commonB.charAt(i)) {
+					transpositions++;
+				}
+			}
+			final int common = commonA.length();
+			return (common / (float) a.length() + common / (float) b.length()
+					+ (common - transpositions / 2.0f) / common) / 3.0f;
+		}
+
+		private static String common(String a, String b, int separation) {
+			final StringBuilder common = new StringBuilder();
+			final boolean[] matched = new boolean[b.length()];
+			for (int i = 0; i < a.length(); i++) {
+				for (int j = max(0, i - separation); j < min(b.length(), i + separation + 1); j++) {
+					if (!matched[j] && b.charAt(j) == a.charAt(i)) {
+						matched[j] = true;
+						common.append(a.charAt(i));
+						break;
+					}
+				}
+			}
+			return common.toString();
+		}
+	}
+
 }
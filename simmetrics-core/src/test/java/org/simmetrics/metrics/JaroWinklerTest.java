@@ -22,11 +22,10 @@ package org.simmetrics.metrics;
 
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
-import org.simmetrics.Metric;
 import org.simmetrics.StringDistance;
 import org.simmetrics.StringDistanceTest;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.ThresholdedStringMetric;
+import org.simmetrics.ThresholdedStringMetricTest;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
@@ -36,7 +35,7 @@ public final class JaroWinklerTest   {
 	 * href="http://en.wikipedia.org/wiki/Jaro%E2%80%93Winkler_distance"
 	 * >Wikipedia - Jaro Winkler Distance</a>
 	 */
-	public static final class WikipediaExamples extends StringMetricTest {
+	public static final class WikipediaExamples extends ThresholdedStringMetricTest {
 		
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -58,13 +57,13 @@ public final class JaroWinklerTest   {
 		}
 
 		@Override
-		protected Metric<String> getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return new JaroWinkler();
 		}
 
 	}
 
-	public static final class BoostThreshold extends StringMetricTest {
+	public static final class BoostThreshold extends ThresholdedStringMetricTest {
 
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -72,7 +71,7 @@ public final class JaroWinklerTest   {
 		}
 
 		@Override
-		protected StringMetric getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return JaroWinkler.createWithBoostThreshold();
 		}
 
@@ -87,7 +86,7 @@ public final class JaroWinklerTest   {
 					new T(0.9428f, "a b c d", "a b c e")};
 		}
 	}
-	public static final class Defaults extends StringMetricTest {
+	public static final class Defaults extends ThresholdedStringMetricTest {
 		
 		@Override
 		protected boolean satisfiesSubadditivity() {
@@ -95,7 +94,7 @@ public final class JaroWinklerTest   {
 		}
 		
 		@Override
-		protected StringMetric getMetric() {
+		protected ThresholdedStringMetric getMetric() {
 			return new JaroWinkler();
 		}
 
@@ -190,4 +189,5 @@ public final class JaroWinklerTest   {
 					new T(0.2000f, "Healed", "Help"), };
 		}
 	}
+
 }
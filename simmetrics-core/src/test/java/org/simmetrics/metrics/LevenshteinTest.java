@@ -22,11 +22,10 @@ package org.simmetrics.metrics;
 
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
-import org.simmetrics.Metric;
-import org.simmetrics.StringDistance;
-import org.simmetrics.StringDistanceTest;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.ThresholdedStringDistance;
+import org.simmetrics.ThresholdedStringDistanceTest;
+import org.simmetrics.ThresholdedStringMetric;
+import org.simmetrics.ThresholdedStringMetricTest;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
@@ -35,10 +34,10 @@ public final class LevenshteinTest {
 	@RunWith(Enclosed.class)
 	public static final class DistanceString {
 
-		public static final class UnitCost extends StringDistanceTest {
+		public static final class UnitCost extends ThresholdedStringDistanceTest {
 
 			@Override
-			protected StringDistance getMetric() {
+			protected ThresholdedStringDistance getMetric() {
 				return new Levenshtein();
 			}
 
@@ -110,10 +109,10 @@ public final class LevenshteinTest {
 	@RunWith(Enclosed.class)
 	public static final class MetricString {
 
-		public static final class UnitCost extends StringMetricTest {
+		public static final class UnitCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected StringMetric getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new Levenshtein();
 			}
 
@@ -184,10 +183,10 @@ public final class LevenshteinTest {
 			}
 		}
 
-		public static final class InsertDeleteCost extends StringMetricTest {
+		public static final class InsertDeleteCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new Levenshtein(0.1f, 1.0f);
 			}
 
@@ -212,10 +211,10 @@ public final class LevenshteinTest {
 			}
 		}
 
-		public static final class NoSubstituteCost extends StringMetricTest {
+		public static final class NoSubstituteCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new Levenshtein(1.0f, 0.0f);
 			}
 
@@ -249,10 +248,10 @@ public final class LevenshteinTest {
 			}
 		}
 
-		public static final class LowSubstituteCost extends StringMetricTest {
+		public static final class LowSubstituteCost extends ThresholdedStringMetricTest {
 
 			@Override
-			protected Metric<String> getMetric() {
+			protected ThresholdedStringMetric getMetric() {
 				return new Levenshtein(1.0f, 0.1f);
 			}
 
@@ -279,4 +278,5 @@ public final class LevenshteinTest {
 			}
 		}
 	}
+
 }
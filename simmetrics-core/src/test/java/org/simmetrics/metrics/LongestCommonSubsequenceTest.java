@@ -22,10 +22,10 @@ package org.simmetrics.metrics;
 
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparableStringMetricTest;
 import org.simmetrics.StringDistance;
 import org.simmetrics.StringDistanceTest;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
@@ -85,9 +85,9 @@ public final class LongestCommonSubsequenceTest   {
 
 	
 	
-	public static final class MetricTest extends StringMetricTest {
+	public static final class MetricTest extends PreparableStringMetricTest {
 		@Override
-		protected StringMetric getMetric() {
+		protected PreparableStringMetric getMetric() {
 			return new LongestCommonSubsequence();
 		}
 		
@@ -20,23 +20,43 @@
 
 package org.simmetrics.metrics;
 
+import static java.lang.Math.max;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparableStringMetricTest;
 import org.simmetrics.metrics.functions.MatchMismatch;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
 public class NeedlemanWunchTest {
 
-	public static final class Default extends StringMetricTest {
+	private static final String[][] ALIGNED = { { "test string1", "test string2" },
+			{ "Healed", "Herded" }, { "Sam J Chapman", "Samuel John Chapman" },
+			{ "Web Aplications", "Web Database Applications with PHP & MySQL" } };
+
+	public static final class Default extends PreparableStringMetricTest {
 
 		@Override
-		protected StringMetric getMetric() {
+		protected PreparableStringMetric getMetric() {
 			return new NeedlemanWunch();
 		}
 
+		@Test
+		public void alignmentScore() {
+			NeedlemanWunch metric = new NeedlemanWunch();
+			for (String[] pair : ALIGNED) {
+				// Penalties range from 0 to 2 per character of the longest string
+				float minScore = -2.0f * max(pair[0].length(), pair[1].length());
+				Alignment alignment = metric.align(pair[0], pair[1]);
+				assertEquals(metric.compare(pair[0], pair[1]),
+						(alignment.score() - minScore) / -minScore, 0.0001f);
+			}
+		}
+
 		
 		@Override
 		protected T[] getTests()  {
@@ -99,10 +119,10 @@ public class NeedlemanWunchTest {
 		}
 	}
 
-	public static final class NoGapValue extends StringMetricTest {
+	public static final class NoGapValue extends PreparableStringMetricTest {
 
 		@Override
-		protected StringMetric getMetric() {
+		protected PreparableStringMetric getMetric() {
 			return new NeedlemanWunch(0.0f, new MatchMismatch(0.0f, -1.0f));
 		}
 
@@ -140,10 +160,10 @@ public class NeedlemanWunchTest {
 		}
 	}
 
-	public static final class LowGapValue extends StringMetricTest {
+	public static final class LowGapValue extends PreparableStringMetricTest {
 
 		@Override
-		protected StringMetric getMetric() {
+		protected PreparableStringMetric getMetric() {
 			return new NeedlemanWunch(-0.1f, new MatchMismatch(0.0f, -1.0f));
 		}
 
@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public final class PatternMasksTest {
+
+	@Test
+	public void empty() {
+		PatternMasks masks = new PatternMasks("");
+		assertEquals(0, masks.length());
+		assertEquals(0, masks.blocks());
+		assertEquals(-1, masks.id('a'));
+	}
+
+	@Test
+	public void singleBlock() {
+		PatternMasks masks = new PatternMasks("abac\u0000");
+		assertEquals(5, masks.length());
+		assertEquals(1, masks.blocks());
+		assertEquals(0x5L, masks.mask('a', 0));
+		assertEquals(0x2L, masks.mask('b', 0));
+		assertEquals(0x8L, masks.mask('c', 0));
+		assertEquals(0x10L, masks.mask('\u0000', 0));
+		assertEquals(0x0L, masks.mask('d', 0));
+	}
+
+	@Test
+	public void multipleBlocks() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 130; i++) {
+			sb.append(i % 2 == 0 ? 'a' : 'b');
+		}
+		sb.setCharAt(64, 'c');
+
+		PatternMasks masks = new PatternMasks(sb.toString());
+		assertEquals(3, masks.blocks());
+		assertEquals(0x5555555555555555L, masks.mask('a', 0));
+		assertEquals(0x5555555555555554L, masks.mask('a', 1));
+		assertEquals(0x1L, masks.mask('c', 1));
+		assertEquals(0x2L, masks.mask('b', 2));
+	}
+
+	@Test
+	public void manyDistinctCharacters() {
+		StringBuilder sb = new StringBuilder();
+		for (char c = 0; c < 1000; c++) {
+			sb.append(c);
+		}
+		PatternMasks masks = new PatternMasks(sb.toString());
+		for (char c = 0; c < 1000; c++) {
+			assertEquals(1L << (c % 64), masks.mask(c, c / 64));
+		}
+		assertEquals(-1, masks.id((char) 1000));
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.SequenceDistance;
+import org.simmetrics.SequenceMetric;
+
+@SuppressWarnings("javadoc")
+public class SequencesTest {
+
+	@Test
+	public void encodePreservesEqualityBetweenSequences() {
+		Random random = new Random(1);
+		for (int n = 0; n < 100; n++) {
+			long[] a = sequence(random);
+			long[] b = sequence(random);
+			Sequences.Encoded encoded = Sequences.encode(a, b);
+			assertEquals(a.length, encoded.a.length());
+			assertEquals(b.length, encoded.b.length());
+			for (int i = 0; i < a.length; i++) {
+				for (int j = 0; j < b.length; j++) {
+					assertEquals(a[i] == b[j], encoded.a.charAt(i) == encoded.b.charAt(j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void encodeManyDistinctElements() {
+		// Elements that occur in only one sequence do not need a character
+		int[] a = new int[70000];
+		int[] b = new int[70000];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = i;
+			b[i] = -i - 1;
+		}
+		b[7] = 7;
+		assertEquals(a.length - 1, new Levenshtein().distance(a, b), 0.0f);
+	}
+
+	@Test
+	public void encodeTooManyCommonElements() {
+		int[] a = new int[70000];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = i;
+		}
+		Sequences.Encoded encoded = Sequences.encode(a, a.clone());
+		assertFalse(encoded.isString());
+		assertArrayEquals(encoded.aCodes, encoded.bCodes);
+	}
+
+	@Test
+	public void encodeCodesPreservesEqualityBetweenSequences() {
+		Random random = new Random(2);
+		for (int n = 0; n < 100; n++) {
+			long[] a = sequence(random);
+			long[] b = sequence(random);
+			Sequences.Encoded encoded = Sequences.encode(a, b, 0);
+			if (encoded.isString()) {
+				continue;
+			}
+			assertEquals(a.length, encoded.aCodes.length);
+			assertEquals(b.length, encoded.bCodes.length);
+			for (int i = 0; i < a.length; i++) {
+				for (int j = 0; j < b.length; j++) {
+					assertEquals(a[i] == b[j], encoded.aCodes[i] == encoded.bCodes[j]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void codesCompareAsStrings() {
+		Levenshtein levenshtein = new Levenshtein();
+		Levenshtein weightedLevenshtein = new Levenshtein(1.0f, 1.5f);
+		DamerauLevenshtein damerauLevenshtein = new DamerauLevenshtein(1.0f, 1.5f, 0.5f);
+		LongestCommonSubsequence subsequence = new LongestCommonSubsequence();
+		LongestCommonSubstring substring = new LongestCommonSubstring();
+		NeedlemanWunch needlemanWunch = new NeedlemanWunch();
+
+		Random random = new Random(3);
+		for (int n = 0; n < 100; n++) {
+			long[] a = sequence(random);
+			long[] b = sequence(random);
+			Sequences.Encoded codes = Sequences.encode(a, b, 0);
+			if (codes.isString()) {
+				continue;
+			}
+			assertEquals(levenshtein.distance(a, b), levenshtein.distance(codes), 0.0001f);
+			assertEquals(levenshtein.compare(a, b), levenshtein.compare(codes), 0.0001f);
+			assertEquals(weightedLevenshtein.distance(a, b), weightedLevenshtein.distance(codes), 0.0001f);
+			assertEquals(weightedLevenshtein.compare(a, b), weightedLevenshtein.compare(codes), 0.0001f);
+			assertEquals(damerauLevenshtein.distance(a, b), damerauLevenshtein.distance(codes), 0.0001f);
+			assertEquals(damerauLevenshtein.compare(a, b), damerauLevenshtein.compare(codes), 0.0001f);
+			assertEquals(subsequence.distance(a, b), subsequence.distance(codes), 0.0001f);
+			assertEquals(subsequence.compare(a, b), subsequence.compare(codes), 0.0001f);
+			assertEquals(substring.distance(a, b), substring.distance(codes), 0.0001f);
+			assertEquals(substring.compare(a, b), substring.compare(codes), 0.0001f);
+			assertEquals(needlemanWunch.compare(a, b), needlemanWunch.compare(codes), 0.0001f);
+		}
+	}
+
+	@Test
+	public void asListMetric() {
+		SequenceMetric metric = new Levenshtein();
+		assertEquals(0.75f, Sequences.<String> asListMetric(metric)
+				.compare(asList("a", null, "c", "d"), asList("a", null, "c", "e")), 0.0f);
+	}
+
+	@Test
+	public void asListDistance() {
+		SequenceDistance distance = new DamerauLevenshtein();
+		assertEquals(1.0f, Sequences.<String> asListDistance(distance)
+				.distance(asList("a", "b", null), asList("b", "a", null)), 0.0f);
+	}
+
+	@Test
+	public void hammingForSequence() {
+		SequenceDistance distance = HammingDistance.forSequence();
+		assertEquals(2.0f, distance.distance(new int[] { 1, 2, 3 }, new int[] { 1, 4, 5 }), 0.0f);
+		assertEquals(1.0f, distance.distance(new long[] { 1L << 40, 2 }, new long[] { 1, 2 }), 0.0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void hammingForSequenceDifferentLength() {
+		HammingDistance.forSequence().distance(new int[] { 1 }, new int[] { 1, 2 });
+	}
+
+	private static long[] sequence(Random random) {
+		long[] sequence = new long[random.nextInt(20)];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = random.nextInt(8) - 4L + (random.nextBoolean() ? Long.MIN_VALUE : 0);
+		}
+		return sequence;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
+import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings("javadoc")
+public final class SmithWatermanAffineGapTest {
+
+	private static final Gap[] GAPS = {
+			new AffineGap(-5.0f, -1.0f),
+			new AffineGap(-2.5f, -0.5f),
+			new LinearGap(-1.0f),
+			new ConstantGap(-2.0f) };
+
+	private static final Substitution SUBSTITUTION = new MatchMismatch(5.0f, -3.0f);
+
+	@Test
+	public void randomized() {
+		Random random = new Random(11);
+		String[] alphabets = { "ab", "abcd", "abcdefghijklmnopqrstuvwxyz" };
+		for (int i = 0; i < 2000; i++) {
+			String alphabet = alphabets[random.nextInt(alphabets.length)];
+			String a = RandomStrings.random(random, 1 + random.nextInt(40), alphabet);
+			String b = RandomStrings.random(random, 1 + random.nextInt(40), alphabet);
+			Gap gap = GAPS[i % GAPS.length];
+
+			StringMetric gotoh = new SmithWaterman(gap, SUBSTITUTION, Integer.MAX_VALUE);
+			StringMetric windowed = new SmithWaterman(new Opaque(gap), SUBSTITUTION, Integer.MAX_VALUE);
+
+			assertEquals(gap + " " + a + " " + b, windowed.compare(a, b), gotoh.compare(a, b), 0.0f);
+		}
+	}
+
+	/*
+	 * Hides the type of the gap to force the windowed algorithm.
+	 */
+	private static final class Opaque implements Gap {
+		private final Gap gap;
+
+		Opaque(Gap gap) {
+			this.gap = gap;
+		}
+
+		@Override
+		public float value(int fromIndex, int toIndex) {
+			return gap.value(fromIndex, toIndex);
+		}
+
+		@Override
+		public float max() {
+			return gap.max();
+		}
+
+		@Override
+		public float min() {
+			return gap.min();
+		}
+	}
+}
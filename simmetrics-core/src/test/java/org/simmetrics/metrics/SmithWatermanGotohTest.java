@@ -20,11 +20,19 @@
 
 package org.simmetrics.metrics;
 
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import static java.lang.Math.min;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparableStringMetricTest;
 
 @SuppressWarnings("javadoc")
-public final class SmithWatermanGotohTest extends StringMetricTest {
+public final class SmithWatermanGotohTest extends PreparableStringMetricTest {
+
+	private static final String[][] ALIGNED = { { "test string1", "test string2" },
+			{ "Healed", "Herded" }, { "Sam J Chapman", "Samuel John Chapman" },
+			{ "Web Aplications", "Web Database Applications with PHP & MySQL" } };
 	
 	@Override
 	protected boolean satisfiesSubadditivity() {
@@ -37,10 +45,20 @@ public final class SmithWatermanGotohTest extends StringMetricTest {
 	}
 
 	@Override
-	protected StringMetric getMetric() {
+	protected PreparableStringMetric getMetric() {
 		return new SmithWatermanGotoh();
 	}
 
+	@Test
+	public void alignmentScore() {
+		SmithWatermanGotoh metric = new SmithWatermanGotoh();
+		for (String[] pair : ALIGNED) {
+			Alignment alignment = metric.align(pair[0], pair[1]);
+			assertEquals(metric.compare(pair[0], pair[1]),
+					alignment.score() / min(pair[0].length(), pair[1].length()), 0.0001f);
+		}
+	}
+
 	
 	@Override
 	protected T[] getTests()  {
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.ListMetric;
+import org.simmetrics.ListMetricTest;
+import org.simmetrics.metrics.SmithWatermanSetMetric.Result;
+import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.MatchMismatchList;
+
+@SuppressWarnings("javadoc")
+public final class SmithWatermanSetMetricTest extends ListMetricTest {
+
+	@Override
+	protected boolean satisfiesSubadditivity() {
+		return false;
+	}
+
+	@Override
+	protected boolean satisfiesCoincidence() {
+		return false;
+	}
+
+	@Override
+	protected ListMetric<String> getMetric() {
+		return new SmithWatermanSetMetric<>();
+	}
+
+	@Override
+	protected T[] getTests() {
+		return new T[] {
+				new T(0.5000f, "test string1", "test string2"),
+				new T(1.0000f, "test", "test string2"),
+				new T(0.0000f, "", "test string2"),
+				new T(0.7500f, "aaa bbb ccc ddd", "aaa bbb ccc eee"),
+				new T(0.7500f, "a b c d", "a b c e"),
+				new T(0.6667f, "a b c", "a x b c"),
+				new T(0.8333f, "a b c d e f", "a b x c d e f"),
+				new T(0.0000f, "a b c", "d e f"),
+				new T(0.5000f, asList("a", null), asList("a", "b")),
+				new T(1.0000f, asList("a", null), asList("a", null)),
+		};
+	}
+
+	@Test
+	public void result() {
+		SmithWatermanSetMetric<String> metric = new SmithWatermanSetMetric<>();
+		assertEquals(new Result(25.0f, 25.0f / 30.0f, 6, 7),
+				metric.score(asList("a", "b", "c", "d", "e", "f"), asList("a", "b", "x", "c", "d", "e", "f")));
+		assertEquals(new Result(10.0f, 10.0f / 15.0f, 3, 2),
+				metric.score(asList("x", "a", "b"), asList("a", "b", "y")));
+		assertEquals(new Result(0.0f, 0.0f, 0, 0), metric.score(asList("a"), asList("b")));
+		assertEquals(new Result(0.0f, 1.0f, 0, 0), metric.score(new int[0], new int[0]));
+	}
+
+	@Test
+	public void sequences() {
+		SmithWatermanSetMetric<Integer> metric = new SmithWatermanSetMetric<>(new AffineGap(-3.0f, -0.5f),
+				new MatchMismatchList<Integer>(2.0f, -1.0f));
+		Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			int[] a = sequence(random);
+			int[] b = sequence(random);
+			long[] aLong = new long[a.length];
+			long[] bLong = new long[b.length];
+			List<Integer> aList = new ArrayList<>();
+			List<Integer> bList = new ArrayList<>();
+			for (int j = 0; j < a.length; j++) {
+				aLong[j] = a[j] + (1L << 40);
+				aList.add(a[j]);
+			}
+			for (int j = 0; j < b.length; j++) {
+				bLong[j] = b[j] + (1L << 40);
+				bList.add(b[j]);
+			}
+
+			Result expected = fullMatrix(a, b, -3.0f, -0.5f, 2.0f, -1.0f);
+			assertEquals(expected, metric.score(a, b));
+			assertEquals(expected, metric.score(aLong, bLong));
+			assertEquals(expected, metric.score(aList, bList));
+			assertEquals(expected.similarity(), metric.compare(a, b), 0.0f);
+		}
+	}
+
+	private static int[] sequence(Random random) {
+		int[] sequence = new int[random.nextInt(30)];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = random.nextInt(4);
+		}
+		return sequence;
+	}
+
+	/*
+	 * Textbook Gotoh with full matrices and gap lengths computed explicitly.
+	 */
+	private static Result fullMatrix(int[] a, int[] b, float open, float extend, float match,
+			float mismatch) {
+		int n = a.length;
+		int m = b.length;
+		if (n == 0 || m == 0) {
+			return new Result(0.0f, n == m ? 1.0f : 0.0f, 0, 0);
+		}
+		float[][] h = new float[n + 1][m + 1];
+		float max = 0;
+		int aEnd = 0;
+		int bEnd = 0;
+		for (int i = 1; i <= n; i++) {
+			for (int j = 1; j <= m; j++) {
+				float score = java.lang.Math.max(0, h[i - 1][j - 1] + (a[i - 1] == b[j - 1] ? match : mismatch));
+				for (int k = 1; k <= i; k++) {
+					score = java.lang.Math.max(score, h[i - k][j] + open + extend * (k - 1));
+				}
+				for (int k = 1; k <= j; k++) {
+					score = java.lang.Math.max(score, h[i][j - k] + open + extend * (k - 1));
+				}
+				h[i][j] = score;
+				if (score > max) {
+					max = score;
+					aEnd = i;
+					bEnd = j;
+				}
+			}
+		}
+		return new Result(max, max / (java.lang.Math.min(n, m) * match), aEnd, bEnd);
+	}
+
+}
@@ -20,12 +20,12 @@
 
 package org.simmetrics.metrics;
 
-import org.simmetrics.StringMetric;
-import org.simmetrics.StringMetricTest;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparableStringMetricTest;
 
 
 @SuppressWarnings("javadoc")
-public class SmithWatermanTest extends StringMetricTest {
+public class SmithWatermanTest extends PreparableStringMetricTest {
 	
 	@Override
 	protected boolean satisfiesSubadditivity(){
@@ -38,7 +38,7 @@ public class SmithWatermanTest extends StringMetricTest {
 	}
 	
 	@Override
-	protected StringMetric getMetric() {
+	protected PreparableStringMetric getMetric() {
 		return new SmithWaterman();
 	}
 
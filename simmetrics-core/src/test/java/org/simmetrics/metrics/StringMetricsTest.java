@@ -249,6 +249,11 @@ public class StringMetricsTest {
 			return StringMetrics.identity();
 		}
 
+		@Override
+		protected boolean toStringIncludesSimpleClassName() {
+			return false;
+		}
+
 		@Override
 		protected T[] getTests() {
 			return new T[] { new T(0.0f, "To repeat repeat is to repeat", ""),
@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.abs;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings("javadoc")
+public final class SubstitutionProfileTest {
+
+	// Scores depend on both characters, not only on equality
+	private static final Substitution DISTANCE = new Substitution() {
+
+		@Override
+		public float compare(String a, int aIndex, String b, int bIndex) {
+			return -abs(a.charAt(aIndex) - b.charAt(bIndex)) / 2.0f;
+		}
+
+		@Override
+		public float max() {
+			return 0.0f;
+		}
+
+		@Override
+		public float min() {
+			return -Character.MAX_VALUE / 2.0f;
+		}
+	};
+
+	@Test
+	public void emptyQuery() {
+		float[] scratch = new float[0];
+		assertSame(scratch, SubstitutionProfile.prepare("", DISTANCE).scores("abc", 1, scratch));
+	}
+
+	@Test
+	public void directUsesScratch() {
+		float[] scratch = new float[3];
+		SubstitutionProfile profile = SubstitutionProfile.direct("abc", DISTANCE);
+		assertSame(scratch, profile.scores("abc", 0, scratch));
+		assertArrayEquals(new float[] { 0.0f, -0.5f, -1.0f }, scratch, 0.0f);
+	}
+
+	@Test
+	public void preparedMatchesDirect() {
+		Random random = new Random(3);
+		Substitution[] substitutions = { DISTANCE, new MatchMismatch(1.0f, -2.0f) };
+		for (int i = 0; i < 200; i++) {
+			Substitution substitution = substitutions[i % substitutions.length];
+			String query = RandomStrings.random(random, random.nextInt(20), "abcdef");
+			String target = RandomStrings.random(random, 1 + random.nextInt(20), "defghi");
+
+			SubstitutionProfile prepared = SubstitutionProfile.prepare(query, substitution);
+			SubstitutionProfile direct = SubstitutionProfile.direct(query, substitution);
+			for (int j = 0; j < target.length(); j++) {
+				assertArrayEquals(
+						direct.scores(target, j, new float[query.length()]),
+						prepared.scores(target, j, new float[query.length()]), 0.0f);
+			}
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void directNullPointerException() {
+		SubstitutionProfile.direct(null, DISTANCE);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.RandomStrings;
+
+@SuppressWarnings("javadoc")
+public final class SuffixAutomatonTest {
+
+	private static int reference(String a, String b) {
+		int[] v0 = new int[b.length() + 1];
+		int[] v1 = new int[b.length() + 1];
+		int longest = 0;
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				v1[j] = a.charAt(i - 1) == b.charAt(j - 1) ? v0[j - 1] + 1 : 0;
+				longest = max(longest, v1[j]);
+			}
+			int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return longest;
+	}
+
+	@Test
+	public void empty() {
+		assertEquals(0, new SuffixAutomaton("").longestCommonSubstring(""));
+		assertEquals(0, new SuffixAutomaton("").longestCommonSubstring("test"));
+		assertEquals(0, new SuffixAutomaton("test").longestCommonSubstring(""));
+	}
+
+	@Test
+	public void longestCommonSubstring() {
+		assertEquals(4, new SuffixAutomaton("xabcdy").longestCommonSubstring("zabcdz"));
+		assertEquals(4, new SuffixAutomaton("Healed").longestCommonSubstring("Healthy"));
+		assertEquals(7, new SuffixAutomaton("abababa").longestCommonSubstring("bababababa"));
+		assertEquals(1, new SuffixAutomaton("😀").longestCommonSubstring("😁a"));
+	}
+
+	@Test
+	public void length() {
+		assertEquals(6, new SuffixAutomaton("Healed").length());
+	}
+
+	@Test
+	public void randomized() {
+		Random random = new Random(4);
+		String[] alphabets = { "a", "ab", "abcdefgh", "abcdefghijklmnopqrstuvwxyzé中" };
+		for (int i = 0; i < 2000; i++) {
+			String alphabet = alphabets[i % alphabets.length];
+			String a = RandomStrings.random(random, random.nextInt(150), alphabet);
+			String b = RandomStrings.random(random, random.nextInt(150), alphabet);
+			assertEquals(a + " " + b, reference(a, b), new SuffixAutomaton(a).longestCommonSubstring(b));
+		}
+	}
+
+	@Test
+	public void aboveCutoff() {
+		Random random = new Random(5);
+		LongestCommonSubstring metric = new LongestCommonSubstring();
+		for (int i = 0; i < 100; i++) {
+			int length = LongestCommonSubstring.AUTOMATON_CUTOFF + random.nextInt(100);
+			String a = RandomStrings.random(random, length, "abc");
+			String b = RandomStrings.random(random, length + random.nextInt(100), "abc");
+			assertEquals(a + " " + b, a.length() + b.length() - 2 * reference(a, b), metric.distance(a, b), 0.0f);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.simmetrics.StringDistance;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.HammingDistance;
+import org.simmetrics.metrics.Levenshtein;
+
+@SuppressWarnings("javadoc")
+@RunWith(Enclosed.class)
+public class BkTreeTest {
+
+	public static abstract class DistanceTest {
+
+		private final StringDistance distance = createDistance();
+
+		private final List<String> items = createItems(new Random(1));
+
+		private final BkTree tree = BkTree.build(distance, items);
+
+		abstract StringDistance createDistance();
+
+		abstract List<String> createItems(Random random);
+
+		@Test
+		public void size() {
+			assertEquals(items.size(), tree.size());
+		}
+
+		@Test
+		public void search() {
+			Random random = new Random(2);
+			for (int i = 0; i < 50; i++) {
+				String query = query(random);
+				for (float maxDistance : new float[] { 0, 1, 2, 3 }) {
+					assertEquals(bruteForce(query, maxDistance),
+							tree.search(query, maxDistance));
+				}
+			}
+		}
+
+		@Test
+		public void nearest() {
+			Random random = new Random(3);
+			for (int i = 0; i < 50; i++) {
+				String query = query(random);
+				for (int k : new int[] { 1, 5, 20 }) {
+					List<Neighbor> expected = bruteForce(query,
+							Float.POSITIVE_INFINITY).subList(0, k);
+					assertEquals(distances(expected),
+							distances(tree.nearest(query, k)));
+				}
+			}
+		}
+
+		@Test
+		public void nearestAll() {
+			assertEquals(items.size(), tree.nearest(items.get(0), 10000).size());
+		}
+
+		private String query(Random random) {
+			// Mutations of items and unrelated strings
+			String item = items.get(random.nextInt(items.size()));
+			if (random.nextBoolean()) {
+				return item;
+			}
+			char[] chars = item.toCharArray();
+			chars[random.nextInt(chars.length)] = (char) ('a' + random
+					.nextInt(4));
+			return new String(chars);
+		}
+
+		private List<Neighbor> bruteForce(String query, float maxDistance) {
+			List<Neighbor> neighbors = new ArrayList<>();
+			for (String item : items) {
+				float d = distance.distance(query, item);
+				if (d <= maxDistance) {
+					neighbors.add(new Neighbor(item, d));
+				}
+			}
+			Collections.sort(neighbors, new Comparator<Neighbor>() {
+				@Override
+				public int compare(Neighbor o1, Neighbor o2) {
+					int c = Float.compare(o1.distance(), o2.distance());
+					return c != 0 ? c : o1.item().compareTo(o2.item());
+				}
+			});
+			return neighbors;
+		}
+
+		private static List<Float> distances(List<Neighbor> neighbors) {
+			List<Float> distances = new ArrayList<>();
+			for (Neighbor neighbor : neighbors) {
+				distances.add(neighbor.distance());
+			}
+			return distances;
+		}
+
+		static List<String> randomStrings(Random random, int size,
+				int minLength, int maxLength) {
+			List<String> strings = new ArrayList<>();
+			while (strings.size() < size) {
+				int length = minLength + random.nextInt(maxLength - minLength + 1);
+				StringBuilder builder = new StringBuilder(length);
+				for (int i = 0; i < length; i++) {
+					builder.append((char) ('a' + random.nextInt(4)));
+				}
+				if (!strings.contains(builder.toString())) {
+					strings.add(builder.toString());
+				}
+			}
+			return strings;
+		}
+	}
+
+	public static final class LevenshteinTest extends DistanceTest {
+
+		@Override
+		StringDistance createDistance() {
+			return new Levenshtein();
+		}
+
+		@Override
+		List<String> createItems(Random random) {
+			return randomStrings(random, 300, 1, 8);
+		}
+	}
+
+	public static final class WeightedLevenshteinTest extends DistanceTest {
+
+		@Override
+		StringDistance createDistance() {
+			return new Levenshtein(0.5f, 0.75f);
+		}
+
+		@Override
+		List<String> createItems(Random random) {
+			return randomStrings(random, 300, 1, 8);
+		}
+	}
+
+	public static final class HammingTest extends DistanceTest {
+
+		@Override
+		StringDistance createDistance() {
+			return HammingDistance.forString();
+		}
+
+		@Override
+		List<String> createItems(Random random) {
+			return randomStrings(random, 300, 6, 6);
+		}
+	}
+
+	public static final class Construction {
+
+		@Test
+		public void empty() {
+			BkTree tree = new BkTree(new Levenshtein());
+			assertEquals(0, tree.size());
+			assertTrue(tree.search("abc", 2).isEmpty());
+			assertTrue(tree.nearest("abc", 2).isEmpty());
+		}
+
+		@Test
+		public void duplicates() {
+			BkTree tree = new BkTree(new Levenshtein());
+			assertTrue(tree.add("abc"));
+			assertTrue(tree.add("abd"));
+			assertFalse(tree.add("abc"));
+			assertFalse(tree.add("abd"));
+			assertEquals(2, tree.size());
+			assertEquals(asList(new Neighbor("abc", 0), new Neighbor("abd", 1)),
+					tree.search("abc", 1));
+		}
+
+		@Test
+		public void emptyString() {
+			BkTree tree = BkTree.build(new Levenshtein(), asList("", "a", "ab"));
+			assertEquals(asList(new Neighbor("", 0), new Neighbor("a", 1)),
+					tree.search("", 1));
+		}
+
+		@Test
+		public void damerauLevenshtein() {
+			BkTree tree = BkTree.build(new DamerauLevenshtein(),
+					asList("hello", "world", "help", "yellow"));
+			assertEquals(asList(new Neighbor("hello", 1), new Neighbor("help", 2)),
+					tree.search("hlelo", 2));
+			assertEquals(asList(new Neighbor("hello", 1)),
+					tree.nearest("hlelo", 1));
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void negativeDistance() {
+			new BkTree(new Levenshtein()).search("abc", -1);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void zeroNearest() {
+			new BkTree(new Levenshtein()).nearest("abc", 0);
+		}
+
+		@Test(expected = NullPointerException.class)
+		public void nullItem() {
+			new BkTree(new Levenshtein()).add(null);
+		}
+	}
+}
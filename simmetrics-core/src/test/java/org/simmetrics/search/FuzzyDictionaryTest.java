@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.search.LevenshteinAutomatonTest.randomString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.simmetrics.StringDistance;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.Levenshtein;
+
+@SuppressWarnings("javadoc")
+public class FuzzyDictionaryTest {
+
+	@Test
+	public void levenshtein() {
+		assertBruteForce(new Levenshtein(), false);
+	}
+
+	@Test
+	public void damerauLevenshtein() {
+		assertBruteForce(new DamerauLevenshtein(), true);
+	}
+
+	@Test
+	public void wideAlphabet() {
+		Random random = new Random(6);
+		TreeSet<String> terms = new TreeSet<>();
+		for (int i = 0; i < 5000; i++) {
+			terms.add(randomWord(random));
+		}
+		FuzzyDictionary dictionary = FuzzyDictionary.damerauLevenshtein(terms);
+		List<String> list = new ArrayList<>(terms);
+		for (int i = 0; i < 100; i++) {
+			String query = i % 2 == 0 ? list.get(random.nextInt(list.size())) : randomWord(random);
+			for (int k = 0; k <= 2; k++) {
+				assertEquals(query, bruteForce(new DamerauLevenshtein(), terms, query, k),
+						dictionary.search(query, k));
+			}
+		}
+	}
+
+	private static String randomWord(Random random) {
+		int length = 1 + random.nextInt(6);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(10)));
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void longQueries() {
+		Random random = new Random(4);
+		List<String> terms = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			terms.add(randomString(random, 62, 66));
+		}
+		FuzzyDictionary dictionary = FuzzyDictionary.levenshtein(terms);
+		for (int i = 0; i < 20; i++) {
+			String query = terms.get(i).substring(1);
+			assertEquals(bruteForce(new Levenshtein(), new TreeSet<>(terms), query, 2),
+					dictionary.search(query, 2));
+		}
+	}
+
+	@Test
+	public void duplicates() {
+		FuzzyDictionary dictionary = FuzzyDictionary.levenshtein(asList("b", "a", "b"));
+		assertEquals(2, dictionary.size());
+		assertEquals(asList(new Neighbor("a", 0), new Neighbor("b", 1)),
+				dictionary.search("a", 1));
+	}
+
+	@Test
+	public void empty() {
+		FuzzyDictionary dictionary = FuzzyDictionary.levenshtein(new ArrayList<String>());
+		assertTrue(dictionary.search("abc", 2).isEmpty());
+	}
+
+	@Test
+	public void emptyTerm() {
+		FuzzyDictionary dictionary = FuzzyDictionary.levenshtein(asList("", "a", "ab", "abc"));
+		assertEquals(asList(new Neighbor("", 0), new Neighbor("a", 1)),
+				dictionary.search("", 1));
+		assertEquals(asList(new Neighbor("ab", 0), new Neighbor("a", 1), new Neighbor("abc", 1)),
+				dictionary.search("ab", 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeDistance() {
+		FuzzyDictionary.levenshtein(asList("a")).search("a", -1);
+	}
+
+	private static void assertBruteForce(StringDistance distance, boolean transpositions) {
+		Random random = new Random(5);
+		TreeSet<String> terms = new TreeSet<>();
+		for (int i = 0; i < 2000; i++) {
+			terms.add(randomString(random, 0, 9));
+		}
+		FuzzyDictionary dictionary = transpositions ? FuzzyDictionary.damerauLevenshtein(terms)
+				: FuzzyDictionary.levenshtein(terms);
+
+		for (int i = 0; i < 100; i++) {
+			String query = randomString(random, 0, 9);
+			for (int k = 0; k <= 3; k++) {
+				assertEquals(query, bruteForce(distance, terms, query, k), dictionary.search(query, k));
+			}
+		}
+	}
+
+	private static List<Neighbor> bruteForce(StringDistance distance, TreeSet<String> terms,
+			String query, int k) {
+		List<Neighbor> neighbors = new ArrayList<>();
+		for (String term : terms) {
+			float d = distance.distance(query, term);
+			if (d <= k) {
+				neighbors.add(new Neighbor(term, d));
+			}
+		}
+		Collections.sort(neighbors, new Comparator<Neighbor>() {
+			@Override
+			public int compare(Neighbor o1, Neighbor o2) {
+				return Float.compare(o1.distance(), o2.distance());
+			}
+		});
+		return neighbors;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.Levenshtein;
+
+@SuppressWarnings("javadoc")
+public class LevenshteinAutomatonTest {
+
+	private final Levenshtein levenshtein = new Levenshtein();
+	private final DamerauLevenshtein damerauLevenshtein = new DamerauLevenshtein();
+
+	@Test
+	public void levenshtein() {
+		Random random = new Random(1);
+		for (int i = 0; i < 2000; i++) {
+			String query = randomString(random, 0, 8);
+			String word = randomString(random, 0, 8);
+			for (int k = 0; k <= 3; k++) {
+				int expected = (int) levenshtein.distance(query, word);
+				assertEquals(query + " " + word, expected <= k ? expected : k + 1,
+						LevenshteinAutomaton.levenshtein(query, k).distance(word));
+			}
+		}
+	}
+
+	@Test
+	public void damerauLevenshtein() {
+		Random random = new Random(2);
+		for (int i = 0; i < 2000; i++) {
+			String query = randomString(random, 0, 8);
+			String word = randomString(random, 0, 8);
+			for (int k = 0; k <= 3; k++) {
+				int expected = (int) damerauLevenshtein.distance(query, word);
+				assertEquals(query + " " + word, expected <= k ? expected : k + 1,
+						LevenshteinAutomaton.damerauLevenshtein(query, k).distance(word));
+			}
+		}
+	}
+
+	@Test
+	public void transpositions() {
+		assertEquals(2, LevenshteinAutomaton.levenshtein("abcd", 2).distance("bacd"));
+		assertEquals(1, LevenshteinAutomaton.damerauLevenshtein("abcd", 2).distance("bacd"));
+		assertEquals(2, LevenshteinAutomaton.damerauLevenshtein("abcd", 2).distance("badc"));
+		// Restricted edit distance, transposed characters are not edited again
+		assertEquals(3, LevenshteinAutomaton.damerauLevenshtein("ca", 3).distance("abc"));
+	}
+
+	@Test
+	public void matches() {
+		LevenshteinAutomaton automaton = LevenshteinAutomaton.levenshtein("hello", 1);
+		assertTrue(automaton.matches("hello"));
+		assertTrue(automaton.matches("hallo"));
+		assertTrue(automaton.matches("hell"));
+		assertFalse(automaton.matches("help"));
+	}
+
+	@Test
+	public void maxLength() {
+		String query = randomString(new Random(3), 63, 63);
+		for (String word : new String[] { query, "x" + query.substring(1, 62),
+				"xx" + query.substring(2, 62), query + "x" }) {
+			int expected = (int) levenshtein.distance(query, word);
+			assertEquals(word, expected <= 2 ? expected : 3,
+					LevenshteinAutomaton.levenshtein(query, 2).distance(word));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLong() {
+		LevenshteinAutomaton.levenshtein(randomString(new Random(3), 64, 64), 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeK() {
+		LevenshteinAutomaton.levenshtein("abc", -1);
+	}
+
+	static String randomString(Random random, int minLength, int maxLength) {
+		int length = minLength + random.nextInt(maxLength - minLength + 1);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(4)));
+		}
+		return builder.toString();
+	}
+}
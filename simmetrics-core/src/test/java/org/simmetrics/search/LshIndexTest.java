@@ -0,0 +1,195 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.builders.StringMetricBuilder.with;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.Jaccard;
+
+@SuppressWarnings("javadoc")
+public class LshIndexTest {
+
+	private final MinHash minHash = MinHash.onePermutation(qGram(3), 128, 7);
+
+	private final StringMetric jaccard = with(new Jaccard<String>())
+			.tokenize(qGram(3))
+			.build();
+
+	@Test
+	public void optimalBands() {
+		for (float threshold : new float[] { 0.1f, 0.5f, 0.8f, 0.95f }) {
+			int[] bandsAndRows = LshIndex.optimalBands(128, threshold);
+			assertTrue(bandsAndRows[0] * bandsAndRows[1] <= 128);
+		}
+
+		// Higher thresholds need longer bands
+		assertTrue(LshIndex.optimalBands(128, 0.3f)[1] < LshIndex
+				.optimalBands(128, 0.9f)[1]);
+	}
+
+	@Test
+	public void bandsAndRows() {
+		LshIndex index = new LshIndex(minHash, 16, 8, 0.5f);
+		assertEquals(16, index.bands());
+		assertEquals(8, index.rows());
+		assertEquals(0.5f, index.threshold(), 0.0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooManyBands() {
+		new LshIndex(minHash, 16, 9, 0.5f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		new LshIndex(minHash, 1.5f);
+	}
+
+	@Test
+	public void add() {
+		LshIndex index = new LshIndex(minHash, 0.5f);
+		assertEquals(0, index.add("hello world"));
+		assertEquals(1, index.add("hello worlds"));
+		assertEquals(2, index.size());
+		assertEquals("hello worlds", index.get(1));
+	}
+
+	@Test
+	public void emptyIndex() {
+		LshIndex index = new LshIndex(minHash, 0.5f);
+		assertArrayEquals(new int[0], index.candidates("hello"));
+		assertTrue(index.candidatePairs().isEmpty());
+		assertTrue(index.similarPairs().isEmpty());
+	}
+
+	@Test
+	public void candidates() {
+		LshIndex index = new LshIndex(minHash, 0.5f);
+		index.add("the quick brown fox");
+		index.add("jumps over the lazy dog");
+		index.add("the quick brown fox jumps");
+
+		assertArrayEquals(new int[] { 0, 2 },
+				index.candidates("the quick brown fox"));
+
+		// Queries after an addition see the new item
+		index.add("the quick brown fox!");
+		assertArrayEquals(new int[] { 0, 2, 3 },
+				index.candidates("the quick brown fox"));
+	}
+
+	@Test
+	public void candidatePairsAreDistinct() {
+		LshIndex index = new LshIndex(minHash, 32, 4, 0.5f);
+		index.add("the quick brown fox");
+		index.add("the quick brown fox");
+		index.add("the quick brown fox");
+
+		List<SimilarPair> pairs = index.candidatePairs();
+		assertEquals(3, pairs.size());
+		assertEquals(new SimilarPair(0, 1, 1.0f), pairs.get(0));
+		assertEquals(new SimilarPair(0, 2, 1.0f), pairs.get(1));
+		assertEquals(new SimilarPair(1, 2, 1.0f), pairs.get(2));
+	}
+
+	@Test
+	public void estimate() {
+		LshIndex index = new LshIndex(minHash, 0.5f);
+		index.add("the quick brown fox");
+		index.add("the quick brown fox");
+		index.add("jumps over the lazy dog");
+		assertEquals(1.0f, index.estimate(0, 1), 0.0f);
+		assertEquals(0.0f, index.estimate(0, 2), 0.1f);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void estimateOutOfBounds() {
+		new LshIndex(minHash, 0.5f).estimate(0, 0);
+	}
+
+	@Test
+	public void similarPairs() {
+		final float threshold = 0.6f;
+		final List<String> strings = strings(new Random(1), 200);
+
+		// The S-curve of 32 bands of 4 rows rises around 0.42
+		LshIndex index = new LshIndex(minHash, 32, 4, threshold);
+		for (String string : strings) {
+			index.add(string);
+		}
+
+		Set<SimilarPair> expected = new HashSet<>();
+		for (int i = 0; i < strings.size(); i++) {
+			for (int j = i + 1; j < strings.size(); j++) {
+				float similarity = jaccard.compare(strings.get(i),
+						strings.get(j));
+				if (similarity >= threshold) {
+					expected.add(new SimilarPair(i, j, similarity));
+				}
+			}
+		}
+
+		List<SimilarPair> actual = index.similarPairs();
+		assertTrue(expected.containsAll(actual));
+		// Allow for a few false negatives
+		assertTrue(actual.size() >= expected.size() * 0.95);
+		assertTrue(expected.size() > 50);
+	}
+
+	/*
+	 * Creates groups of near duplicates by mutating random base strings.
+	 */
+	private static List<String> strings(Random random, int size) {
+		final List<String> strings = new ArrayList<>();
+		String base = null;
+		for (int i = 0; i < size; i++) {
+			if (i % 5 == 0) {
+				base = randomString(random, 40);
+			}
+			StringBuilder mutated = new StringBuilder(base);
+			mutated.setCharAt(random.nextInt(mutated.length()),
+					(char) ('a' + random.nextInt(26)));
+			strings.add(mutated.toString());
+		}
+		return strings;
+	}
+
+	private static String randomString(Random random, int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(26)));
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+@SuppressWarnings("javadoc")
+@RunWith(Enclosed.class)
+public class MinHashTest {
+
+	public static abstract class SchemeTest {
+
+		abstract MinHash create(int k, long seed);
+
+		private final MinHash minHash = create(256, 42);
+
+		@Test
+		public void size() {
+			assertEquals(256, minHash.size());
+			assertEquals(256, minHash.signature("a b c").length);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void zeroSize() {
+			create(0, 42);
+		}
+
+		@Test
+		public void deterministic() {
+			assertArrayEquals(minHash.signature("a b c"),
+					create(256, 42).signature("a b c"));
+		}
+
+		@Test
+		public void seed() {
+			assertFalse(Arrays.equals(minHash.signature("a b c"),
+					create(256, 43).signature("a b c")));
+		}
+
+		@Test
+		public void ignoresDuplicatesAndOrder() {
+			assertArrayEquals(minHash.signature("a b c"),
+					minHash.signature("c b a b a"));
+			assertArrayEquals(minHash.signature("a b c"),
+					minHash.signature(asList("c", "a", "b", "c")));
+		}
+
+		@Test
+		public void identical() {
+			assertEquals(1.0f, minHash.similarity(minHash.signature("a b c"),
+					minHash.signature("a b c")), 0.0f);
+		}
+
+		@Test
+		public void empty() {
+			final int[] empty = minHash.signature("");
+			final int[] nonEmpty = minHash.signature("a");
+			assertEquals(1.0f, minHash.similarity(empty, empty), 0.0f);
+			assertEquals(0.0f, minHash.similarity(empty, nonEmpty), 0.0f);
+			assertEquals(0.0f, minHash.similarity(nonEmpty, empty), 0.0f);
+		}
+
+		@Test
+		public void singleToken() {
+			// Every bin must be filled from the single token
+			final int[] a = minHash.signature("a");
+			assertEquals(1.0f, minHash.similarity(a, minHash.signature("a")), 0.0f);
+			assertEquals(0.0f, minHash.similarity(a, minHash.signature("b")), 0.1f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void differentSize() {
+			minHash.similarity(minHash.signature("a"), create(128, 42)
+					.signature("a"));
+		}
+
+		@Test
+		public void estimatesJaccard() {
+			// |a & b| = 500, |a | b| = 1500
+			assertEstimate(0, 1000, 500, 1500, 1.0f / 3.0f);
+			// |a & b| = 900, |a | b| = 1100
+			assertEstimate(0, 1000, 100, 1100, 900.0f / 1100.0f);
+			// Disjoint
+			assertEstimate(0, 100, 100, 200, 0.0f);
+		}
+
+		@Test
+		public void estimatesJaccardOfSmallSets() {
+			// Most bins of a one permutation signature are empty
+			assertEstimate(0, 10, 5, 15, 1.0f / 3.0f);
+		}
+
+		private void assertEstimate(int aFrom, int aTo, int bFrom, int bTo,
+				float expected) {
+			// Average over seeds to keep the test stable
+			float sum = 0;
+			final int seeds = 20;
+			for (int seed = 0; seed < seeds; seed++) {
+				final MinHash minHash = create(128, seed);
+				sum += minHash.similarity(
+						minHash.signature(tokens(aFrom, aTo)),
+						minHash.signature(tokens(bFrom, bTo)));
+			}
+			assertEquals(expected, sum / seeds, 0.03f);
+		}
+
+		private static List<String> tokens(int from, int to) {
+			final List<String> tokens = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				tokens.add("token" + i);
+			}
+			Collections.shuffle(tokens);
+			return tokens;
+		}
+	}
+
+	public static final class KPermutationsTest extends SchemeTest {
+
+		@Override
+		MinHash create(int k, long seed) {
+			return MinHash.kPermutations(whitespace(), k, seed);
+		}
+
+		@Test
+		public void defaultSeed() {
+			assertArrayEquals(MinHash.kPermutations(qGram(2), 16)
+					.signature("hello"), MinHash.kPermutations(qGram(2), 16)
+					.signature("hello"));
+		}
+	}
+
+	public static final class OnePermutationTest extends SchemeTest {
+
+		@Override
+		MinHash create(int k, long seed) {
+			return MinHash.onePermutation(whitespace(), k, seed);
+		}
+
+		@Test
+		public void defaultSeed() {
+			assertArrayEquals(MinHash.onePermutation(qGram(2), 16)
+					.signature("hello"), MinHash.onePermutation(qGram(2), 16)
+					.signature("hello"));
+		}
+
+		@Test
+		public void differsFromKPermutations() {
+			assertFalse(Arrays.equals(
+					MinHash.kPermutations(whitespace(), 16, 1).signature("a b"),
+					MinHash.onePermutation(whitespace(), 16, 1).signature("a b")));
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.search.QGramIndex.Measure;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings("javadoc")
+public class QGramIndexTest {
+
+	private static final float[] THRESHOLDS = { 0.0f, 0.1f, 0.3f, 0.5f, 0.7f, 0.9f, 1.0f };
+
+	@Test
+	public void qGrams() {
+		List<String> records = records(new Random(1), 500);
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, qGram(2), records, new Random(2));
+		}
+	}
+
+	@Test
+	public void paddedQGrams() {
+		List<String> records = records(new Random(3), 500);
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, qGramWithPadding(3), records, new Random(4));
+		}
+	}
+
+	@Test
+	public void repeatedTokens() {
+		// Few distinct words, records repeat them
+		Random random = new Random(5);
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			StringBuilder builder = new StringBuilder();
+			for (int j = random.nextInt(8); j >= 0; j--) {
+				builder.append("w").append(random.nextInt(6)).append(' ');
+			}
+			records.add(builder.toString());
+		}
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, whitespace(), records, new Random(6));
+		}
+	}
+
+	@Test
+	public void emptyRecords() {
+		List<String> records = asList("", "ab", "", "abc");
+		QGramIndex index = QGramIndex.build(Measure.JACCARD, qGram(2), records);
+		assertEquals(asList(new Match(0, "", 1.0f), new Match(2, "", 1.0f)),
+				index.search("", 0.5f));
+		assertEquals(asList(new Match(1, "ab", 1.0f), new Match(3, "abc", 0.5f)),
+				index.search("ab", 0.5f));
+	}
+
+	@Test
+	public void emptyIndex() {
+		QGramIndex index = QGramIndex.build(Measure.DICE, qGram(2), new ArrayList<String>());
+		assertEquals(0, index.size());
+		assertTrue(index.search("abc", 0.5f).isEmpty());
+	}
+
+	@Test
+	public void get() {
+		QGramIndex index = QGramIndex.build(Measure.COSINE, qGram(2), asList("b", "a"));
+		assertEquals(2, index.size());
+		assertEquals("a", index.get(1));
+		assertEquals(Measure.COSINE, index.measure());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		QGramIndex.build(Measure.DICE, qGram(2), asList("a")).search("a", 1.1f);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullRecord() {
+		QGramIndex.build(Measure.DICE, qGram(2), asList("a", null));
+	}
+
+	private static void assertBruteForce(Measure measure, Tokenizer tokenizer,
+			List<String> records, Random random) {
+		QGramIndex index = QGramIndex.build(measure, tokenizer, records);
+		StringMetric metric = measure.metric(tokenizer);
+		for (int i = 0; i < 30; i++) {
+			String query = i % 3 == 0 ? randomString(random)
+					: mutate(random, records.get(random.nextInt(records.size())));
+			for (float threshold : THRESHOLDS) {
+				assertEquals(measure + " " + query + " " + threshold,
+						bruteForce(metric, records, query, threshold),
+						index.search(query, threshold));
+			}
+		}
+	}
+
+	private static List<Match> bruteForce(StringMetric metric, List<String> records,
+			String query, float threshold) {
+		List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < records.size(); i++) {
+			float similarity = metric.compare(query, records.get(i));
+			if (similarity >= threshold) {
+				matches.add(new Match(i, records.get(i), similarity));
+			}
+		}
+		Collections.sort(matches, new Comparator<Match>() {
+			@Override
+			public int compare(Match o1, Match o2) {
+				int c = Float.compare(o2.similarity(), o1.similarity());
+				return c != 0 ? c : Integer.compare(o1.index(), o2.index());
+			}
+		});
+		return matches;
+	}
+
+	private static List<String> records(Random random, int size) {
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			records.add(i % 4 == 0 || records.isEmpty() ? randomString(random)
+					: mutate(random, records.get(random.nextInt(records.size()))));
+		}
+		return records;
+	}
+
+	private static String randomString(Random random) {
+		int length = random.nextInt(16);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+
+	private static String mutate(Random random, String string) {
+		StringBuilder builder = new StringBuilder(string);
+		for (int i = random.nextInt(3); i >= 0 && builder.length() > 0; i--) {
+			builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(6)));
+		}
+		if (random.nextBoolean()) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.simmetrics.SetMetric;
+import org.simmetrics.metrics.Dice;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.metrics.TanimotoCoefficient;
+import org.simmetrics.search.SimilarityJoin.Listener;
+import org.simmetrics.search.SimilarityJoin.Measure;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings("javadoc")
+public class SimilarityJoinTest {
+
+	private static final float[] THRESHOLDS = { 0.1f, 0.3f, 0.5f, 0.6f, 0.8f, 0.9f, 1.0f };
+
+	@Test
+	public void qGrams() {
+		List<String> records = records(new Random(1), 400);
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, qGram(2), records);
+		}
+	}
+
+	@Test
+	public void paddedQGrams() {
+		List<String> records = records(new Random(2), 400);
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, qGramWithPadding(3), records);
+		}
+	}
+
+	@Test
+	public void words() {
+		Random random = new Random(3);
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			StringBuilder builder = new StringBuilder();
+			for (int j = random.nextInt(10); j >= 0; j--) {
+				builder.append("w").append(random.nextInt(12)).append(' ');
+			}
+			records.add(builder.toString());
+		}
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, whitespace(), records);
+		}
+	}
+
+	@Test
+	public void parallel() {
+		// Large enough to split the probe phase
+		List<String> records = records(new Random(4), 3000);
+		for (Measure measure : Measure.values()) {
+			assertBruteForce(measure, qGram(2), records, 0.7f);
+		}
+	}
+
+	@Test
+	public void emptyRecords() {
+		List<String> records = asList("", "ab", "", "abc", "");
+		SimilarityJoin join = new SimilarityJoin(Measure.JACCARD, qGram(2), 0.5f);
+		assertEquals(asList(
+				new SimilarPair(0, 2, 1.0f),
+				new SimilarPair(0, 4, 1.0f),
+				new SimilarPair(1, 3, 0.5f),
+				new SimilarPair(2, 4, 1.0f)),
+				join.join(records));
+	}
+
+	@Test
+	public void noRecords() {
+		SimilarityJoin join = new SimilarityJoin(Measure.DICE, qGram(2), 0.5f);
+		assertTrue(join.join(new ArrayList<String>()).isEmpty());
+	}
+
+	@Test
+	public void listener() {
+		List<String> records = records(new Random(5), 2000);
+		SimilarityJoin join = new SimilarityJoin(Measure.JACCARD, qGram(2), 0.8f);
+
+		final List<SimilarPair> pairs = Collections
+				.synchronizedList(new ArrayList<SimilarPair>());
+		join.join(records, new Listener() {
+			@Override
+			public void found(SimilarPair pair) {
+				pairs.add(pair);
+			}
+		});
+		Collections.sort(pairs, SimilarPair.BY_INDEX);
+		assertEquals(join.join(records), pairs);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroThreshold() {
+		new SimilarityJoin(Measure.DICE, qGram(2), 0.0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		new SimilarityJoin(Measure.DICE, qGram(2), 1.1f);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullRecord() {
+		new SimilarityJoin(Measure.DICE, qGram(2), 0.5f).join(asList("a", null));
+	}
+
+	private static void assertBruteForce(Measure measure, Tokenizer tokenizer,
+			List<String> records) {
+		for (float threshold : THRESHOLDS) {
+			assertBruteForce(measure, tokenizer, records, threshold);
+		}
+	}
+
+	private static void assertBruteForce(Measure measure, Tokenizer tokenizer,
+			List<String> records, float threshold) {
+		SimilarityJoin join = new SimilarityJoin(measure, tokenizer, threshold);
+		assertEquals(measure + " " + threshold,
+				bruteForce(metric(measure), tokenizer, records, threshold),
+				join.join(records));
+	}
+
+	private static List<SimilarPair> bruteForce(SetMetric<String> metric,
+			Tokenizer tokenizer, List<String> records, float threshold) {
+		List<Set<String>> sets = new ArrayList<>();
+		for (String record : records) {
+			sets.add(tokenizer.tokenizeToSet(record));
+		}
+		List<SimilarPair> pairs = new ArrayList<>();
+		for (int i = 0; i < sets.size(); i++) {
+			for (int j = i + 1; j < sets.size(); j++) {
+				float similarity = metric.compare(sets.get(i), sets.get(j));
+				if (similarity >= threshold) {
+					pairs.add(new SimilarPair(i, j, similarity));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static SetMetric<String> metric(Measure measure) {
+		switch (measure) {
+		case JACCARD:
+			return new Jaccard<>();
+		case DICE:
+			return new Dice<>();
+		case TANIMOTO:
+			return new TanimotoCoefficient<>();
+		case OVERLAP_COEFFICIENT:
+			return new OverlapCoefficient<>();
+		default:
+			throw new IllegalArgumentException();
+		}
+	}
+
+	private static List<String> records(Random random, int size) {
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			records.add(i % 4 == 0 || records.isEmpty() ? randomString(random)
+					: mutate(random, records.get(random.nextInt(records.size()))));
+		}
+		return records;
+	}
+
+	private static String randomString(Random random) {
+		int length = random.nextInt(16);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+
+	private static String mutate(Random random, String string) {
+		StringBuilder builder = new StringBuilder(string);
+		for (int i = random.nextInt(3); i >= 0 && builder.length() > 0; i--) {
+			builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(6)));
+		}
+		if (random.nextBoolean()) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.builders.StringMetricBuilder.with;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.simmetrics.StringDistance;
+import org.simmetrics.StringMetric;
+import org.simmetrics.builders.StringDistanceBuilder;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.EuclideanDistance;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.JaroWinkler;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.metrics.LongestCommonSubsequence;
+import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.Tokenizers;
+
+@SuppressWarnings("javadoc")
+public class SimilarityMatrixTest {
+
+	private static final float[] THRESHOLDS = { 0.0f, 0.5f, 0.8f, 1.0f };
+
+	private static final float[] MAX_DISTANCES = { 0.0f, 1.0f, 3.0f };
+
+	private static final StringMetric[] METRICS = {
+			// Thresholded and batch
+			new Levenshtein(),
+			new JaroWinkler(),
+			// Batch
+			new LongestCommonSubsequence(),
+			// Preprocessing
+			with(new Jaccard<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(Tokenizers.qGram(2))
+				.build(),
+			with(new CosineSimilarity<String>())
+				.tokenize(Tokenizers.qGramWithPadding(2))
+				.build(),
+			// Plain
+			new StringMetric() {
+				@Override
+				public float compare(String a, String b) {
+					return a.length() == b.length() ? 1.0f : 0.5f;
+				}
+			}
+	};
+
+	private static final StringDistance[] DISTANCES = {
+			// Thresholded
+			new Levenshtein(),
+			new DamerauLevenshtein(),
+			// Preprocessing
+			StringDistanceBuilder.with(new EuclideanDistance<String>())
+				.tokenize(Tokenizers.qGram(2))
+				.build(),
+			// Plain
+			new StringDistance() {
+				@Override
+				public float distance(String a, String b) {
+					return Math.abs(a.length() - b.length());
+				}
+			}
+	};
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void dense() {
+		List<String> rows = items(new Random(1), 70);
+		List<String> columns = items(new Random(2), 40);
+		for (StringMetric metric : METRICS) {
+			assertDense(SimilarityMatrix.forMetric(metric), bruteForce(metric, rows, columns), rows, columns);
+		}
+		for (StringDistance distance : DISTANCES) {
+			assertDense(SimilarityMatrix.forDistance(distance), bruteForce(distance, rows, columns), rows, columns);
+		}
+	}
+
+	@Test
+	public void symmetric() {
+		List<String> items = items(new Random(3), 70);
+		for (StringMetric metric : METRICS) {
+			assertSymmetric(SimilarityMatrix.forMetric(metric), bruteForce(metric, items, items), items);
+		}
+		for (StringDistance distance : DISTANCES) {
+			assertSymmetric(SimilarityMatrix.forDistance(distance), bruteForce(distance, items, items), items);
+		}
+	}
+
+	@Test
+	public void sparse() {
+		List<String> rows = items(new Random(4), 70);
+		List<String> columns = items(new Random(5), 40);
+		for (StringMetric metric : METRICS) {
+			float[] expected = bruteForce(metric, rows, columns);
+			for (float threshold : THRESHOLDS) {
+				assertEquals(metric + " " + threshold,
+						cells(expected, rows.size(), columns.size(), threshold, true, false),
+						sparse(SimilarityMatrix.forMetric(metric), rows, columns, threshold));
+				assertEquals(metric + " " + threshold,
+						cells(bruteForce(metric, rows, rows), rows.size(), rows.size(), threshold, true, true),
+						sparse(SimilarityMatrix.forMetric(metric), rows, threshold));
+			}
+		}
+		for (StringDistance distance : DISTANCES) {
+			float[] expected = bruteForce(distance, rows, columns);
+			for (float maxDistance : MAX_DISTANCES) {
+				assertEquals(distance + " " + maxDistance,
+						cells(expected, rows.size(), columns.size(), maxDistance, false, false),
+						sparse(SimilarityMatrix.forDistance(distance), rows, columns, maxDistance));
+				assertEquals(distance + " " + maxDistance,
+						cells(bruteForce(distance, rows, rows), rows.size(), rows.size(), maxDistance, false, true),
+						sparse(SimilarityMatrix.forDistance(distance), rows, maxDistance));
+			}
+		}
+	}
+
+	@Test
+	public void parallel() {
+		// Large enough to span several tiles
+		List<String> rows = items(new Random(6), 100);
+		List<String> columns = items(new Random(7), 600);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (StringMetric metric : METRICS) {
+				assertDense(SimilarityMatrix.forMetric(metric, pool), bruteForce(metric, rows, columns), rows,
+						columns);
+				assertSymmetric(SimilarityMatrix.forMetric(metric, pool), bruteForce(metric, columns, columns),
+						columns);
+			}
+			for (StringDistance distance : DISTANCES) {
+				assertDense(SimilarityMatrix.forDistance(distance, pool), bruteForce(distance, rows, columns),
+						rows, columns);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void memoryMapped() throws IOException {
+		List<String> rows = items(new Random(8), 50);
+		List<String> columns = items(new Random(9), 30);
+		StringMetric metric = new Levenshtein();
+		File file = folder.newFile();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			MappedByteBuffer bytes = raf.getChannel().map(MapMode.READ_WRITE, 0,
+					4L * rows.size() * columns.size());
+			FloatBuffer matrix = bytes.asFloatBuffer();
+			SimilarityMatrix.forMetric(metric).compute(rows, columns, matrix);
+			bytes.force();
+
+			float[] actual = new float[rows.size() * columns.size()];
+			matrix.get(actual);
+			assertArrayEquals(bruteForce(metric, rows, columns), actual, 0.0f);
+		}
+	}
+
+	@Test
+	public void empty() {
+		SimilarityMatrix matrix = SimilarityMatrix.forMetric(new Levenshtein());
+		matrix.compute(new ArrayList<String>(), asList("a"), new float[0]);
+		matrix.computeSymmetric(new ArrayList<String>(), new float[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void matrixTooSmall() {
+		SimilarityMatrix.forMetric(new Levenshtein()).compute(asList("a", "b"), asList("a"), new float[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bufferTooSmall() {
+		SimilarityMatrix.forMetric(new Levenshtein()).computeSymmetric(asList("a", "b"), FloatBuffer.allocate(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		SimilarityMatrix.forMetric(new Levenshtein()).computeSymmetric(asList("a"), 1.1f, new Collector());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidMaxDistance() {
+		SimilarityMatrix.forDistance(new Levenshtein()).computeSymmetric(asList("a"), -1.0f, new Collector());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullItem() {
+		SimilarityMatrix.forMetric(new Levenshtein()).computeSymmetric(asList("a", null), new float[4]);
+	}
+
+	private static void assertDense(SimilarityMatrix matrix, float[] expected, List<String> rows,
+			List<String> columns) {
+		float[] actual = new float[expected.length];
+		matrix.compute(rows, columns, actual);
+		assertArrayEquals(matrix.toString(), expected, actual, 0.0f);
+
+		FloatBuffer buffer = FloatBuffer.allocate(expected.length);
+		matrix.compute(rows, columns, buffer);
+		assertArrayEquals(matrix.toString(), expected, buffer.array(), 0.0f);
+	}
+
+	private static void assertSymmetric(SimilarityMatrix matrix, float[] expected, List<String> items) {
+		float[] actual = new float[expected.length];
+		matrix.computeSymmetric(items, actual);
+		assertArrayEquals(matrix.toString(), expected, actual, 0.0f);
+
+		FloatBuffer buffer = FloatBuffer.allocate(expected.length);
+		matrix.computeSymmetric(items, buffer);
+		assertArrayEquals(matrix.toString(), expected, buffer.array(), 0.0f);
+	}
+
+	private static Set<String> sparse(SimilarityMatrix matrix, List<String> rows, List<String> columns,
+			float threshold) {
+		Collector collector = new Collector();
+		matrix.compute(rows, columns, threshold, collector);
+		return collector.cells;
+	}
+
+	private static Set<String> sparse(SimilarityMatrix matrix, List<String> items, float threshold) {
+		Collector collector = new Collector();
+		matrix.computeSymmetric(items, threshold, collector);
+		return collector.cells;
+	}
+
+	private static Set<String> cells(float[] matrix, int rows, int columns, float threshold,
+			boolean similarity, boolean upper) {
+		Set<String> cells = new HashSet<>();
+		for (int i = 0; i < rows; i++) {
+			for (int j = upper ? i + 1 : 0; j < columns; j++) {
+				float value = matrix[i * columns + j];
+				if (similarity ? value >= threshold : value <= threshold) {
+					cells.add(cell(i, j, value));
+				}
+			}
+		}
+		return cells;
+	}
+
+	private static String cell(int row, int column, float value) {
+		return row + " " + column + " " + value;
+	}
+
+	private static final class Collector implements SimilarityMatrix.Listener {
+		final Set<String> cells = Collections.synchronizedSet(new HashSet<String>());
+
+		@Override
+		public void found(int row, int column, float value) {
+			cells.add(cell(row, column, value));
+		}
+	}
+
+	private static float[] bruteForce(StringMetric metric, List<String> rows, List<String> columns) {
+		float[] matrix = new float[rows.size() * columns.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			for (int j = 0; j < columns.size(); j++) {
+				matrix[i * columns.size() + j] = metric.compare(rows.get(i), columns.get(j));
+			}
+		}
+		return matrix;
+	}
+
+	private static float[] bruteForce(StringDistance distance, List<String> rows, List<String> columns) {
+		float[] matrix = new float[rows.size() * columns.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			for (int j = 0; j < columns.size(); j++) {
+				matrix[i * columns.size() + j] = distance.distance(rows.get(i), columns.get(j));
+			}
+		}
+		return matrix;
+	}
+
+	private static List<String> items(Random random, int size) {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			items.add(i % 4 == 0 || items.isEmpty() ? randomString(random)
+					: mutate(random, items.get(random.nextInt(items.size()))));
+		}
+		return items;
+	}
+
+	private static String randomString(Random random) {
+		int length = random.nextInt(16);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+
+	private static String mutate(Random random, String string) {
+		StringBuilder builder = new StringBuilder(string);
+		for (int i = random.nextInt(3); i >= 0 && builder.length() > 0; i--) {
+			builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(6)));
+		}
+		if (random.nextBoolean()) {
+			builder.append((char) ('A' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.builders.StringMetricBuilder.with;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.Jaccard;
+import org.simmetrics.metrics.JaroWinkler;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.metrics.LongestCommonSubsequence;
+import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.Tokenizers;
+
+@SuppressWarnings("javadoc")
+public class SimilaritySearcherTest {
+
+	private static final int[] K = { 1, 2, 5, 20, 1000 };
+
+	private static final float[] THRESHOLDS = { 0.0f, 0.3f, 0.5f, 0.7f, 0.9f, 1.0f };
+
+	private static final StringMetric[] METRICS = {
+			// Thresholded
+			new Levenshtein(),
+			new JaroWinkler(),
+			// Preparable
+			new LongestCommonSubsequence(),
+			// Preprocessing
+			with(new Jaccard<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(Tokenizers.qGram(2))
+				.build(),
+			with(new CosineSimilarity<String>())
+				.tokenize(Tokenizers.qGramWithPadding(2))
+				.build(),
+			// Plain
+			new StringMetric() {
+				@Override
+				public float compare(String a, String b) {
+					return a.length() == b.length() ? 1.0f : 0.5f;
+				}
+			}
+	};
+
+	@Test
+	public void nearest() {
+		List<String> items = items(new Random(1), 300);
+		for (StringMetric metric : METRICS) {
+			assertNearest(metric, items, new Random(2));
+		}
+	}
+
+	@Test
+	public void search() {
+		List<String> items = items(new Random(3), 300);
+		for (StringMetric metric : METRICS) {
+			assertSearch(metric, items, new Random(4));
+		}
+	}
+
+	@Test
+	public void parallel() {
+		// Large enough to split the scan
+		List<String> items = items(new Random(5), 5000);
+		for (StringMetric metric : METRICS) {
+			assertNearest(metric, items, new Random(6));
+			assertSearch(metric, items, new Random(7));
+		}
+	}
+
+	@Test
+	public void ties() {
+		SimilaritySearcher searcher = SimilaritySearcher.build(new Levenshtein(),
+				asList("b", "a", "c", "a"));
+		assertEquals(asList(new Match(1, "a", 1.0f), new Match(3, "a", 1.0f), new Match(0, "b", 0.0f)),
+				searcher.nearest("a", 3));
+	}
+
+	@Test
+	public void get() {
+		SimilaritySearcher searcher = SimilaritySearcher.build(new Levenshtein(), asList("b", "a"));
+		assertEquals(2, searcher.size());
+		assertEquals("a", searcher.get(1));
+	}
+
+	@Test
+	public void empty() {
+		SimilaritySearcher searcher = SimilaritySearcher.build(new Levenshtein(), new ArrayList<String>());
+		assertTrue(searcher.nearest("a", 3).isEmpty());
+		assertTrue(searcher.search("a", 0.0f).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidK() {
+		SimilaritySearcher.build(new Levenshtein(), asList("a")).nearest("a", 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		SimilaritySearcher.build(new Levenshtein(), asList("a")).search("a", 1.1f);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullItem() {
+		SimilaritySearcher.build(new Levenshtein(), asList("a", null));
+	}
+
+	private static void assertNearest(StringMetric metric, List<String> items, Random random) {
+		SimilaritySearcher searcher = SimilaritySearcher.build(metric, items);
+		for (int i = 0; i < 20; i++) {
+			String query = query(random, items);
+			List<Match> all = bruteForce(metric, items, query, Float.NEGATIVE_INFINITY);
+			for (int k : K) {
+				assertEquals(metric + " " + query + " " + k,
+						all.subList(0, Math.min(k, all.size())),
+						searcher.nearest(query, k));
+			}
+		}
+	}
+
+	private static void assertSearch(StringMetric metric, List<String> items, Random random) {
+		SimilaritySearcher searcher = SimilaritySearcher.build(metric, items);
+		for (int i = 0; i < 20; i++) {
+			String query = query(random, items);
+			for (float threshold : THRESHOLDS) {
+				assertEquals(metric + " " + query + " " + threshold,
+						bruteForce(metric, items, query, threshold),
+						searcher.search(query, threshold));
+			}
+		}
+	}
+
+	private static List<Match> bruteForce(StringMetric metric, List<String> items, String query,
+			float threshold) {
+		List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			float similarity = metric.compare(query, items.get(i));
+			if (similarity >= threshold) {
+				matches.add(new Match(i, items.get(i), similarity));
+			}
+		}
+		Collections.sort(matches, Match.BY_SIMILARITY);
+		return matches;
+	}
+
+	private static String query(Random random, List<String> items) {
+		return random.nextInt(3) == 0 ? randomString(random)
+				: mutate(random, items.get(random.nextInt(items.size())));
+	}
+
+	private static List<String> items(Random random, int size) {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			items.add(i % 4 == 0 || items.isEmpty() ? randomString(random)
+					: mutate(random, items.get(random.nextInt(items.size()))));
+		}
+		return items;
+	}
+
+	private static String randomString(Random random) {
+		int length = random.nextInt(16);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+
+	private static String mutate(Random random, String string) {
+		StringBuilder builder = new StringBuilder(string);
+		for (int i = random.nextInt(3); i >= 0 && builder.length() > 0; i--) {
+			builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(6)));
+		}
+		if (random.nextBoolean()) {
+			builder.append((char) ('A' + random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+}
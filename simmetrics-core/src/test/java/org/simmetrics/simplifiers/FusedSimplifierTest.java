@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.simplifiers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FusedSimplifierTest {
+
+	private static final String[] CHARACTERS = { "a", "z", "A", "Z", "0", "9", "_", " ", "-", "^", "`", "$", "\\",
+			"I", "i", "é", "É", "ß", "İ", "ı", "Σ", "σ", "é", "ʰ",
+			"¨", "😀", "🏻", "\ud800" };
+
+	private static final Simplifier[] SIMPLIFIERS = { Simplifiers.toLowerCase(Locale.ENGLISH),
+			Simplifiers.toUpperCase(Locale.ENGLISH), Simplifiers.toLowerCase(new Locale("tr")),
+			Simplifiers.toUpperCase(new Locale("lt")), Simplifiers.removeDiacritics(), Simplifiers.replaceNonWord(),
+			Simplifiers.replaceNonWord("_"), Simplifiers.replaceNonWord("é"), Simplifiers.removeNonWord(),
+			Simplifiers.replaceAll("\\W+", " - "), Simplifiers.replaceAll("\\W+", "$0"),
+			Simplifiers.replaceAll(Pattern.compile("\\W", Pattern.UNICODE_CHARACTER_CLASS), " "),
+			Simplifiers.normalize(Form.NFC), Simplifiers.removeAll("[aeiou]") };
+
+	@Test
+	public void equivalentToSequential() {
+		Random random = new Random(1);
+		for (int n = 0; n < 2000; n++) {
+			List<Simplifier> simplifiers = new ArrayList<>();
+			for (int i = random.nextInt(5) + 2; i > 0; i--) {
+				simplifiers.add(SIMPLIFIERS[random.nextInt(SIMPLIFIERS.length)]);
+			}
+			Simplifier chain = Simplifiers.chain(simplifiers);
+			for (int i = 0; i < 10; i++) {
+				String input = input(random, random.nextBoolean());
+				assertEquals(chain + " " + input, sequential(simplifiers, input), chain.simplify(input));
+			}
+		}
+	}
+
+	@Test
+	public void compile() {
+		Simplifier custom = new Simplifier() {
+			@Override
+			public String simplify(String input) {
+				return input;
+			}
+		};
+		Simplifier lower = Simplifiers.toLowerCase(Locale.ENGLISH);
+		Simplifier removeDiacritics = Simplifiers.removeDiacritics();
+		Simplifier replaceNonWord = Simplifiers.replaceNonWord();
+
+		List<Simplifier> compiled = FusedSimplifier.compile(asList(lower, custom, lower, removeDiacritics,
+				replaceNonWord, custom, replaceNonWord));
+		assertEquals(5, compiled.size());
+		assertSame(lower, compiled.get(0));
+		assertSame(custom, compiled.get(1));
+		assertTrue(compiled.get(2) instanceof FusedSimplifier);
+		assertEquals("ToLowerCase [locale=en] -> RemoveDiacritics -> Replace [\\W -> ' ' ]",
+				compiled.get(2).toString());
+		assertSame(custom, compiled.get(3));
+		assertSame(replaceNonWord, compiled.get(4));
+	}
+
+	@Test
+	public void removeDiacriticsEquivalentToRegex() {
+		Pattern diacritics = Pattern.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
+		Simplifier removeDiacritics = Simplifiers.removeDiacritics();
+		StringBuilder builder = new StringBuilder();
+		for (int c = 0; c <= Character.MAX_CODE_POINT; c++) {
+			builder.appendCodePoint(c);
+			if (builder.length() >= 64 || c == Character.MAX_CODE_POINT) {
+				String input = builder.toString();
+				assertEquals(diacritics.matcher(Normalizer.normalize(input, Form.NFD)).replaceAll(""),
+						removeDiacritics.simplify(input));
+				builder.setLength(0);
+			}
+		}
+	}
+
+	private static String sequential(List<Simplifier> simplifiers, String input) {
+		String output = input;
+		for (Simplifier simplifier : simplifiers) {
+			output = simplifier.simplify(output);
+		}
+		return output;
+	}
+
+	private static String input(Random random, boolean ascii) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = random.nextInt(12); i > 0; i--) {
+			String c = CHARACTERS[random.nextInt(CHARACTERS.length)];
+			if (ascii && c.charAt(0) >= 0x80) {
+				c = String.valueOf((char) random.nextInt(0x80));
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.tokenizers.Tokenizers.chain;
+import static org.simmetrics.tokenizers.Tokenizers.filter;
+import static org.simmetrics.tokenizers.Tokenizers.hashed;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithFilter;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+
+@SuppressWarnings("javadoc")
+@RunWith(Enclosed.class)
+public class HashedQGramTest {
+
+	public static final class Consistency {
+
+		private static final String[] SYMBOLS = { "a", "b", "é", " ", "\t", "\u000B", "𐐀" };
+
+		private static final List<Tokenizer> TOKENIZERS = asList(
+				qGram(1),
+				qGram(2),
+				qGram(3),
+				qGram(4),
+				qGram(7),
+				qGramWithFilter(2),
+				qGramWithFilter(5),
+				qGramWithPadding(2),
+				qGramWithPadding(3),
+				qGramWithPadding(2, "@", "!"),
+				qGramWithPadding(4, "<>", "𐐁"),
+				chain(whitespace(), qGram(2)),
+				chain(whitespace(), qGram(5)),
+				chain(whitespace(), qGramWithFilter(3)),
+				chain(whitespace(), qGramWithPadding(3)));
+
+		private final List<String> inputs = inputs();
+
+		private static List<String> inputs() {
+			final List<String> inputs = new ArrayList<>(asList(
+					"",
+					"a",
+					"ab",
+					"abc",
+					"Héllo",
+					"HelloWorld",
+					"𐈀𐈁𐈂",
+					" a  bc d ",
+					"\t\nx\u000By\f\rz",
+					"aaaa aaaa",
+					"   "));
+
+			final Random random = new Random(1);
+			for (int i = 0; i < 200; i++) {
+				final StringBuilder builder = new StringBuilder();
+				for (int length = random.nextInt(20); length > 0; length--) {
+					builder.append(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+				}
+				inputs.add(builder.toString());
+			}
+			return inputs;
+		}
+
+		@Test
+		public void sameTokenCounts() {
+			for (Tokenizer tokenizer : TOKENIZERS) {
+				final IdTokenizer hashed = hashed(tokenizer);
+				for (String input : inputs) {
+					final Multiset<String> expected = HashMultiset.create(tokenizer.tokenizeToList(input));
+					final IdMultiset actual = hashed.tokenizeToIdMultiset(input);
+
+					final String message = tokenizer + " " + input;
+					assertEquals(message, expected.size(), actual.size());
+					assertEquals(message, expected.elementSet().size(), actual.distinct());
+					assertEquals(message, expected.elementSet().size(), hashed.tokenizeToIdSet(input).length);
+					assertEquals(message, sortedCounts(expected), sortedCounts(actual));
+				}
+			}
+		}
+
+		@Test
+		public void sameIntersections() {
+			for (Tokenizer tokenizer : TOKENIZERS) {
+				final IdTokenizer hashed = hashed(tokenizer);
+				for (int i = 1; i < inputs.size(); i++) {
+					final String a = inputs.get(i - 1);
+					final String b = inputs.get(i);
+
+					final int expected = Sets.intersection(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b))
+							.size();
+					final int actual = intersectionSize(hashed.tokenizeToIdSet(a), hashed.tokenizeToIdSet(b));
+					assertEquals(tokenizer + " " + a + " " + b, expected, actual);
+				}
+			}
+		}
+
+		private static List<Integer> sortedCounts(Multiset<String> multiset) {
+			final List<Integer> counts = new ArrayList<>();
+			for (Multiset.Entry<String> entry : multiset.entrySet()) {
+				counts.add(entry.getCount());
+			}
+			Collections.sort(counts);
+			return counts;
+		}
+
+		private static List<Integer> sortedCounts(IdMultiset multiset) {
+			final List<Integer> counts = new ArrayList<>();
+			for (int i = 0; i < multiset.distinct(); i++) {
+				counts.add(multiset.count(i));
+			}
+			Collections.sort(counts);
+			return counts;
+		}
+
+		private static int intersectionSize(long[] a, long[] b) {
+			int size = 0;
+			for (long id : a) {
+				if (Arrays.binarySearch(b, id) >= 0) {
+					size++;
+				}
+			}
+			return size;
+		}
+	}
+
+	public static final class Hashed {
+
+		@Test
+		public void sortedDistinctIds() {
+			final long[] ids = hashed(qGram(2)).tokenizeToIdSet("abababa");
+
+			assertEquals(2, ids.length);
+			assertTrue(ids[0] < ids[1]);
+		}
+
+		@Test
+		public void emptyInput() {
+			assertEquals(0, hashed(qGram(2)).tokenizeToIdSet("").length);
+			assertEquals(0, hashed(qGramWithPadding(2)).tokenizeToIdMultiset("").size());
+			assertEquals(0, hashed(chain(whitespace(), qGram(2))).tokenizeToIdMultiset("  ").size());
+		}
+
+		@Test
+		public void toStringContainsTokenizer() {
+			assertEquals("HashedQGram [QGram [q=2]]", hashed(qGram(2)).toString());
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void unsupportedTokenizer() {
+			hashed(whitespace());
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void unsupportedFilter() {
+			hashed(filter(qGram(2), Predicates.<String> alwaysTrue()));
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void unsupportedChain() {
+			hashed(chain(qGram(3), qGram(2)));
+		}
+
+		@Test(expected = NullPointerException.class)
+		public void nullTokenizer() {
+			hashed(null);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TokenDictionaryTest {
+
+	private final TokenDictionary dictionary = new TokenDictionary();
+
+	@Test
+	public void assignsDenseIds() {
+		assertEquals(0, dictionary.id("a"));
+		assertEquals(1, dictionary.id("b"));
+		assertEquals(0, dictionary.id("a"));
+		assertEquals(2, dictionary.id("c"));
+		assertEquals(3, dictionary.size());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullToken() {
+		dictionary.id(null);
+	}
+
+	@Test
+	public void toSet() {
+		dictionary.id("c");
+		assertArrayEquals(new long[] { 0, 1, 2 }, dictionary.toSet(asList("a", "b", "c", "a")));
+		assertArrayEquals(new long[0], dictionary.toSet(Collections.<String> emptyList()));
+	}
+
+	@Test
+	public void toMultiset() {
+		IdMultiset multiset = dictionary.toMultiset(asList("b", "a", "b", "c", "b"));
+
+		assertEquals(5, multiset.size());
+		assertEquals(3, multiset.distinct());
+		assertEquals(0, multiset.id(0));
+		assertEquals(3, multiset.count(0));
+		assertEquals(1, multiset.id(1));
+		assertEquals(1, multiset.count(1));
+		assertEquals("[0 x 3, 1, 2]", multiset.toString());
+	}
+
+	@Test
+	public void toMultisetEmpty() {
+		IdMultiset multiset = dictionary.toMultiset(Collections.<String> emptyList());
+
+		assertEquals(0, multiset.size());
+		assertEquals(0, multiset.distinct());
+		assertEquals("[]", multiset.toString());
+	}
+
+	@Test
+	public void multisetEquality() {
+		IdMultiset a = dictionary.toMultiset(asList("a", "b", "a"));
+		IdMultiset b = dictionary.toMultiset(asList("b", "a", "a"));
+		IdMultiset c = dictionary.toMultiset(asList("a", "b", "b"));
+
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, c);
+	}
+
+	@Test
+	public void tokenizer() {
+		IdTokenizer tokenizer = dictionary.tokenizer(Tokenizers.whitespace());
+
+		assertArrayEquals(new long[] { 0, 1 }, tokenizer.tokenizeToIdSet("a b a"));
+		assertEquals(dictionary.toMultiset(asList("a", "b", "a")), tokenizer.tokenizeToIdMultiset("a b a"));
+		assertEquals("Whitespace -> TokenDictionary [size=2]", tokenizer.toString());
+	}
+
+	@Test
+	public void concurrentAssignment() throws Exception {
+		final int tokens = 1000;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(new Callable<int[]>() {
+					@Override
+					public int[] call() {
+						int[] ids = new int[tokens];
+						for (int i = 0; i < tokens; i++) {
+							ids[i] = dictionary.id("token" + i);
+						}
+						return ids;
+					}
+				}));
+			}
+
+			int[] expected = results.get(0).get();
+			for (Future<int[]> result : results) {
+				assertArrayEquals(expected, result.get());
+			}
+			int[] sorted = expected.clone();
+			Arrays.sort(sorted);
+			for (int i = 0; i < tokens; i++) {
+				assertEquals(i, sorted[i]);
+			}
+			assertEquals(tokens, dictionary.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -112,9 +112,11 @@ public final class ReadMeExample {
 
 		SmithWatermanSetMetric<Integer> swSet = new SmithWatermanSetMetric<>();
 		SmithWaterman sw = new SmithWaterman();
-		System.out.println(swSet.compare(scores1, scores2));
-		System.out.println(swSet.getFirstLocalIndex());
-		System.out.println(swSet.getSecondLocalIndex());
+		SmithWatermanSetMetric.Result result = swSet.score(scores1, scores2);
+		System.out.println(result.similarity());
+		// Index after the last aligned element of either list
+		System.out.println("end in scores1: " + result.aEnd());
+		System.out.println("end in scores2: " + result.bEnd());
 
 		System.out.println(sw.compare("axxxbxxxabxxxxa", "abc"));
 	}
@@ -0,0 +1,411 @@
+/*
+ * #%L
+ * Simmetrics Vector
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.vector;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.MAX;
+
+import java.util.BitSet;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Computes local alignment scores using Farrar's striped algorithm. The query
+ * is laid out in stripes such that each vector lane processes a contiguous
+ * segment of the query. Gaps that cross from one lane into the next are
+ * corrected afterwards in a lazy loop that rarely runs more than a few
+ * iterations.
+ * <p>
+ * Scores are computed in 16-bit lanes first. When the score approaches the
+ * short range, the alignment is repeated in 32-bit lanes.
+ * <p>
+ * All scores are integers scaled by a power of two. This makes the result
+ * exactly equal to the score computed with floats, provided all intermediate
+ * values are exactly representable as a float. This is checked by
+ * {@link #isExact(int, int)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="https://doi.org/10.1093/bioinformatics/btl582">Farrar, M.
+ *      (2007). Striped Smith-Waterman speeds database searches six times over
+ *      other SIMD implementations.</a>
+ */
+final class StripedAlignment {
+
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+	// Large enough to keep scores non-negative at 24 bits. Small enough to
+	// subtract a penalty without wrapping around.
+	private static final short NEGATIVE_SHORT = Short.MIN_VALUE / 2;
+	private static final int NEGATIVE_INT = Integer.MIN_VALUE / 2;
+	private static final int MAX_SHORT_PENALTY = -NEGATIVE_SHORT / 2;
+
+	private static final int MAX_EXACT = 1 << 24;
+	private static final int MAX_SCALE = 1 << 10;
+
+	private static final int OVERFLOW = -1;
+
+	private final int match;
+	private final int mismatch;
+	private final int gapStart;
+	private final int gapExtend;
+	private final boolean gapsFromEdges;
+	private final float scale;
+	private final boolean shorts;
+
+	private StripedAlignment(int match, int mismatch, int gapStart,
+			int gapExtend, boolean gapsFromEdges, float scale) {
+		this.match = match;
+		this.mismatch = mismatch;
+		this.gapStart = gapStart;
+		this.gapExtend = gapExtend;
+		this.gapsFromEdges = gapsFromEdges;
+		this.scale = scale;
+		this.shorts = max(max(match, abs(mismatch)),
+				max(abs(gapStart), abs(gapExtend))) <= MAX_SHORT_PENALTY;
+	}
+
+	/**
+	 * Creates a striped alignment. A gap of length one is scored as gapStart,
+	 * each additional position adds gapExtend.
+	 * 
+	 * @param match
+	 *            score for equal characters
+	 * @param mismatch
+	 *            non-positive score for unequal characters
+	 * @param gapStart
+	 *            non-positive score of a gap of length one
+	 * @param gapExtend
+	 *            non-positive score of each additional position in a gap
+	 * @param gapsFromEdges
+	 *            true when a gap may start after the first character of either
+	 *            string
+	 * @return a striped alignment or null when the scores can not be scaled
+	 *         to integers
+	 */
+	static StripedAlignment create(float match, float mismatch,
+			float gapStart, float gapExtend, boolean gapsFromEdges) {
+		if (mismatch > 0 || gapStart > 0 || gapExtend > 0) {
+			return null;
+		}
+
+		for (int scale = 1; scale <= MAX_SCALE; scale *= 2) {
+			if (isInteger(match * scale) && isInteger(mismatch * scale)
+					&& isInteger(gapStart * scale)
+					&& isInteger(gapExtend * scale)) {
+				return new StripedAlignment((int) (match * scale),
+						(int) (mismatch * scale), (int) (gapStart * scale),
+						(int) (gapExtend * scale), gapsFromEdges, scale);
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isInteger(float value) {
+		return abs(value) < MAX_EXACT && value == Math.rint(value);
+	}
+
+	/**
+	 * Returns true when all intermediate scores for strings of these lengths
+	 * can be represented exactly as floats.
+	 * 
+	 * @param aLength
+	 *            length of the first string
+	 * @param bLength
+	 *            length of the second string
+	 * @return true when the score is exact
+	 */
+	boolean isExact(int aLength, int bLength) {
+		final long bound = (long) min(aLength, bLength) * match
+				+ abs(mismatch) + abs(gapStart) + abs(gapExtend);
+		return bound < MAX_EXACT;
+	}
+
+	/**
+	 * Returns the highest local alignment score of two non-empty strings.
+	 * 
+	 * @param a
+	 *            a non-empty string
+	 * @param b
+	 *            a non-empty string
+	 * @return the highest local alignment score
+	 */
+	float score(String a, String b) {
+		// Longer queries fill more segments per lane
+		final String query = a.length() >= b.length() ? a : b;
+		final String target = query == a ? b : a;
+
+		if (shorts) {
+			final int score = alignShorts(query, target);
+			if (score != OVERFLOW) {
+				return score / scale;
+			}
+		}
+
+		return alignInts(query, target) / scale;
+	}
+
+	private int alignShorts(String query, String target) {
+		final int lanes = SHORTS.length();
+		final int segments = (query.length() + lanes - 1) / lanes;
+		final int length = segments * lanes;
+
+		final short[] profile = new short[length];
+		fill(profile, (short) absentCharacter(target));
+		for (int q = 0; q < query.length(); q++) {
+			profile[(q % segments) * lanes + q / segments] = (short) query
+					.charAt(q);
+		}
+
+		short[] previous = new short[length];
+		short[] current = new short[length];
+
+		// Best gap in the target ending in each query position
+		final short[] targetGaps = new short[length];
+		fill(targetGaps, NEGATIVE_SHORT);
+
+		final ShortVector zero = ShortVector.zero(SHORTS);
+		final ShortVector negative = ShortVector.broadcast(SHORTS,
+				NEGATIVE_SHORT);
+		final ShortVector matchScore = ShortVector.broadcast(SHORTS,
+				(short) match);
+		final ShortVector mismatchScore = ShortVector.broadcast(SHORTS,
+				(short) mismatch);
+		final ShortVector start = ShortVector.broadcast(SHORTS,
+				(short) gapStart);
+		final ShortVector extend = ShortVector.broadcast(SHORTS,
+				(short) gapExtend);
+		final ShortVector limit = ShortVector.broadcast(SHORTS,
+				(short) (Short.MAX_VALUE - max(match, 0)));
+		final VectorMask<Short> firstQuery = VectorMask.fromLong(SHORTS, 1L);
+
+		ShortVector best = zero;
+
+		for (int j = 0; j < target.length(); j++) {
+			final ShortVector character = ShortVector.broadcast(SHORTS,
+					(short) target.charAt(j));
+			final boolean targetGapsOpen = gapsFromEdges || j > 0;
+
+			// Diagonal for the first segment comes from the previous lane
+			ShortVector h = zero.slice(lanes - 1,
+					ShortVector.fromArray(SHORTS, current, length - lanes));
+			ShortVector queryGap = negative;
+
+			final short[] swap = previous;
+			previous = current;
+			current = swap;
+
+			for (int s = 0, o = 0; s < segments; s++, o += lanes) {
+				final ShortVector targetGap = ShortVector.fromArray(SHORTS,
+						targetGaps, o);
+				final ShortVector score = mismatchScore.blend(matchScore,
+						ShortVector.fromArray(SHORTS, profile, o).eq(character));
+
+				h = h.add(score).max(targetGap).max(queryGap).max(zero);
+				best = best.max(h);
+				h.intoArray(current, o);
+
+				ShortVector open = h.add(start);
+				if (targetGapsOpen) {
+					targetGap.add(extend).max(open).intoArray(targetGaps, o);
+				}
+				if (!gapsFromEdges && s == 0) {
+					open = open.blend(negative, firstQuery);
+				}
+				queryGap = queryGap.add(extend).max(open);
+
+				h = ShortVector.fromArray(SHORTS, previous, o);
+			}
+
+			// Carry gaps in the query over into the next lane
+			queryGap = negative.slice(lanes - 1, queryGap);
+			for (int s = 0, o = 0;;) {
+				h = ShortVector.fromArray(SHORTS, current, o);
+				ShortVector open = h.add(start);
+				if (!gapsFromEdges && s == 0) {
+					open = open.blend(negative, firstQuery);
+				}
+				if (!queryGap.compare(GT, open).anyTrue()) {
+					break;
+				}
+
+				// The carried gap can not exceed the score it started from
+				final VectorMask<Short> raised = queryGap.compare(GT, h);
+				h = h.max(queryGap);
+				h.intoArray(current, o);
+
+				open = h.add(start);
+				if (targetGapsOpen) {
+					ShortVector.fromArray(SHORTS, targetGaps, o).max(open)
+							.intoArray(targetGaps, o);
+				}
+				// Only raised scores open new gaps, others have been opened
+				queryGap = queryGap.add(extend)
+						.max(open.blend(negative, raised.not())).max(negative);
+
+				if (++s == segments) {
+					s = 0;
+					o = 0;
+					queryGap = negative.slice(lanes - 1, queryGap);
+				} else {
+					o += lanes;
+				}
+			}
+
+			// A score in the next column may not fit
+			if (best.compare(GT, limit).anyTrue()) {
+				return OVERFLOW;
+			}
+		}
+
+		return best.reduceLanes(MAX);
+	}
+
+	private int alignInts(String query, String target) {
+		final int lanes = INTS.length();
+		final int segments = (query.length() + lanes - 1) / lanes;
+		final int length = segments * lanes;
+
+		// Characters are non-negative, -1 never matches
+		final int[] profile = new int[length];
+		fill(profile, -1);
+		for (int q = 0; q < query.length(); q++) {
+			profile[(q % segments) * lanes + q / segments] = query.charAt(q);
+		}
+
+		int[] previous = new int[length];
+		int[] current = new int[length];
+
+		// Best gap in the target ending in each query position
+		final int[] targetGaps = new int[length];
+		fill(targetGaps, NEGATIVE_INT);
+
+		final IntVector zero = IntVector.zero(INTS);
+		final IntVector negative = IntVector.broadcast(INTS, NEGATIVE_INT);
+		final IntVector matchScore = IntVector.broadcast(INTS, match);
+		final IntVector mismatchScore = IntVector.broadcast(INTS, mismatch);
+		final IntVector start = IntVector.broadcast(INTS, gapStart);
+		final IntVector extend = IntVector.broadcast(INTS, gapExtend);
+		final VectorMask<Integer> firstQuery = VectorMask.fromLong(INTS, 1L);
+
+		IntVector best = zero;
+
+		for (int j = 0; j < target.length(); j++) {
+			final IntVector character = IntVector.broadcast(INTS,
+					target.charAt(j));
+			final boolean targetGapsOpen = gapsFromEdges || j > 0;
+
+			// Diagonal for the first segment comes from the previous lane
+			IntVector h = zero.slice(lanes - 1,
+					IntVector.fromArray(INTS, current, length - lanes));
+			IntVector queryGap = negative;
+
+			final int[] swap = previous;
+			previous = current;
+			current = swap;
+
+			for (int s = 0, o = 0; s < segments; s++, o += lanes) {
+				final IntVector targetGap = IntVector.fromArray(INTS,
+						targetGaps, o);
+				final IntVector score = mismatchScore.blend(matchScore,
+						IntVector.fromArray(INTS, profile, o).eq(character));
+
+				h = h.add(score).max(targetGap).max(queryGap).max(zero);
+				best = best.max(h);
+				h.intoArray(current, o);
+
+				IntVector open = h.add(start);
+				if (targetGapsOpen) {
+					targetGap.add(extend).max(open).intoArray(targetGaps, o);
+				}
+				if (!gapsFromEdges && s == 0) {
+					open = open.blend(negative, firstQuery);
+				}
+				queryGap = queryGap.add(extend).max(open);
+
+				h = IntVector.fromArray(INTS, previous, o);
+			}
+
+			// Carry gaps in the query over into the next lane
+			queryGap = negative.slice(lanes - 1, queryGap);
+			for (int s = 0, o = 0;;) {
+				h = IntVector.fromArray(INTS, current, o);
+				IntVector open = h.add(start);
+				if (!gapsFromEdges && s == 0) {
+					open = open.blend(negative, firstQuery);
+				}
+				if (!queryGap.compare(GT, open).anyTrue()) {
+					break;
+				}
+
+				// The carried gap can not exceed the score it started from
+				final VectorMask<Integer> raised = queryGap.compare(GT, h);
+				h = h.max(queryGap);
+				h.intoArray(current, o);
+
+				open = h.add(start);
+				if (targetGapsOpen) {
+					IntVector.fromArray(INTS, targetGaps, o).max(open)
+							.intoArray(targetGaps, o);
+				}
+				// Only raised scores open new gaps, others have been opened
+				queryGap = queryGap.add(extend)
+						.max(open.blend(negative, raised.not())).max(negative);
+
+				if (++s == segments) {
+					s = 0;
+					o = 0;
+					queryGap = negative.slice(lanes - 1, queryGap);
+				} else {
+					o += lanes;
+				}
+			}
+		}
+
+		return best.reduceLanes(MAX);
+	}
+
+	/*
+	 * Returns a character that does not occur in the target. Used to pad the
+	 * query such that padding never matches.
+	 */
+	private static char absentCharacter(String target) {
+		// Non-character, rarely occurs
+		if (target.indexOf('\uFFFF') < 0) {
+			return '\uFFFF';
+		}
+		final BitSet present = new BitSet(Character.MAX_VALUE + 1);
+		for (int i = 0; i < target.length(); i++) {
+			present.set(target.charAt(i));
+		}
+		return (char) present.nextClearBit(0);
+	}
+
+}
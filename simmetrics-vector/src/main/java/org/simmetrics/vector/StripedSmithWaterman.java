@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * Simmetrics Vector
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.vector;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.SmithWaterman;
+import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
+import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Applies the Smith-Waterman algorithm to calculate the similarity between two
+ * strings. Computes the same similarity as {@link SmithWaterman} using
+ * Farrar's striped algorithm on the JDK Vector API.
+ * <p>
+ * Strings are aligned in vectors when the gap function is an
+ * {@link AffineGap}, {@link LinearGap} or {@link ConstantGap}, the window
+ * covers both strings, the substitution function is a {@link MatchMismatch}
+ * and all scores are exactly representable. Otherwise the similarity is
+ * computed by {@link SmithWaterman}.
+ * <p>
+ * This class is immutable and thread-safe if its substitution and gap functions
+ * are.
+ * 
+ * @see SmithWaterman
+ * @see StripedSmithWatermanGotoh
+ */
+public final class StripedSmithWaterman implements StringMetric {
+
+	private final Gap gap;
+	private final Substitution substitution;
+	private final int windowSize;
+
+	private final SmithWaterman scalar;
+	private final StripedAlignment alignment;
+
+	/**
+	 * Constructs a new Smith Waterman metric. Uses an affine gap of
+	 * <code>-5.0 - gapLength</code> a <code>-3.0</code> substitution penalty
+	 * for mismatches, <code>5.0</code> for matches.
+	 * 
+	 */
+	public StripedSmithWaterman() {
+		this(new AffineGap(-5.0f, -1.0f), new MatchMismatch(5.0f, -3.0f),
+				Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Constructs a new Smith Waterman metric.
+	 * 
+	 * @param gap
+	 *            a gap function to score gaps by
+	 * @param substitution
+	 *            a substitution function to score substitutions by
+	 * @param windowSize
+	 *            a non-negative window in which
+	 */
+	public StripedSmithWaterman(Gap gap, Substitution substitution,
+			int windowSize) {
+		checkNotNull(gap);
+		checkNotNull(substitution);
+		checkArgument(windowSize >= 0);
+		this.gap = gap;
+		this.substitution = substitution;
+		this.windowSize = windowSize;
+		this.scalar = new SmithWaterman(gap, substitution, windowSize);
+		this.alignment = createAlignment(gap, substitution);
+	}
+
+	private static StripedAlignment createAlignment(Gap gap,
+			Substitution substitution) {
+		if (substitution.getClass() != MatchMismatch.class) {
+			return null;
+		}
+		if (!(gap instanceof AffineGap || gap instanceof LinearGap || gap instanceof ConstantGap)) {
+			return null;
+		}
+
+		// SmithWaterman does not start gaps after the first character
+		final float gapStart = gap.value(0, 1);
+		final float gapExtend = gap.value(0, 2) - gapStart;
+		return StripedAlignment.create(substitution.max(), substitution.min(),
+				gapStart, gapExtend, false);
+	}
+
+	@Override
+	public float compare(String a, String b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		if (alignment == null
+				|| windowSize < max(a.length(), b.length())
+				|| !alignment.isExact(a.length(), b.length())) {
+			return scalar.compare(a, b);
+		}
+
+		float maxDistance = min(a.length(), b.length())
+				* max(substitution.max(), gap.min());
+		return alignment.score(a, b) / maxDistance;
+	}
+
+	@Override
+	public String toString() {
+		return "StripedSmithWaterman [gap=" + gap + ", substitution="
+				+ substitution + ", windowSize=" + windowSize + "]";
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * Simmetrics Vector
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.vector;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.SmithWatermanGotoh;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Applies the Smith-Waterman algorithm to calculate the similarity between two
+ * strings. Computes the same similarity as {@link SmithWatermanGotoh} using
+ * Farrar's striped algorithm on the JDK Vector API.
+ * <p>
+ * Strings are aligned in vectors when the substitution function is a
+ * {@link MatchMismatch} and all scores are exactly representable. Otherwise
+ * the similarity is computed by {@link SmithWatermanGotoh}.
+ * <p>
+ * This class is immutable and thread-safe if its substitution functions are.
+ * 
+ * @see SmithWatermanGotoh
+ * @see StripedSmithWaterman
+ */
+public final class StripedSmithWatermanGotoh implements StringMetric {
+
+	private static final Substitution MATCH_1_MISMATCH_MINUS_2 = new MatchMismatch(
+			1.0f, -2.0f);
+
+	private final float gapValue;
+
+	private final Substitution substitution;
+
+	private final SmithWatermanGotoh scalar;
+
+	private final StripedAlignment alignment;
+
+	/**
+	 * Constructs a new Smith Waterman metric. Gap penalty is -0.5, mismatch
+	 * penalty -2.0 and a matching score 1.0.
+	 * 
+	 */
+	public StripedSmithWatermanGotoh() {
+		this(-0.5f, MATCH_1_MISMATCH_MINUS_2);
+	}
+
+	/**
+	 * Constructs a new Smith Waterman metric.
+	 * 
+	 * @param gapValue
+	 *            a non-positive gap penalty
+	 * @param substitution
+	 *            a substitution function
+	 */
+	public StripedSmithWatermanGotoh(float gapValue, Substitution substitution) {
+		checkArgument(gapValue <= 0.0f);
+		checkNotNull(substitution);
+		this.gapValue = gapValue;
+		this.substitution = substitution;
+		this.scalar = new SmithWatermanGotoh(gapValue, substitution);
+		this.alignment = substitution.getClass() == MatchMismatch.class ? StripedAlignment
+				.create(substitution.max(), substitution.min(), gapValue,
+						gapValue, true) : null;
+	}
+
+	@Override
+	public float compare(final String a, final String b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		if (alignment == null || !alignment.isExact(a.length(), b.length())) {
+			return scalar.compare(a, b);
+		}
+
+		float maxDistance = min(a.length(), b.length())
+				* max(substitution.max(), gapValue);
+		return alignment.score(a, b) / maxDistance;
+	}
+
+	@Override
+	public String toString() {
+		return "StripedSmithWatermanGotoh [substitution=" + substitution
+				+ ", gapValue=" + gapValue + "]";
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * Simmetrics Vector
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.vector;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.SmithWatermanGotoh;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings("javadoc")
+public class StripedSmithWatermanGotohTest {
+
+	private static final String[] ALPHABETS = { "ab", "abcd",
+			"abcdefghijklmnopqrstuvwxyz", "\uFFFFab" };
+
+	static String random(Random random, int length, String alphabet) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return builder.toString();
+	}
+
+	static void assertSameSimilarity(StringMetric expected, StringMetric actual, int maxLength) {
+		Random random = new Random(13);
+		for (int i = 0; i < 500; i++) {
+			String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+			String a = random(random, random.nextInt(maxLength), alphabet);
+			String b = random(random, random.nextInt(maxLength), alphabet);
+			if (random.nextBoolean()) {
+				b = a.substring(random.nextInt(a.length() + 1)) + b;
+			}
+			assertEquals(actual + " " + a + " " + b, expected.compare(a, b), actual.compare(a, b), 0.0f);
+		}
+	}
+
+	@Test
+	public void defaults() {
+		assertSameSimilarity(new SmithWatermanGotoh(), new StripedSmithWatermanGotoh(), 200);
+	}
+
+	@Test
+	public void integerScores() {
+		Substitution substitution = new MatchMismatch(2.0f, -1.0f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-1.0f, substitution), 
+				new StripedSmithWatermanGotoh(-1.0f, substitution), 200);
+	}
+
+	@Test
+	public void zeroGap() {
+		Substitution substitution = new MatchMismatch(1.0f, 0.0f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(0.0f, substitution), 
+				new StripedSmithWatermanGotoh(0.0f, substitution), 100);
+	}
+
+	@Test
+	public void overflowsShorts() {
+		Substitution substitution = new MatchMismatch(4000.0f, -3000.0f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-2000.0f, substitution), 
+				new StripedSmithWatermanGotoh(-2000.0f, substitution), 100);
+	}
+
+	@Test
+	public void exceedsShorts() {
+		Substitution substitution = new MatchMismatch(10000.0f, -3.0f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-2.0f, substitution), 
+				new StripedSmithWatermanGotoh(-2.0f, substitution), 100);
+	}
+
+	@Test
+	public void nonIntegerScores() {
+		Substitution substitution = new MatchMismatch(1.0f, -0.3f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-0.7f, substitution), 
+				new StripedSmithWatermanGotoh(-0.7f, substitution), 100);
+	}
+
+	@Test
+	public void positiveMismatch() {
+		Substitution substitution = new MatchMismatch(2.0f, 1.0f);
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-1.0f, substitution), 
+				new StripedSmithWatermanGotoh(-1.0f, substitution), 100);
+	}
+
+	@Test
+	public void otherSubstitution() {
+		Substitution substitution = new MatchMismatch(1.0f, -2.0f) {
+			@Override
+			public float compare(String a, int aIndex, String b, int bIndex) {
+				return Character.toLowerCase(a.charAt(aIndex)) == Character.toLowerCase(b.charAt(bIndex)) ? 1.0f : -2.0f;
+			}
+		};
+		assertSameSimilarity(
+				new SmithWatermanGotoh(-0.5f, substitution), 
+				new StripedSmithWatermanGotoh(-0.5f, substitution), 100);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * Simmetrics Vector
+ * %%
+ * Copyright (C) 2014 - 2018 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.vector;
+
+import org.junit.Test;
+import org.simmetrics.metrics.SmithWaterman;
+import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
+import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings("javadoc")
+public class StripedSmithWatermanTest {
+
+	private static void assertSameSimilarity(Gap gap, Substitution substitution, int windowSize) {
+		StripedSmithWatermanGotohTest.assertSameSimilarity(
+				new SmithWaterman(gap, substitution, windowSize),
+				new StripedSmithWaterman(gap, substitution, windowSize), 100);
+	}
+
+	@Test
+	public void defaults() {
+		StripedSmithWatermanGotohTest.assertSameSimilarity(
+				new SmithWaterman(), new StripedSmithWaterman(), 200);
+	}
+
+	@Test
+	public void affineGap() {
+		assertSameSimilarity(new AffineGap(-1.5f, -0.5f), new MatchMismatch(2.0f, -1.0f), Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void affineGapCheaperToStart() {
+		assertSameSimilarity(new AffineGap(-1.0f, -3.0f), new MatchMismatch(2.0f, -1.0f), Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void linearGap() {
+		assertSameSimilarity(new LinearGap(-1.0f), new MatchMismatch(1.0f, -1.0f), Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void constantGap() {
+		assertSameSimilarity(new ConstantGap(-2.0f), new MatchMismatch(1.0f, -1.0f), Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void overflowsShorts() {
+		assertSameSimilarity(new AffineGap(-5000.0f, -1000.0f), new MatchMismatch(5000.0f, -3000.0f), Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void narrowWindow() {
+		assertSameSimilarity(new AffineGap(-5.0f, -1.0f), new MatchMismatch(5.0f, -3.0f), 10);
+	}
+
+}